@@ -4,9 +4,11 @@ import model.IModel;
 import model.core.Room;
 import model.elements.Fixture;
 import model.elements.Item;
-import model.obstacle.GameObstacle;
-import model.obstacle.Monster;
-import model.obstacle.Puzzle;
+import model.rules.Effect;
+import model.rules.Resolution;
+import model.rules.Trigger;
+import utils.metrics.LatencyHistogram;
+import utils.metrics.Metrics;
 
 import java.util.List;
 
@@ -16,6 +18,10 @@ import java.util.List;
  * It now depends on the IModel interface for better abstraction.
  */
 public abstract class AbstractController {
+  private static final LatencyHistogram USE_TIME = Metrics.timer("controller.use");
+  private static final LatencyHistogram EXAMINE_TIME = Metrics.timer("controller.examine");
+  private static final LatencyHistogram ANSWER_TIME = Metrics.timer("controller.answer");
+
   protected final IModel model;
 
   /**
@@ -34,38 +40,31 @@ public abstract class AbstractController {
    * @return message describing what happened
    */
   public String handleUse(String itemName) {
+    long start = System.nanoTime();
+    try {
+      return doUse(itemName);
+    } finally {
+      USE_TIME.recordSince(start);
+    }
+  }
+
+  private String doUse(String itemName) {
     if (itemName == null || itemName.isEmpty()) {
       return "Use what?";
     }
 
-    Room currentRoom = model.getCurrentRoom();
-    GameObstacle obstacle = currentRoom.getObstacle();
-
-    // Use against monster
-    if (obstacle instanceof Monster monster && monster.isActive()
-            && monster.isDefeatedByItem(itemName)) {
-      monster.deactivate();
-      model.getPlayer().updateScore(monster.getValue());
-      unblockRoomExits(currentRoom);
-
-      String effect = model.useItem(itemName);
-      return "You used " + itemName + " and defeated the monster!\n" + effect;
+    // Use against the room's obstacle, if one of its rules responds to this item
+    Resolution outcome = model.resolve(Trigger.USE, itemName);
+    if (outcome == null) {
+      return model.useItem(itemName);
     }
 
-    // Use to solve puzzle
-    if (obstacle instanceof Puzzle puzzle && puzzle.isActive()
-            && puzzle.isSolved(itemName)) {
-      puzzle.deactivate();
-      model.getPlayer().updateScore(puzzle.getValue());
-      unblockRoomExits(currentRoom);
-
-
+    String message = outcome.rule().messageFor(itemName);
+    if (outcome.rule().has(Effect.CONSUME)) {
       String effect = model.useItem(itemName);
-      return "You used " + itemName + " and solved the puzzle!\n" + effect;
+      return message.isEmpty() ? effect : message + "\n" + effect;
     }
-
-    // fallback
-    return model.useItem(itemName);
+    return message;
   }
 
   /**
@@ -75,6 +74,15 @@ public abstract class AbstractController {
    * @return description or feedback string
    */
   public String handleExamine(String name) {
+    long start = System.nanoTime();
+    try {
+      return doExamine(name);
+    } finally {
+      EXAMINE_TIME.recordSince(start);
+    }
+  }
+
+  private String doExamine(String name) {
     if (name == null || name.isEmpty()) {
       return "Examine what?";
     }
@@ -100,19 +108,37 @@ public abstract class AbstractController {
    * @return result message
    */
   public String handleAnswer(String answer) {
+    long start = System.nanoTime();
+    try {
+      return doAnswer(answer);
+    } finally {
+      ANSWER_TIME.recordSince(start);
+    }
+  }
+
+  private String doAnswer(String answer) {
     if (answer == null || answer.isEmpty()) {
       return "Answer what?";
     }
 
     boolean solved = model.answerPuzzle(answer);
     if (solved) {
-      unblockRoomExits(model.getCurrentRoom());
       return "Puzzle solved!";
     }
 
     return "That didn't work.";
   }
 
+  /**
+   * Lets the obstacle in the current room act on the player at the end of a turn
+   * (e.g. a monster strikes).
+   *
+   * @return what happened, or null if nothing acted
+   */
+  public Resolution encounter() {
+    return model.resolve(Trigger.ENCOUNTER, null);
+  }
+
   /**
    * Return a formatted list of the player's current inventory.
    *
@@ -132,21 +158,6 @@ public abstract class AbstractController {
     return sb.toString();
   }
 
-  /**
-   * Helper method to unblock negative exits in the current room.
-   * This is used after solving puzzles or defeating monsters.
-   *
-   * @param room the current room
-   */
-  private void unblockRoomExits(Room room) {
-    for (String dir : List.of("N", "S", "E", "W")) {
-      int exit = room.getExit(dir);
-      if (exit < 0) {
-        room.setExit(dir, -exit);
-      }
-    }
-  }
-
   /**
    * Get the current room.
    *
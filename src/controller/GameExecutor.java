@@ -0,0 +1,92 @@
+package controller;
+
+import utils.metrics.LatencyHistogram;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The single game thread that owns the model in graphics mode.
+ * Swing callbacks enqueue commands here, so model logic and file I/O never block the
+ * Event Dispatch Thread; commands run one at a time in the order they were submitted.
+ * Results go back to the EDT through {@link #onUi(Runnable)}.
+ */
+public class GameExecutor {
+
+  private final ExecutorService thread;
+  private volatile Thread gameThread;
+
+  /**
+   * Starts the game thread.
+   */
+  public GameExecutor() {
+    this.thread = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "game-thread");
+      t.setDaemon(true);
+      gameThread = t;
+      return t;
+    });
+  }
+
+  /**
+   * Queues a command for the game thread. A failing command is reported and does not
+   * stop later ones.
+   *
+   * @param command the command
+   */
+  public void execute(Runnable command) {
+    thread.execute(() -> {
+      try {
+        command.run();
+      } catch (RuntimeException e) {
+        System.err.println("Game command failed: " + e);
+        e.printStackTrace();
+      }
+    });
+  }
+
+  /**
+   * Queues a command for the game thread and records how long it ran (not how long it
+   * waited in the queue).
+   *
+   * @param timer   where to record the run time
+   * @param command the command
+   */
+  public void execute(LatencyHistogram timer, Runnable command) {
+    execute(() -> {
+      long start = System.nanoTime();
+      try {
+        command.run();
+      } finally {
+        timer.recordSince(start);
+      }
+    });
+  }
+
+  /**
+   * Queues view work for the Event Dispatch Thread. Updates posted from the game thread
+   * run in the order they were posted.
+   *
+   * @param update the view update
+   */
+  public static void onUi(Runnable update) {
+    SwingUtilities.invokeLater(update);
+  }
+
+  /**
+   * Returns true if the caller is the game thread.
+   *
+   * @return true on the game thread
+   */
+  public boolean isGameThread() {
+    return Thread.currentThread() == gameThread;
+  }
+
+  /**
+   * Stops accepting commands; queued ones still run.
+   */
+  public void shutdown() {
+    thread.shutdown();
+  }
+}
@@ -4,21 +4,49 @@ import model.IModel;
 import model.core.Room;
 import model.elements.Fixture;
 import model.elements.Item;
+import model.events.ModelEvent;
 import model.obstacle.GameObstacle;
-import model.obstacle.Monster;
+import model.rules.Effect;
+import model.rules.Resolution;
+import utils.fileutil.PathUtils;
+import utils.metrics.LatencyHistogram;
+import utils.metrics.Metrics;
 import view.Features;
 import view.SwingView;
+import view.image.ImageCache;
+import view.image.ImagePrefetcher;
 
 import javax.swing.*;
 import java.util.List;
 
 /**
  * SwingController implements Features for handling GUI interactions.
+ * Every action runs on the game thread ({@link GameExecutor}); anything that touches
+ * Swing is handed back to the Event Dispatch Thread with {@link GameExecutor#onUi}.
  */
 public class SwingController extends AbstractController implements Features {
+  private static final LatencyHistogram MOVE_TIME = Metrics.timer("swing.move");
+  private static final LatencyHistogram TAKE_TIME = Metrics.timer("swing.take");
+  private static final LatencyHistogram DROP_TIME = Metrics.timer("swing.drop");
+  private static final LatencyHistogram USE_TIME = Metrics.timer("swing.use");
+  private static final LatencyHistogram EXAMINE_TIME = Metrics.timer("swing.examine");
+  private static final LatencyHistogram ANSWER_TIME = Metrics.timer("swing.answer");
+  private static final LatencyHistogram LOOK_TIME = Metrics.timer("swing.look");
+  private static final LatencyHistogram INVENTORY_TIME = Metrics.timer("swing.inventory");
+  private static final LatencyHistogram SAVE_TIME = Metrics.timer("swing.save");
+  private static final LatencyHistogram RESTORE_TIME = Metrics.timer("swing.restore");
+  private static final LatencyHistogram QUIT_TIME = Metrics.timer("swing.quit");
+  private static final LatencyHistogram UNDO_TIME = Metrics.timer("swing.undo");
+  private static final LatencyHistogram REDO_TIME = Metrics.timer("swing.redo");
+
 
   private final IModel model;
   private final SwingView view;
+  private final GameExecutor game = new GameExecutor();
+  // Room whose picture is on screen; a refresh of the same room keeps the image
+  private volatile Room renderedRoom;
+  private final ImagePrefetcher prefetcher =
+          new ImagePrefetcher(ImageCache.shared(), SwingView::roomImageKey, 1);
 
   /**
    * Constructs a swing controller
@@ -30,24 +58,89 @@ public class SwingController extends AbstractController implements Features {
     this.model = model;
     this.view = view;
     this.view.addFeatures(this);
-    updateUI();
+    model.subscribe(this::refresh);
+    game.execute(this::updateUI);
   }
 
   /**
-   * Updates the view with current room, inventory, and status.
+   * Ends the current player action: the model commits it (an undo step) and
+   * delivers its change events, which {@link #refresh} turns into one view update.
    */
   private void updateUI() {
+    model.commitTurn();
+  }
+
+  /**
+   * Redraws only the sections named by one command's coalesced model events.
+   * Runs on the game thread: the model is read here and only finished text goes to the EDT.
+   *
+   * @param batch the events of one command
+   */
+  private void refresh(List<ModelEvent> batch) {
     Room room = model.getCurrentRoom();
-    view.renderRoom(room);
-    List<Item> items = model.getInventory();
-    String[] names = items.stream().map(Item::getName).toArray(String[]::new);
-    view.updateInventory(names);
-    view.updateStatusBar(
-            model.getHealthStatus().toString(),
-            (int) model.getHealth(),
-            model.getPlayerRank().toString(),
-            (int) model.getScore()
-    );
+    boolean roomStale = false;
+    boolean inventoryStale = false;
+    boolean statusStale = false;
+    for (ModelEvent event : batch) {
+      if (event instanceof ModelEvent.RoomChanged r) {
+        roomStale |= r.room() == room.getRoomNumber();
+      } else if (event instanceof ModelEvent.ObstacleChanged o) {
+        roomStale |= o.room() == room.getRoomNumber();
+      } else if (event instanceof ModelEvent.InventoryChanged) {
+        inventoryStale = true;
+      } else if (event instanceof ModelEvent.StatusChanged) {
+        statusStale = true;
+      }
+    }
+
+    boolean entered = room != renderedRoom;
+    String roomText = entered || roomStale ? SwingView.describeRoom(room) : null;
+    String picture = room.getPicture();
+    if (entered) {
+      renderedRoom = room;
+      prefetcher.prefetchNeighbors(room, model::getRoom); // next move finds its picture decoded
+    }
+    String[] names = inventoryStale
+            ? model.getInventory().stream().map(Item::getName).toArray(String[]::new) : null;
+    String health = model.getHealthStatus().toString();
+    int healthPoints = (int) model.getHealth();
+    String rank = model.getPlayerRank().toString();
+    int score = (int) model.getScore();
+    boolean showStatus = statusStale;
+
+    GameExecutor.onUi(() -> {
+      if (roomText != null) {
+        view.showRoomText(roomText);
+      }
+      if (entered) {
+        view.renderRoomImage(picture);
+      }
+      if (names != null) {
+        view.updateInventory(names);
+      }
+      if (showStatus) {
+        view.updateStatusBar(health, healthPoints, rank, score);
+      }
+      for (ModelEvent event : batch) {
+        if (event instanceof ModelEvent.Message m) {
+          view.showMessage(m.text());
+        }
+      }
+    });
+  }
+
+  /**
+   * Shows a message on the EDT.
+   */
+  private void say(String message) {
+    GameExecutor.onUi(() -> view.showMessage(message));
+  }
+
+  /**
+   * Shows an information dialog on the EDT.
+   */
+  private void dialog(String message, String title, int type) {
+    GameExecutor.onUi(() -> JOptionPane.showMessageDialog(view, message, title, type));
   }
 
   /**
@@ -55,9 +148,9 @@ public class SwingController extends AbstractController implements Features {
    *
    * @return the current Room
    */
-  // This method is needed by SwingView to fetch the current room
+  // This method is needed by SwingView to fetch the current room (the one on screen)
   public Room getCurrentRoom() {
-    return model.getCurrentRoom();
+    return renderedRoom != null ? renderedRoom : model.getCurrentRoom();
   }
 
   /**
@@ -87,30 +180,35 @@ public class SwingController extends AbstractController implements Features {
    */
   @Override
   public void move(String dir) {
-    boolean moved = model.movePlayer(dir);
-    if (moved) {
-      Room current = model.getCurrentRoom();
-      GameObstacle obs = current.getObstacle();
-
-      if (obs instanceof Monster m && m.isActive() && m.canAttack()) {
-        String fullMsg = m.getEffects() + "\n\n" + m.getAttackMessage();
-        JOptionPane.showMessageDialog(null, fullMsg, m.getName(), JOptionPane.WARNING_MESSAGE);
-        m.attack(model.getPlayer());
-        view.showMessage(m.getAttackMessage());
-        view.showMessage("Player takes -" + m.getDamage() + " damage.");
+    game.execute(MOVE_TIME, () -> {
+      boolean moved = model.movePlayer(dir);
+      if (!moved) {
+        say("You can't move that way.");
+        return;
+      }
+      GameObstacle obs = model.getCurrentRoom().getObstacle();
+      Resolution hit = encounter();
+
+      if (hit != null) {
+        String fullMsg = obs.getEffects() + "\n\n" + hit.rule().message();
+        dialog(fullMsg, obs.getName(), JOptionPane.WARNING_MESSAGE);
+        say(hit.rule().message());
+        if (hit.rule().has(Effect.DAMAGE)) {
+          say("Player takes -" + hit.rule().damage() + " damage.");
+        }
 
         if (model.getHealth() <= 0) {
-          view.showMessage("You have fallen asleep. Game Over.");
-          view.showGameOver(model.getHealthStatus().toString(), model.getPlayerRank().toString());
+          String health = model.getHealthStatus().toString();
+          String rank = model.getPlayerRank().toString();
+          say("You have fallen asleep. Game Over.");
+          GameExecutor.onUi(() -> view.showGameOver(health, rank));
           return;
         }
       }
 
-      view.showMessage("You move " + getDirectionName(dir) + ".");
+      model.postMessage("You move " + getDirectionName(dir) + ".");
       updateUI();
-    } else {
-      view.showMessage("You can't move that way.");
-    }
+    });
   }
 
   /**
@@ -135,9 +233,11 @@ public class SwingController extends AbstractController implements Features {
    * @param itemName the item name
    */
   @Override public void takeItem(String itemName) {
-    boolean success = model.pickItem(itemName);
-    view.showMessage(success ? "You picked up: " + itemName : "You can't take that.");
-    updateUI();
+    game.execute(TAKE_TIME, () -> {
+      boolean success = model.pickItem(itemName);
+      model.postMessage(success ? "You picked up: " + itemName : "You can't take that.");
+      updateUI();
+    });
   }
 
   /**
@@ -146,9 +246,11 @@ public class SwingController extends AbstractController implements Features {
    * @param itemName the item name
    */
   @Override public void dropItem(String itemName) {
-    boolean success = model.dropItem(itemName);
-    view.showMessage(success ? "You dropped: " + itemName : "You don't have that item.");
-    updateUI();
+    game.execute(DROP_TIME, () -> {
+      boolean success = model.dropItem(itemName);
+      model.postMessage(success ? "You dropped: " + itemName : "You don't have that item.");
+      updateUI();
+    });
   }
 
   /**
@@ -157,12 +259,11 @@ public class SwingController extends AbstractController implements Features {
    * @param itemName the item name
    */
   @Override public void useItem(String itemName) {
-    String result = handleUse(itemName);
-    JOptionPane.showMessageDialog(null, result, "" +
-            "" +
-            "" +
-            " Item", JOptionPane.INFORMATION_MESSAGE);
-    updateUI();
+    game.execute(USE_TIME, () -> {
+      String result = handleUse(itemName);
+      dialog(result, " Item", JOptionPane.INFORMATION_MESSAGE);
+      updateUI();
+    });
   }
 
   /**
@@ -171,41 +272,38 @@ public class SwingController extends AbstractController implements Features {
    * @param name name of the object to examine
    */
   @Override public void examine(String name) {
-    Room room = model.getCurrentRoom();
+    game.execute(EXAMINE_TIME, () -> {
+      Room room = model.getCurrentRoom();
 
-    for (Item i : model.getInventory()) {
-      if (i.getName().equalsIgnoreCase(name)) {
-        JOptionPane.showMessageDialog(view, i.getDescription(),
-                "Examining: " + i.getName(), JOptionPane.INFORMATION_MESSAGE);
-        return;
+      for (Item i : model.getInventory()) {
+        if (i.getName().equalsIgnoreCase(name)) {
+          dialog(i.getDescription(), "Examining: " + i.getName(), JOptionPane.INFORMATION_MESSAGE);
+          return;
+        }
       }
-    }
 
-    Item item = room.getItem(name);
-    if (item != null) {
-      JOptionPane.showMessageDialog(view, item.getDescription(),
-              "Examining: " + item.getName(), JOptionPane.INFORMATION_MESSAGE);
-      return;
-    }
+      Item item = room.getItem(name);
+      if (item != null) {
+        dialog(item.getDescription(), "Examining: " + item.getName(), JOptionPane.INFORMATION_MESSAGE);
+        return;
+      }
 
-    Fixture fixture = room.getFixture(name);
-    if (fixture != null) {
-      view.showPopupWithImage(fixture.getName());
-      JOptionPane.showMessageDialog(view, fixture.getDescription(),
-              "Examining: " + fixture.getName(), JOptionPane.INFORMATION_MESSAGE);
-      return;
-    }
+      Fixture fixture = room.getFixture(name);
+      if (fixture != null) {
+        String fixtureName = fixture.getName();
+        GameExecutor.onUi(() -> view.showPopupWithImage(fixtureName));
+        dialog(fixture.getDescription(), "Examining: " + fixtureName, JOptionPane.INFORMATION_MESSAGE);
+        return;
+      }
 
-    GameObstacle obs = room.getObstacle();
-    if (obs != null && obs.getName().equalsIgnoreCase(name)) {
-      JOptionPane.showMessageDialog(view,
-              obs.getCurrentDescription(),
-              "Examining: " + obs.getName(),
-              JOptionPane.INFORMATION_MESSAGE);
-      return;
-    }
+      GameObstacle obs = room.getObstacle();
+      if (obs != null && obs.getName().equalsIgnoreCase(name)) {
+        dialog(obs.getCurrentDescription(), "Examining: " + obs.getName(), JOptionPane.INFORMATION_MESSAGE);
+        return;
+      }
 
-    view.showMessage("You see nothing interesting about that.");
+      say("You see nothing interesting about that.");
+    });
   }
 
   /**
@@ -214,66 +312,87 @@ public class SwingController extends AbstractController implements Features {
    * @param answer user's answer
    */
   @Override public void answer(String answer) {
-    boolean correct = model.answerPuzzle(answer);
-    String result = correct ? "Puzzle solved!" : "That didn't work.";
-    JOptionPane.showMessageDialog(null, result, "Answer Result", JOptionPane.INFORMATION_MESSAGE);
-    updateUI();
+    game.execute(ANSWER_TIME, () -> {
+      boolean correct = model.answerPuzzle(answer);
+      String result = correct ? "Puzzle solved!" : "That didn't work.";
+      dialog(result, "Answer Result", JOptionPane.INFORMATION_MESSAGE);
+      updateUI();
+    });
   }
 
   /**
    * Re-renders the current room.
    */
   @Override public void look() {
-    view.renderRoom(model.getCurrentRoom());
+    game.execute(LOOK_TIME, () -> {
+      Room room = model.getCurrentRoom();
+      String text = SwingView.describeRoom(room);
+      String picture = room.getPicture();
+      GameExecutor.onUi(() -> {
+        view.showRoomText(text);
+        view.renderRoomImage(picture);
+      });
+    });
   }
 
   /**
    * Displays the player’s current inventory.
    */
   @Override public void showInventory() {
-    String[] items = model.getInventory().stream().map(Item::getName).toArray(String[]::new);
-    view.showInventory(items);
+    game.execute(INVENTORY_TIME, () -> {
+      String[] items = model.getInventory().stream().map(Item::getName).toArray(String[]::new);
+      GameExecutor.onUi(() -> view.showInventory(items));
+    });
   }
 
   /**
-   * Prompts for a save file name and saves game state.
+   * Prompts for a save file name (on the EDT) and saves game state on the game thread.
    */
   @Override public void saveGame() {
     String name = view.promptForSaveFile();
     if (name != null && !name.isBlank()) {
-      boolean success = model.saveGame("resources/saves/" + name + ".json");
-      view.showMessage(success ? "Game saved." : "Save failed.");
-      showPlayerSummary("Game Saved");
+      game.execute(SAVE_TIME, () -> {
+        boolean success = model.saveGame(PathUtils.getSavePath(name));
+        say(success ? "Game saved." : "Save failed.");
+        showPlayerSummary("Game Saved");
+      });
     }
   }
 
   /**
-   * Prompts for a saved file and loads game state.
+   * Prompts for a saved file (on the EDT) and loads game state on the game thread.
    */
   @Override public void restoreGame() {
     String filePath = view.promptForRestoreFile();
     if (filePath != null) {
-      boolean ok = model.loadGame(filePath);
-      if (ok) {
-        view.showMessage("Game restored.");
-        updateUI();
-        showPlayerSummary("Game Restored");
-      } else {
-        view.showMessage("Restore failed.");
-      }
+      game.execute(RESTORE_TIME, () -> {
+        boolean ok = model.loadGame(filePath);
+        if (ok) {
+          model.postMessage("Game restored.");
+          updateUI();
+          showPlayerSummary("Game Restored");
+        } else {
+          say("Restore failed.");
+        }
+      });
     }
   }
 
   /**
    * Quits the game with a confirmation and shows summary.
+   * Queued behind any running command, so the summary reflects every action taken.
    */
   @Override public void quitGame() {
     if (view.promptYesNo("Quit the game?")) {
-      String health = model.getHealthStatus().toString();
-      String rank = model.getPlayerRank().toString();
-      String summary = String.format("Thanks for playing!\nFinal Health: %s\nFinal Rank: %s", health, rank);
-      JOptionPane.showMessageDialog(null, summary, "Game Summary", JOptionPane.INFORMATION_MESSAGE);
-      System.exit(0);
+      game.execute(QUIT_TIME, () -> {
+        String health = model.getHealthStatus().toString();
+        String rank = model.getPlayerRank().toString();
+        String summary = String.format("Thanks for playing!\nFinal Health: %s\nFinal Rank: %s", health, rank);
+        GameExecutor.onUi(() -> {
+          JOptionPane.showMessageDialog(null, summary, "Game Summary", JOptionPane.INFORMATION_MESSAGE);
+          System.exit(0);
+        });
+      });
     }
   }
 
@@ -286,7 +405,27 @@ public class SwingController extends AbstractController implements Features {
     String health = model.getHealthStatus().toString();
     String rank = model.getPlayerRank().toString();
     String summary = String.format("Current Health: %s\nCurrent Rank: %s", health, rank);
-    JOptionPane.showMessageDialog(null, summary, title, JOptionPane.INFORMATION_MESSAGE);
+    dialog(summary, title, JOptionPane.INFORMATION_MESSAGE);
+  }
+
+  /**
+   * Undoes the last action.
+   */
+  @Override public void undo() {
+    game.execute(UNDO_TIME, () -> {
+      model.postMessage(model.undo() ? "Undid last action." : "Nothing to undo.");
+      updateUI();
+    });
+  }
+
+  /**
+   * Redoes the last undone action.
+   */
+  @Override public void redo() {
+    game.execute(REDO_TIME, () -> {
+      model.postMessage(model.redo() ? "Redid action." : "Nothing to redo.");
+      updateUI();
+    });
   }
 
   /**
@@ -1,24 +1,46 @@
 package controller;
 
+import controller.command.CommandHandler;
+import controller.command.CommandParser;
+import controller.command.CommandResult;
+import controller.command.ParsedCommand;
+import controller.command.Pipeline;
+import controller.command.Verb;
 import model.IModel;
 import model.core.Room;
-import model.obstacle.GameObstacle;
-import model.obstacle.Monster;
+import model.events.ModelEvent;
+import model.rules.Effect;
+import model.rules.Resolution;
 import view.View;
 import utils.fileutil.PathUtils;
+import utils.metrics.Counter;
+import utils.metrics.LatencyHistogram;
+import utils.metrics.Metrics;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * Handles text-based gameplay using the shared model and view interfaces.
  */
 public class TextController extends AbstractController {
+  private static final Map<Verb, LatencyHistogram> COMMAND_TIME = commandTimers();
+  private static final Counter FAILED_COMMANDS = Metrics.counter("command.failed");
+
   private final View view;
   private final Scanner scanner;
-
-  private static final String SAVE_KEY = "SAVE";
-  private static final String QUIT_KEY = "Q";
+  private final CommandParser parser = new CommandParser();
+  private final Map<Verb, CommandHandler> handlers = new EnumMap<>(Verb.class);
+  private Consumer<String> inputListener;
+  private final Pipeline pipeline = new Pipeline();
+  private boolean timeTravel; // monsters don't strike again right after UNDO/REDO
+  private boolean pipelined;  // running a pipeline: one render at its end
+  private boolean savingDisabled;
 
   /**
    * Constructs a GameController for text-based gameplay.
@@ -31,6 +53,86 @@ public class TextController extends AbstractController {
     super(model);
     this.view = view;
     this.scanner = new Scanner(inputSource);
+    registerHandlers();
+    model.subscribe(this::showMessages);
+  }
+
+  /**
+   * Shows the model's messages: player notices (e.g. an exit opening) as they happen,
+   * posted messages with the turn's batch.
+   *
+   * @param batch the model events
+   */
+  private void showMessages(List<ModelEvent> batch) {
+    for (ModelEvent event : batch) {
+      if (event instanceof ModelEvent.Message m) {
+        view.showMessage(m.text());
+      }
+    }
+  }
+
+  /**
+   * Turns SAVE off, for sessions whose player must not choose where files are written
+   * on this machine (network clients).
+   */
+  public void disableSaving() {
+    savingDisabled = true;
+  }
+
+  /**
+   * Builds the verb dispatch table.
+   */
+  private void registerHandlers() {
+    CommandHandler move = c -> move(c.verb().key()) ? CommandResult.OK : CommandResult.FAILED;
+    handlers.put(Verb.NORTH, move);
+    handlers.put(Verb.SOUTH, move);
+    handlers.put(Verb.EAST, move);
+    handlers.put(Verb.WEST, move);
+    handlers.put(Verb.TAKE, c -> takeItem(c.arg()) ? CommandResult.OK : CommandResult.FAILED);
+    handlers.put(Verb.DROP, c -> dropItem(c.arg()) ? CommandResult.OK : CommandResult.FAILED);
+    handlers.put(Verb.USE, c -> changesPlayer(() -> useItem(c.arg())));
+    handlers.put(Verb.INVENTORY, c -> {
+      view.showMessage(showInventoryString());
+      return CommandResult.OK;
+    });
+    handlers.put(Verb.EXAMINE, c -> {
+      view.showMessage(handleExamine(c.arg()));
+      return c.arg() == null ? CommandResult.FAILED : CommandResult.OK;
+    });
+    handlers.put(Verb.ANSWER, c -> changesPlayer(() -> view.showMessage(handleAnswer(c.arg()))));
+    handlers.put(Verb.LOOK, c -> {
+      view.invalidate();
+      view.renderGame(model.getPlayer(), model.getCurrentRoom());
+      return CommandResult.OK;
+    });
+    handlers.put(Verb.SAVE, c -> saveGame() ? CommandResult.OK : CommandResult.FAILED);
+    handlers.put(Verb.UNDO, c -> {
+      boolean undone = model.undo();
+      view.showMessage(undone ? "Undid last command." : "Nothing to undo.");
+      return undone ? CommandResult.OK : CommandResult.FAILED;
+    });
+    handlers.put(Verb.REDO, c -> {
+      boolean redone = model.redo();
+      view.showMessage(redone ? "Redid command." : "Nothing to redo.");
+      return redone ? CommandResult.OK : CommandResult.FAILED;
+    });
+    handlers.put(Verb.QUIT, c -> {
+      view.showMessage("Quitting. Thanks for playing!");
+      return CommandResult.QUIT;
+    });
+    handlers.put(Verb.UNKNOWN, c -> {
+      view.showMessage("Unknown command: " + c.verbText());
+      return CommandResult.FAILED;
+    });
+  }
+
+  /**
+   * Runs an action and reports whether it changed the player (an item used, a puzzle solved).
+   */
+  private CommandResult changesPlayer(Runnable action) {
+    int before = model.getPlayer().getVersion();
+    action.run();
+    return model.getPlayer().getVersion() != before ? CommandResult.OK : CommandResult.FAILED;
   }
 
   /**
@@ -44,56 +146,162 @@ public class TextController extends AbstractController {
    * Main gameplay loop, handles commands and updates game state.
    */
   private void gameLoop() {
-    while (true) {
-      Room current = model.getCurrentRoom();
-      view.renderGame(model.getPlayer(), current);
-      view.showMessage("Health: " + model.getHealthStatus());
-
-      if (!model.getPlayer().isAlive()) {
-        view.showMessage("You have fallen. Game Over.");
-        break;
+    while (step()) {
+      // each step is one full turn
+    }
+  }
+
+  /**
+   * Plays one turn: renders, lets monsters act, prompts, then reads and runs one command
+   * (or one pipeline of commands).
+   *
+   * @return false once the game is over (player fell, quit, or input ended)
+   */
+  public boolean step() {
+    Room current = model.getCurrentRoom();
+    view.renderGame(model.getPlayer(), current);
+    view.showMessage("Health: " + model.getHealthStatus());
+
+    if (!model.getPlayer().isAlive()) {
+      view.showMessage("You have fallen. Game Over.");
+      return false;
+    }
+    endTurn();
+
+    view.showMessage("Enter command (N/S/E/W, T, D, U, I, X, A, LOOK, SAVE, UNDO, REDO, Q):");
+    view.flush();
+    String line = readLine();
+    if (line == null) return false;
+
+    if (Pipeline.isPipeline(line)) {
+      return runPipeline(line);
+    }
+    ParsedCommand command = parser.parse(line);
+    if (dispatch(command) == CommandResult.QUIT) {
+      return false;
+    }
+    timeTravel = command.verb() == Verb.UNDO || command.verb() == Verb.REDO;
+    return true;
+  }
+
+  /**
+   * Runs one parsed command through its handler, timing it per verb.
+   */
+  private CommandResult dispatch(ParsedCommand command) {
+    long start = System.nanoTime();
+    CommandResult result = handlers.get(command.verb()).handle(command);
+    COMMAND_TIME.get(command.verb()).recordSince(start);
+    if (result == CommandResult.FAILED) {
+      FAILED_COMMANDS.increment();
+    }
+    return result;
+  }
+
+  private static Map<Verb, LatencyHistogram> commandTimers() {
+    Map<Verb, LatencyHistogram> timers = new EnumMap<>(Verb.class);
+    for (Verb verb : Verb.values()) {
+      timers.put(verb, Metrics.timer("command." + verb.name().toLowerCase()));
+    }
+    return timers;
+  }
+
+  /**
+   * Closes the turn of the last command: a monster in the room strikes, then the state
+   * becomes one undo step. A turn is the last command plus the encounter it led to.
+   */
+  private void endTurn() {
+    Resolution hit = timeTravel ? null : encounter();
+    if (hit != null) {
+      view.showMessage(hit.rule().message());
+      if (hit.rule().has(Effect.DAMAGE)) {
+        view.showMessage("You take -" + hit.rule().damage() + " damage.");
       }
+    }
+    model.commitTurn();
+  }
 
-      GameObstacle obs = current.getObstacle();
-      if (obs instanceof Monster m && m.isActive() && m.canAttack()) {
-        m.attack(model.getPlayer());
-        view.showMessage(m.getAttackMessage());
-        view.showMessage("You take -" + m.getDamage() + " damage.");
+  /**
+   * Runs a pipelined line (or macro definition) within one turn. Each command still
+   * ends its own turn, so monsters strike between commands and undo stays per command,
+   * but the room is rendered once, at the end. Prints one result code per command.
+   *
+   * @return false if the game ended during the pipeline
+   */
+  private boolean runPipeline(String line) {
+    List<Pipeline.Stage> stages;
+    try {
+      if (Pipeline.isDefinition(line)) {
+        view.showMessage("Defined macro @" + pipeline.define(line) + ".");
+        return true;
       }
+      stages = pipeline.expand(line);
+    } catch (IllegalArgumentException e) {
+      view.showMessage(e.getMessage());
+      return true;
+    }
 
-      view.showMessage("Enter command (N/S/E/W, T, D, U, I, X, A, LOOK, SAVE, Q):");
-      if (!scanner.hasNextLine()) break;
-
-      String[] parts = scanner.nextLine().trim().split(" ", 2);
-      String cmd = parts[0].toUpperCase();
-      String arg = parts.length > 1 ? parts[1] : null;
-
-      switch (cmd) {
-        case "N", "S", "E", "W" -> move(cmd);
-        case "T" -> takeItem(arg);
-        case "D" -> dropItem(arg);
-        case "U" -> useItem(arg);
-        case "I" -> view.showMessage(showInventoryString());
-        case "X" -> view.showMessage(handleExamine(arg));
-        case "A" -> view.showMessage(handleAnswer(arg));
-        case "LOOK" -> view.renderGame(model.getPlayer(), model.getCurrentRoom());
-        case SAVE_KEY -> saveGame();
-        case QUIT_KEY -> {
-          view.showMessage("Quitting. Thanks for playing!");
-          return;
+    CommandResult[] results = new CommandResult[stages.size()];
+    Arrays.fill(results, CommandResult.SKIPPED);
+    CommandResult last = CommandResult.OK;
+    pipelined = true;
+    try {
+      for (int i = 0; i < stages.size(); i++) {
+        Pipeline.Stage stage = stages.get(i);
+        if (stage.requiresSuccess() && last != CommandResult.OK) {
+          continue; // skipped; the failure carries on to the next && like in a shell
         }
-        default -> view.showMessage("Unknown command: " + cmd);
+        if (i > 0) {
+          endTurn();
+          if (!model.getPlayer().isAlive()) break;
+        }
+        ParsedCommand command = parser.parse(stage.command());
+        last = results[i] = dispatch(command);
+        timeTravel = command.verb() == Verb.UNDO || command.verb() == Verb.REDO;
+        if (last == CommandResult.QUIT) break;
       }
+    } finally {
+      pipelined = false;
+    }
+
+    StringBuilder codes = new StringBuilder("Results:");
+    for (int i = 0; i < results.length; i++) {
+      codes.append(' ').append(i + 1).append('=').append(results[i]);
     }
+    view.showMessage(codes.toString());
+    return last != CommandResult.QUIT;
+  }
+
+  /**
+   * Registers a listener that sees every input line the controller reads
+   * (used to record sessions for replay).
+   *
+   * @param listener the listener, or null to remove it
+   */
+  public void setInputListener(Consumer<String> listener) {
+    this.inputListener = listener;
+  }
+
+  /**
+   * Reads the next input line.
+   *
+   * @return the line, or null at end of input
+   */
+  private String readLine() {
+    if (!scanner.hasNextLine()) return null;
+    String line = scanner.nextLine();
+    if (inputListener != null) inputListener.accept(line);
+    return line;
   }
 
   /**
-   * Moves the player and re-renders the room if successful.
+   * Moves the player and re-renders the room if successful
+   * (inside a pipeline the render waits for the end of the pipeline).
    */
-  private void move(String dir) {
+  private boolean move(String dir) {
     boolean moved = model.movePlayer(dir);
     view.showMessage(moved ? "You move " + directionFull(dir) : "You can't move that way.");
-    if (moved) view.renderGame(model.getPlayer(), model.getCurrentRoom());
+    if (moved && !pipelined) view.renderGame(model.getPlayer(), model.getCurrentRoom());
+    return moved;
   }
 
   /**
@@ -112,25 +320,27 @@ public class TextController extends AbstractController {
   /**
    * Handles item pickup.
    */
-  private void takeItem(String itemName) {
+  private boolean takeItem(String itemName) {
     if (itemName == null) {
       view.showMessage("Take what?");
-      return;
+      return false;
     }
     boolean success = model.pickItem(itemName);
     view.showMessage(success ? "You took: " + itemName : "Item not found or too heavy.");
+    return success;
   }
 
   /**
    * Handles item drop.
    */
-  private void dropItem(String itemName) {
+  private boolean dropItem(String itemName) {
     if (itemName == null) {
       view.showMessage("Drop what?");
-      return;
+      return false;
     }
     boolean success = model.dropItem(itemName);
     view.showMessage(success ? "You dropped: " + itemName : "You don't have that.");
+    return success;
   }
 
   /**
@@ -143,11 +353,19 @@ public class TextController extends AbstractController {
   /**
    * Prompts for save file name and saves game.
    */
-  private void saveGame() {
+  private boolean saveGame() {
+    if (savingDisabled) {
+      view.showMessage("Saving is not available in this session.");
+      return false;
+    }
     view.showMessage("Enter filename (without .json):");
-    String fileName = scanner.nextLine().trim();
+    view.flush();
+    String line = readLine();
+    if (line == null) return false;
+    String fileName = line.trim();
     String fullPath = PathUtils.getSavePath(fileName);
     boolean saved = model.saveGame(fullPath);
     view.showMessage(saved ? "Saved to: " + fileName : "Save failed.");
+    return saved;
   }
 }
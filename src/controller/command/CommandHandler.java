@@ -0,0 +1,16 @@
+package controller.command;
+
+/**
+ * Handles one parsed command.
+ */
+@FunctionalInterface
+public interface CommandHandler {
+
+  /**
+   * Executes the command.
+   *
+   * @param command the parsed command
+   * @return the outcome; {@link CommandResult#QUIT} ends the game
+   */
+  CommandResult handle(ParsedCommand command);
+}
@@ -0,0 +1,49 @@
+package controller.command;
+
+/**
+ * Allocation-free tokenizer for the text protocol.
+ * Splits a line exactly like {@code line.trim().split(" ", 2)} — the verb runs up to the
+ * first space and the argument is everything after it — but records index ranges instead of
+ * creating substrings, and resolves the verb through a precomputed {@link VerbTable}.
+ */
+public class CommandParser {
+
+  private static final VerbTable TABLE = new VerbTable();
+
+  private final ParsedCommand result = new ParsedCommand();
+
+  /**
+   * Parses a line into the parser's reusable {@link ParsedCommand}.
+   * The returned object is overwritten by the next call.
+   *
+   * @param line the input line
+   * @return the parsed command
+   */
+  public ParsedCommand parse(String line) {
+    int start = 0;
+    int end = line.length();
+    while (start < end && line.charAt(start) <= ' ') start++;
+    while (end > start && line.charAt(end - 1) <= ' ') end--;
+
+    int space = start;
+    while (space < end && line.charAt(space) != ' ') space++;
+
+    Verb verb = TABLE.lookup(line, start, space);
+    if (verb == Verb.UNKNOWN && !isAscii(line, start, space)) {
+      // Non-ASCII letters may upper-case into a verb; take the slow path for them
+      String upper = line.substring(start, space).toUpperCase();
+      verb = TABLE.lookup(upper, 0, upper.length());
+    }
+
+    int argStart = space < end ? space + 1 : -1;
+    result.set(line, verb, start, space, argStart, end);
+    return result;
+  }
+
+  private static boolean isAscii(String s, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (s.charAt(i) >= 0x80) return false;
+    }
+    return true;
+  }
+}
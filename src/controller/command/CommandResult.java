@@ -0,0 +1,15 @@
+package controller.command;
+
+/**
+ * Outcome of one command, reported per command when commands are pipelined.
+ */
+public enum CommandResult {
+  /** The command did what was asked. */
+  OK,
+  /** The command was understood but could not be carried out (blocked exit, missing item, ...). */
+  FAILED,
+  /** The command was not run because an earlier {@code &&} command failed. */
+  SKIPPED,
+  /** The player quit; the game ends. */
+  QUIT
+}
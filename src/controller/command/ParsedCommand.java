@@ -0,0 +1,52 @@
+package controller.command;
+
+/**
+ * Result of parsing one command line.
+ * The parser reuses a single instance per controller; the verb text and the argument are
+ * only materialized as strings when a handler asks for them.
+ */
+public final class ParsedCommand {
+
+  private String line;
+  private Verb verb = Verb.UNKNOWN;
+  private int verbStart;
+  private int verbEnd;
+  private int argStart = -1;
+  private int argEnd;
+
+  void set(String line, Verb verb, int verbStart, int verbEnd, int argStart, int argEnd) {
+    this.line = line;
+    this.verb = verb;
+    this.verbStart = verbStart;
+    this.verbEnd = verbEnd;
+    this.argStart = argStart;
+    this.argEnd = argEnd;
+  }
+
+  /**
+   * Returns the resolved verb.
+   *
+   * @return the verb ({@link Verb#UNKNOWN} if not recognized)
+   */
+  public Verb verb() {
+    return verb;
+  }
+
+  /**
+   * Returns the argument after the verb, or null if there is none.
+   *
+   * @return the argument
+   */
+  public String arg() {
+    return argStart < 0 ? null : line.substring(argStart, argEnd);
+  }
+
+  /**
+   * Returns the verb as typed, upper-cased (used for "Unknown command" feedback).
+   *
+   * @return the verb text
+   */
+  public String verbText() {
+    return line.substring(verbStart, verbEnd).toUpperCase();
+  }
+}
@@ -0,0 +1,160 @@
+package controller.command;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Splits a pipelined input line into its commands and expands named macros.
+ * Commands are separated by {@code ;} (run the next one regardless) or {@code &&}
+ * (run the next one only if the previous succeeded), e.g. {@code N; T Lamp && E}.
+ * A macro is defined with {@code DEF name <pipeline>} and invoked as {@code @name}
+ * anywhere a command may appear.
+ * A separator only counts when a command follows it (a verb or a macro call), and
+ * {@code @} only at the start of a command, so arguments such as {@code A foo;bar}
+ * or {@code T rope@hook} stay single commands.
+ */
+public class Pipeline {
+
+  /** Maximum nesting of macros inside macros (guards against recursive definitions). */
+  public static final int MAX_MACRO_DEPTH = 8;
+
+  private static final String DEFINE = "DEF ";
+  private static final VerbTable VERBS = new VerbTable();
+
+  /**
+   * One command of a pipeline.
+   *
+   * @param command         the command text
+   * @param requiresSuccess true if it only runs when the previous command succeeded
+   */
+  public record Stage(String command, boolean requiresSuccess) { }
+
+  private final Map<String, String> macros = new HashMap<>();
+
+  /**
+   * Returns true if the line needs pipeline handling: it chains commands, invokes
+   * a macro or defines one. Plain single commands take the regular parser path.
+   *
+   * @param line the input line
+   * @return true for pipelines, macro calls and definitions
+   */
+  public static boolean isPipeline(String line) {
+    return isDefinition(line) || line.stripLeading().startsWith("@") || separatorAt(line, 0) >= 0;
+  }
+
+  /**
+   * Finds the next separator at or after from that has a command after it.
+   *
+   * @return its index, or -1 if there is none
+   */
+  private static int separatorAt(String line, int from) {
+    for (int i = from; i < line.length(); i++) {
+      char c = line.charAt(i);
+      boolean and = c == '&' && line.startsWith("&&", i);
+      if ((c == ';' || and) && startsCommand(line, i + (and ? 2 : 1))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether a command starts at from (after any spaces): a macro call or a known verb.
+   */
+  private static boolean startsCommand(String line, int from) {
+    int start = from;
+    while (start < line.length() && line.charAt(start) <= ' ') start++;
+    if (start < line.length() && line.charAt(start) == '@') {
+      return true;
+    }
+    int end = start;
+    while (end < line.length() && line.charAt(end) > ' ' && line.charAt(end) != ';' && line.charAt(end) != '&') {
+      end++;
+    }
+    return end > start && VERBS.lookup(line, start, end) != Verb.UNKNOWN;
+  }
+
+  /**
+   * Returns true if the line is a macro definition.
+   *
+   * @param line the input line
+   * @return true for {@code DEF name ...}
+   */
+  public static boolean isDefinition(String line) {
+    String trimmed = line.stripLeading();
+    return trimmed.regionMatches(true, 0, DEFINE, 0, DEFINE.length());
+  }
+
+  /**
+   * Defines (or redefines) a macro from a {@code DEF name <pipeline>} line.
+   *
+   * @param line the definition line
+   * @return the macro name
+   * @throws IllegalArgumentException if the name or body is missing
+   */
+  public String define(String line) {
+    String rest = line.strip().substring(DEFINE.length()).strip();
+    int space = rest.indexOf(' ');
+    if (space < 0) {
+      throw new IllegalArgumentException("Usage: DEF <name> <command>; <command>...");
+    }
+    String name = rest.substring(0, space).toLowerCase(Locale.ROOT);
+    if (name.startsWith("@")) {
+      name = name.substring(1);
+    }
+    macros.put(name, rest.substring(space + 1).strip());
+    return name;
+  }
+
+  /**
+   * Splits a line into stages, expanding macro calls.
+   * The first stage of an expanded macro takes the connector of the call.
+   *
+   * @param line the input line
+   * @return the stages, in order
+   * @throws IllegalArgumentException for unknown or too deeply nested macros
+   */
+  public List<Stage> expand(String line) {
+    List<Stage> stages = new ArrayList<>();
+    expand(line, false, 0, stages);
+    return stages;
+  }
+
+  private void expand(String line, boolean firstRequiresSuccess, int depth, List<Stage> out) {
+    boolean requiresSuccess = firstRequiresSuccess;
+    int start = 0;
+    while (start <= line.length()) {
+      int separator = separatorAt(line, start);
+      int end = separator < 0 ? line.length() : separator;
+      String command = line.substring(start, end).strip();
+      if (!command.isEmpty()) {
+        add(command, requiresSuccess, depth, out);
+      }
+      if (separator < 0) {
+        break;
+      }
+      boolean and = line.startsWith("&&", separator);
+      requiresSuccess = and;
+      start = separator + (and ? 2 : 1);
+    }
+  }
+
+  private void add(String command, boolean requiresSuccess, int depth, List<Stage> out) {
+    if (!command.startsWith("@")) {
+      out.add(new Stage(command, requiresSuccess));
+      return;
+    }
+    String name = command.substring(1).strip().toLowerCase(Locale.ROOT);
+    String body = macros.get(name);
+    if (body == null) {
+      throw new IllegalArgumentException("Unknown macro: @" + name);
+    }
+    if (depth >= MAX_MACRO_DEPTH) {
+      throw new IllegalArgumentException("Macro @" + name + " nests too deeply.");
+    }
+    expand(body, requiresSuccess, depth + 1, out);
+  }
+}
@@ -0,0 +1,48 @@
+package controller.command;
+
+/**
+ * Every verb understood by the text protocol, with its accepted spellings.
+ * The first spelling is the canonical one shown to the player.
+ */
+public enum Verb {
+  NORTH("N", "NORTH"),
+  SOUTH("S", "SOUTH"),
+  EAST("E", "EAST"),
+  WEST("W", "WEST"),
+  TAKE("T", "TAKE"),
+  DROP("D", "DROP"),
+  USE("U", "USE"),
+  INVENTORY("I", "INVENTORY"),
+  EXAMINE("X", "EXAMINE"),
+  ANSWER("A", "ANSWER"),
+  LOOK("LOOK"),
+  SAVE("SAVE"),
+  UNDO("UNDO"),
+  REDO("REDO"),
+  QUIT("Q", "QUIT"),
+  UNKNOWN();
+
+  private final String[] aliases;
+
+  Verb(String... aliases) {
+    this.aliases = aliases;
+  }
+
+  /**
+   * Returns the accepted spellings (upper case).
+   *
+   * @return aliases, canonical first
+   */
+  String[] aliases() {
+    return aliases;
+  }
+
+  /**
+   * Returns the canonical spelling, e.g. "N" for NORTH.
+   *
+   * @return the canonical key
+   */
+  public String key() {
+    return aliases.length > 0 ? aliases[0] : "";
+  }
+}
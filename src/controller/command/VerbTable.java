@@ -0,0 +1,78 @@
+package controller.command;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed trie resolving verb spellings to {@link Verb}s.
+ * Nodes are rows of a flat int table indexed by letter, so a lookup walks the input
+ * once, folds ASCII case on the fly and allocates nothing.
+ */
+final class VerbTable {
+
+  private static final int ALPHABET = 26;
+
+  private int[] next = new int[ALPHABET * 16];
+  private Verb[] terminal = new Verb[16];
+  private int nodes = 1;
+
+  /**
+   * Builds the table for all verbs and their aliases.
+   */
+  VerbTable() {
+    Arrays.fill(next, -1);
+    for (Verb verb : Verb.values()) {
+      for (String alias : verb.aliases()) {
+        insert(alias, verb);
+      }
+    }
+  }
+
+  /**
+   * Resolves {@code text[start, end)} ignoring ASCII case.
+   *
+   * @param text  the input
+   * @param start first char of the verb
+   * @param end   one past the last char
+   * @return the verb, or {@link Verb#UNKNOWN}
+   */
+  Verb lookup(CharSequence text, int start, int end) {
+    if (start >= end) {
+      return Verb.UNKNOWN;
+    }
+    int node = 0;
+    for (int i = start; i < end; i++) {
+      int letter = (text.charAt(i) | 0x20) - 'a';
+      if (letter < 0 || letter >= ALPHABET) {
+        return Verb.UNKNOWN;
+      }
+      node = next[node * ALPHABET + letter];
+      if (node < 0) {
+        return Verb.UNKNOWN;
+      }
+    }
+    Verb verb = terminal[node];
+    return verb != null ? verb : Verb.UNKNOWN;
+  }
+
+  private void insert(String alias, Verb verb) {
+    int node = 0;
+    for (int i = 0; i < alias.length(); i++) {
+      int slot = node * ALPHABET + (alias.charAt(i) - 'A');
+      if (next[slot] < 0) {
+        if (nodes == terminal.length) {
+          grow();
+        }
+        next[slot] = nodes++;
+      }
+      node = next[slot];
+    }
+    terminal[node] = verb;
+  }
+
+  private void grow() {
+    int old = terminal.length;
+    terminal = Arrays.copyOf(terminal, old * 2);
+    next = Arrays.copyOf(next, old * 2 * ALPHABET);
+    Arrays.fill(next, old * ALPHABET, next.length, -1);
+  }
+}
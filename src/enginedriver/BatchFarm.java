@@ -0,0 +1,184 @@
+package enginedriver;
+
+import com.google.gson.JsonObject;
+import controller.TextController;
+import model.GameModel;
+import utils.fileutil.JsonUtils;
+import view.ConsoleView;
+import view.sink.FileChannelSink;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Runs many batch scripts in parallel, each against its own isolated GameModel.
+ * The map JSON is parsed once and shared read-only by every run.
+ * Writes one output file per script plus a summary.csv with the result of each run.
+ */
+public class BatchFarm {
+
+  /**
+   * Result of one script run.
+   *
+   * @param script  the script file name
+   * @param passed  true if the script ran to completion
+   * @param score   final score
+   * @param rank    final rank
+   * @param health  final health status
+   * @param millis  wall time in milliseconds
+   * @param error   failure reason, empty when passed
+   */
+  public record Result(String script, boolean passed, double score, String rank,
+                       String health, long millis, String error) { }
+
+  private final JsonObject map;
+  private final Path outputDir;
+  private final int threads;
+
+  /**
+   * Creates a farm for one map.
+   *
+   * @param mapFile   the map JSON file
+   * @param outputDir directory for per-script outputs and the summary
+   * @param threads   number of scripts run concurrently
+   * @throws IOException if the map cannot be read
+   */
+  public BatchFarm(String mapFile, Path outputDir, int threads) throws IOException {
+    this.map = JsonUtils.safeParseJson(mapFile);
+    this.outputDir = outputDir;
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Collects scripts from a directory (every *.txt file) or a manifest
+   * (one script path per line, relative to the manifest; '#' starts a comment).
+   *
+   * @param source directory or manifest file
+   * @return the script paths
+   * @throws IOException if the source cannot be read
+   */
+  public static List<Path> collectScripts(Path source) throws IOException {
+    List<Path> scripts = new ArrayList<>();
+    if (Files.isDirectory(source)) {
+      try (Stream<Path> files = Files.list(source)) {
+        files.filter(p -> p.toString().endsWith(".txt")).sorted().forEach(scripts::add);
+      }
+    } else {
+      Path base = source.toAbsolutePath().getParent();
+      for (String line : Files.readAllLines(source)) {
+        String entry = line.trim();
+        if (!entry.isEmpty() && !entry.startsWith("#")) {
+          scripts.add(base.resolve(entry));
+        }
+      }
+    }
+    return scripts;
+  }
+
+  /**
+   * Runs all scripts and writes the summary.
+   *
+   * @param scripts the scripts to run
+   * @return the results, in script order
+   * @throws IOException if the output directory or summary cannot be written
+   */
+  public List<Result> run(List<Path> scripts) throws IOException {
+    Files.createDirectories(outputDir);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    List<Result> results = new ArrayList<>();
+    try {
+      List<Future<Result>> futures = new ArrayList<>();
+      for (Path script : scripts) {
+        futures.add(pool.submit(() -> runScript(script)));
+      }
+      // futures.get(i) runs scripts.get(i)
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          results.add(futures.get(i).get());
+        } catch (ExecutionException e) {
+          String name = scripts.get(i).getFileName().toString();
+          results.add(new Result(name, false, 0, "", "", 0, String.valueOf(e.getCause())));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Batch farm interrupted", e);
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    writeSummary(results);
+    return results;
+  }
+
+  /**
+   * Plays one script against a fresh model.
+   */
+  private Result runScript(Path script) {
+    String name = script.getFileName().toString();
+    long start = System.nanoTime();
+    GameModel model = new GameModel();
+    try (Reader input = Files.newBufferedReader(script);
+         FileChannelSink output = FileChannelSink.open(outputDir.resolve(name + ".out"))) {
+      model.generateWorld(map);
+      model.initializePlayer("BatchPlayer");
+      ConsoleView view = new ConsoleView(output);
+      view.setSkipUnchangedRenders(true);
+      new TextController(model, view, input).startGame();
+      return new Result(name, true, model.getScore(), model.getPlayerRank().toString(),
+              model.getHealthStatus().toString(), elapsedMillis(start), "");
+    } catch (Exception e) {
+      boolean started = model.getPlayer() != null;
+      return new Result(name, false,
+              started ? model.getScore() : 0,
+              started ? model.getPlayerRank().toString() : "",
+              started ? model.getHealthStatus().toString() : "",
+              elapsedMillis(start), String.valueOf(e));
+    }
+  }
+
+  private void writeSummary(List<Result> results) throws IOException {
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(outputDir.resolve("summary.csv")))) {
+      out.println("script,status,score,rank,health,millis,error");
+      for (Result r : results) {
+        out.printf("%s,%s,%.1f,%s,%s,%d,\"%s\"%n", r.script(), r.passed() ? "PASS" : "FAIL",
+                r.score(), r.rank(), r.health(), r.millis(), r.error().replace("\"", "'"));
+      }
+    }
+  }
+
+  private static long elapsedMillis(long start) {
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  /**
+   * Entry point used by GameEngineApp for -batchfarm.
+   *
+   * @param mapFile the map JSON file
+   * @param source  directory or manifest of scripts
+   * @param outDir  output directory
+   * @param threads number of concurrent runs
+   * @throws IOException if reading or writing fails
+   */
+  public static void runFarm(String mapFile, String source, String outDir, int threads) throws IOException {
+    long start = System.nanoTime();
+    List<Path> scripts = collectScripts(Paths.get(source));
+    List<Result> results = new BatchFarm(mapFile, Paths.get(outDir), threads).run(scripts);
+    long passed = results.stream().filter(Result::passed).count();
+    long millis = elapsedMillis(start);
+    System.out.printf("Ran %d scripts on %d threads in %d ms (%.1f scripts/s): %d passed, %d failed.%n",
+            results.size(), threads, millis, results.size() * 1000.0 / Math.max(1, millis),
+            passed, results.size() - passed);
+    System.out.println("Summary written to " + Paths.get(outDir, "summary.csv"));
+  }
+}
@@ -2,14 +2,24 @@ package enginedriver;
 
 import controller.TextController;
 import controller.SwingController;
+import enginedriver.replay.ReplayTool;
+import enginedriver.replay.Session;
+import enginedriver.http.GameHttpApi;
+import enginedriver.server.GameServer;
 import model.GameModel;
 import model.IModel;
 import view.ConsoleView;
 import view.SwingView;
 import view.View;
+import view.sink.BufferedSink;
+import view.sink.FileChannelSink;
+import view.sink.OutputSink;
 
 import javax.swing.*;
 import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * GameEngineApp is the required entry point for the game engine.
@@ -22,14 +32,44 @@ public class GameEngineApp {
   public static void main(String[] args) throws IOException {
     if (args.length < 2) {
       System.out.println("Usage:");
-      System.out.println("  java -jar game_engine.jar <mapfile>.json -text");
+      System.out.println("  java -jar game_engine.jar <mapfile>.json -text [record.session]");
       System.out.println("  java -jar game_engine.jar <mapfile>.json -graphics");
       System.out.println("  java -jar game_engine.jar <mapfile>.json -batch input.txt [output.txt]");
+      System.out.println("  java -jar game_engine.jar <mapfile>.json -batchfarm <scriptdir|manifest> <outdir> [threads]");
+      System.out.println("  java -jar game_engine.jar <mapfile>.json -server <port> [idleSeconds]");
+      System.out.println("  java -jar game_engine.jar <mapfile>.json -http <port> [idleSeconds]");
+      System.out.println("  java -jar game_engine.jar <mapfile>.json -record input.txt <name>.session");
+      System.out.println("  java -jar game_engine.jar <mapfile>.json -replay <session|dir> [-update] [-render]");
       return;
     }
 
     String jsonFile = args[0];
     String mode = args[1];
+
+    if (mode.equals("-batchfarm") && args.length >= 4) {
+      int threads = args.length >= 5 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+      BatchFarm.runFarm(jsonFile, args[2], args[3], threads);
+      return;
+    }
+    if (mode.equals("-server") && args.length >= 3) {
+      int idle = args.length >= 4 ? Integer.parseInt(args[3]) : GameServer.DEFAULT_IDLE_SECONDS;
+      GameServer.runServer(jsonFile, Integer.parseInt(args[2]), idle);
+      return;
+    }
+    if (mode.equals("-http") && args.length >= 3) {
+      int idle = args.length >= 4 ? Integer.parseInt(args[3]) : GameHttpApi.DEFAULT_IDLE_SECONDS;
+      GameHttpApi.runApi(jsonFile, Integer.parseInt(args[2]), idle);
+      return;
+    }
+    if (mode.equals("-record") && args.length >= 4) {
+      ReplayTool.record(jsonFile, args[2], args[3]);
+      return;
+    }
+    if (mode.equals("-replay") && args.length >= 3) {
+      List<String> flags = List.of(args).subList(3, args.length);
+      boolean passed = ReplayTool.runReplay(jsonFile, args[2], flags.contains("-update"), flags.contains("-render"));
+      System.exit(passed ? 0 : 1);
+    }
     IModel model = new GameModel(); // Shared model for all modes
     model.generateWorld(jsonFile);
 
@@ -52,21 +92,32 @@ public class GameEngineApp {
       model.initializePlayer(playerName);
       View view = new ConsoleView();
       TextController controller = new TextController(model, view, input);
+      List<String> recorded = new ArrayList<>();
+      if (args.length >= 3) {
+        controller.setInputListener(recorded::add);
+      }
       controller.startGame();
+      if (args.length >= 3) {
+        new Session(Session.hashMap(Paths.get(jsonFile)), recorded).write(Paths.get(args[2]));
+        System.out.println("Session recorded to " + args[2]);
+      }
 
     } else if (mode.equals("-batch") && args.length >= 3) {
       String inputFile = args[2];
-      Reader batchInput = new FileReader(inputFile);
-      PrintWriter batchOutput = (args.length == 4) ? new PrintWriter(args[3]) : new PrintWriter(System.out);
-
-      model.initializePlayer("BatchPlayer");
-      View view = new ConsoleView(batchOutput);
-      TextController controller = new TextController(model, view, batchInput);
-      controller.startGame();
-      batchOutput.flush();
+      // Closing the sink is the single flush at the end of the batch, also if the game fails
+      try (Reader batchInput = new BufferedReader(new FileReader(inputFile));
+           OutputSink batchOutput = (args.length == 4)
+                   ? FileChannelSink.open(Paths.get(args[3]))
+                   : new BufferedSink(new PrintWriter(System.out))) {
+        model.initializePlayer("BatchPlayer");
+        ConsoleView view = new ConsoleView(batchOutput);
+        view.setSkipUnchangedRenders(true); // scripted play: no need to redraw unchanged rooms
+        TextController controller = new TextController(model, view, batchInput);
+        controller.startGame();
+      }
 
     } else {
-      System.out.println("Invalid mode. Use -text, -graphics, or -batch.");
+      System.out.println("Invalid mode. Use -text, -graphics, -batch, -batchfarm, -server, -http, -record or -replay.");
     }
   }
 }
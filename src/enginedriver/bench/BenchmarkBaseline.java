@@ -0,0 +1,144 @@
+package enginedriver.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores benchmark results as a JSON baseline and compares later runs against it.
+ * A result regresses when its throughput falls below the baseline by more than the
+ * tolerance (and by more than its own error), or when it allocates noticeably more per operation.
+ */
+public class BenchmarkBaseline {
+
+  /**
+   * Extra bytes per operation tolerated before an allocation change counts as a regression.
+   */
+  public static final double ALLOCATION_SLACK = 16;
+
+  private final Map<String, Microbench.Result> results = new LinkedHashMap<>();
+
+  /**
+   * Creates a baseline from results.
+   *
+   * @param results the results
+   */
+  public BenchmarkBaseline(List<Microbench.Result> results) {
+    for (Microbench.Result r : results) {
+      this.results.put(key(r), r);
+    }
+  }
+
+  /**
+   * Returns the stored results, in run order.
+   *
+   * @return the results
+   */
+  public List<Microbench.Result> getResults() {
+    return new ArrayList<>(results.values());
+  }
+
+  /**
+   * Writes the baseline, with the JVM and host it was taken on.
+   *
+   * @param file the baseline file
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path file) throws IOException {
+    if (file.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+    }
+    try (Writer out = Files.newBufferedWriter(file); JsonWriter json = new JsonWriter(out)) {
+      json.setIndent("  ");
+      json.beginObject();
+      json.name("java").value(System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+      json.name("os").value(System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+      json.name("cpus").value(Runtime.getRuntime().availableProcessors());
+      json.name("results").beginArray();
+      for (Microbench.Result r : results.values()) {
+        json.beginObject();
+        json.name("benchmark").value(r.benchmark());
+        json.name("params").value(r.params());
+        json.name("opsPerSecond").value(Math.round(r.opsPerSecond()));
+        json.name("error").value(Math.round(r.error()));
+        json.name("bytesPerOp").value(Math.round(r.bytesPerOp() * 10) / 10.0);
+        json.endObject();
+      }
+      json.endArray();
+      json.endObject();
+    }
+  }
+
+  /**
+   * Reads a baseline written by {@link #write(Path)}.
+   *
+   * @param file the baseline file
+   * @return the baseline
+   * @throws IOException if the file cannot be read or is malformed
+   */
+  public static BenchmarkBaseline read(Path file) throws IOException {
+    try (Reader in = Files.newBufferedReader(file)) {
+      JsonArray array = JsonParser.parseReader(in).getAsJsonObject().getAsJsonArray("results");
+      List<Microbench.Result> list = new ArrayList<>();
+      for (JsonElement e : array) {
+        JsonObject o = e.getAsJsonObject();
+        list.add(new Microbench.Result(o.get("benchmark").getAsString(), o.get("params").getAsString(),
+                o.get("opsPerSecond").getAsDouble(), o.get("error").getAsDouble(),
+                o.get("bytesPerOp").getAsDouble()));
+      }
+      return new BenchmarkBaseline(list);
+    } catch (RuntimeException e) {
+      throw new IOException("Malformed baseline " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Prints each current result next to its baseline and returns the regressions.
+   *
+   * @param current   the new results
+   * @param tolerance allowed fractional throughput drop, e.g. 0.10
+   * @param out       where to print the comparison
+   * @return the results that regressed
+   */
+  public List<Microbench.Result> compare(List<Microbench.Result> current, double tolerance, PrintStream out) {
+    List<Microbench.Result> regressions = new ArrayList<>();
+    out.printf("%-28s %-22s %14s %14s %8s %10s %10s%n",
+            "benchmark", "params", "base ops/s", "ops/s", "delta", "base B/op", "B/op");
+    for (Microbench.Result r : current) {
+      Microbench.Result base = results.get(key(r));
+      if (base == null) {
+        out.printf("%-28s %-22s %14s %,14.0f %8s %10s %10.1f  (new)%n",
+                r.benchmark(), r.params(), "-", r.opsPerSecond(), "-", "-", r.bytesPerOp());
+        continue;
+      }
+      double delta = (r.opsPerSecond() - base.opsPerSecond()) / base.opsPerSecond();
+      // A drop inside the run's own confidence interval is noise, not a regression
+      boolean slower = delta < -tolerance && r.opsPerSecond() + r.error() < base.opsPerSecond();
+      boolean heavier = base.bytesPerOp() >= 0 && r.bytesPerOp() > base.bytesPerOp() + ALLOCATION_SLACK;
+      if (slower || heavier) {
+        regressions.add(r);
+      }
+      out.printf("%-28s %-22s %,14.0f %,14.0f %+7.1f%% %10.1f %10.1f%s%n",
+              r.benchmark(), r.params(), base.opsPerSecond(), r.opsPerSecond(), delta * 100,
+              base.bytesPerOp(), r.bytesPerOp(), slower || heavier ? "  REGRESSION" : "");
+    }
+    return regressions;
+  }
+
+  private static String key(Microbench.Result r) {
+    return r.benchmark() + " " + r.params();
+  }
+}
@@ -0,0 +1,51 @@
+package enginedriver.bench;
+
+import java.util.Random;
+
+/**
+ * The commands a load-test bot issues, with the weight of each in the random command mix.
+ * Saves are not drawn at random: bots save every so many commands instead.
+ */
+public enum BotAction {
+  MOVE(45),
+  TAKE(15),
+  DROP(10),
+  USE(15),
+  LOOK(10),
+  INVENTORY(5),
+  SAVE(0);
+
+  private static final BotAction[] VALUES = values();
+  private static final int TOTAL_WEIGHT = totalWeight();
+
+  private final int weight;
+
+  BotAction(int weight) {
+    this.weight = weight;
+  }
+
+  /**
+   * Draws an action from the weighted mix.
+   *
+   * @param random the bot's random source
+   * @return the action
+   */
+  public static BotAction pick(Random random) {
+    int roll = random.nextInt(TOTAL_WEIGHT);
+    for (BotAction action : VALUES) {
+      roll -= action.weight;
+      if (roll < 0) {
+        return action;
+      }
+    }
+    return MOVE;
+  }
+
+  private static int totalWeight() {
+    int total = 0;
+    for (BotAction action : values()) {
+      total += action.weight;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,249 @@
+package enginedriver.bench;
+
+import controller.AbstractController;
+import model.GameModel;
+import model.core.Player;
+import model.core.Room;
+import model.elements.Item;
+import model.obstacle.GameObstacle;
+import view.ConsoleView;
+import view.sink.NullSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks the per-command gameplay operations on synthetic maps, parameterized by map
+ * size and item density. Operations that change the model end with a turn commit, as every
+ * command does. Results can be saved as a baseline and later runs compared against it.
+ *
+ * Usage: GameplayBenchmarks [-quick] [-save file] [-compare file] [name filter]
+ * The checked-in baseline is resources/bench/gameplay-baseline.json. With -compare the
+ * process exits with status 1 if any benchmark regressed.
+ */
+public class GameplayBenchmarks {
+
+  /**
+   * Map sizes (rooms) used by the movement benchmarks.
+   */
+  static final int[] MAP_SIZES = {64, 4096};
+
+  /**
+   * Item counts (per room, or carried) used by the item benchmarks.
+   */
+  static final int[] ITEM_COUNTS = {16, 1024};
+
+  private static final double TOLERANCE = Double.parseDouble(System.getProperty("halo.bench.tolerance", "0.10"));
+
+  /**
+   * One benchmark with its parameters; the operation is built only if the case is run.
+   *
+   * @param benchmark the benchmark name
+   * @param params    the parameters
+   * @param setup     builds the world and returns the operation
+   */
+  record Case(String benchmark, String params, Supplier<LongSupplier> setup) { }
+
+  public static void main(String[] args) throws IOException {
+    boolean quick = false;
+    Path save = null;
+    Path compare = null;
+    String filter = "";
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "-quick" -> quick = true;
+        case "-save" -> save = Paths.get(args[++i]);
+        case "-compare" -> compare = Paths.get(args[++i]);
+        default -> filter = args[i];
+      }
+    }
+
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream())); // mute in-game chatter
+    Microbench bench = quick ? new Microbench(300, 200, 3) : new Microbench(2000, 1000, 5);
+    List<Microbench.Result> results = new ArrayList<>();
+    report.printf("%-28s %-22s %14s %12s %10s%n", "benchmark", "params", "ops/s", "+/- (99.9%)", "B/op");
+    for (Case c : cases()) {
+      if (!c.benchmark().contains(filter)) {
+        continue;
+      }
+      Microbench.Result r = bench.run(c.benchmark(), c.params(), c.setup().get());
+      results.add(r);
+      report.printf("%-28s %-22s %,14.0f %,12.0f %10.1f%n",
+              r.benchmark(), r.params(), r.opsPerSecond(), r.error(), r.bytesPerOp());
+    }
+
+    if (save != null) {
+      new BenchmarkBaseline(results).write(save);
+      report.println("Baseline written to " + save);
+    }
+    if (compare != null) {
+      report.println();
+      List<Microbench.Result> regressions = BenchmarkBaseline.read(compare).compare(results, TOLERANCE, report);
+      if (!regressions.isEmpty()) {
+        report.println(regressions.size() + " benchmark(s) regressed.");
+        System.exit(1);
+      }
+    }
+  }
+
+  /**
+   * Lists every benchmark case, in run order.
+   *
+   * @return the cases
+   */
+  static List<Case> cases() {
+    List<Case> cases = new ArrayList<>();
+    for (int rooms : MAP_SIZES) {
+      cases.add(new Case("player.move.dense", "rooms=" + rooms, () -> move(rooms, true)));
+      cases.add(new Case("player.move.sparse", "rooms=" + rooms, () -> move(rooms, false)));
+    }
+    for (int items : ITEM_COUNTS) {
+      cases.add(new Case("room.getItem", "items=" + items, () -> getItem(items)));
+      cases.add(new Case("room.removeItem", "items=" + items, () -> removeItem(items)));
+      cases.add(new Case("player.pickItem", "inventory=" + items, () -> pickItem(items)));
+    }
+    cases.add(new Case("controller.handleUse", "obstacle=monster", () -> handleUse(1)));
+    cases.add(new Case("controller.handleUse", "obstacle=puzzle", () -> handleUse(2)));
+    for (int items : ITEM_COUNTS) {
+      cases.add(new Case("controller.showInventory", "inventory=" + items, () -> showInventory(items)));
+      cases.add(new Case("view.renderGame", "items=" + items, () -> renderGame(items)));
+    }
+    return cases;
+  }
+
+  /**
+   * A random walk; blocked moves count as operations too, as they do in play.
+   */
+  private static LongSupplier move(int rooms, boolean dense) {
+    GameModel model = newModel(rooms, 1, dense);
+    String[] walk = new String[1024];
+    Random random = new Random(42);
+    String[] directions = dense ? new String[] {"N", "S", "E", "W"} : new String[] {"N", "S"};
+    for (int i = 0; i < walk.length; i++) {
+      walk[i] = directions[random.nextInt(directions.length)];
+    }
+    int[] step = {0};
+    return () -> {
+      boolean moved = model.movePlayer(walk[step[0]++ & (walk.length - 1)]);
+      model.commitTurn();
+      return moved ? 1 : 0;
+    };
+  }
+
+  /**
+   * Looks up every item of a crowded room in turn.
+   */
+  private static LongSupplier getItem(int items) {
+    Room room = newModel(4, items, false).getCurrentRoom();
+    String[] names = itemNames(1, items);
+    int[] next = {0};
+    return () -> {
+      Item item = room.getItem(names[next[0]++ % names.length]);
+      return item == null ? 0 : item.getId();
+    };
+  }
+
+  /**
+   * Removes an item from a crowded room and puts it back.
+   */
+  private static LongSupplier removeItem(int items) {
+    Room room = newModel(4, items, false).getCurrentRoom();
+    String[] names = itemNames(1, items);
+    int[] next = {0};
+    return () -> {
+      Item item = room.removeItem(names[next[0]++ % names.length]);
+      room.addItem(item);
+      return item.getId();
+    };
+  }
+
+  /**
+   * Picks up and drops one item while already carrying a large inventory.
+   */
+  private static LongSupplier pickItem(int inventory) {
+    GameModel model = newModel(4, inventory + 1, false);
+    for (int k = 1; k <= inventory; k++) {
+      model.pickItem(SyntheticMaps.itemName(1, k));
+    }
+    model.commitTurn();
+    String name = SyntheticMaps.itemName(1, 0);
+    return () -> {
+      boolean picked = model.pickItem(name) && model.dropItem(name);
+      model.commitTurn();
+      return picked ? 1 : 0;
+    };
+  }
+
+  /**
+   * Uses the solution item on the obstacle of room 1 (monster) or 2 (puzzle), re-arming it each time.
+   */
+  private static LongSupplier handleUse(int roomNumber) {
+    GameModel model = newModel(4, 1, false);
+    for (int r = 1; r < roomNumber; r++) {
+      model.movePlayer("N");
+    }
+    String solution = SyntheticMaps.itemName(roomNumber, 0);
+    model.pickItem(solution);
+    model.commitTurn();
+    GameObstacle obstacle = model.getCurrentRoom().getObstacle();
+    AbstractController controller = new AbstractController(model) { };
+    return () -> {
+      obstacle.setActive(true);
+      String result = controller.handleUse(solution);
+      model.commitTurn();
+      return result.length();
+    };
+  }
+
+  /**
+   * Formats a large inventory.
+   */
+  private static LongSupplier showInventory(int inventory) {
+    GameModel model = newModel(4, inventory, false);
+    for (int k = 0; k < inventory; k++) {
+      model.pickItem(SyntheticMaps.itemName(1, k));
+    }
+    model.commitTurn();
+    AbstractController controller = new AbstractController(model) { };
+    return () -> controller.showInventoryString().length();
+  }
+
+  /**
+   * Renders a crowded room, discarding the text.
+   */
+  private static LongSupplier renderGame(int items) {
+    GameModel model = newModel(4, items, false);
+    NullSink sink = new NullSink();
+    ConsoleView view = new ConsoleView(sink);
+    Player player = model.getPlayer();
+    Room room = model.getCurrentRoom();
+    return () -> {
+      view.renderGame(player, room);
+      return sink.getDiscarded();
+    };
+  }
+
+  private static GameModel newModel(int rooms, int itemsPerRoom, boolean dense) {
+    GameModel model = new GameModel();
+    model.generateWorld(SyntheticMaps.generate(rooms, itemsPerRoom, dense));
+    model.initializePlayer("BenchPlayer");
+    return model;
+  }
+
+  private static String[] itemNames(int room, int items) {
+    String[] names = new String[items];
+    for (int k = 0; k < items; k++) {
+      names[k] = SyntheticMaps.itemName(room, k);
+    }
+    return names;
+  }
+}
@@ -0,0 +1,256 @@
+package enginedriver.bench;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import enginedriver.server.GameServer;
+import model.GameModel;
+import model.IModel;
+import model.shared.SharedWorld;
+import utils.fileutil.JsonUtils;
+import utils.fileutil.SlotSaveStore;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds out how many concurrent players one JVM can serve: spawns simulated players that
+ * drive the game with a realistic command mix (walks along real exits, take/drop, use,
+ * look, inventory, and a save every so many commands) and records throughput, latency
+ * percentiles, GC pauses and heap usage over time.
+ *
+ * Modes: "model" gives every bot its own GameModel, "shared" puts all bots in one
+ * SharedWorld, and "text" starts a GameServer on a loopback port and has the bots play
+ * over the text protocol. Saves go to a temporary slot store, never to real saves; text
+ * bots never save, since the server does not let network sessions save.
+ * Writes timeseries.csv and summary.json to the output directory.
+ *
+ * Usage: LoadGenerator &lt;map.json&gt; [-bots n] [-seconds s] [-ramp s] [-mode model|shared|text]
+ *        [-think ms] [-saveEvery n] [-sample ms] [-out dir]
+ */
+public class LoadGenerator {
+
+  /**
+   * Run settings.
+   *
+   * @param mapFile      the map file
+   * @param bots         number of simulated players
+   * @param seconds      test length, including the ramp
+   * @param rampSeconds  time over which the bots are started
+   * @param mode         model, shared or text
+   * @param thinkMillis  mean pause between a bot's commands
+   * @param saveEvery    commands between saves (0 never)
+   * @param sampleMillis time-series interval
+   * @param outDir       output directory
+   */
+  public record Config(String mapFile, int bots, int seconds, int rampSeconds, String mode,
+                       long thinkMillis, int saveEvery, long sampleMillis, Path outDir) { }
+
+  private final Config config;
+  private final LoadStats stats = new LoadStats();
+
+  /**
+   * Creates a generator.
+   *
+   * @param config the run settings
+   */
+  public LoadGenerator(Config config) {
+    this.config = config;
+  }
+
+  /**
+   * Runs the test and writes the results.
+   *
+   * @param report where progress and the summary are printed
+   * @return the collected statistics
+   * @throws IOException if the map cannot be read or results cannot be written
+   * @throws InterruptedException if interrupted while waiting for the bots
+   */
+  public LoadStats run(PrintStream report) throws IOException, InterruptedException {
+    JsonObject map = JsonUtils.safeParseJson(config.mapFile());
+    Path saves = Files.createTempFile("halo-load", ".slots");
+    if (System.getProperty("halo.saves.slotStore") == null) {
+      System.setProperty("halo.saves.slotStore", saves.toString()); // before any model saves
+    }
+    GameServer server = null;
+    SharedWorld world = null;
+    int port = 0;
+    if (config.mode().equals("text")) {
+      server = new GameServer(config.mapFile(), 0, GameServer.DEFAULT_IDLE_SECONDS, config.bots() + 16);
+      port = server.bind();
+      GameServer listening = server;
+      Thread acceptor = new Thread(() -> {
+        try {
+          listening.serve();
+        } catch (IOException e) {
+          System.err.println("Server stopped: " + e.getMessage());
+        }
+      }, "load-server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    } else if (config.mode().equals("shared")) {
+      world = new SharedWorld(map);
+    }
+
+    List<String> itemNames = itemNames(map);
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.SECONDS.toNanos(config.seconds());
+    long rampNanos = TimeUnit.SECONDS.toNanos(config.rampSeconds());
+    List<Thread> threads = new ArrayList<>(config.bots());
+    stats.startGcMonitor();
+    long nextSample = start + TimeUnit.MILLISECONDS.toNanos(config.sampleMillis());
+    report.printf("%8s %6s %12s %10s %10s %10s %6s%n", "seconds", "bots", "cmds/s", "p50 ms", "p99 ms", "heap MB", "GCs");
+    try {
+      for (int b = 0; b < config.bots(); b++) {
+        long startAt = start + rampNanos * b / config.bots();
+        while (System.nanoTime() < startAt) {
+          nextSample = sampleIfDue(nextSample, report);
+          Thread.sleep(1);
+        }
+        Runnable bot = newBot(b, map, world, port, itemNames, deadline);
+        Thread t = new Thread(null, bot, "bot-" + b, GameServer.SESSION_STACK_BYTES);
+        t.setDaemon(true);
+        t.start();
+        threads.add(t);
+      }
+      while (System.nanoTime() < deadline) {
+        nextSample = sampleIfDue(nextSample, report);
+        Thread.sleep(Math.max(1, Math.min(config.sampleMillis(),
+                TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))));
+      }
+      for (Thread t : threads) {
+        t.join(TimeUnit.SECONDS.toMillis(5));
+      }
+      print(stats.sample(), report);
+    } finally {
+      stats.stopGcMonitor();
+      if (server != null) {
+        server.shutdown(2000);
+      }
+      Files.deleteIfExists(saves);
+    }
+
+    double duration = (System.nanoTime() - start) / 1e9;
+    Files.createDirectories(config.outDir());
+    stats.writeCsv(config.outDir().resolve("timeseries.csv"));
+    stats.writeJson(config.outDir().resolve("summary.json"), describe(), duration);
+    report.printf("%n%,d commands in %.1f s (%,.0f/s), %,d refused. Latency ms: p50 %.3f, p99 %.3f, p99.9 %.3f, max %.3f%n",
+            stats.getAll().getCount(), duration, stats.getAll().getCount() / duration, stats.getFailures(),
+            stats.getAll().valueAt(0.50) / 1e6, stats.getAll().valueAt(0.99) / 1e6,
+            stats.getAll().valueAt(0.999) / 1e6, stats.getAll().getMaxMicros() / 1000);
+    report.printf("GC: %d pauses, max %.0f ms. Results written to %s%n",
+            stats.getGcPauses().getCount(), stats.getGcPauses().getMaxMicros() / 1000, config.outDir());
+    return stats;
+  }
+
+  private Runnable newBot(int b, JsonObject map, SharedWorld world, int port, List<String> itemNames,
+                          long deadline) {
+    if (config.mode().equals("text")) {
+      return new TextBot(b, port, itemNames, stats, deadline, config.thinkMillis(), b);
+    }
+    int slot = b % SlotSaveStore.DEFAULT_SLOTS;
+    IModel model;
+    int saveEvery = config.saveEvery();
+    if (world != null) {
+      model = world.join("bot-" + b);
+      saveEvery = 0; // a shared world has no per-player saves
+    } else {
+      GameModel own = new GameModel();
+      own.generateWorld(map);
+      own.initializePlayer("bot-" + b);
+      model = own;
+    }
+    return new ModelBot(model, stats, deadline, config.thinkMillis(), saveEvery, slot, b);
+  }
+
+  private long sampleIfDue(long nextSample, PrintStream report) {
+    if (System.nanoTime() < nextSample) {
+      return nextSample;
+    }
+    print(stats.sample(), report);
+    return nextSample + TimeUnit.MILLISECONDS.toNanos(config.sampleMillis());
+  }
+
+  private static void print(LoadStats.Sample s, PrintStream report) {
+    report.printf("%8.1f %6d %,12.0f %10.3f %10.3f %10.1f %6d%n", s.seconds(), s.bots(), s.commandsPerSecond(),
+            s.p50Millis(), s.p99Millis(), s.heapUsed() / 1048576.0, s.gcCount());
+  }
+
+  private Map<String, Object> describe() {
+    Map<String, Object> d = new LinkedHashMap<>();
+    d.put("map", config.mapFile());
+    d.put("mode", config.mode());
+    d.put("bots", config.bots());
+    d.put("seconds", config.seconds());
+    d.put("rampSeconds", config.rampSeconds());
+    d.put("thinkMillis", config.thinkMillis());
+    d.put("saveEvery", config.saveEvery());
+    d.put("java", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+    d.put("cpus", Runtime.getRuntime().availableProcessors());
+    d.put("maxHeapMb", Runtime.getRuntime().maxMemory() / 1048576);
+    return d;
+  }
+
+  /**
+   * Returns the map's item names, longest first so a name is not mistaken for part of another.
+   */
+  private static List<String> itemNames(JsonObject map) {
+    List<String> names = new ArrayList<>();
+    if (map.has("items") && map.get("items").isJsonArray()) {
+      for (JsonElement item : map.getAsJsonArray("items")) {
+        if (item.isJsonObject() && item.getAsJsonObject().has("name")) {
+          names.add(item.getAsJsonObject().get("name").getAsString());
+        }
+      }
+    }
+    names.sort(Comparator.comparingInt(String::length).reversed());
+    return names;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1) {
+      System.out.println("Usage: LoadGenerator <map.json> [-bots n] [-seconds s] [-ramp s] "
+              + "[-mode model|shared|text] [-think ms] [-saveEvery n] [-sample ms] [-out dir]");
+      return;
+    }
+    int bots = 100;
+    int seconds = 30;
+    int ramp = 0;
+    String mode = "model";
+    long think = 0;
+    int saveEvery = 50;
+    long sample = 1000;
+    Path out = Paths.get("loadtest");
+    for (int i = 1; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "-bots" -> bots = Integer.parseInt(value);
+        case "-seconds" -> seconds = Integer.parseInt(value);
+        case "-ramp" -> ramp = Integer.parseInt(value);
+        case "-mode" -> mode = value;
+        case "-think" -> think = Long.parseLong(value);
+        case "-saveEvery" -> saveEvery = Integer.parseInt(value);
+        case "-sample" -> sample = Long.parseLong(value);
+        case "-out" -> out = Paths.get(value);
+        default -> System.err.println("Ignoring unknown option " + args[i]);
+      }
+    }
+    if (!List.of("model", "shared", "text").contains(mode)) {
+      System.err.println("Unknown mode '" + mode + "' (expected model, shared or text).");
+      return;
+    }
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream())); // mute in-game chatter
+    new LoadGenerator(new Config(args[0], Math.max(1, bots), Math.max(1, seconds),
+            Math.max(0, Math.min(ramp, seconds)), mode, think, saveEvery, Math.max(100, sample), out)).run(report);
+  }
+}
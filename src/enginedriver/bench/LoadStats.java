@@ -0,0 +1,287 @@
+package enginedriver.bench;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import utils.metrics.LatencyHistogram;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects what a load test measures: command latencies (overall, per action and per
+ * sampling interval), GC pauses as the JVM reports them, and heap usage over time.
+ * Bots record from many threads; {@link #sample()} is called from one sampler thread.
+ */
+public class LoadStats {
+
+  /**
+   * One point of the time series.
+   *
+   * @param seconds           time since the test started
+   * @param bots              bots running at the sample
+   * @param commands          commands completed in the interval
+   * @param commandsPerSecond throughput over the interval
+   * @param p50Millis         median command latency in the interval
+   * @param p99Millis         99th percentile command latency in the interval
+   * @param heapUsed          heap bytes in use
+   * @param heapCommitted     heap bytes committed
+   * @param gcCount           collections that ended in the interval
+   * @param gcPauseMillis     total collection time in the interval
+   */
+  public record Sample(double seconds, int bots, long commands, double commandsPerSecond,
+                       double p50Millis, double p99Millis, long heapUsed, long heapCommitted,
+                       long gcCount, double gcPauseMillis) { }
+
+  private final Map<BotAction, LatencyHistogram> byAction = new EnumMap<>(BotAction.class);
+  private final LatencyHistogram all = new LatencyHistogram();
+  private final AtomicReference<LatencyHistogram> interval = new AtomicReference<>(new LatencyHistogram());
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder sessions = new LongAdder();
+  private final AtomicInteger activeBots = new AtomicInteger();
+
+  private final LatencyHistogram gcPauses = new LatencyHistogram();
+  private final AtomicLong intervalGcCount = new AtomicLong();
+  private final AtomicLong intervalGcNanos = new AtomicLong();
+  private final NotificationListener gcListener = this::onGc;
+
+  private final List<Sample> samples = new ArrayList<>();
+  private final long startNanos = System.nanoTime();
+  private long lastSampleNanos = startNanos;
+  private long peakHeapUsed;
+
+  /**
+   * Creates empty statistics.
+   */
+  public LoadStats() {
+    for (BotAction action : BotAction.values()) {
+      byAction.put(action, new LatencyHistogram());
+    }
+  }
+
+  /**
+   * Records one completed command.
+   *
+   * @param action    what the bot did
+   * @param nanos     how long it took
+   * @param succeeded false if the game refused it (no such item, no exit, ...)
+   */
+  public void record(BotAction action, long nanos, boolean succeeded) {
+    byAction.get(action).record(nanos);
+    all.record(nanos);
+    interval.get().record(nanos);
+    if (!succeeded) {
+      failures.increment();
+    }
+  }
+
+  /**
+   * Counts a bot starting.
+   */
+  public void botStarted() {
+    activeBots.incrementAndGet();
+  }
+
+  /**
+   * Counts a bot finishing.
+   */
+  public void botStopped() {
+    activeBots.decrementAndGet();
+  }
+
+  /**
+   * Counts a game session opened by a bot (text bots reconnect after a game ends).
+   */
+  public void sessionOpened() {
+    sessions.increment();
+  }
+
+  /**
+   * Starts listening for garbage collections.
+   */
+  public void startGcMonitor() {
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (gc instanceof NotificationEmitter emitter) {
+        emitter.addNotificationListener(gcListener, null, null);
+      }
+    }
+  }
+
+  /**
+   * Stops listening for garbage collections.
+   */
+  public void stopGcMonitor() {
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (gc instanceof NotificationEmitter emitter) {
+        try {
+          emitter.removeNotificationListener(gcListener);
+        } catch (ListenerNotFoundException e) {
+          // never added
+        }
+      }
+    }
+  }
+
+  private void onGc(Notification notification, Object handback) {
+    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    long nanos = info.getGcInfo().getDuration() * 1_000_000;
+    gcPauses.record(nanos);
+    intervalGcCount.incrementAndGet();
+    intervalGcNanos.addAndGet(nanos);
+  }
+
+  /**
+   * Closes the current interval and appends it to the time series.
+   *
+   * @return the new sample
+   */
+  public Sample sample() {
+    long now = System.nanoTime();
+    LatencyHistogram closed = interval.getAndSet(new LatencyHistogram());
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    peakHeapUsed = Math.max(peakHeapUsed, heap.getUsed());
+    long commands = closed.getCount();
+    double elapsed = Math.max(1, now - lastSampleNanos) / 1e9;
+    Sample s = new Sample((now - startNanos) / 1e9, activeBots.get(), commands, commands / elapsed,
+            closed.valueAt(0.50) / 1e6, closed.valueAt(0.99) / 1e6, heap.getUsed(), heap.getCommitted(),
+            intervalGcCount.getAndSet(0), intervalGcNanos.getAndSet(0) / 1e6);
+    samples.add(s);
+    lastSampleNanos = now;
+    return s;
+  }
+
+  /**
+   * Returns the latencies of every command.
+   *
+   * @return the overall histogram
+   */
+  public LatencyHistogram getAll() {
+    return all;
+  }
+
+  /**
+   * Returns the number of commands the game refused.
+   *
+   * @return the failure count
+   */
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  /**
+   * Returns the recorded GC pauses.
+   *
+   * @return the pause histogram
+   */
+  public LatencyHistogram getGcPauses() {
+    return gcPauses;
+  }
+
+  /**
+   * Returns the time series so far.
+   *
+   * @return the samples
+   */
+  public List<Sample> getSamples() {
+    return samples;
+  }
+
+  /**
+   * Writes the time series as CSV.
+   *
+   * @param file the CSV file
+   * @throws IOException if it cannot be written
+   */
+  public void writeCsv(Path file) throws IOException {
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+      out.println("seconds,bots,commands,commands_per_sec,p50_ms,p99_ms,heap_used_mb,heap_committed_mb,gc_count,gc_pause_ms");
+      for (Sample s : samples) {
+        out.printf("%.1f,%d,%d,%.1f,%.3f,%.3f,%.1f,%.1f,%d,%.1f%n", s.seconds(), s.bots(), s.commands(),
+                s.commandsPerSecond(), s.p50Millis(), s.p99Millis(), s.heapUsed() / 1048576.0,
+                s.heapCommitted() / 1048576.0, s.gcCount(), s.gcPauseMillis());
+      }
+    }
+  }
+
+  /**
+   * Writes the run configuration and the totals as JSON.
+   *
+   * @param file     the JSON file
+   * @param config   the run configuration, written as given
+   * @param duration the measured duration in seconds
+   * @throws IOException if it cannot be written
+   */
+  public void writeJson(Path file, Map<String, Object> config, double duration) throws IOException {
+    try (Writer out = Files.newBufferedWriter(file); JsonWriter json = new JsonWriter(out)) {
+      json.setIndent("  ");
+      json.beginObject();
+      json.name("config").beginObject();
+      for (Map.Entry<String, Object> e : config.entrySet()) {
+        json.name(e.getKey());
+        if (e.getValue() instanceof Number n) {
+          json.value(n);
+        } else {
+          json.value(String.valueOf(e.getValue()));
+        }
+      }
+      json.endObject();
+      json.name("durationSeconds").value(duration);
+      json.name("commands").value(all.getCount());
+      json.name("failures").value(getFailures());
+      json.name("sessions").value(sessions.sum());
+      json.name("commandsPerSecond").value(all.getCount() / duration);
+      json.name("latencyMillis");
+      writeLatency(json, all);
+      json.name("latencyMillisByAction").beginObject();
+      for (Map.Entry<BotAction, LatencyHistogram> e : byAction.entrySet()) {
+        if (e.getValue().getCount() > 0) {
+          json.name(e.getKey().name().toLowerCase());
+          writeLatency(json, e.getValue());
+        }
+      }
+      json.endObject();
+      json.name("gcPauses").beginObject();
+      json.name("count").value(gcPauses.getCount());
+      json.name("totalMillis").value(gcPauses.getCount() * gcPauses.getMeanMicros() / 1000);
+      json.name("p99Millis").value(gcPauses.valueAt(0.99) / 1e6);
+      json.name("maxMillis").value(gcPauses.getMaxMicros() / 1000);
+      json.endObject();
+      json.name("peakHeapUsedMb").value(peakHeapUsed / 1048576.0);
+      json.endObject();
+    }
+  }
+
+  private static void writeLatency(JsonWriter json, LatencyHistogram h) throws IOException {
+    json.beginObject();
+    json.name("count").value(h.getCount());
+    json.name("mean").value(h.getMeanMicros() / 1000);
+    json.name("p50").value(h.valueAt(0.50) / 1e6);
+    json.name("p90").value(h.valueAt(0.90) / 1e6);
+    json.name("p99").value(h.valueAt(0.99) / 1e6);
+    json.name("p999").value(h.valueAt(0.999) / 1e6);
+    json.name("max").value(h.getMaxMicros() / 1000);
+    json.endObject();
+  }
+}
@@ -0,0 +1,113 @@
+package enginedriver.bench;
+
+import utils.metrics.Allocations;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A small in-process benchmark runner in the spirit of JMH: each operation is warmed up
+ * for a fixed time, then run for several fixed-time iterations. Reports the mean throughput
+ * with its 99.9% confidence half-width, and the heap bytes allocated per operation.
+ * Operations return a value that is folded into a sink so the JIT cannot discard them.
+ */
+public class Microbench {
+
+  /**
+   * Result of one benchmark.
+   *
+   * @param benchmark    the benchmark name
+   * @param params       the parameters, e.g. "rooms=64"
+   * @param opsPerSecond mean throughput
+   * @param error        99.9% confidence half-width of the throughput
+   * @param bytesPerOp   heap bytes allocated per operation, -1 if unmeasured
+   */
+  public record Result(String benchmark, String params, double opsPerSecond, double error,
+                       double bytesPerOp) { }
+
+  // Student's t at 99.9% (two-sided) for 1..10 degrees of freedom
+  private static final double[] T_999 = {636.6, 31.60, 12.92, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587};
+  private static final int BATCH = 64;
+
+  private final long warmupNanos;
+  private final long iterationNanos;
+  private final int iterations;
+  private long sink;
+
+  /**
+   * Creates a runner.
+   *
+   * @param warmupMillis    warm-up time per benchmark
+   * @param iterationMillis time per measured iteration
+   * @param iterations      number of measured iterations (at least 2)
+   */
+  public Microbench(long warmupMillis, long iterationMillis, int iterations) {
+    this.warmupNanos = warmupMillis * 1_000_000;
+    this.iterationNanos = iterationMillis * 1_000_000;
+    this.iterations = Math.max(2, iterations);
+  }
+
+  /**
+   * Runs one benchmark.
+   *
+   * @param benchmark the benchmark name
+   * @param params    the parameters
+   * @param op        the operation; its result is consumed
+   * @return the result
+   */
+  public Result run(String benchmark, String params, LongSupplier op) {
+    runFor(op, warmupNanos);
+    double[] rates = new double[iterations];
+    long ops = 0;
+    long bytes = 0;
+    for (int i = 0; i < iterations; i++) {
+      long allocatedBefore = Allocations.currentThreadBytes();
+      long start = System.nanoTime();
+      long done = runFor(op, iterationNanos);
+      long elapsed = System.nanoTime() - start;
+      bytes += Allocations.currentThreadBytes() - allocatedBefore;
+      ops += done;
+      rates[i] = done * 1e9 / elapsed;
+    }
+
+    double mean = 0;
+    for (double r : rates) {
+      mean += r;
+    }
+    mean /= iterations;
+    double variance = 0;
+    for (double r : rates) {
+      variance += (r - mean) * (r - mean);
+    }
+    variance /= iterations - 1;
+    double t = T_999[Math.min(iterations - 1, T_999.length) - 1];
+    double error = t * Math.sqrt(variance / iterations);
+    double bytesPerOp = Allocations.isSupported() ? (double) bytes / ops : -1;
+    return new Result(benchmark, params, mean, error, bytesPerOp);
+  }
+
+  /**
+   * Runs the operation in batches until the time is up, returning the number of runs.
+   */
+  private long runFor(LongSupplier op, long nanos) {
+    long deadline = System.nanoTime() + nanos;
+    long done = 0;
+    long acc = 0;
+    do {
+      for (int i = 0; i < BATCH; i++) {
+        acc += op.getAsLong();
+      }
+      done += BATCH;
+    } while (System.nanoTime() < deadline);
+    sink += acc;
+    return done;
+  }
+
+  /**
+   * Returns the folded results of every operation run, so their work is observable.
+   *
+   * @return the sink value
+   */
+  public long getSink() {
+    return sink;
+  }
+}
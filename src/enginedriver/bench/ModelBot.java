@@ -0,0 +1,141 @@
+package enginedriver.bench;
+
+import controller.AbstractController;
+import model.IModel;
+import model.core.Room;
+import model.elements.Item;
+import view.ConsoleView;
+import view.sink.NullSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A simulated player calling {@link IModel} directly, the way a controller would: each
+ * command is one model call (rendering into a {@link NullSink} for LOOK) followed by a
+ * turn commit. Walks follow the current room's real exits.
+ */
+public class ModelBot implements Runnable {
+
+  private static final String[] DIRECTIONS = {"N", "S", "E", "W"};
+
+  private final IModel model;
+  private final AbstractController controller;
+  private final ConsoleView view = new ConsoleView(new NullSink());
+  private final LoadStats stats;
+  private final long deadlineNanos;
+  private final long thinkMillis;
+  private final int saveEvery;
+  private final int slot;
+  private final Random random;
+
+  /**
+   * Creates a bot.
+   *
+   * @param model         the bot's model
+   * @param stats         where to record commands
+   * @param deadlineNanos {@link System#nanoTime()} at which to stop
+   * @param thinkMillis   mean pause between commands (0 for none)
+   * @param saveEvery     save after this many commands (0 never)
+   * @param slot          the save slot to use
+   * @param seed          random seed
+   */
+  public ModelBot(IModel model, LoadStats stats, long deadlineNanos, long thinkMillis,
+                  int saveEvery, int slot, long seed) {
+    this.model = model;
+    this.controller = new AbstractController(model) { };
+    this.stats = stats;
+    this.deadlineNanos = deadlineNanos;
+    this.thinkMillis = thinkMillis;
+    this.saveEvery = saveEvery;
+    this.slot = slot;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void run() {
+    stats.botStarted();
+    stats.sessionOpened();
+    try {
+      long issued = 0;
+      while (System.nanoTime() < deadlineNanos) {
+        issued++;
+        BotAction action = saveEvery > 0 && issued % saveEvery == 0 ? BotAction.SAVE : BotAction.pick(random);
+        long start = System.nanoTime();
+        boolean ok = perform(action);
+        model.commitTurn();
+        stats.record(action, System.nanoTime() - start, ok);
+        if (!think()) {
+          return;
+        }
+      }
+    } finally {
+      stats.botStopped();
+    }
+  }
+
+  private boolean perform(BotAction action) {
+    Room room = model.getCurrentRoom();
+    return switch (action) {
+      case MOVE -> model.movePlayer(pickExit(room));
+      case TAKE -> {
+        List<Item> items = room.getItems();
+        yield !items.isEmpty() && model.pickItem(items.get(random.nextInt(items.size())).getName());
+      }
+      case DROP -> {
+        String held = pickHeld();
+        yield held != null && model.dropItem(held);
+      }
+      case USE -> {
+        String held = pickHeld();
+        yield held != null && !controller.handleUse(held).isEmpty();
+      }
+      case LOOK -> {
+        view.invalidate();
+        view.renderGame(model.getPlayer(), room);
+        yield true;
+      }
+      case INVENTORY -> !controller.showInventoryString().isEmpty();
+      case SAVE -> model.saveGame(slot);
+    };
+  }
+
+  /**
+   * Picks one of the room's open exits, or any direction if none is open.
+   */
+  private String pickExit(Room room) {
+    List<String> open = new ArrayList<>(4);
+    for (Map.Entry<String, Integer> exit : room.getExits().entrySet()) {
+      if (exit.getValue() > 0) {
+        open.add(exit.getKey());
+      }
+    }
+    return open.isEmpty() ? DIRECTIONS[random.nextInt(4)] : open.get(random.nextInt(open.size()));
+  }
+
+  private String pickHeld() {
+    List<Item> inventory = model.getInventory();
+    int size = inventory.size();
+    return size == 0 ? null : inventory.get(random.nextInt(size)).getName();
+  }
+
+  /**
+   * Pauses for a random time averaging the think time.
+   *
+   * @return false if interrupted
+   */
+  private boolean think() {
+    if (thinkMillis <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(random.nextInt((int) (2 * thinkMillis) + 1));
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
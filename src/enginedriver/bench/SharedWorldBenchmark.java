@@ -0,0 +1,78 @@
+package enginedriver.bench;
+
+import com.google.gson.JsonObject;
+import model.shared.RoomLocks;
+import model.shared.SharedGameModel;
+import model.shared.SharedWorld;
+import utils.fileutil.JsonUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures shared-world throughput as the number of players grows, with a single global
+ * room lock against the default striped locks.
+ *
+ * Usage: SharedWorldBenchmark &lt;map.json&gt; [secondsPerPoint] [maxPlayers]
+ */
+public class SharedWorldBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1) {
+      System.out.println("Usage: SharedWorldBenchmark <map.json> [secondsPerPoint] [maxPlayers]");
+      return;
+    }
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream())); // mute in-game chatter
+    JsonObject map = JsonUtils.safeParseJson(args[0]);
+    long millis = (args.length > 1 ? Integer.parseInt(args[1]) : 2) * 1000L;
+    int maxPlayers = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+    run(map, 1, 1, millis); // warm-up
+    report.printf("%8s %16s %16s%n", "players", "1 lock ops/s", RoomLocks.DEFAULT_STRIPES + " locks ops/s");
+    for (int players = 1; players <= maxPlayers; players *= 2) {
+      double global = run(map, players, 1, millis);
+      double striped = run(map, players, RoomLocks.DEFAULT_STRIPES, millis);
+      report.printf("%8d %,16.0f %,16.0f%n", players, global, striped);
+    }
+  }
+
+  private static double run(JsonObject map, int players, int stripes, long millis) throws InterruptedException {
+    SharedWorld world = new SharedWorld(map, stripes);
+    AtomicLong ops = new AtomicLong();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    long[] window = new long[1];
+    for (int p = 0; p < players; p++) {
+      SharedGameModel model = world.join("bench");
+      Random random = new Random(p);
+      Thread t = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        long done = 0;
+        while (System.nanoTime() < window[0]) {
+          SharedWorldStress.randomAction(model, random);
+          done++;
+        }
+        ops.addAndGet(done);
+      });
+      threads.add(t);
+      t.start();
+    }
+    long begin = System.nanoTime();
+    window[0] = begin + millis * 1_000_000;
+    start.countDown();
+    for (Thread t : threads) {
+      t.join();
+    }
+    return ops.get() * 1e9 / (System.nanoTime() - begin);
+  }
+}
@@ -0,0 +1,231 @@
+package enginedriver.bench;
+
+import com.google.gson.JsonObject;
+import controller.AbstractController;
+import model.core.Room;
+import model.elements.Item;
+import model.events.GameEvent;
+import model.obstacle.GameObstacle;
+import model.shared.SharedGameModel;
+import model.shared.SharedWorld;
+import utils.fileutil.JsonUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency stress test for {@link SharedWorld}: many players take, drop, use and move
+ * at random in one world, then the world is checked for lost or duplicated items and that
+ * every cleared obstacle had exactly one winner.
+ *
+ * Usage: SharedWorldStress &lt;map.json&gt; [players] [seconds] [rounds]. Exits 1 on a violation.
+ */
+public class SharedWorldStress {
+
+  private static final String[] DIRECTIONS = {"N", "S", "E", "W"};
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1) {
+      System.out.println("Usage: SharedWorldStress <map.json> [players] [seconds] [rounds]");
+      return;
+    }
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream())); // mute in-game chatter
+    int players = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+    int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+    JsonObject map = JsonUtils.safeParseJson(args[0]);
+    int failures = 0;
+    for (int round = 1; round <= rounds; round++) {
+      AtomicLong ops = new AtomicLong();
+      List<String> errors = runRound(map, players, seconds * 1000L, round, ops);
+      report.printf("Round %d: %d players, %,d ops, %s%n", round, players, ops.get(),
+              errors.isEmpty() ? "OK" : errors.size() + " violation(s)");
+      for (String error : errors) {
+        report.println("  " + error);
+      }
+      failures += errors.size();
+    }
+    System.exit(failures == 0 ? 0 : 1);
+  }
+
+  /**
+   * Plays one round in a fresh world and checks it.
+   *
+   * @param map     the parsed map
+   * @param players number of concurrent players
+   * @param millis  how long they play
+   * @param seed    seed of the players' random sources
+   * @param ops     counts the actions performed
+   * @return the violations found, empty if the world is consistent
+   * @throws InterruptedException if interrupted while waiting for the players
+   */
+  public static List<String> runRound(JsonObject map, int players, long millis, long seed, AtomicLong ops)
+          throws InterruptedException {
+    SharedWorld world = new SharedWorld(map);
+    Map<GameObstacle, Integer> active = activeObstacles(world);
+    Map<Integer, AtomicInteger> winners = new ConcurrentHashMap<>();
+    List<String> errors = new ArrayList<>();
+    double scored = play(world, players, millis, seed, ops, winners, errors);
+    errors.addAll(check(world, active, winners, scored));
+    return errors;
+  }
+
+  /**
+   * Runs the players until the deadline, has them all leave and returns their total score.
+   * Every obstacle a player clears is counted in winners, by room.
+   */
+  private static double play(SharedWorld world, int players, long millis, long seed, AtomicLong ops,
+                             Map<Integer, AtomicInteger> winners, List<String> errors)
+          throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    long deadline = System.nanoTime() + millis * 1_000_000;
+    List<Thread> threads = new ArrayList<>();
+    List<SharedGameModel> members = new ArrayList<>();
+    for (int p = 0; p < players; p++) {
+      SharedGameModel model = world.join("bot");
+      model.getPlayer().journal().subscribe(e -> {
+        if (e instanceof GameEvent.ObstacleCleared cleared) {
+          winners.computeIfAbsent(cleared.room(), r -> new AtomicInteger()).incrementAndGet();
+        }
+      });
+      members.add(model);
+      Random random = new Random(seed * 1_000 + p);
+      Thread t = new Thread(() -> {
+        try {
+          start.await();
+          long done = 0;
+          while (System.nanoTime() < deadline) {
+            randomAction(model, random);
+            done++;
+          }
+          ops.addAndGet(done);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+          synchronized (errors) {
+            errors.add(Thread.currentThread().getName() + " failed: " + e);
+          }
+        }
+      }, "player-" + p);
+      threads.add(t);
+      t.start();
+    }
+    start.countDown();
+    for (Thread t : threads) {
+      t.join();
+    }
+    double scored = 0;
+    for (SharedGameModel model : members) {
+      scored += model.getScore();
+      model.leave();
+    }
+    return scored;
+  }
+
+  /**
+   * One random player action, going through the controller's use logic like a real session.
+   *
+   * @param model  the player's model
+   * @param random the player's random source
+   */
+  static void randomAction(SharedGameModel model, Random random) {
+    Room room = model.getCurrentRoom();
+    switch (random.nextInt(5)) {
+      case 0, 1 -> {
+        List<Item> items = List.copyOf(room.getItems()); // others change it as we look
+        if (!items.isEmpty()) {
+          model.pickItem(items.get(random.nextInt(items.size())).getName());
+        }
+      }
+      case 2 -> {
+        Item item = pick(model.getInventory(), random);
+        if (item != null) {
+          model.dropItem(item.getName());
+        }
+      }
+      case 3 -> {
+        Item item = pick(model.getInventory(), random);
+        if (item != null) {
+          new AbstractController(model) { }.handleUse(item.getName());
+        }
+      }
+      default -> model.movePlayer(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+    }
+  }
+
+  private static Item pick(List<Item> items, Random random) {
+    return items.isEmpty() ? null : items.get(random.nextInt(items.size()));
+  }
+
+  private static Map<GameObstacle, Integer> activeObstacles(SharedWorld world) {
+    Map<GameObstacle, Integer> active = new IdentityHashMap<>();
+    for (Room room : world.getEngine().getWorldMap().values()) {
+      GameObstacle obstacle = room.getObstacle();
+      if (obstacle != null && obstacle.isActive()) {
+        active.put(obstacle, obstacle.getValue());
+      }
+    }
+    return active;
+  }
+
+  /**
+   * Checks the world after every player has left: each item lies in exactly one room, each
+   * cleared obstacle had exactly one winner (and each active one none), and the players'
+   * total score equals the value of the obstacles they cleared.
+   */
+  private static List<String> check(SharedWorld world, Map<GameObstacle, Integer> active,
+                                    Map<Integer, AtomicInteger> winners, double scored) {
+    List<String> errors = new ArrayList<>();
+    if (!world.getPlayers().isEmpty()) {
+      errors.add(world.getPlayers().size() + " players still in the world");
+    }
+
+    Map<Item, Integer> seen = new IdentityHashMap<>();
+    for (Room room : world.getEngine().getWorldMap().values()) {
+      for (Item item : room.getItems()) {
+        seen.merge(item, 1, Integer::sum);
+      }
+    }
+    for (Item item : world.getEngine().getItems()) {
+      int count = seen.getOrDefault(item, 0);
+      if (count != 1) {
+        errors.add("item #" + item.getId() + " " + item.getName() + " found " + count + " times");
+      }
+    }
+
+    for (Room room : world.getEngine().getWorldMap().values()) {
+      GameObstacle obstacle = room.getObstacle();
+      if (obstacle == null || !active.containsKey(obstacle)) {
+        continue;
+      }
+      AtomicInteger count = winners.get(room.getRoomNumber());
+      int won = count == null ? 0 : count.get();
+      if (won != (obstacle.isActive() ? 0 : 1)) {
+        errors.add("obstacle " + obstacle.getName() + " in room " + room.getRoomNumber()
+                + " had " + won + " winners");
+      }
+    }
+
+    long cleared = 0;
+    for (Map.Entry<GameObstacle, Integer> e : active.entrySet()) {
+      if (!e.getKey().isActive()) {
+        cleared += e.getValue();
+      }
+    }
+    if (cleared != (long) scored) {
+      errors.add("obstacles worth " + cleared + " were cleared but players scored " + scored);
+    }
+    return errors;
+  }
+}
@@ -0,0 +1,144 @@
+package enginedriver.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+/**
+ * Builds map JSON of any size for benchmarks, in the same shape as the shipped maps.
+ * Rooms are numbered from 1. A dense map lays the rooms out on a square grid with up to
+ * four exits each; a sparse map is a single north/south corridor. Every room holds
+ * {@code itemsPerRoom} weightless items named "Item &lt;room&gt;-&lt;k&gt;". Room 1 is guarded by
+ * a monster beaten with "Item 1-0" and room 2 by a puzzle solved with "Item 2-0".
+ */
+public final class SyntheticMaps {
+
+  /**
+   * Name of the monster placed in room 1.
+   */
+  public static final String MONSTER = "Ogre";
+
+  /**
+   * Name of the puzzle placed in room 2.
+   */
+  public static final String PUZZLE = "Riddle";
+
+  private SyntheticMaps() { }
+
+  /**
+   * Generates a map.
+   *
+   * @param rooms        number of rooms (at least 2)
+   * @param itemsPerRoom items placed in every room
+   * @param dense        grid layout if true, corridor if false
+   * @return the map root
+   */
+  public static JsonObject generate(int rooms, int itemsPerRoom, boolean dense) {
+    if (rooms < 2) {
+      throw new IllegalArgumentException("A synthetic map needs at least 2 rooms.");
+    }
+    int width = dense ? (int) Math.ceil(Math.sqrt(rooms)) : 1;
+    JsonArray roomArray = new JsonArray();
+    JsonArray itemArray = new JsonArray();
+    for (int n = 1; n <= rooms; n++) {
+      JsonObject room = new JsonObject();
+      room.addProperty("room_name", "Room " + n);
+      room.addProperty("room_number", String.valueOf(n));
+      room.addProperty("description", "Synthetic room " + n + ".");
+      int column = (n - 1) % width;
+      room.addProperty("N", exit(n + width, rooms));
+      room.addProperty("S", exit(n - width, rooms));
+      room.addProperty("E", column + 1 < width ? exit(n + 1, rooms) : "0");
+      room.addProperty("W", column > 0 ? exit(n - 1, rooms) : "0");
+      room.add("puzzle", JsonNull.INSTANCE);
+      room.add("monster", JsonNull.INSTANCE);
+      room.add("fixtures", JsonNull.INSTANCE);
+      room.add("picture", JsonNull.INSTANCE);
+
+      StringBuilder names = new StringBuilder();
+      for (int k = 0; k < itemsPerRoom; k++) {
+        String name = itemName(n, k);
+        names.append(k > 0 ? ", " : "").append(name);
+        itemArray.add(item(name));
+      }
+      if (itemsPerRoom > 0) {
+        room.addProperty("items", names.toString());
+      } else {
+        room.add("items", JsonNull.INSTANCE);
+      }
+      roomArray.add(room);
+    }
+
+    JsonObject root = new JsonObject();
+    root.addProperty("name", "Synthetic " + rooms + "x" + itemsPerRoom + (dense ? " dense" : " sparse"));
+    root.addProperty("version", "1.0");
+    root.add("rooms", roomArray);
+    root.add("items", itemArray);
+    root.add("fixtures", new JsonArray());
+    JsonArray monsters = new JsonArray();
+    monsters.add(monster());
+    root.add("monsters", monsters);
+    JsonArray puzzles = new JsonArray();
+    puzzles.add(puzzle());
+    root.add("puzzles", puzzles);
+    return root;
+  }
+
+  /**
+   * Returns the name of the k-th item in a room.
+   *
+   * @param room the room number
+   * @param k    the item index within the room
+   * @return the item name
+   */
+  public static String itemName(int room, int k) {
+    return "Item " + room + "-" + k;
+  }
+
+  private static String exit(int target, int rooms) {
+    return target >= 1 && target <= rooms ? String.valueOf(target) : "0";
+  }
+
+  private static JsonObject item(String name) {
+    JsonObject item = new JsonObject();
+    item.addProperty("name", name);
+    item.addProperty("weight", "0");
+    item.addProperty("max_uses", String.valueOf(Integer.MAX_VALUE));
+    item.addProperty("uses_remaining", String.valueOf(Integer.MAX_VALUE));
+    item.addProperty("value", "1");
+    item.addProperty("when_used", "Nothing happens.");
+    item.addProperty("description", "A synthetic item.");
+    return item;
+  }
+
+  private static JsonObject monster() {
+    JsonObject m = new JsonObject();
+    m.addProperty("name", MONSTER);
+    m.addProperty("active", "true");
+    m.addProperty("affects_target", "true");
+    m.addProperty("affects_player", "true");
+    m.addProperty("solution", itemName(1, 0));
+    m.addProperty("value", "10");
+    m.addProperty("description", "A synthetic monster.");
+    m.addProperty("effects", "The ogre blocks the way.");
+    m.addProperty("damage", "0");
+    m.addProperty("target", "1:Room 1");
+    m.addProperty("can_attack", "false");
+    m.addProperty("attack", "glares at you.");
+    return m;
+  }
+
+  private static JsonObject puzzle() {
+    JsonObject p = new JsonObject();
+    p.addProperty("name", PUZZLE);
+    p.addProperty("active", "true");
+    p.addProperty("affects_target", "true");
+    p.addProperty("affects_player", "true");
+    p.addProperty("solution", itemName(2, 0));
+    p.addProperty("value", "10");
+    p.addProperty("description", "A synthetic puzzle.");
+    p.addProperty("effects", "A riddle is carved in the wall.");
+    p.addProperty("target", "2:Room 2");
+    return p;
+  }
+}
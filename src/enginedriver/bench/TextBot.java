@@ -0,0 +1,209 @@
+package enginedriver.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A simulated player speaking the text protocol to a {@link enginedriver.server.GameServer}.
+ * A command's latency runs from sending its line to receiving the next command prompt, so it
+ * covers parsing, the model, rendering and the socket round trip. The bot only knows what a
+ * player would: item names are recognised in the room and inventory listings. When a game
+ * ends (the player falls, or the server closes the session) the bot connects again.
+ */
+public class TextBot implements Runnable {
+
+  private static final String PROMPT = "Enter command";
+  private static final String[] DIRECTIONS = {"N", "S", "E", "W"};
+  private static final String[] REFUSALS = {"You can't move", "Item not found", "You don't have",
+    "Unknown command", "Take what", "Drop what", "Use what"};
+
+  private final int id;
+  private final int port;
+  private final List<String> itemNames;
+  private final LoadStats stats;
+  private final long deadlineNanos;
+  private final long thinkMillis;
+  private final Random random;
+
+  private final List<String> seen = new ArrayList<>();
+  private final List<String> held = new ArrayList<>();
+
+  /**
+   * Creates a bot.
+   *
+   * @param id            the bot number, used in its player name
+   * @param port          the server's loopback port
+   * @param itemNames     every item name on the map, longest first
+   * @param stats         where to record commands
+   * @param deadlineNanos {@link System#nanoTime()} at which to stop
+   * @param thinkMillis   mean pause between commands (0 for none)
+   * @param seed          random seed
+   */
+  public TextBot(int id, int port, List<String> itemNames, LoadStats stats, long deadlineNanos,
+                 long thinkMillis, long seed) {
+    this.id = id;
+    this.port = port;
+    this.itemNames = itemNames;
+    this.stats = stats;
+    this.deadlineNanos = deadlineNanos;
+    this.thinkMillis = thinkMillis;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void run() {
+    stats.botStarted();
+    try {
+      while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+        if (!playSession()) {
+          return;
+        }
+      }
+    } finally {
+      stats.botStopped();
+    }
+  }
+
+  /**
+   * Plays one connection until the deadline or until the game ends.
+   *
+   * @return false if the server could not be reached
+   */
+  private boolean playSession() {
+    seen.clear();
+    held.clear();
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setTcpNoDelay(true);
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+      stats.sessionOpened();
+      send(out, "bot-" + id);
+      List<String> lines = readUntil(in, PROMPT);
+      while (lines != null && System.nanoTime() < deadlineNanos) {
+        observe(lines);
+        BotAction action = BotAction.pick(random);
+        long start = System.nanoTime();
+        send(out, command(action));
+        lines = readUntil(in, PROMPT);
+        if (lines != null) {
+          stats.record(action, System.nanoTime() - start, !refused(lines));
+        }
+        if (!think()) {
+          return false;
+        }
+      }
+      if (lines != null) {
+        send(out, "Q");
+      }
+      return true;
+    } catch (IOException e) {
+      return System.nanoTime() < deadlineNanos && pause(); // server busy or gone: back off, then retry
+    }
+  }
+
+  private String command(BotAction action) {
+    return switch (action) {
+      case MOVE -> DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+      case TAKE -> seen.isEmpty() ? "LOOK" : "T " + seen.get(random.nextInt(seen.size()));
+      case DROP -> held.isEmpty() ? "I" : "D " + held.get(random.nextInt(held.size()));
+      case USE -> held.isEmpty() ? "I" : "U " + held.get(random.nextInt(held.size()));
+      case LOOK -> "LOOK";
+      case INVENTORY -> "I";
+      case SAVE -> throw new IllegalArgumentException("Network sessions cannot save.");
+    };
+  }
+
+  /**
+   * Updates what the bot believes is in the room and in its inventory.
+   */
+  private void observe(List<String> lines) {
+    for (String line : lines) {
+      if (line.startsWith("Items you see here:")) {
+        seen.clear();
+        for (String name : itemNames) {
+          if (line.contains(name)) {
+            seen.add(name);
+          }
+        }
+      } else if (line.startsWith("You took: ")) {
+        String name = line.substring("You took: ".length()).trim();
+        seen.remove(name);
+        held.add(name);
+      } else if (line.startsWith("You dropped: ")) {
+        held.remove(line.substring("You dropped: ".length()).trim());
+      } else if (line.startsWith("Inventory:") || line.startsWith("Your inventory is empty")) {
+        held.clear();
+      } else if (line.startsWith(" - ") && line.contains(" (uses left:")) {
+        held.add(line.substring(3, line.indexOf(" (uses left:")));
+      } else if (line.startsWith("You are standing in:")) {
+        seen.clear(); // a room without items prints no item line
+      }
+    }
+  }
+
+  private static boolean refused(List<String> lines) {
+    for (String line : lines) {
+      for (String refusal : REFUSALS) {
+        if (line.startsWith(refusal)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static void send(Writer out, String line) throws IOException {
+    out.write(line);
+    out.write('\n');
+    out.flush();
+  }
+
+  /**
+   * Reads lines up to and including one starting with the marker.
+   *
+   * @return the lines, or null if the server ended the session first
+   */
+  private static List<String> readUntil(BufferedReader in, String marker) throws IOException {
+    List<String> lines = new ArrayList<>();
+    String line;
+    while ((line = in.readLine()) != null) {
+      lines.add(line);
+      if (line.startsWith(marker)) {
+        return lines;
+      }
+    }
+    return null;
+  }
+
+  private boolean think() {
+    if (thinkMillis <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(random.nextInt((int) (2 * thinkMillis) + 1));
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private boolean pause() {
+    try {
+      Thread.sleep(100);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
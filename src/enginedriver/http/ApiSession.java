@@ -0,0 +1,158 @@
+package enginedriver.http;
+
+import controller.AbstractController;
+import model.GameModel;
+import model.events.ModelEvent;
+import model.rules.Effect;
+import model.rules.Resolution;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One API client's game. Every call is synchronized on the session, so a client's
+ * commands run one at a time and in order, while different sessions run in parallel.
+ * A command ends the turn like the text game does: a monster in the room strikes,
+ * then the state is committed.
+ * Saves are kept with the session, in its own numbered slots, so clients never see or
+ * overwrite each other's saves (or the local game's save store); they end with the session.
+ */
+class ApiSession extends AbstractController {
+
+  /**
+   * The outcome of one command.
+   *
+   * @param ok       true if the command succeeded
+   * @param message  what happened
+   * @param messages what else happened during the turn (notices, monster attacks)
+   */
+  record Outcome(boolean ok, String message, List<String> messages) { }
+
+  /** Number of save slots each session has, numbered from 1. */
+  static final int SAVE_SLOTS = 8;
+
+  private final String token;
+  private final GameModel game;
+  private final byte[][] saves = new byte[SAVE_SLOTS][];
+  private final RoomJsonCache rooms = new RoomJsonCache();
+  private final List<String> notices = new ArrayList<>();
+  private volatile long lastUsed = System.nanoTime();
+
+  ApiSession(String token, GameModel model) {
+    super(model);
+    this.token = token;
+    this.game = model;
+    model.subscribe(this::collectNotices);
+  }
+
+  /**
+   * Keeps the messages the model sends during a command for that command's outcome.
+   * Runs on the thread of the command, which holds the session lock.
+   */
+  private void collectNotices(List<ModelEvent> batch) {
+    for (ModelEvent event : batch) {
+      if (event instanceof ModelEvent.Message m) {
+        notices.add(m.text());
+      }
+    }
+  }
+
+  String getToken() {
+    return token;
+  }
+
+  long getLastUsed() {
+    return lastUsed;
+  }
+
+  void touch() {
+    lastUsed = System.nanoTime();
+  }
+
+  /**
+   * Returns the current room as cached JSON.
+   *
+   * @return the room snapshot
+   */
+  synchronized RoomJsonCache.Snapshot room() {
+    return rooms.get(model.getCurrentRoom());
+  }
+
+  synchronized Outcome move(String direction) {
+    return turn(() -> model.movePlayer(direction), "You moved " + direction + ".", "You can't go that way.");
+  }
+
+  synchronized Outcome take(String item) {
+    return turn(() -> model.pickItem(item), "You picked up " + item + ".", "Item not found or too heavy.");
+  }
+
+  synchronized Outcome drop(String item) {
+    return turn(() -> model.dropItem(item), "You dropped " + item + ".", "You don't have that item.");
+  }
+
+  synchronized Outcome use(String item) {
+    int before = model.getPlayer().getVersion();
+    String message = handleUse(item);
+    return endTurn(model.getPlayer().getVersion() != before, message);
+  }
+
+  synchronized Outcome answer(String answer) {
+    return turn(() -> model.answerPuzzle(answer), "Puzzle solved!", "That didn't work.");
+  }
+
+  synchronized Outcome save(int slot) {
+    checkSlot(slot);
+    try {
+      saves[slot - 1] = game.exportState();
+      return new Outcome(true, "Saved to slot " + slot + ".", List.of());
+    } catch (IOException e) {
+      e.printStackTrace();
+      return new Outcome(false, "Save failed.", List.of());
+    }
+  }
+
+  synchronized Outcome load(int slot) {
+    checkSlot(slot);
+    byte[] data = saves[slot - 1];
+    boolean loaded = data != null && game.importState(data);
+    if (loaded) {
+      rooms.clear();
+    }
+    return new Outcome(loaded, loaded ? "Loaded slot " + slot + "." : "Load failed.", List.of());
+  }
+
+  /**
+   * Rejects a slot outside this session's range.
+   *
+   * @throws IllegalArgumentException if the slot is not between 1 and SAVE_SLOTS
+   */
+  private static void checkSlot(int slot) {
+    if (slot < 1 || slot > SAVE_SLOTS) {
+      throw new IllegalArgumentException("Slot must be between 1 and " + SAVE_SLOTS + ".");
+    }
+  }
+
+  private Outcome turn(BooleanSupplier action, String success, String failure) {
+    boolean ok = action.getAsBoolean();
+    return endTurn(ok, ok ? success : failure);
+  }
+
+  private Outcome endTurn(boolean ok, String message) {
+    List<String> messages = new ArrayList<>(notices);
+    notices.clear();
+    Resolution hit = encounter();
+    if (hit != null) {
+      messages.add(hit.rule().message());
+      if (hit.rule().has(Effect.DAMAGE)) {
+        messages.add("You take -" + hit.rule().damage() + " damage.");
+      }
+    }
+    model.commitTurn();
+    messages.addAll(notices);
+    notices.clear();
+    return new Outcome(ok, message, messages);
+  }
+
+}
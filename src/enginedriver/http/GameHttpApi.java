@@ -0,0 +1,404 @@
+package enginedriver.http;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.GameModel;
+import model.IModel;
+import model.elements.Item;
+import utils.fileutil.JsonUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/JSON facade over {@link IModel}, on the JDK's built-in HTTP server.
+ * A client creates a session with POST /api/sessions and sends the returned token as
+ * "Authorization: Bearer &lt;token&gt;" on every other request:
+ *
+ *  - GET  /api/room, /api/inventory, /api/status
+ *  - POST /api/move {"direction"}, /api/take, /api/drop, /api/use {"item"},
+ *    /api/answer {"answer"}, /api/save, /api/load {"slot"} (1-8, private to the session)
+ *  - DELETE /api/sessions
+ *
+ * Responses are written to a buffer under the session lock and sent after it is released,
+ * so a slow client never holds up its session. Room snapshots are cached per session and carry an ETag, so a repeated GET of an unchanged room
+ * neither re-serializes it nor, with If-None-Match, resends it.
+ */
+public class GameHttpApi {
+
+  /** Default idle time before a session's token expires. */
+  public static final int DEFAULT_IDLE_SECONDS = 1800;
+  /** Default number of request threads. */
+  public static final int DEFAULT_THREADS = 32;
+  /** Default limit on open sessions. */
+  public static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+  private final JsonObject map;
+  private final int port;
+  private final long idleNanos;
+  private final int threads;
+  private final int maxSessions;
+  private final Map<String, ApiSession> sessions = new ConcurrentHashMap<>();
+  private final SecureRandom random = new SecureRandom();
+  private HttpServer server;
+  private ExecutorService pool;
+  private ScheduledExecutorService sweeper;
+
+  /**
+   * Creates the API for one map.
+   *
+   * @param mapFile     the map file
+   * @param port        TCP port on the loopback interface (0 picks a free port)
+   * @param idleSeconds seconds without requests before a session expires
+   * @param threads     number of request threads
+   * @param maxSessions most sessions open at once
+   * @throws IOException if the map cannot be read
+   */
+  public GameHttpApi(String mapFile, int port, int idleSeconds, int threads, int maxSessions)
+          throws IOException {
+    this.map = JsonUtils.safeParseJson(mapFile);
+    this.port = port;
+    this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+    this.threads = threads;
+    this.maxSessions = maxSessions;
+  }
+
+  /**
+   * Binds the port and starts serving.
+   *
+   * @return the bound port
+   * @throws IOException if the port cannot be bound
+   */
+  public int start() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+    pool = Executors.newFixedThreadPool(threads, daemonThreads("http"));
+    server.setExecutor(pool);
+    server.createContext("/api/", this::handle);
+    server.start();
+
+    sweeper = Executors.newSingleThreadScheduledExecutor(daemonThreads("http-sweeper"));
+    long period = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(idleNanos) / 4);
+    sweeper.scheduleWithFixedDelay(this::expireIdle, period, period, TimeUnit.SECONDS);
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops serving, letting requests in flight finish for up to the given delay.
+   *
+   * @param delaySeconds seconds to wait for requests in flight
+   */
+  public void stop(int delaySeconds) {
+    server.stop(delaySeconds);
+    sweeper.shutdownNow();
+    pool.shutdown();
+  }
+
+  /**
+   * Returns the number of open sessions.
+   *
+   * @return open sessions
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  private void handle(HttpExchange ex) throws IOException {
+    try {
+      String method = ex.getRequestMethod();
+      String route = ex.getRequestURI().getPath().substring("/api/".length());
+      if (route.equals("sessions") && method.equals("POST")) {
+        createSession(ex);
+        return;
+      }
+      ApiSession session = authenticate(ex);
+      if (session == null) {
+        error(ex, 401, "Missing or expired session token.");
+        return;
+      }
+      session.touch();
+      if (method.equals("GET")) {
+        switch (route) {
+          case "room" -> sendRoom(ex, session);
+          case "inventory" -> sendInventory(ex, session);
+          case "status" -> send(ex, 200, json -> writeStatus(json, session.getModel()), session);
+          default -> error(ex, 404, "No such resource: " + route);
+        }
+      } else if (method.equals("POST")) {
+        JsonObject body = readBody(ex);
+        if (body == null) {
+          error(ex, 400, "Request body must be a JSON object.");
+          return;
+        }
+        ApiSession.Outcome outcome;
+        switch (route) {
+          case "move" -> outcome = session.move(required(body, "direction").toUpperCase());
+          case "take" -> outcome = session.take(required(body, "item"));
+          case "drop" -> outcome = session.drop(required(body, "item"));
+          case "use" -> outcome = session.use(required(body, "item"));
+          case "answer" -> outcome = session.answer(required(body, "answer"));
+          case "save" -> outcome = session.save(requiredInt(body, "slot"));
+          case "load" -> outcome = session.load(requiredInt(body, "slot"));
+          default -> {
+            error(ex, 404, "No such action: " + route);
+            return;
+          }
+        }
+        sendOutcome(ex, session, outcome);
+      } else if (method.equals("DELETE") && route.equals("sessions")) {
+        sessions.remove(session.getToken());
+        noContent(ex, 204);
+      } else {
+        error(ex, 405, method + " is not supported on " + route);
+      }
+    } catch (IllegalArgumentException e) {
+      error(ex, 400, e.getMessage());
+    } catch (RuntimeException e) {
+      e.printStackTrace();
+      error(ex, 500, "Internal error.");
+    } finally {
+      ex.close();
+    }
+  }
+
+  private void createSession(HttpExchange ex) throws IOException {
+    if (sessions.size() >= maxSessions) {
+      error(ex, 503, "Too many sessions, try again later.");
+      return;
+    }
+    JsonObject body = readBody(ex);
+    String name = "";
+    if (body != null && body.has("name")) {
+      JsonElement value = body.get("name");
+      if (!value.isJsonPrimitive() || !value.getAsJsonPrimitive().isString()) {
+        error(ex, 400, "Field name must be a string.");
+        return;
+      }
+      name = value.getAsString().trim();
+    }
+
+    GameModel model = new GameModel();
+    model.generateWorld(map);
+    model.initializePlayer(name.isEmpty() ? "Player" : name);
+    byte[] token = new byte[16];
+    random.nextBytes(token);
+    ApiSession session = new ApiSession(HexFormat.of().formatHex(token), model);
+    if (!register(session)) {
+      error(ex, 503, "Too many sessions, try again later.");
+      return;
+    }
+
+    send(ex, 201, json -> {
+      json.name("token").value(session.getToken());
+      writeStatus(json, model);
+    }, session);
+  }
+
+  /**
+   * Adds a session unless the limit is reached. The check and the insert happen under one
+   * lock, so concurrent creates cannot overshoot maxSessions; removals need no lock since
+   * they only make room.
+   *
+   * @return true if the session was added
+   */
+  private boolean register(ApiSession session) {
+    synchronized (sessions) {
+      if (sessions.size() >= maxSessions) {
+        return false;
+      }
+      sessions.put(session.getToken(), session);
+      return true;
+    }
+  }
+
+  private ApiSession authenticate(HttpExchange ex) {
+    String auth = ex.getRequestHeaders().getFirst("Authorization");
+    if (auth == null || !auth.startsWith("Bearer ")) {
+      return null;
+    }
+    return sessions.get(auth.substring("Bearer ".length()).trim());
+  }
+
+  /**
+   * Sends the room from the session's snapshot cache, or 304 if the client already has it.
+   */
+  private void sendRoom(HttpExchange ex, ApiSession session) throws IOException {
+    RoomJsonCache.Snapshot room = session.room();
+    String etag = "\"" + room.room() + "-" + room.version() + "\"";
+    Headers headers = ex.getResponseHeaders();
+    headers.set("ETag", etag);
+    headers.set("Cache-Control", "no-cache");
+    if (etag.equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+      noContent(ex, 304);
+      return;
+    }
+    headers.set("Content-Type", "application/json; charset=utf-8");
+    ex.sendResponseHeaders(200, room.json().length);
+    ex.getResponseBody().write(room.json());
+  }
+
+  private void sendInventory(HttpExchange ex, ApiSession session) throws IOException {
+    send(ex, 200, json -> {
+      json.name("items").beginArray();
+      for (Item item : session.getModel().getInventory()) {
+        json.beginObject()
+                .name("name").value(item.getName())
+                .name("weight").value(item.getWeight())
+                .name("usesRemaining").value(item.getUsesRemaining())
+                .endObject();
+      }
+      json.endArray();
+    }, session);
+  }
+
+  private void sendOutcome(HttpExchange ex, ApiSession session, ApiSession.Outcome outcome) throws IOException {
+    send(ex, 200, json -> {
+      json.name("ok").value(outcome.ok());
+      json.name("message").value(outcome.message());
+      json.name("events").beginArray();
+      for (String message : outcome.messages()) {
+        json.value(message);
+      }
+      json.endArray();
+      writeStatus(json, session.getModel());
+    }, session);
+  }
+
+  private static void writeStatus(JsonWriter json, IModel model) throws IOException {
+    json.name("status").beginObject()
+            .name("player").value(model.getPlayer().getName())
+            .name("health").value(model.getHealth())
+            .name("healthStatus").value(model.getHealthStatus().toString())
+            .name("score").value(model.getScore())
+            .name("rank").value(model.getPlayerRank().toString())
+            .name("room").value(model.getCurrentRoom().getRoomNumber())
+            .endObject();
+  }
+
+  /**
+   * Writes a JSON object body.
+   */
+  private interface Body {
+    void write(JsonWriter json) throws IOException;
+  }
+
+  /**
+   * Sends a JSON object to the client. The body is serialized under the session lock, so it
+   * reflects one consistent state, and written to the connection after the lock is released.
+   */
+  private static void send(HttpExchange ex, int status, Body body, ApiSession session) throws IOException {
+    byte[] bytes;
+    synchronized (session) {
+      bytes = serialize(body);
+    }
+    write(ex, status, bytes);
+  }
+
+  private static void error(HttpExchange ex, int status, String message) throws IOException {
+    write(ex, status, serialize(json -> json.name("error").value(message)));
+  }
+
+  /**
+   * Sends a response without a body. The request body is drained first: a body-less response
+   * ends the exchange at once, and the server closes a connection whose request was not read
+   * to the end, under a keep-alive client about to reuse it.
+   */
+  private static void noContent(HttpExchange ex, int status) throws IOException {
+    ex.getRequestBody().close();
+    ex.sendResponseHeaders(status, -1);
+  }
+
+  private static byte[] serialize(Body body) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+      json.beginObject();
+      body.write(json);
+      json.endObject();
+    }
+    return buffer.toByteArray();
+  }
+
+  private static void write(HttpExchange ex, int status, byte[] bytes) throws IOException {
+    ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    ex.sendResponseHeaders(status, bytes.length);
+    ex.getResponseBody().write(bytes);
+  }
+
+  private static JsonObject readBody(HttpExchange ex) {
+    try (Reader reader = new InputStreamReader(ex.getRequestBody(), StandardCharsets.UTF_8)) {
+      JsonElement body = JsonParser.parseReader(reader);
+      return body.isJsonObject() ? body.getAsJsonObject() : null;
+    } catch (IOException | JsonParseException e) {
+      return null;
+    }
+  }
+
+  private static String required(JsonObject body, String field) {
+    JsonElement value = body.get(field);
+    if (value == null || !value.isJsonPrimitive()) {
+      throw new IllegalArgumentException("Missing field: " + field);
+    }
+    return value.getAsString();
+  }
+
+  private static int requiredInt(JsonObject body, String field) {
+    try {
+      return Integer.parseInt(required(body, field));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Field " + field + " must be a number.");
+    }
+  }
+
+  private void expireIdle() {
+    long now = System.nanoTime();
+    sessions.values().removeIf(s -> now - s.getLastUsed() > idleNanos);
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger ids = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, prefix + "-" + ids.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  /**
+   * Entry point used by GameEngineApp for -http: serves until the process is stopped.
+   *
+   * @param mapFile     the map file
+   * @param port        TCP port
+   * @param idleSeconds seconds before an unused session expires
+   * @throws IOException if the map cannot be read or the port bound
+   */
+  public static void runApi(String mapFile, int port, int idleSeconds) throws IOException {
+    GameHttpApi api = new GameHttpApi(mapFile, port, idleSeconds,
+            Integer.getInteger("halo.http.threads", DEFAULT_THREADS),
+            Integer.getInteger("halo.http.maxSessions", DEFAULT_MAX_SESSIONS));
+    int bound = api.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> api.stop(2), "http-shutdown"));
+    System.out.println("HTTP API on http://127.0.0.1:" + bound + "/api/ (sessions expire after "
+            + idleSeconds + "s idle)");
+  }
+}
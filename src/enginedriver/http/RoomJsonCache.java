@@ -0,0 +1,120 @@
+package enginedriver.http;
+
+import com.google.gson.stream.JsonWriter;
+import model.core.Room;
+import model.elements.Fixture;
+import model.elements.Item;
+import model.obstacle.GameObstacle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serialized room snapshots for one session, keyed by room number and reused for as long
+ * as the room's version is unchanged. Not thread-safe; the owning session serializes access.
+ */
+class RoomJsonCache {
+
+  /**
+   * One cached snapshot.
+   *
+   * @param room    the room number
+   * @param version the room version it was taken at
+   * @param json    the encoded room
+   */
+  record Snapshot(int room, int version, byte[] json) { }
+
+  private final Map<Integer, Snapshot> snapshots = new HashMap<>();
+  private long hits;
+  private long misses;
+
+  /**
+   * Returns the room as JSON, serializing it only if it changed since the last call.
+   *
+   * @param room the room
+   * @return the snapshot
+   */
+  Snapshot get(Room room) {
+    int version = room.getVersion();
+    Snapshot cached = snapshots.get(room.getRoomNumber());
+    if (cached != null && cached.version() == version) {
+      hits++;
+      return cached;
+    }
+    misses++;
+    Snapshot fresh = new Snapshot(room.getRoomNumber(), version, encode(room));
+    snapshots.put(room.getRoomNumber(), fresh);
+    return fresh;
+  }
+
+  /**
+   * Drops every snapshot (after a load replaced the world state).
+   */
+  void clear() {
+    snapshots.clear();
+  }
+
+  long getHits() {
+    return hits;
+  }
+
+  long getMisses() {
+    return misses;
+  }
+
+  private static byte[] encode(Room room) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    try (JsonWriter json = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+      json.beginObject();
+      json.name("number").value(room.getRoomNumber());
+      json.name("name").value(room.getName());
+      json.name("description").value(room.getRoomDescription());
+      json.name("picture").value(room.getPicture());
+      json.name("exits").beginObject();
+      for (Map.Entry<String, Integer> exit : new TreeMap<>(room.getExits()).entrySet()) {
+        if (exit.getValue() != 0) {
+          json.name(exit.getKey()).beginObject()
+                  .name("room").value(Math.abs(exit.getValue()))
+                  .name("blocked").value(exit.getValue() < 0)
+                  .endObject();
+        }
+      }
+      json.endObject();
+      json.name("items").beginArray();
+      for (Item item : room.getItems()) {
+        json.beginObject()
+                .name("name").value(item.getName())
+                .name("description").value(item.getDescription())
+                .name("weight").value(item.getWeight())
+                .endObject();
+      }
+      json.endArray();
+      json.name("fixtures").beginArray();
+      for (Fixture fixture : room.getFixtures()) {
+        json.value(fixture.getName());
+      }
+      json.endArray();
+      GameObstacle obstacle = room.getObstacle();
+      json.name("obstacle");
+      if (obstacle == null) {
+        json.nullValue();
+      } else {
+        json.beginObject()
+                .name("name").value(obstacle.getName())
+                .name("active").value(obstacle.isActive())
+                .name("description").value(obstacle.getCurrentDescription())
+                .endObject();
+      }
+      json.endObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // cannot happen writing to memory
+    }
+    return bytes.toByteArray();
+  }
+}
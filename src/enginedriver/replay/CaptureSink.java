@@ -0,0 +1,43 @@
+package enginedriver.replay;
+
+import view.sink.OutputSink;
+
+/**
+ * In-memory sink that keeps the whole transcript for comparison.
+ */
+class CaptureSink implements OutputSink {
+
+  private final StringBuilder text = new StringBuilder(4096);
+
+  @Override
+  public void write(CharSequence chars) {
+    text.append(chars);
+  }
+
+  @Override
+  public void newLine() {
+    text.append('\n'); // platform-independent transcripts
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public void close() {
+  }
+
+  /**
+   * Returns the current transcript length (a segment boundary).
+   */
+  int position() {
+    return text.length();
+  }
+
+  /**
+   * Returns the transcript between two positions.
+   */
+  String slice(int from, int to) {
+    return text.substring(from, to);
+  }
+}
@@ -0,0 +1,32 @@
+package enginedriver.replay;
+
+import model.core.Player;
+import model.core.Room;
+import view.ConsoleView;
+
+/**
+ * Headless view for replays: produces the same text as the console view into memory.
+ * With rendering off, a room render is reduced to a one-line marker, which still catches
+ * divergence in where the player is without paying for the full description.
+ */
+class CapturingView extends ConsoleView {
+
+  private final CaptureSink sink;
+  private final boolean render;
+
+  CapturingView(CaptureSink sink, boolean render) {
+    super(sink);
+    this.sink = sink;
+    this.render = render;
+  }
+
+  @Override
+  public void renderGame(Player player, Room room) {
+    if (render) {
+      super.renderGame(player, room);
+    } else {
+      sink.write("[render room " + room.getRoomNumber() + "]");
+      sink.newLine();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package enginedriver.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Golden transcript of a replay: each segment under a "### k command" marker, then the final
+ * state under "### state". Comparing a new replay against it reports the first diverging command.
+ */
+public class GoldenFile {
+
+  private static final String MARK = "### ";
+  private static final String STATE = MARK + "state";
+
+  /**
+   * The first point where a replay differs from its golden file.
+   *
+   * @param command  command number (0 = before the first command)
+   * @param input    the input line of that command ("" for 0 and the final state)
+   * @param expected first differing golden line
+   * @param actual   first differing replay line
+   */
+  public record Divergence(int command, String input, String expected, String actual) {
+    @Override
+    public String toString() {
+      String where = command < 0 ? "final state" : command == 0 ? "start of game" : "command " + command + " '" + input + "'";
+      return "Diverged at " + where + "\n  expected: " + expected + "\n  actual:   " + actual;
+    }
+  }
+
+  /**
+   * Writes a replay as a golden file.
+   *
+   * @param path   the golden file
+   * @param result the replay
+   * @throws IOException if writing fails
+   */
+  public static void write(Path path, ReplayResult result) throws IOException {
+    Files.writeString(path, format(result));
+  }
+
+  /**
+   * Reads whether a golden file was recorded with full rendering.
+   *
+   * @param path the golden file
+   * @return the render flag
+   * @throws IOException if reading fails
+   */
+  public static boolean readRender(Path path) throws IOException {
+    try (var lines = Files.lines(path)) {
+      return lines.findFirst().orElse("").endsWith("render=true");
+    }
+  }
+
+  /**
+   * Compares a replay with a golden file.
+   *
+   * @param path   the golden file
+   * @param result the replay
+   * @return the first divergence, or null if the replay matches
+   * @throws IOException if reading fails
+   */
+  public static Divergence compare(Path path, ReplayResult result) throws IOException {
+    List<String> expected = Files.readAllLines(path);
+    List<String> actual = new ArrayList<>();
+    List<Integer> owners = new ArrayList<>();
+    layout(result, actual, owners);
+
+    int n = Math.max(expected.size(), actual.size());
+    for (int i = 0; i < n; i++) {
+      String a = i < actual.size() ? actual.get(i) : "<end of replay>";
+      String e = i < expected.size() ? expected.get(i) : "<end of golden file>";
+      if (!e.equals(a)) {
+        int command = i < owners.size() ? owners.get(i) : -1;
+        String input = command > 0 ? result.commands().get(command - 1) : "";
+        return new Divergence(command, input, e, a);
+      }
+    }
+    return null;
+  }
+
+  private static String format(ReplayResult result) {
+    List<String> lines = new ArrayList<>();
+    layout(result, lines, new ArrayList<>());
+    return String.join("\n", lines) + "\n";
+  }
+
+  /**
+   * Lays a replay out as golden-file lines, recording for each line the command whose
+   * output it is (0 for the header and start of game, -1 for the final state). Lines are
+   * attributed by position, so game output that happens to look like a marker is harmless.
+   */
+  private static void layout(ReplayResult result, List<String> lines, List<Integer> owners) {
+    add(lines, owners, MARK + "golden render=" + result.render(), 0);
+    List<String> segments = result.segments();
+    for (int k = 0; k < segments.size(); k++) {
+      add(lines, owners, MARK + k + ' ' + (k == 0 ? "" : result.commands().get(k - 1)), k);
+      for (String line : split(segments.get(k))) {
+        add(lines, owners, line, k);
+      }
+    }
+    add(lines, owners, STATE, -1);
+    for (String line : split(result.finalState())) {
+      add(lines, owners, line, -1);
+    }
+  }
+
+  private static void add(List<String> lines, List<Integer> owners, String line, int owner) {
+    lines.add(line);
+    owners.add(owner);
+  }
+
+  /**
+   * Splits text into lines; a final line break does not start another line.
+   */
+  private static List<String> split(String text) {
+    if (text.isEmpty()) {
+      return List.of();
+    }
+    List<String> lines = new ArrayList<>(List.of(text.split("\n", -1)));
+    if (text.endsWith("\n")) {
+      lines.remove(lines.size() - 1);
+    }
+    return lines;
+  }
+}
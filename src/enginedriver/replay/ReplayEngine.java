@@ -0,0 +1,99 @@
+package enginedriver.replay;
+
+import com.google.gson.JsonObject;
+import controller.TextController;
+import model.GameModel;
+import model.elements.Item;
+import utils.fileutil.JsonUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Replays recorded sessions headlessly through {@link TextController}.
+ * The map is parsed once and every replay builds a fresh model from the shared parse tree;
+ * output goes to memory, so a replay runs as fast as the controller and model allow.
+ */
+public class ReplayEngine {
+
+  private final JsonObject map;
+  private final String mapHash;
+
+  /**
+   * Creates an engine for one map.
+   *
+   * @param mapFile the map file
+   * @throws IOException if the map cannot be read
+   */
+  public ReplayEngine(Path mapFile) throws IOException {
+    this.map = JsonUtils.safeParseJson(mapFile.toString());
+    this.mapHash = Session.hashMap(mapFile);
+  }
+
+  /**
+   * Returns the hash of this engine's map.
+   *
+   * @return SHA-256 hex
+   */
+  public String getMapHash() {
+    return mapHash;
+  }
+
+  /**
+   * Replays a session.
+   *
+   * @param session the session
+   * @param render  true to render rooms in full
+   * @return the transcript and final state
+   * @throws IOException if the session was recorded on a different map
+   */
+  public ReplayResult replay(Session session, boolean render) throws IOException {
+    if (!session.mapHash().equals(mapHash)) {
+      throw new IOException("Session was recorded on a different map (hash " + session.mapHash() + ").");
+    }
+    long start = System.nanoTime();
+
+    GameModel model = new GameModel();
+    model.generateWorld(map);
+    model.initializePlayer("BatchPlayer");
+    CaptureSink sink = new CaptureSink();
+    CapturingView view = new CapturingView(sink, render);
+    TextController controller = new TextController(model, view,
+            new StringReader(String.join("\n", session.lines())));
+
+    List<String> commands = new ArrayList<>();
+    List<String> segments = new ArrayList<>();
+    int[] mark = {0};
+    controller.setInputListener(line -> {
+      segments.add(sink.slice(mark[0], sink.position()));
+      mark[0] = sink.position();
+      commands.add(line);
+    });
+    while (controller.step()) {
+      // the listener cuts segments as input is consumed
+    }
+    segments.add(sink.slice(mark[0], sink.position()));
+
+    return new ReplayResult(render, commands, segments, describe(model), System.nanoTime() - start);
+  }
+
+  /**
+   * Summarizes the final model state for golden comparison.
+   */
+  private static String describe(GameModel model) {
+    StringJoiner inventory = new StringJoiner(", ", "[", "]");
+    for (Item item : model.getInventory()) {
+      inventory.add(item.getName() + " x" + item.getUsesRemaining());
+    }
+    return "room=" + model.getCurrentRoom().getRoomNumber()
+            + "\nhealth=" + (int) model.getHealth()
+            + "\nscore=" + model.getScore()
+            + "\nrank=" + model.getPlayerRank()
+            + "\ninventory=" + inventory
+            + "\n";
+  }
+}
@@ -0,0 +1,16 @@
+package enginedriver.replay;
+
+import java.util.List;
+
+/**
+ * Outcome of one replay.
+ *
+ * @param render     whether rooms were fully rendered
+ * @param commands   the input lines consumed, in order
+ * @param segments   transcript segments: index 0 is the output before the first command,
+ *                   index k the output that followed command k
+ * @param finalState summary of the final model state
+ * @param nanos      replay wall time
+ */
+public record ReplayResult(boolean render, List<String> commands, List<String> segments,
+                           String finalState, long nanos) { }
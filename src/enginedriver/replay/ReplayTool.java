@@ -0,0 +1,96 @@
+package enginedriver.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Command-line driver for -replay and -record.
+ * Each session "name.session" is checked against its golden file "name.golden" next to it.
+ */
+public class ReplayTool {
+
+  private static final String SESSION_EXT = ".session";
+  private static final String GOLDEN_EXT = ".golden";
+
+  /**
+   * Replays one session or every *.session file in a directory.
+   * Missing golden files are created; with update set, existing ones are rewritten.
+   *
+   * @param mapFile the map file
+   * @param source  a session file or a directory of sessions
+   * @param update  true to rewrite golden files instead of comparing
+   * @param render  true to record full room renders in new golden files
+   * @return true if every replay matched its golden file
+   * @throws IOException if reading or writing fails
+   */
+  public static boolean runReplay(String mapFile, String source, boolean update, boolean render)
+          throws IOException {
+    ReplayEngine engine = new ReplayEngine(Paths.get(mapFile));
+    List<Path> sessions = collectSessions(Paths.get(source));
+    int failed = 0;
+    long start = System.nanoTime();
+
+    for (Path sessionFile : sessions) {
+      Path golden = goldenFor(sessionFile);
+      boolean exists = Files.exists(golden);
+      boolean goldenRender = !update && exists ? GoldenFile.readRender(golden) : render;
+      ReplayResult result = engine.replay(Session.read(sessionFile), goldenRender);
+      String name = sessionFile.getFileName().toString();
+
+      if (update || !exists) {
+        GoldenFile.write(golden, result);
+        System.out.println("WROTE " + name + " -> " + golden.getFileName());
+        continue;
+      }
+      GoldenFile.Divergence divergence = GoldenFile.compare(golden, result);
+      if (divergence == null) {
+        System.out.printf("PASS  %s (%d commands, %.2f ms)%n", name, result.commands().size(),
+                result.nanos() / 1e6);
+      } else {
+        failed++;
+        System.out.println("FAIL  " + name + ": " + divergence);
+      }
+    }
+    System.out.printf("Replayed %d sessions in %d ms: %d failed.%n", sessions.size(),
+            (System.nanoTime() - start) / 1_000_000, failed);
+    return failed == 0;
+  }
+
+  /**
+   * Turns a plain batch script into a session bound to a map.
+   *
+   * @param mapFile the map file
+   * @param script  the batch script
+   * @param target  the session file to write
+   * @throws IOException if reading or writing fails
+   */
+  public static void record(String mapFile, String script, String target) throws IOException {
+    new Session(Session.hashMap(Paths.get(mapFile)), Files.readAllLines(Paths.get(script)))
+            .write(Paths.get(target));
+    System.out.println("Session written to " + target);
+  }
+
+  private static List<Path> collectSessions(Path source) throws IOException {
+    if (!Files.isDirectory(source)) {
+      return List.of(source);
+    }
+    List<Path> sessions = new ArrayList<>();
+    try (Stream<Path> files = Files.list(source)) {
+      files.filter(p -> p.toString().endsWith(SESSION_EXT)).sorted().forEach(sessions::add);
+    }
+    return sessions;
+  }
+
+  private static Path goldenFor(Path session) {
+    String name = session.getFileName().toString();
+    if (name.endsWith(SESSION_EXT)) {
+      name = name.substring(0, name.length() - SESSION_EXT.length());
+    }
+    return session.resolveSibling(name + GOLDEN_EXT);
+  }
+}
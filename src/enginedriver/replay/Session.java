@@ -0,0 +1,66 @@
+package enginedriver.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * A recorded game session: the hash of the map it was played on plus every input line read.
+ * Stored as a text file whose first line is "# map-sha256 &lt;hex&gt;" followed by the input lines.
+ *
+ * @param mapHash SHA-256 of the map file (hex)
+ * @param lines   input lines in the order they were read
+ */
+public record Session(String mapHash, List<String> lines) {
+
+  private static final String HEADER = "# map-sha256 ";
+
+  /**
+   * Reads a session file.
+   *
+   * @param path the session file
+   * @return the session
+   * @throws IOException if the file is missing or has no header
+   */
+  public static Session read(Path path) throws IOException {
+    List<String> all = Files.readAllLines(path);
+    if (all.isEmpty() || !all.get(0).startsWith(HEADER)) {
+      throw new IOException("Not a session file (missing map hash): " + path);
+    }
+    return new Session(all.get(0).substring(HEADER.length()).trim(), all.subList(1, all.size()));
+  }
+
+  /**
+   * Writes this session to a file.
+   *
+   * @param path the session file
+   * @throws IOException if writing fails
+   */
+  public void write(Path path) throws IOException {
+    List<String> all = new ArrayList<>(lines.size() + 1);
+    all.add(HEADER + mapHash);
+    all.addAll(lines);
+    Files.write(path, all);
+  }
+
+  /**
+   * Hashes a map file.
+   *
+   * @param mapFile the map file
+   * @return SHA-256 as lower-case hex
+   * @throws IOException if the file cannot be read
+   */
+  public static String hashMap(Path mapFile) throws IOException {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(mapFile)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,343 @@
+package enginedriver.server;
+
+import com.google.gson.JsonObject;
+import controller.TextController;
+import model.GameModel;
+import model.IModel;
+import model.shared.SharedGameModel;
+import model.shared.SharedWorld;
+import utils.fileutil.JsonUtils;
+import view.ConsoleView;
+import view.sink.SocketSink;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many independent text sessions over TCP, speaking the same line protocol as
+ * {@link TextController}. The map is parsed once; every connection gets its own
+ * {@link GameModel} built from that shared parse tree and runs on its own thread.
+ * Sessions end on QUIT, on disconnect, or after the idle timeout.
+ * In shared mode every session instead joins one {@link SharedWorld}; otherwise idle
+ * sessions can be hibernated to disk by a {@link SessionManager}.
+ */
+public class GameServer {
+
+  /** Stack size of session threads; a session's call depth is shallow, so 10k threads stay cheap. */
+  public static final long SESSION_STACK_BYTES = 256 * 1024;
+  /** Default idle timeout. */
+  public static final int DEFAULT_IDLE_SECONDS = 300;
+  /** Default limit on concurrent sessions. */
+  public static final int DEFAULT_MAX_SESSIONS = 10_000;
+  /** Default idle time before a session is hibernated (0 turns hibernation off). */
+  public static final int DEFAULT_HIBERNATE_SECONDS = 60;
+
+  private final JsonObject map;
+  private final int port;
+  private final int idleMillis;
+  private final int maxSessions;
+  private final SharedWorld world;
+  private volatile SessionManager hibernation;
+  private final Set<Socket> sessions = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger sessionIds = new AtomicInteger();
+  private final AtomicLong served = new AtomicLong();
+  private volatile ServerSocket listener;
+  private volatile boolean running;
+
+  /**
+   * Creates a server for one map.
+   *
+   * @param mapFile     the map file
+   * @param port        TCP port on the loopback interface (0 picks a free port)
+   * @param idleSeconds seconds without input before a session is closed
+   * @param maxSessions concurrent session limit; further connections are turned away
+   * @throws IOException if the map cannot be read
+   */
+  public GameServer(String mapFile, int port, int idleSeconds, int maxSessions) throws IOException {
+    this(mapFile, port, idleSeconds, maxSessions, false);
+  }
+
+  /**
+   * Creates a server for one map, optionally with all sessions in one shared world.
+   *
+   * @param mapFile     the map file
+   * @param port        TCP port on the loopback interface (0 picks a free port)
+   * @param idleSeconds seconds without input before a session is closed
+   * @param maxSessions concurrent session limit; further connections are turned away
+   * @param shared      true to put every session in the same world
+   * @throws IOException if the map cannot be read
+   */
+  public GameServer(String mapFile, int port, int idleSeconds, int maxSessions,
+                    boolean shared) throws IOException {
+    this.map = JsonUtils.safeParseJson(mapFile);
+    this.port = port;
+    this.idleMillis = (int) TimeUnit.SECONDS.toMillis(idleSeconds);
+    this.maxSessions = maxSessions;
+    this.world = shared ? new SharedWorld(map) : null;
+  }
+
+  /**
+   * Hibernates sessions idle for the given time and keeps resident sessions within a heap
+   * budget. Has no effect in shared mode, where all sessions live in one world.
+   *
+   * @param idleSeconds    seconds without input before a session is hibernated
+   * @param residentBudget estimated heap bytes resident sessions may use
+   * @throws IOException if the session store cannot be created
+   */
+  public void enableHibernation(int idleSeconds, long residentBudget) throws IOException {
+    if (world == null) {
+      hibernation = new SessionManager(map, maxSessions, idleSeconds, residentBudget);
+    }
+  }
+
+  /**
+   * Returns the hibernation counters, or null when hibernation is off.
+   *
+   * @return the stats or null
+   */
+  public SessionManager.Stats getHibernationStats() {
+    SessionManager manager = hibernation;
+    return manager == null ? null : manager.stats();
+  }
+
+  /**
+   * Binds the port. Call {@link #serve()} to start accepting.
+   *
+   * @return the bound port
+   * @throws IOException if the port cannot be bound
+   */
+  public int bind() throws IOException {
+    ServerSocket socket = new ServerSocket();
+    socket.setReuseAddress(true);
+    socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+    listener = socket;
+    running = true;
+    return socket.getLocalPort();
+  }
+
+  /**
+   * Accepts connections until {@link #shutdown} is called, one thread per session.
+   *
+   * @throws IOException if accepting fails for a reason other than shutdown
+   */
+  public void serve() throws IOException {
+    while (running) {
+      Socket client;
+      try {
+        client = listener.accept();
+      } catch (SocketException e) {
+        if (!running) {
+          return; // listener closed by shutdown
+        }
+        throw e;
+      }
+      if (sessions.size() >= maxSessions) {
+        reject(client);
+        continue;
+      }
+      sessions.add(client);
+      Thread session = new Thread(null, () -> runSession(client),
+              "session-" + sessionIds.incrementAndGet(), SESSION_STACK_BYTES);
+      session.start();
+    }
+  }
+
+  /**
+   * Plays one session on the calling thread.
+   */
+  private void runSession(Socket client) {
+    try (client) {
+      client.setSoTimeout(idleMillis);
+      client.setTcpNoDelay(true);
+      BufferedReader input = new BufferedReader(
+              new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+      SocketSink output = new SocketSink(client.getOutputStream());
+      ConsoleView view = new ConsoleView(output);
+
+      view.showMessage("Enter your name: ");
+      view.flush();
+      String name = input.readLine();
+      if (name == null) {
+        return;
+      }
+      name = name.trim().isEmpty() ? "Player" : name.trim();
+
+      IModel model = newModel(name);
+      Readable commands = input;
+      if (model instanceof HibernatingModel session) {
+        commands = session.parkWhileReading(input);
+        session.setOnHibernate(view::invalidate); // the view must not pin the old world
+      }
+      try {
+        TextController controller = new TextController(model, view, commands);
+        controller.disableSaving(); // clients must not pick file names or slots on the server
+        controller.startGame();
+      } finally {
+        release(model);
+      }
+      // Scanner hides read timeouts as end of input; tell the client which one it was
+      view.showMessage(running ? "Session closed." : "Server shutting down.");
+      view.close();
+      served.incrementAndGet();
+    } catch (IOException e) {
+      // Client went away or timed out before the game started
+    } finally {
+      sessions.remove(client);
+    }
+  }
+
+  private IModel newModel(String name) throws IOException {
+    if (world != null) {
+      return world.join(name);
+    }
+    SessionManager manager = hibernation;
+    if (manager != null) {
+      return manager.open(name);
+    }
+    GameModel model = new GameModel();
+    model.generateWorld(map);
+    model.initializePlayer(name);
+    return model;
+  }
+
+  private void release(IModel model) {
+    if (model instanceof SharedGameModel member) {
+      member.leave();
+    } else if (model instanceof HibernatingModel session) {
+      hibernation.close(session);
+    }
+  }
+
+  private static void reject(Socket client) {
+    try (client) {
+      client.getOutputStream().write("Server full, try again later.\r\n".getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      // nothing to tell a client that is already gone
+    }
+  }
+
+  /**
+   * Stops accepting, closes every session's connection (ending its game loop at the next read)
+   * and waits up to the grace period for the sessions to finish.
+   *
+   * @param graceMillis how long to wait for sessions to end
+   */
+  public void shutdown(long graceMillis) {
+    running = false;
+    try {
+      if (listener != null) {
+        listener.close();
+      }
+    } catch (IOException e) {
+      System.err.println("Error closing listener: " + e.getMessage());
+    }
+    for (Socket session : sessions) {
+      try {
+        session.shutdownInput(); // the session sees end of input and says goodbye
+      } catch (IOException e) {
+        // already closed
+      }
+    }
+    long deadline = System.currentTimeMillis() + graceMillis;
+    while (!sessions.isEmpty() && System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    for (Socket session : sessions) {
+      try {
+        session.close();
+      } catch (IOException e) {
+        // already closed
+      }
+    }
+    if (hibernation != null) {
+      try {
+        hibernation.close();
+      } catch (IOException e) {
+        System.err.println("Error removing session store: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns the number of sessions currently connected.
+   *
+   * @return live sessions
+   */
+  public int getActiveSessions() {
+    return sessions.size();
+  }
+
+  /**
+   * Returns the number of sessions that played to the end.
+   *
+   * @return finished sessions
+   */
+  public long getSessionsServed() {
+    return served.get();
+  }
+
+  /**
+   * Creates a server configured from the halo.server.* system properties described on
+   * {@link #runServer}, reporting the hibernation settings when hibernation is on.
+   */
+  static GameServer fromProperties(String mapFile, int port, int idleSeconds) throws IOException {
+    GameServer server = new GameServer(mapFile, port, idleSeconds,
+            Integer.getInteger("halo.server.maxSessions", DEFAULT_MAX_SESSIONS),
+            Boolean.getBoolean("halo.server.shared"));
+    int hibernateSeconds = Integer.getInteger("halo.server.hibernateSeconds", DEFAULT_HIBERNATE_SECONDS);
+    if (hibernateSeconds > 0) {
+      long budget = Long.getLong("halo.server.residentBytes", Runtime.getRuntime().maxMemory() / 2);
+      server.enableHibernation(hibernateSeconds, budget);
+      SessionManager manager = server.hibernation; // stays null in shared mode
+      if (manager != null) {
+        long footprint = manager.getFootprint();
+        System.out.printf("Hibernating sessions idle for %ds; ~%d KB per session, %d resident at most%n",
+                hibernateSeconds, footprint / 1024, budget / footprint);
+      }
+    }
+    return server;
+  }
+
+  /**
+   * Entry point used by GameEngineApp for -server: serves until the process is stopped,
+   * then shuts down gracefully from a shutdown hook. -Dhalo.server.shared=true puts all
+   * sessions in one world; otherwise -Dhalo.server.hibernateSeconds (0 = off) and
+   * -Dhalo.server.residentBytes (default half the heap) control hibernation.
+   *
+   * @param mapFile     the map file
+   * @param port        TCP port
+   * @param idleSeconds idle timeout
+   * @throws IOException if the map cannot be read or the port bound
+   */
+  public static void runServer(String mapFile, int port, int idleSeconds) throws IOException {
+    GameServer server = fromProperties(mapFile, port, idleSeconds);
+    int bound = server.bind();
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      SessionManager.Stats stats = server.getHibernationStats();
+      server.shutdown(5_000);
+      System.out.println("Server stopped; " + server.getSessionsServed() + " sessions served.");
+      if (stats != null) {
+        System.out.println("Hibernation: " + stats);
+      }
+    }, "server-shutdown"));
+    System.out.println("Serving on 127.0.0.1:" + bound + " (idle timeout " + idleSeconds + "s)");
+    server.serve();
+  }
+}
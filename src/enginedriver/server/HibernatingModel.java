@@ -0,0 +1,301 @@
+package enginedriver.server;
+
+import model.GameModel;
+import model.IModel;
+import model.core.HealthStatus;
+import model.core.Player;
+import model.core.PlayerRank;
+import model.core.Room;
+import model.elements.Item;
+import model.events.ModelEvent;
+import model.events.PlayerState;
+import model.rules.Resolution;
+import model.rules.Trigger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A session's model that can be written to disk and dropped from the heap while the
+ * player is idle, and is rebuilt on the next call. The session may only be hibernated
+ * while parked, i.e. while its controller is blocked reading input
+ * (see {@link #parkWhileReading(Readable)}), so no command ever sees its world vanish.
+ * Undo history does not survive hibernation.
+ */
+public class HibernatingModel implements IModel {
+
+  private final SessionManager manager;
+  private final int slot;
+  private final List<Consumer<List<ModelEvent>>> subscribers = new CopyOnWriteArrayList<>();
+  private Runnable onHibernate = () -> { };
+  private GameModel live;
+  private boolean parked;
+  private volatile long lastActive = System.nanoTime();
+
+  HibernatingModel(SessionManager manager, int slot, GameModel live) {
+    this.manager = manager;
+    this.slot = slot;
+    this.live = live;
+  }
+
+  /**
+   * Wraps the session input so the session counts as parked while it waits for a line.
+   *
+   * @param input the session input
+   * @return input to hand to the controller
+   */
+  public Readable parkWhileReading(Readable input) {
+    return buffer -> {
+      park();
+      try {
+        return input.read(buffer);
+      } finally {
+        unpark();
+      }
+    };
+  }
+
+  /**
+   * Sets an action run right after the model is dropped, to release anything else that
+   * still points into the old world (e.g. a view's last rendered room).
+   *
+   * @param onHibernate the action
+   */
+  public void setOnHibernate(Runnable onHibernate) {
+    this.onHibernate = onHibernate;
+  }
+
+  private synchronized void park() {
+    parked = true;
+    lastActive = System.nanoTime();
+  }
+
+  private void unpark() {
+    synchronized (this) {
+      parked = false;
+      lastActive = System.nanoTime();
+    }
+    manager.touched(this);
+  }
+
+  /**
+   * Returns true while the model is on disk rather than in the heap.
+   *
+   * @return true if hibernated
+   */
+  public synchronized boolean isHibernated() {
+    return live == null;
+  }
+
+  /**
+   * Returns when the session last started or stopped waiting for input.
+   *
+   * @return a {@link System#nanoTime()} timestamp
+   */
+  long getLastActive() {
+    return lastActive;
+  }
+
+  int getSlot() {
+    return slot;
+  }
+
+  /**
+   * Writes the model to the session store and drops it, if the session is parked.
+   *
+   * @return true if the model was hibernated
+   */
+  boolean hibernate() {
+    synchronized (this) {
+      if (!parked || live == null) {
+        return false;
+      }
+      try {
+        manager.store().write(slot, live.exportState());
+      } catch (IOException e) {
+        System.err.println("Could not hibernate session " + slot + ": " + e.getMessage());
+        return false;
+      }
+      live = null;
+      onHibernate.run();
+      // Still under the session lock, so a wake cannot be counted before this hibernation
+      manager.hibernated(this);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the live model, reading it back from disk first if it was hibernated.
+   */
+  private GameModel live() {
+    boolean woke = false;
+    GameModel model;
+    synchronized (this) {
+      if (live == null) {
+        long start = System.nanoTime();
+        live = wake();
+        manager.woke(this, System.nanoTime() - start);
+        woke = true;
+      }
+      model = live;
+    }
+    if (woke) {
+      manager.enforceBudget();
+    }
+    return model;
+  }
+
+  private GameModel wake() {
+    try {
+      byte[] data = manager.store().read(slot);
+      GameModel model = manager.newWorld();
+      if (data == null || !model.importState(data)) {
+        throw new IllegalStateException("Session " + slot + " could not be restored.");
+      }
+      for (Consumer<List<ModelEvent>> subscriber : subscribers) {
+        model.subscribe(subscriber);
+      }
+      return model;
+    } catch (IOException e) {
+      throw new IllegalStateException("Session " + slot + " could not be read back.", e);
+    }
+  }
+
+  @Override
+  public void generateWorld(String jsonFilePath) {
+    throw new IllegalStateException("Session worlds are built by SessionManager.");
+  }
+
+  @Override
+  public void initializePlayer(String name) {
+    live().initializePlayer(name);
+  }
+
+  @Override
+  public boolean movePlayer(String direction) {
+    return live().movePlayer(direction);
+  }
+
+  @Override
+  public boolean pickItem(String itemName) {
+    return live().pickItem(itemName);
+  }
+
+  @Override
+  public boolean dropItem(String itemName) {
+    return live().dropItem(itemName);
+  }
+
+  @Override
+  public String useItem(String itemName) {
+    return live().useItem(itemName);
+  }
+
+  @Override
+  public boolean answerPuzzle(String answer) {
+    return live().answerPuzzle(answer);
+  }
+
+  @Override
+  public Resolution resolve(Trigger trigger, String input) {
+    return live().resolve(trigger, input);
+  }
+
+  @Override
+  public boolean saveGame(String filePath) {
+    return live().saveGame(filePath);
+  }
+
+  @Override
+  public boolean loadGame(String filePath) {
+    return live().loadGame(filePath);
+  }
+
+  @Override
+  public boolean saveGame(int slotId) {
+    return live().saveGame(slotId);
+  }
+
+  @Override
+  public boolean loadGame(int slotId) {
+    return live().loadGame(slotId);
+  }
+
+  @Override
+  public void commitTurn() {
+    live().commitTurn();
+  }
+
+  @Override
+  public boolean undo() {
+    return live().undo();
+  }
+
+  @Override
+  public boolean redo() {
+    return live().redo();
+  }
+
+  @Override
+  public Player getPlayer() {
+    return live().getPlayer();
+  }
+
+  @Override
+  public Room getCurrentRoom() {
+    return live().getCurrentRoom();
+  }
+
+  @Override
+  public Room getRoom(int roomNumber) {
+    return live().getRoom(roomNumber);
+  }
+
+  @Override
+  public List<Item> getInventory() {
+    return live().getInventory();
+  }
+
+  @Override
+  public HealthStatus getHealthStatus() {
+    return live().getHealthStatus();
+  }
+
+  @Override
+  public double getHealth() {
+    return live().getHealth();
+  }
+
+  @Override
+  public double getScore() {
+    return live().getScore();
+  }
+
+  @Override
+  public PlayerRank getPlayerRank() {
+    return live().getPlayerRank();
+  }
+
+  @Override
+  public Player getPlayerReference() {
+    return live().getPlayerReference();
+  }
+
+  @Override
+  public PlayerState getPlayerState() {
+    return live().getPlayerState();
+  }
+
+  @Override
+  public void subscribe(Consumer<List<ModelEvent>> subscriber) {
+    subscribers.add(subscriber);
+    live().subscribe(subscriber);
+  }
+
+  @Override
+  public void postMessage(String message) {
+    live().postMessage(message);
+  }
+}
@@ -0,0 +1,289 @@
+package enginedriver.server;
+
+import com.google.gson.JsonObject;
+import model.GameModel;
+import utils.fileutil.SlotSaveStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps server sessions within a heap budget by hibernating idle ones.
+ * A session idle for longer than the idle time is written to a private session store
+ * with the save codec and its world dropped; the next command reads it back. Resident
+ * sessions are kept in least-recently-used order, and whenever their estimated size
+ * exceeds the budget the least recently used parked sessions are hibernated early.
+ * Wake-up latency is recorded and reported by {@link #stats()}.
+ */
+public class SessionManager implements Closeable {
+
+  /**
+   * A snapshot of the manager's counters.
+   *
+   * @param resident      sessions in the heap
+   * @param hibernated    sessions on disk
+   * @param hibernations  hibernations so far
+   * @param wakes         wake-ups so far
+   * @param wakeP50Micros median wake-up latency of recent wakes
+   * @param wakeP99Micros 99th percentile wake-up latency of recent wakes
+   * @param wakeMaxMicros slowest wake-up so far
+   */
+  public record Stats(int resident, int hibernated, long hibernations, long wakes,
+                      long wakeP50Micros, long wakeP99Micros, long wakeMaxMicros) {
+    @Override
+    public String toString() {
+      return String.format("%d resident, %d hibernated, %d hibernations, %d wakes "
+                      + "(p50 %dus, p99 %dus, max %dus)", resident, hibernated, hibernations, wakes,
+              wakeP50Micros, wakeP99Micros, wakeMaxMicros);
+    }
+  }
+
+  /** Wake latencies kept for the percentiles. */
+  private static final int LATENCY_WINDOW = 1024;
+
+  private final JsonObject map;
+  private final long idleNanos;
+  private final long residentBudget;
+  private final long footprint;
+  private final Path storeFile;
+  private final SlotSaveStore store;
+  private final Deque<Integer> freeSlots = new ArrayDeque<>();
+  private final LinkedHashMap<HibernatingModel, Boolean> resident = new LinkedHashMap<>(64, 0.75f, true);
+  private final ScheduledExecutorService sweeper;
+  private final long[] latencies = new long[LATENCY_WINDOW];
+  private int hibernatedCount;
+  private long hibernations;
+  private long wakes;
+  private long wakeMax;
+
+  /**
+   * Creates a manager for one map.
+   *
+   * @param map            the parsed map every session is built from
+   * @param maxSessions    most sessions open at once
+   * @param idleSeconds    seconds without input before a session is hibernated
+   * @param residentBudget estimated heap bytes resident sessions may use
+   * @throws IOException if the session store cannot be created
+   */
+  public SessionManager(JsonObject map, int maxSessions, int idleSeconds, long residentBudget)
+          throws IOException {
+    this(map, maxSessions, idleSeconds, residentBudget, estimateFootprint(map));
+  }
+
+  /**
+   * Creates a manager with a known per-session footprint instead of measuring one.
+   */
+  SessionManager(JsonObject map, int maxSessions, int idleSeconds, long residentBudget, long footprint)
+          throws IOException {
+    this.map = map;
+    this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+    this.residentBudget = residentBudget;
+    this.footprint = footprint;
+    this.storeFile = Files.createTempFile("halo-sessions", ".store");
+    Files.delete(storeFile); // the store creates and sizes its own file
+    this.store = SlotSaveStore.open(storeFile, maxSessions,
+            Math.max(1L << 20, maxSessions * 16L * 1024));
+    for (int slot = 0; slot < maxSessions; slot++) {
+      freeSlots.add(slot);
+    }
+    this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "session-sweeper");
+      t.setDaemon(true);
+      return t;
+    });
+    long period = Math.max(1, idleSeconds * 1000L / 4);
+    sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Estimates the heap taken by one session's model by building a few and measuring.
+   *
+   * @param map the parsed map
+   * @return estimated bytes per session
+   */
+  public static long estimateFootprint(JsonObject map) {
+    final int samples = 32;
+    Runtime rt = Runtime.getRuntime();
+    System.gc();
+    long before = rt.totalMemory() - rt.freeMemory();
+    List<GameModel> models = new ArrayList<>(samples);
+    for (int i = 0; i < samples; i++) {
+      GameModel model = new GameModel();
+      model.generateWorld(map);
+      model.initializePlayer("sample");
+      models.add(model);
+    }
+    System.gc();
+    long after = rt.totalMemory() - rt.freeMemory();
+    long estimate = (after - before) / models.size();
+    return Math.max(16 * 1024, estimate); // a GC mid-measurement can only make it look smaller
+  }
+
+  /**
+   * Opens a session with a new player.
+   *
+   * @param playerName the player's name
+   * @return the session's model
+   * @throws IOException if the session limit is reached
+   */
+  public HibernatingModel open(String playerName) throws IOException {
+    Integer slot;
+    synchronized (this) {
+      slot = freeSlots.poll();
+    }
+    if (slot == null) {
+      throw new IOException("No session slots left.");
+    }
+    GameModel model = newWorld();
+    model.initializePlayer(playerName);
+    HibernatingModel session = new HibernatingModel(this, slot, model);
+    synchronized (this) {
+      resident.put(session, Boolean.TRUE);
+    }
+    enforceBudget();
+    return session;
+  }
+
+  /**
+   * Ends a session and frees its slot.
+   *
+   * @param session the session
+   */
+  public void close(HibernatingModel session) {
+    boolean wasHibernated = session.isHibernated();
+    try {
+      store.delete(session.getSlot());
+    } catch (IOException e) {
+      System.err.println("Could not free session slot " + session.getSlot() + ": " + e.getMessage());
+    }
+    synchronized (this) {
+      if (resident.remove(session) == null && wasHibernated) {
+        hibernatedCount--;
+      }
+      freeSlots.add(session.getSlot());
+    }
+  }
+
+  /**
+   * Returns the current counters.
+   *
+   * @return the stats
+   */
+  public synchronized Stats stats() {
+    int n = (int) Math.min(wakes, LATENCY_WINDOW);
+    long[] recent = Arrays.copyOf(latencies, n);
+    Arrays.sort(recent);
+    return new Stats(resident.size(), hibernatedCount, hibernations, wakes,
+            percentile(recent, 0.50) / 1000, percentile(recent, 0.99) / 1000, wakeMax / 1000);
+  }
+
+  /**
+   * Returns the estimated heap size of one resident session.
+   *
+   * @return bytes per session
+   */
+  public long getFootprint() {
+    return footprint;
+  }
+
+  /**
+   * Stops the sweeper and deletes the session store.
+   */
+  @Override
+  public void close() throws IOException {
+    sweeper.shutdownNow();
+    store.close();
+    Files.deleteIfExists(storeFile);
+  }
+
+  GameModel newWorld() {
+    GameModel model = new GameModel();
+    model.generateWorld(map);
+    return model;
+  }
+
+  SlotSaveStore store() {
+    return store;
+  }
+
+  synchronized void touched(HibernatingModel session) {
+    resident.get(session); // access order: now the most recently used
+  }
+
+  synchronized void hibernated(HibernatingModel session) {
+    if (resident.remove(session) != null) {
+      hibernatedCount++;
+      hibernations++;
+    }
+  }
+
+  synchronized void woke(HibernatingModel session, long nanos) {
+    resident.put(session, Boolean.TRUE);
+    hibernatedCount--;
+    latencies[(int) (wakes % LATENCY_WINDOW)] = nanos;
+    wakes++;
+    wakeMax = Math.max(wakeMax, nanos);
+  }
+
+  /**
+   * Hibernates least recently used parked sessions until the resident set fits the budget.
+   * Sessions in the middle of a command are skipped.
+   */
+  void enforceBudget() {
+    List<HibernatingModel> candidates;
+    long toFree;
+    synchronized (this) {
+      toFree = resident.size() * footprint - residentBudget;
+      if (toFree <= 0) {
+        return;
+      }
+      candidates = new ArrayList<>(resident.keySet()); // least recently used first
+    }
+    for (HibernatingModel session : candidates) {
+      if (toFree <= 0) {
+        break;
+      }
+      if (session.hibernate()) {
+        toFree -= footprint;
+      }
+    }
+  }
+
+  /**
+   * Hibernates every parked session idle for longer than the idle time.
+   */
+  private void sweep() {
+    try {
+      List<HibernatingModel> candidates;
+      synchronized (this) {
+        candidates = new ArrayList<>(resident.keySet());
+      }
+      long now = System.nanoTime();
+      for (HibernatingModel session : candidates) {
+        if (now - session.getLastActive() > idleNanos) {
+          session.hibernate();
+        }
+      }
+    } catch (RuntimeException e) {
+      e.printStackTrace(); // keep sweeping
+    }
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+  }
+}
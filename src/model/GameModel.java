@@ -1,35 +1,158 @@
 package model;
 
+import com.google.gson.JsonObject;
 import model.core.HealthStatus;
 import model.core.Player;
 import model.core.PlayerRank;
 import model.core.WorldEngine;
 import model.elements.Item;
+import model.events.GameEvent;
+import model.events.ModelEvent;
+import model.events.ModelEventBus;
+import model.events.PlayerState;
+import model.history.EvictionPolicy;
+import model.history.SessionState;
+import model.history.UndoHistory;
+import model.history.WorldState;
+import model.rules.Resolution;
+import model.rules.Trigger;
 import model.core.Room;
+import utils.fileutil.PathUtils;
+import utils.fileutil.SlotSaveStore;
+import utils.metrics.LatencyHistogram;
+import utils.metrics.Metrics;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class GameModel implements IModel {
 
+  private static final LatencyHistogram LOAD_WORLD_TIME = Metrics.timer("world.load");
+  private static final LatencyHistogram SAVE_TIME = Metrics.timer("world.save");
+  private static final LatencyHistogram RESTORE_TIME = Metrics.timer("world.restore");
+  private static final LatencyHistogram HISTORY_TIME = Metrics.timer("world.undoRedo");
+
   private final WorldEngine engine = new WorldEngine();
   private Player player;
+  private final UndoHistory history = new UndoHistory(
+          Integer.getInteger("halo.undo.depth", UndoHistory.DEFAULT_DEPTH),
+          EvictionPolicy.fromName(System.getProperty("halo.undo.eviction")));
+  private final ModelEventBus events = new ModelEventBus();
+  private static SlotSaveStore slotStore;
 
   @Override
   public void generateWorld(String jsonFilePath) throws IOException {
-    engine.generateWorld(jsonFilePath);
+    long start = System.nanoTime();
+    try {
+      engine.generateWorld(jsonFilePath);
+    } finally {
+      LOAD_WORLD_TIME.recordSince(start);
+    }
+  }
+
+  /**
+   * Generates the world from an already parsed map shared with other models.
+   *
+   * @param root the parsed map
+   */
+  public void generateWorld(JsonObject root) {
+    long start = System.nanoTime();
+    try {
+      engine.generateWorld(root);
+    } finally {
+      LOAD_WORLD_TIME.recordSince(start);
+    }
   }
+
   @Override
   public boolean saveGame(String filePath) {
-    return engine.saveState(filePath, player);
+    int slot = PathUtils.parseSlotId(filePath);
+    if (slot >= 0) return saveGame(slot);
+    long start = System.nanoTime();
+    try {
+      return engine.saveState(filePath, player);
+    } finally {
+      SAVE_TIME.recordSince(start);
+    }
   }
 
   @Override
   public boolean loadGame(String filePath) {
-    Player temp = new Player("TEMP", new Room(0, "TEMP", "Temporary"));
-    boolean success = engine.restoreState(filePath, temp);
-    if (success) this.player = temp;
-    return success;
+    int slot = PathUtils.parseSlotId(filePath);
+    if (slot >= 0) return loadGame(slot);
+    long start = System.nanoTime();
+    try {
+      Player restored = engine.restoreState(filePath);
+      if (restored == null) return false;
+      attachPlayer(restored);
+      return true;
+    } finally {
+      RESTORE_TIME.recordSince(start);
+    }
+  }
+
+  @Override
+  public boolean saveGame(int slotId) {
+    long start = System.nanoTime();
+    try {
+      slotStore().write(slotId, engine.encodeState(player));
+      return true;
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    } finally {
+      SAVE_TIME.recordSince(start);
+    }
+  }
+
+  @Override
+  public boolean loadGame(int slotId) {
+    long start = System.nanoTime();
+    try {
+      byte[] data = slotStore().read(slotId);
+      return data != null && importState(data);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    } finally {
+      RESTORE_TIME.recordSince(start);
+    }
+  }
+
+  /**
+   * Encodes the world and player with the save codec, without touching the save store.
+   *
+   * @return the encoded state
+   * @throws IOException if encoding fails
+   */
+  public byte[] exportState() throws IOException {
+    return engine.encodeState(player);
+  }
+
+  /**
+   * Restores state produced by {@link #exportState()}. The undo history starts afresh.
+   *
+   * @param data the encoded state
+   * @return true if the state was restored
+   */
+  public boolean importState(byte[] data) {
+    Player restored = engine.decodeState(data);
+    if (restored == null) return false;
+    attachPlayer(restored);
+    return true;
+  }
+
+  /**
+   * Returns the process-wide save store, opening it on first use.
+   * The store is shared by every model so all slots live in one mapped file.
+   */
+  private static synchronized SlotSaveStore slotStore() throws IOException {
+    if (slotStore == null) {
+      slotStore = SlotSaveStore.open(Paths.get(PathUtils.getSlotStorePath()));
+    }
+    return slotStore;
   }
 
   @Override
@@ -39,7 +162,72 @@ public class GameModel implements IModel {
 
   @Override
   public void initializePlayer(String name) {
-    this.player = new Player(name, engine.getRoom(1));
+    attachPlayer(new Player(name, engine.getRoom(1)));
+  }
+
+  /**
+   * Makes the given player current and starts a fresh undo history from the present state.
+   */
+  private void attachPlayer(Player newPlayer) {
+    this.player = newPlayer;
+    newPlayer.journal().subscribe(history::onEvent);
+    newPlayer.journal().subscribe(this::publish);
+    newPlayer.setMessageSink(text -> events.deliver(new ModelEvent.Message(text)));
+    history.reset(new SessionState(newPlayer.getState(), WorldState.capture(engine)));
+    publishAll();
+  }
+
+  private void publish(GameEvent event) {
+    events.publish(event, player.getState());
+  }
+
+  /**
+   * Marks everything stale (after a load, undo or redo replaced the state wholesale).
+   */
+  private void publishAll() {
+    events.publishAll(player.getState());
+  }
+
+  @Override
+  public void commitTurn() {
+    history.checkpoint();
+    events.flush();
+  }
+
+  @Override
+  public void subscribe(Consumer<List<ModelEvent>> subscriber) {
+    events.subscribe(subscriber);
+    if (player != null) {
+      publishAll(); // a late subscriber still needs the state it missed
+    }
+  }
+
+  @Override
+  public void postMessage(String message) {
+    events.publish(new ModelEvent.Message(message));
+  }
+
+  @Override
+  public boolean undo() {
+    return restore(history.current(), history.undo());
+  }
+
+  @Override
+  public boolean redo() {
+    return restore(history.current(), history.redo());
+  }
+
+  /**
+   * Writes a history state back onto the live world and player.
+   */
+  private boolean restore(SessionState from, SessionState to) {
+    if (to == null) return false;
+    long start = System.nanoTime();
+    to.world().applyTo(engine, from.world());
+    player.restoreState(to.player(), engine);
+    publishAll();
+    HISTORY_TIME.recordSince(start);
+    return true;
   }
 
   @Override
@@ -52,6 +240,11 @@ public class GameModel implements IModel {
     return player.getCurrentRoom();
   }
 
+  @Override
+  public Room getRoom(int roomNumber) {
+    return engine.getRoom(roomNumber);
+  }
+
   @Override
   public boolean pickItem(String name) {
     return player.pickItem(name);
@@ -77,6 +270,11 @@ public class GameModel implements IModel {
     return player.answerCorrect(answer, player.getCurrentRoom());
   }
 
+  @Override
+  public Resolution resolve(Trigger trigger, String input) {
+    return player.resolve(trigger, input, player.getCurrentRoom());
+  }
+
   @Override
   public HealthStatus getHealthStatus() {
     return player.getHealthStatus();
@@ -102,4 +300,8 @@ public class GameModel implements IModel {
     return player;
   }
 
-}
\ No newline at end of file
+  @Override
+  public PlayerState getPlayerState() {
+    return player.getState();
+  }
+}
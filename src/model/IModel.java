@@ -5,9 +5,14 @@ import model.core.Player;
 import model.core.PlayerRank;
 import model.core.Room;
 import model.elements.Item;
+import model.events.ModelEvent;
+import model.events.PlayerState;
+import model.rules.Resolution;
+import model.rules.Trigger;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * IModel interface:
@@ -77,24 +82,73 @@ public interface IModel {
    */
   boolean answerPuzzle(String answer);
 
+  /**
+   * Fires the current room's obstacle rule for what the player did, if one matches.
+   *
+   * @param trigger what the player did
+   * @param input   the item name or answer (null for encounters)
+   * @return what happened, or null if no rule fired or another player cleared the obstacle first
+   */
+  Resolution resolve(Trigger trigger, String input);
+
   // ===== State Save/Load =====
 
   /**
    * Save game boolean.
+   * A target of the form "slot:N" saves into slot N of the save store.
    *
-   * @param filePath the file path
+   * @param filePath the file path or slot reference
    * @return the boolean
    */
   boolean saveGame(String filePath);
 
   /**
    * Load game boolean.
+   * A target of the form "slot:N" loads from slot N of the save store.
    *
-   * @param filePath the file path
+   * @param filePath the file path or slot reference
    * @return the boolean
    */
   boolean loadGame(String filePath);
 
+  /**
+   * Save game into a save-store slot.
+   *
+   * @param slotId the slot id
+   * @return the boolean
+   */
+  boolean saveGame(int slotId);
+
+  /**
+   * Load game from a save-store slot.
+   *
+   * @param slotId the slot id
+   * @return the boolean
+   */
+  boolean loadGame(int slotId);
+
+  // ===== Undo/Redo =====
+
+  /**
+   * Marks the end of a player command; the state at this point becomes one undo step
+   * and the model events queued during the command are delivered as one batch.
+   */
+  void commitTurn();
+
+  /**
+   * Undo the last command boolean.
+   *
+   * @return true if a command was undone
+   */
+  boolean undo();
+
+  /**
+   * Redo the last undone command boolean.
+   *
+   * @return true if a command was redone
+   */
+  boolean redo();
+
   // ===== Game Status Query =====
 
   /**
@@ -111,6 +165,14 @@ public interface IModel {
    */
   Room getCurrentRoom();
 
+  /**
+   * Gets a room by number.
+   *
+   * @param roomNumber the room number
+   * @return the room, or null if the map has no such room
+   */
+  Room getRoom(int roomNumber);
+
   /**
    * Gets inventory.
    *
@@ -147,4 +209,31 @@ public interface IModel {
   PlayerRank getPlayerRank();
 
   Player getPlayerReference();
+
+  /**
+   * Gets an immutable snapshot of the player state.
+   * Capturing it is constant-time, so it is cheap enough for saves, undo and spectators.
+   *
+   * @return the player state
+   */
+  PlayerState getPlayerState();
+
+  // ===== Events =====
+
+  /**
+   * Subscribes to model change events. Each command's changes arrive as one coalesced batch
+   * when the command is committed, so views refresh once per command without polling.
+   * The next batch after subscribing also marks every section stale, so a subscriber that
+   * joins after the player was created still draws the initial state.
+   *
+   * @param subscriber receives each batch
+   */
+  void subscribe(Consumer<List<ModelEvent>> subscriber);
+
+  /**
+   * Queues a message for every subscriber, delivered with the current command's batch.
+   *
+   * @param message the message
+   */
+  void postMessage(String message);
 }
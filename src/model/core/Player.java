@@ -6,10 +6,22 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Iterator;
-
-import model.obstacle.Monster;
-import model.obstacle.Puzzle;
+import java.util.function.Consumer;
+import jdk.jfr.EventType;
+
+import model.events.EventJournal;
+import model.events.GameEvent;
+import model.events.PlayerState;
+import model.obstacle.GameObstacle;
+import model.rules.Condition;
+import model.rules.Effect;
+import model.rules.Resolution;
+import model.rules.Rule;
+import model.rules.Trigger;
+import utils.collection.PersistentVector;
+import utils.jfr.RoomTransitionEvent;
 
 /**
  * Representing a player in the game.
@@ -19,15 +31,23 @@ import model.obstacle.Puzzle;
  *  Maintain a health status and end-game ranking based on total score.
  */
 public class Player implements Serializable {
+  private static final long serialVersionUID = -6632469821551550204L;
 
   private final String name;
   private int health;
   private Room currentRoom;
   private final List<Item> inventory;
   private double score;
+  // Event log of every mutation; rebuilt from the fields after deserialization
+  private transient EventJournal journal;
+  // Bumped on every mutation and restore; views compare it with the version they last drew
+  private transient int version;
+  // Where notices for the player go; the model routes them to its subscribers
+  private transient Consumer<String> messages;
 
   private static final int MAX_HEALTH = 100;
   private static final int MAX_WEIGHT = 13;
+  private static final EventType TRANSITION_EVENTS = EventType.getEventType(RoomTransitionEvent.class);
 
   /**
    * Constructor of a new player.
@@ -40,6 +60,7 @@ public class Player implements Serializable {
     this.currentRoom = startingRoom;
     this.inventory = new ArrayList<>();
     this.score = 0;
+    journal();
   }
 
   /**
@@ -53,6 +74,102 @@ public class Player implements Serializable {
     this.inventory.clear();
     this.inventory.addAll(other.inventory);
     this.score = other.score;
+    journal().reset(captureState());
+    version++;
+  }
+
+  /**
+   * Restores saved state onto this player (used by {@link SaveCodec}).
+   * @param health    saved health
+   * @param score     saved score
+   * @param inventory saved inventory, already bound to the live world's items
+   */
+  void restore(int health, double score, List<Item> inventory) {
+    setHealth(health);
+    this.score = score;
+    this.inventory.clear();
+    this.inventory.addAll(inventory);
+    journal().reset(captureState());
+    version++;
+  }
+
+  /**
+   * Restores this player to an earlier state (used by undo/redo).
+   * Room and item ids are resolved against the given world.
+   * @param state the state to restore
+   * @param world the live world
+   */
+  public void restoreState(PlayerState state, WorldEngine world) {
+    this.health = state.health();
+    this.score = state.score();
+    Room room = world.getRoom(state.roomNumber());
+    if (room != null) {
+      this.currentRoom = room;
+    }
+    this.inventory.clear();
+    for (Integer id : state.inventory().toList()) {
+      this.inventory.add(world.getItems().get(id));
+    }
+    journal().reset(state);
+    version++;
+  }
+
+  /**
+   * Sets where notices for the player (an item too heavy, an exit opened) are sent.
+   * Without a sink they are printed to standard output.
+   * @param sink the receiver, usually the model's message events
+   */
+  public void setMessageSink(Consumer<String> sink) {
+    this.messages = sink;
+  }
+
+  private void tell(String message) {
+    if (messages != null) {
+      messages.accept(message);
+    } else {
+      System.out.println(message);
+    }
+  }
+
+  /**
+   * Returns the event journal recording this player's mutations.
+   * @return the journal
+   */
+  public EventJournal journal() {
+    if (journal == null) {
+      journal = new EventJournal(captureState());
+      journal.subscribe(event -> version++);
+    }
+    return journal;
+  }
+
+  /**
+   * Returns the change version of this player. It increases with every recorded
+   * event and every restore, so a view can tell whether its last render is stale.
+   * @return the change version
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the current immutable player state (a constant-time snapshot).
+   * @return the state
+   */
+  public PlayerState getState() {
+    return journal().current();
+  }
+
+  /**
+   * Builds a state from the mutable fields.
+   */
+  private PlayerState captureState() {
+    List<Integer> ids = new ArrayList<>(inventory.size());
+    for (Item i : inventory) {
+      ids.add(i.getId());
+    }
+    return new PlayerState(health, score, currentRoom == null ? 0 : currentRoom.getRoomNumber(),
+            PersistentVector.of(ids));
   }
 
   /**
@@ -63,7 +180,23 @@ public class Player implements Serializable {
    * @return true if the move was successful
    */
   public boolean move(String direction, Map<Integer, Room> roomMap) {
+    int fromRoom = currentRoom.getRoomNumber();
     int nextRoomNumber = currentRoom.getExit(direction);
+    boolean moved = moveTo(nextRoomNumber, roomMap);
+    // Checked up front: the JIT does not reliably elide the event object on this path
+    if (TRANSITION_EVENTS.isEnabled()) {
+      RoomTransitionEvent event = new RoomTransitionEvent();
+      event.player = name;
+      event.direction = direction;
+      event.fromRoom = fromRoom;
+      event.toRoom = nextRoomNumber;
+      event.moved = moved;
+      event.commit();
+    }
+    return moved;
+  }
+
+  private boolean moveTo(int nextRoomNumber, Map<Integer, Room> roomMap) {
     // If no pathway
     if (nextRoomNumber <= 0) {
       return false;
@@ -74,6 +207,7 @@ public class Player implements Serializable {
       return false;
     }
     // Update the current room.
+    journal().append(new GameEvent.Moved(currentRoom.getRoomNumber(), nextRoom.getRoomNumber()));
     this.currentRoom = nextRoom;
     return true;
   }
@@ -99,12 +233,13 @@ public class Player implements Serializable {
     if (getTotalWeight() + item.getWeight() > MAX_WEIGHT) {
       // Return item to room if overweight
       currentRoom.addItem(item);
-      System.out.printf("Item '%s' is too heavy to carry. Current: %.1f, Limit: %d\n",
-              item.getName(), getTotalWeight(), MAX_WEIGHT);
+      tell(String.format("Item '%s' is too heavy to carry. Current: %.1f, Limit: %d",
+              item.getName(), getTotalWeight(), MAX_WEIGHT));
       return false;
     }
 
     inventory.add(item);
+    journal().append(new GameEvent.Picked(currentRoom.getRoomNumber(), item.getId()));
     return true;
   }
 
@@ -120,6 +255,7 @@ public class Player implements Serializable {
       if (i.getName().equalsIgnoreCase(itemName)) {
         it.remove();
         currentRoom.addItem(i);
+        journal().append(new GameEvent.Dropped(currentRoom.getRoomNumber(), i.getId()));
         return true;
       }
     }
@@ -135,6 +271,7 @@ public class Player implements Serializable {
     for (Item i : inventory) {
       if (i.getName().equalsIgnoreCase(itemName)) {
         if (i.isUsable()) {
+          journal().append(new GameEvent.Used(i.getId()));
           return i.use(); // decrements uses and returns action text
         } else {
           return "You can't use that item anymore.";
@@ -174,7 +311,11 @@ public class Player implements Serializable {
    * @param health new health value
    */
   public void setHealth(int health) {
-    this.health = Math.max(0, Math.min(health, MAX_HEALTH));
+    int next = Math.max(0, Math.min(health, MAX_HEALTH));
+    if (next != this.health) {
+      journal().append(new GameEvent.Damaged(this.health - next));
+    }
+    this.health = next;
   }
 
   /**
@@ -209,50 +350,108 @@ public class Player implements Serializable {
    * @return true if answer was correct
    */
   public boolean answerCorrect(String answer, Room room) {
-    if (room.hasObstacle() && room.getObstacle() instanceof Puzzle puzzle) {
-      if (puzzle.isSolved(answer)) {
-        puzzle.deactivate();
-        updateScore(puzzle.getValue());
-
-        // ✅ Unblock ALL negative exits after solving puzzle (simple logic)
-        for (String dir : List.of("N", "S", "E", "W")) {
-          int exit = room.getExit(dir);
-          if (exit < 0) {
-            room.setExit(dir, -exit);
-            System.out.println("Unblocked exit " + dir + " to room " + (-exit));
-          }
-        }
-
-        return true;
-      }
+    Resolution solved = resolve(Trigger.ANSWER, answer, room);
+    if (solved == null) {
+      return false;
     }
-    return false;
+    for (String dir : solved.unblocked()) {
+      tell("Unblocked exit " + dir + " to room " + room.getExit(dir));
+    }
+    return true;
   }
 
   /**
-   * Attempt to defeat a monster obstacle in the current room using the given item.
-   * If successful, the monster is deactivated and score is updated.
+   * Attempt to defeat the obstacle in the current room using the given item.
+   * If successful, the obstacle is deactivated and score is updated.
    *
    * @param itemName name of the item to use
-   * @return true if the monster was defeated
+   * @return true if the obstacle was defeated
    */
   public boolean defeatMonster(String itemName) {
-    if (currentRoom.hasObstacle() && currentRoom.getObstacle() instanceof Monster monster) {
-      if (monster.isDefeatedByItem(itemName)) {
-        monster.deactivate();
-        updateScore(monster.getValue());
+    return resolve(Trigger.USE, itemName, currentRoom) != null;
+  }
+
+  /**
+   * Fires the room's rule for what the player did, if one matches and its conditions hold:
+   * clears the obstacle, opens blocked exits, changes health and awards score as the rule
+   * says. Consuming the item is left to the caller, which uses it through its model.
+   *
+   * @param trigger what the player did
+   * @param input   the item name or answer (null for encounters)
+   * @param room    the room the player is in
+   * @return what happened, or null if no rule fired or another player cleared the obstacle first
+   */
+  public Resolution resolve(Trigger trigger, String input, Room room) {
+    Rule rule = room.getRules().match(trigger, input);
+    if (rule == null || !holds(rule, input, room)) {
+      return null;
+    }
+    if (rule.has(Effect.CLEAR) && !clear(room)) {
+      return null; // another player got there first
+    }
+    if (rule.has(Effect.CLEAR) || rule.score() != 0) {
+      updateScore(rule.score());
+    }
+    List<String> unblocked = rule.has(Effect.UNBLOCK) ? unblockExits(room) : List.of();
+    if (rule.has(Effect.DAMAGE)) {
+      setHealth(this.health + rule.damage());
+    }
+    return new Resolution(rule, unblocked);
+  }
+
+  private boolean holds(Rule rule, String input, Room room) {
+    Set<Condition> conditions = rule.conditions();
+    return (!conditions.contains(Condition.ACTIVE) || room.hasObstacle())
+            && (!conditions.contains(Condition.HOLDING) || isHolding(input));
+  }
+
+  private boolean isHolding(String itemName) {
+    for (Item i : inventory) {
+      if (i.getName().equalsIgnoreCase(itemName)) {
         return true;
       }
     }
     return false;
   }
 
+  /**
+   * Deactivates the room's obstacle if it is still active.
+   *
+   * @return true if this player cleared it
+   */
+  private boolean clear(Room room) {
+    if (!room.tryClearObstacle()) {
+      return false;
+    }
+    journal().append(new GameEvent.ObstacleCleared(room.getRoomNumber()));
+    return true;
+  }
+
+  /**
+   * Opens every blocked (negative) exit of a room.
+   *
+   * @return the directions that were unblocked
+   */
+  private List<String> unblockExits(Room room) {
+    List<String> unblocked = new ArrayList<>();
+    for (String dir : List.of("N", "S", "E", "W")) {
+      int exit = room.getExit(dir);
+      if (exit < 0) {
+        room.setExit(dir, -exit);
+        journal().append(new GameEvent.ExitUnblocked(room.getRoomNumber(), dir, -exit));
+        unblocked.add(dir);
+      }
+    }
+    return unblocked;
+  }
+
   /**
    * Updates the player's score.
    * @param points points to add
    */
   public void updateScore(int points) {
     this.score += points;
+    journal().append(new GameEvent.Scored(points));
   }
 
   /**
@@ -3,9 +3,14 @@ package model.core;
 import model.elements.Fixture;
 import model.elements.Item;
 import model.obstacle.GameObstacle;
+import model.rules.RoomRules;
+import jdk.jfr.EventType;
+import utils.jfr.ObstacleResolvedEvent;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents a room in the adventure game.
@@ -13,9 +18,17 @@ import java.util.*;
  * - A unique room number and name
  * - A set of directional exits ("N", "S", "E", "W")
  * - Optional items, fixtures, and an obstacle (puzzle or monster)
+ * - The obstacle's rules, compiled into a dispatch table
  * - Raw field strings to be parsed later
+ *
+ * Exits and fixtures are held in concurrent collections, and items in an immutable list that
+ * is replaced on every change, so that in a shared world players can render a room while
+ * another player changes it; mutations that must be atomic (take, drop, clearing the obstacle)
+ * are serialized per room by the shared world's locks.
  */
 public class Room implements Serializable {
+  private static final long serialVersionUID = 2393974022021068303L;
+  private static final EventType RESOLVED_EVENTS = EventType.getEventType(ObstacleResolvedEvent.class);
   private final int roomNumber;
   private final String name;
   private String roomDescription;
@@ -23,13 +36,17 @@ public class Room implements Serializable {
 
   // Direction → Target room number
   private final Map<String, Integer> exits;
-  private List<Item> items;
+  // Immutable; replaced (never modified) on change so readers can index it without copying
+  private volatile List<Item> items;
   private List<Fixture> fixtures;
   private GameObstacle obstacle;
+  private RoomRules rules = RoomRules.NONE;
   // Used to store raw string fields before parsing
   private final Map<String, String> rawFields;
 
   private String picture;
+  // Bumped on every change a view would show; lets views skip re-rendering an unchanged room
+  private transient volatile int version;
 
   /**
    * Constructs a new Room with room number and name.
@@ -41,9 +58,9 @@ public class Room implements Serializable {
     this.roomNumber = roomNumber;
     this.name = name;
     this.roomDescription = roomDescription;
-    this.exits = new HashMap<>();
-    this.items = new ArrayList<>();
-    this.fixtures = new ArrayList<>();
+    this.exits = new ConcurrentHashMap<>();
+    this.items = List.of();
+    this.fixtures = new CopyOnWriteArrayList<>();
     this.obstacle = null;
     this.rawFields = new HashMap<>();
     this.picture = picture;
@@ -57,6 +74,7 @@ public class Room implements Serializable {
    */
   public void setExit(String direction, int targetRoomNumber) {
     exits.put(direction.toUpperCase(), targetRoomNumber);
+    version++;
   }
 
   /**
@@ -67,7 +85,25 @@ public class Room implements Serializable {
    * @return room number or 0
    */
   public int getExit(String direction) {
-    return exits.getOrDefault(direction.toUpperCase(), 0);
+    Integer target = exits.get(exitKey(direction));
+    return target == null ? 0 : target;
+  }
+
+  /**
+   * Upper-cases a direction, returning the shared constant for the one-letter forms
+   * so that a lookup per command does not allocate.
+   */
+  private static String exitKey(String direction) {
+    if (direction.length() != 1) {
+      return direction.toUpperCase();
+    }
+    return switch (direction.charAt(0)) {
+      case 'N', 'n' -> "N";
+      case 'S', 's' -> "S";
+      case 'E', 'e' -> "E";
+      case 'W', 'w' -> "W";
+      default -> direction.toUpperCase();
+    };
   }
 
   public Map<String, Integer> getExits() {
@@ -78,8 +114,12 @@ public class Room implements Serializable {
    * Adds an item.
    * @param item to be added.
    */
-  public void addItem(Item item) {
-    items.add(item);
+  public synchronized void addItem(Item item) {
+    List<Item> next = new ArrayList<>(items.size() + 1);
+    next.addAll(items);
+    next.add(item);
+    items = Collections.unmodifiableList(next);
+    version++;
   }
 
   /**
@@ -87,12 +127,15 @@ public class Room implements Serializable {
    * @param itemName name of the item
    * @return the item removed.
    */
-  public Item removeItem(String itemName) {
-    Iterator<Item> it = items.iterator();
-    while (it.hasNext()) {
-      Item i = it.next();
+  public synchronized Item removeItem(String itemName) {
+    List<Item> current = items;
+    for (int n = 0; n < current.size(); n++) {
+      Item i = current.get(n);
       if (i.getName().equalsIgnoreCase(itemName)) {
-        it.remove();
+        List<Item> next = new ArrayList<>(current);
+        next.remove(n);
+        items = Collections.unmodifiableList(next);
+        version++;
         return i;
       }
     }
@@ -105,7 +148,9 @@ public class Room implements Serializable {
    * @return the item.
    */
   public Item getItem(String itemName) {
-    for (Item i : items) {
+    List<Item> current = items;
+    for (int n = 0; n < current.size(); n++) {
+      Item i = current.get(n);
       if (i.getName().equalsIgnoreCase(itemName)) {
         return i;
       }
@@ -115,7 +160,7 @@ public class Room implements Serializable {
 
 
   /**
-   * Returns the list of items currently in the room.
+   * Returns the items currently in the room, as an unmodifiable snapshot.
    *
    * @return list of items
    */
@@ -128,8 +173,9 @@ public class Room implements Serializable {
    *
    * @param items the new list of items
    */
-  public void setItems(List<Item> items) {
-    this.items = items;
+  public synchronized void setItems(List<Item> items) {
+    this.items = Collections.unmodifiableList(new ArrayList<>(items));
+    version++;
   }
 
 
@@ -176,7 +222,7 @@ public class Room implements Serializable {
    * @param fixtures the list of fixtures to set
    */
   public void setFixtures(List<Fixture> fixtures) {
-    this.fixtures = fixtures;
+    this.fixtures = new CopyOnWriteArrayList<>(fixtures);
   }
 
   // ------------------------------------------
@@ -184,12 +230,32 @@ public class Room implements Serializable {
   // ------------------------------------------
 
   /**
-   * Sets the obstacle.
+   * Sets the obstacle, replacing the room's rules with the ones it brings.
    *
    * @param obs the obstacle to place in the room
    */
   public void setObstacle(GameObstacle obs) {
     this.obstacle = obs;
+    this.rules = obs == null ? RoomRules.NONE : RoomRules.of(obs.defaultRules());
+    version++;
+  }
+
+  /**
+   * Returns the rules of the room's obstacle.
+   *
+   * @return the dispatch table
+   */
+  public RoomRules getRules() {
+    return rules;
+  }
+
+  /**
+   * Replaces the room's rules (used when the map adds rules to the obstacle's own).
+   *
+   * @param rules the dispatch table
+   */
+  public void setRules(RoomRules rules) {
+    this.rules = rules;
   }
 
   /**
@@ -207,9 +273,58 @@ public class Room implements Serializable {
   public void deactivateObstacle() {
     if (obstacle != null) {
       obstacle.deactivate();
+      version++;
     }
   }
 
+  /**
+   * Deactivates the obstacle if it is still active. Exactly one caller wins when several
+   * players clear the same obstacle at once.
+   *
+   * @return true if this call deactivated it
+   */
+  public boolean tryClearObstacle() {
+    if (obstacle == null) {
+      return false;
+    }
+    // Checked up front, as in Player.move: no event object unless the event is recorded
+    ObstacleResolvedEvent event = RESOLVED_EVENTS.isEnabled() ? new ObstacleResolvedEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    boolean cleared = obstacle.tryDeactivate();
+    if (cleared) {
+      version++;
+    }
+    if (event != null && event.shouldCommit()) {
+      event.room = roomNumber;
+      event.obstacle = obstacle.getName();
+      event.kind = obstacle.getKind();
+      event.value = obstacle.getValue();
+      event.cleared = cleared;
+      event.commit();
+    }
+    return cleared;
+  }
+
+  /**
+   * Returns the change version of this room. It increases whenever the room's exits,
+   * items or obstacle change, so a view can compare it with the version it last rendered.
+   *
+   * @return the change version
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Records a change made to this room from outside its own mutators
+   * (e.g. edits through {@link #getExits()} or to the obstacle).
+   */
+  public void touch() {
+    version++;
+  }
+
   /**
    * Gets the obstacle in the room.
    *
@@ -288,6 +403,7 @@ public class Room implements Serializable {
    */
   public void setDescription(String description) {
     this.roomDescription = description;
+    version++;
   }
 
   /**
@@ -0,0 +1,271 @@
+package model.core;
+
+import model.elements.Item;
+import model.obstacle.GameObstacle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Encodes game state as an id-referenced save graph.
+ * Rooms are referenced by room number and items by their stable id, so a save only
+ * holds the mutable state (exits, room contents, obstacle flags, item uses, player)
+ * and is rebound against the single live world on restore.
+ *
+ * Record layout (big-endian):
+ *  - int magic, short version, UTF map name, int room count
+ *  - per room: int number, byte exit count, (byte dir, int target)*,
+ *    int item count, int item id*, byte obstacle state (0 none, 1 active, 2 cleared)
+ *  - int item count, int uses remaining*
+ *  - UTF player name, int health, double score, int room, int inventory count, int item id*
+ */
+public class SaveCodec {
+
+  private static final int MAGIC = 0x48535632; // "HSV2"
+  private static final short VERSION = 1;
+  private static final short JAVA_STREAM_MAGIC = (short) 0xACED;
+
+  /**
+   * Encodes the world and player state.
+   *
+   * @param world  the world engine
+   * @param player the player
+   * @return the encoded record
+   * @throws IOException if encoding fails
+   */
+  public static byte[] encode(WorldEngine world, Player player) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    DataOutputStream out = new DataOutputStream(bytes);
+
+    Map<Integer, Room> rooms = new TreeMap<>(world.getWorldMap());
+    out.writeInt(MAGIC);
+    out.writeShort(VERSION);
+    out.writeUTF(world.getMapName());
+    out.writeInt(rooms.size());
+
+    for (Room room : rooms.values()) {
+      out.writeInt(room.getRoomNumber());
+      Map<String, Integer> exits = room.getExits();
+      out.writeByte(exits.size());
+      for (Map.Entry<String, Integer> e : exits.entrySet()) {
+        out.writeByte(e.getKey().charAt(0));
+        out.writeInt(e.getValue());
+      }
+      writeItemIds(out, room.getItems());
+      GameObstacle obs = room.getObstacle();
+      out.writeByte(obs == null ? 0 : obs.isActive() ? 1 : 2);
+    }
+
+    List<Item> items = world.getItems();
+    out.writeInt(items.size());
+    for (Item item : items) {
+      out.writeInt(item.getUsesRemaining());
+    }
+
+    out.writeUTF(player.getName());
+    out.writeInt((int) player.getHealth());
+    out.writeDouble(player.getScore());
+    out.writeInt(player.getCurrentRoom().getRoomNumber());
+    writeItemIds(out, player.getInventory());
+
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a record and rebinds it against the given world, in place.
+   * The record is fully validated before the world is touched, so a bad record
+   * leaves the world unchanged. Records written by the old Java-serialization
+   * format are migrated by room number, and items by name in order.
+   *
+   * @param data  the encoded record
+   * @param world the live world to restore into
+   * @return the restored player
+   * @throws IOException if the record is corrupt or belongs to a different map
+   */
+  public static Player decode(byte[] data, WorldEngine world) throws IOException {
+    if (isLegacy(data)) {
+      return decodeLegacy(data, world);
+    }
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+    if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+      throw new IOException("Unrecognized save format.");
+    }
+    String mapName = in.readUTF();
+    if (!mapName.equals(world.getMapName())) {
+      throw new IOException("Save belongs to map '" + mapName + "', not '" + world.getMapName() + "'.");
+    }
+
+    Map<Integer, Room> worldMap = world.getWorldMap();
+    List<Item> items = world.getItems();
+
+    int roomCount = in.readInt();
+    List<Runnable> updates = new ArrayList<>(roomCount + items.size() + 1);
+    for (int r = 0; r < roomCount; r++) {
+      Room room = requireRoom(worldMap, in.readInt());
+      int exitCount = in.readUnsignedByte();
+      Map<String, Integer> exits = new TreeMap<>();
+      for (int e = 0; e < exitCount; e++) {
+        exits.put(String.valueOf((char) in.readUnsignedByte()), in.readInt());
+      }
+      List<Item> roomItems = readItems(in, items);
+      int obstacleState = in.readUnsignedByte();
+      updates.add(() -> {
+        room.getExits().clear();
+        room.getExits().putAll(exits);
+        room.setItems(roomItems);
+        if (room.getObstacle() != null && obstacleState != 0) {
+          room.getObstacle().setActive(obstacleState == 1);
+        }
+      });
+    }
+
+    int itemCount = in.readInt();
+    if (itemCount != items.size()) {
+      throw new IOException("Save item count does not match the map.");
+    }
+    int[] uses = new int[itemCount];
+    for (int i = 0; i < itemCount; i++) {
+      uses[i] = in.readInt();
+    }
+
+    String name = in.readUTF();
+    int health = in.readInt();
+    double score = in.readDouble();
+    Room current = requireRoom(worldMap, in.readInt());
+    List<Item> inventory = readItems(in, items);
+
+    // Everything parsed and validated: apply to the live world
+    for (Runnable update : updates) {
+      update.run();
+    }
+    for (int i = 0; i < itemCount; i++) {
+      items.get(i).setUsesRemaining(uses[i]);
+    }
+    Player player = new Player(name, current);
+    player.restore(health, score, inventory);
+    return player;
+  }
+
+  /**
+   * Returns true if the record was written by the old Java-serialization format.
+   *
+   * @param data the encoded record
+   * @return true for a legacy record
+   */
+  static boolean isLegacy(byte[] data) {
+    return data.length >= 2 && (short) (((data[0] & 0xFF) << 8) | (data[1] & 0xFF)) == JAVA_STREAM_MAGIC;
+  }
+
+  /**
+   * Migrates a save written with Java serialization of the whole object graph.
+   * Only the state is taken from the old graph; rooms and items are bound to the live world.
+   */
+  private static Player decodeLegacy(byte[] data, WorldEngine world) throws IOException {
+    WorldEngine loadedWorld;
+    Player loadedPlayer;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+      loadedWorld = (WorldEngine) in.readObject();
+      loadedPlayer = (Player) in.readObject();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Unreadable legacy save.", e);
+    }
+
+    Map<Integer, Room> worldMap = world.getWorldMap();
+    for (Room old : loadedWorld.getWorldMap().values()) {
+      requireRoom(worldMap, old.getRoomNumber());
+    }
+    Room current = requireRoom(worldMap, loadedPlayer.getCurrentRoom().getRoomNumber());
+
+    LegacyItems legacyItems = new LegacyItems(world.getItems());
+    for (Room old : new TreeMap<>(loadedWorld.getWorldMap()).values()) {
+      Room room = worldMap.get(old.getRoomNumber());
+      room.getExits().clear();
+      room.getExits().putAll(old.getExits());
+      room.setItems(legacyItems.bind(old.getItems()));
+      if (room.getObstacle() != null && old.getObstacle() != null) {
+        room.getObstacle().setActive(old.getObstacle().isActive());
+      }
+    }
+    Player player = new Player(loadedPlayer.getName(), current);
+    player.restore((int) loadedPlayer.getHealth(), loadedPlayer.getScore(),
+            legacyItems.bind(loadedPlayer.getInventory()));
+    return player;
+  }
+
+  /**
+   * Binds the items of a legacy graph to live items. Old items carry no id, so each
+   * distinct old item takes the next unused live item with its name, in id order
+   * (rooms by number, then the inventory); items sharing a name stay separate instances.
+   */
+  private static final class LegacyItems {
+    private final Map<String, Deque<Item>> unused = new HashMap<>();
+    private final Map<Item, Item> bound = new IdentityHashMap<>();
+
+    LegacyItems(List<Item> items) {
+      for (Item item : items) {
+        unused.computeIfAbsent(item.getName().toLowerCase(), n -> new ArrayDeque<>()).add(item);
+      }
+    }
+
+    List<Item> bind(List<Item> oldItems) {
+      List<Item> result = new ArrayList<>(oldItems.size());
+      for (Item old : oldItems) {
+        Item item = bound.get(old);
+        if (item == null) {
+          Deque<Item> candidates = unused.get(old.getName().toLowerCase());
+          item = candidates == null ? null : candidates.poll();
+          if (item == null) {
+            System.err.printf("Legacy save holds more '%s' than the map — one is dropped.%n", old.getName());
+            continue;
+          }
+          item.setUsesRemaining(old.getUsesRemaining());
+          bound.put(old, item);
+        }
+        result.add(item);
+      }
+      return result;
+    }
+  }
+
+  private static void writeItemIds(DataOutputStream out, List<Item> list) throws IOException {
+    out.writeInt(list.size());
+    for (Item item : list) {
+      out.writeInt(item.getId());
+    }
+  }
+
+  private static List<Item> readItems(DataInputStream in, List<Item> items) throws IOException {
+    int count = in.readInt();
+    List<Item> list = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int id = in.readInt();
+      if (id < 0 || id >= items.size()) {
+        throw new IOException("Save references unknown item #" + id + ".");
+      }
+      list.add(items.get(id));
+    }
+    return list;
+  }
+
+  private static Room requireRoom(Map<Integer, Room> worldMap, int number) throws IOException {
+    Room room = worldMap.get(number);
+    if (room == null) {
+      throw new IOException("Save references unknown room #" + number + ".");
+    }
+    return room;
+  }
+}
@@ -6,7 +6,11 @@ import model.elements.*;
 import model.obstacle.GameObstacle;
 import model.obstacle.Monster;
 import model.obstacle.Puzzle;
+import model.rules.RuleCompiler;
 import utils.fileutil.JsonUtils;
+import utils.jfr.RestoreStateEvent;
+import utils.jfr.SaveStateEvent;
+import utils.jfr.WorldGenerationEvent;
 import utils.roomparser.RoomsParser;
 
 import java.io.*;
@@ -15,6 +19,7 @@ import java.util.*;
 import static utils.elementparser.FixtureParser.parseFixtures;
 import static utils.elementparser.ItemParser.parseItems;
 import static utils.obstacleparser.MonsterParser.parseMonsters;
+import static utils.obstacleparser.ObstacleParser.parseObstacles;
 import static utils.obstacleparser.PuzzleParser.parsePuzzles;
 
 
@@ -24,9 +29,12 @@ import static utils.obstacleparser.PuzzleParser.parsePuzzles;
  * and providing world status.
  */
 public class WorldEngine implements Serializable {
+  private static final long serialVersionUID = -504196754223102918L;
   // fields and the default constructor
   private Map<Integer, Room> worldMap; // Whole room map: Room number -> Room object
   private Player player;
+  private final List<Item> items = new ArrayList<>(); // All items, indexed by item id
+  private String mapName = "";
 
 
   /**
@@ -47,19 +55,79 @@ public class WorldEngine implements Serializable {
    */
   public void generateWorld(String jsonFilePath) throws IOException {
     // get the root object
+    WorldGenerationEvent parse = new WorldGenerationEvent();
+    parse.begin();
     JsonObject root = JsonUtils.safeParseJson(jsonFilePath);
+    mapName = mapNameOf(root);
+    endPhase(parse, "parse", root.size());
+    generateWorld(root);
+  }
+
+  /**
+   * Generates the world from an already parsed map.
+   * The root is only read, so one parsed map can seed many worlds (e.g. parallel batch runs).
+   *
+   * @param root the parsed map
+   */
+  public void generateWorld(JsonObject root) {
+    mapName = mapNameOf(root);
     // get the wordMap
+    WorldGenerationEvent phase = new WorldGenerationEvent();
+    phase.begin();
     RoomsParser.parseRooms(root, worldMap);
+    endPhase(phase, "rooms", worldMap.size());
 
-    List<Item> globalItems = new ArrayList<>();
     List<Fixture> globalFixtures = new ArrayList<>();
 
-    parseItems(root, worldMap, globalItems);
+    phase = new WorldGenerationEvent();
+    phase.begin();
+    parseItems(root, worldMap, items);
+    endPhase(phase, "items", items.size());
+    phase = new WorldGenerationEvent();
+    phase.begin();
     parseFixtures(root, worldMap, globalFixtures);
+    endPhase(phase, "fixtures", globalFixtures.size());
     // parse room obstacles
+    phase = new WorldGenerationEvent();
+    phase.begin();
     parseMonsters(root, worldMap);
+    endPhase(phase, "monsters", obstacleCount());
+    phase = new WorldGenerationEvent();
+    phase.begin();
     parsePuzzles(root, worldMap);
+    endPhase(phase, "puzzles", obstacleCount());
+    phase = new WorldGenerationEvent();
+    phase.begin();
+    parseObstacles(root, worldMap);
+    endPhase(phase, "obstacles", obstacleCount());
+    // compile obstacle rules into each room's dispatch table
+    phase = new WorldGenerationEvent();
+    phase.begin();
+    int rules = RuleCompiler.compile(root, worldMap);
+    endPhase(phase, "rules", rules);
+  }
+
+  private static String mapNameOf(JsonObject root) {
+    return root.has("name") && root.get("name").isJsonPrimitive() ? root.get("name").getAsString() : "";
+  }
+
+  private void endPhase(WorldGenerationEvent event, String phase, int count) {
+    if (event.shouldCommit()) {
+      event.mapName = mapName;
+      event.phase = phase;
+      event.count = count;
+      event.commit();
+    }
+  }
 
+  private int obstacleCount() {
+    int n = 0;
+    for (Room room : worldMap.values()) {
+      if (room.getObstacle() != null) {
+        n++;
+      }
+    }
+    return n;
   }
 
   // ==== getter&setter ====
@@ -83,6 +151,24 @@ public class WorldEngine implements Serializable {
     return worldMap;
   }
 
+  /**
+   * All items of the map, indexed by their stable id.
+   *
+   * @return the item list
+   */
+  public List<Item> getItems() {
+    return items;
+  }
+
+  /**
+   * Name of the loaded map (used to match save files to their map).
+   *
+   * @return the map name
+   */
+  public String getMapName() {
+    return mapName;
+  }
+
   /**
    * Sets player.
    *
@@ -111,9 +197,8 @@ public class WorldEngine implements Serializable {
    * @return boolean
    */
   public boolean saveState(String filePath, Player player) {
-    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filePath))) {
-      out.writeObject(this);
-      out.writeObject(player);
+    try (OutputStream out = new FileOutputStream(filePath)) {
+      out.write(encodeState(player));
       return true;
     } catch (IOException e) {
       e.printStackTrace();
@@ -123,29 +208,75 @@ public class WorldEngine implements Serializable {
 
 
   /**
-   * Restore state boolean.
+   * Restores a saved game into this world.
    *
-   * @param filePath  the file path
-   * @param playerRef the player ref
-   * @return boolean
+   * @param filePath the file path
+   * @return the restored player, or null if the restore failed
    */
-  public boolean restoreState(String filePath, Player playerRef) {
-    try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filePath))) {
-      WorldEngine loadedWorld = (WorldEngine) in.readObject();
-      Player loadedPlayer = (Player) in.readObject();
-
-      this.worldMap = loadedWorld.worldMap;
+  public Player restoreState(String filePath) {
+    try (InputStream in = new FileInputStream(filePath)) {
+      return decodeState(in.readAllBytes());
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
 
-      if (playerRef != null && loadedPlayer != null) {
-        playerRef.copyFrom(loadedPlayer);
-      } else {
-        return false;
+  /**
+   * Encodes the world and player into a self-contained save record.
+   * Used for both save files and save-store slots.
+   *
+   * @param player the player
+   * @return the encoded record
+   * @throws IOException if encoding fails
+   */
+  public byte[] encodeState(Player player) throws IOException {
+    SaveStateEvent event = new SaveStateEvent();
+    event.begin();
+    byte[] data = null;
+    try {
+      data = SaveCodec.encode(this, player);
+      return data;
+    } finally {
+      if (event.shouldCommit()) {
+        event.mapName = mapName;
+        event.rooms = worldMap.size();
+        event.bytes = data == null ? 0 : data.length;
+        event.succeeded = data != null;
+        event.commit();
       }
+    }
+  }
 
-      return true;
-    } catch (IOException | ClassNotFoundException e) {
-      e.printStackTrace();
-      return false;
+  /**
+   * Decodes a save record produced by {@link #encodeState(Player)}.
+   * Saved state is rebound against this world's rooms and items, so every room
+   * exists exactly once after a restore.
+   *
+   * @param data the encoded record
+   * @return the restored player, or null if the record could not be restored
+   */
+  public Player decodeState(byte[] data) {
+    RestoreStateEvent event = new RestoreStateEvent();
+    event.begin();
+    Player restored = null;
+    String failure = null;
+    try {
+      restored = SaveCodec.decode(data, this);
+      return restored;
+    } catch (IOException e) {
+      failure = e.getMessage();
+      System.err.println("Restore failed: " + failure);
+      return null;
+    } finally {
+      if (event.shouldCommit()) {
+        event.mapName = mapName;
+        event.bytes = data.length;
+        event.legacy = SaveCodec.isLegacy(data);
+        event.succeeded = restored != null;
+        event.failure = failure;
+        event.commit();
+      }
     }
   }
 }
@@ -5,6 +5,7 @@ package model.elements;
  * The Fixture class represents immovable objects in the game.
  */
 public class Fixture extends GameElements {
+  private static final long serialVersionUID = -8902599010797462135L;
   private double weight;
 
   /**
@@ -6,6 +6,7 @@ import java.io.Serializable;
  * Abstract class that serves as the base for all game elements.
  */
 public abstract class GameElements implements Serializable {
+  private static final long serialVersionUID = -6691495839280440241L;
   protected String name;
   protected String description;
 
@@ -5,11 +5,13 @@ package model.elements;
  * The Item class represents objects in the game that players can pick up, use, or drop.
  */
 public class Item extends GameElements {
+  private static final long serialVersionUID = 6981872675075087945L;
   private double weight;           // Weight of the item
   private int maxUses;             // Maximum number of uses
   private int usesRemaining;       // Remaining number of uses
   private int value;               // Value of the item
   private String whenUsed;         // Description shown when used
+  private int id = -1;             // Stable index in the world's item list (-1 if unassigned)
 
   /**
    * Constructor: Initializes the item's name, description, weight, usage limits, value, and usage description.
@@ -74,6 +76,17 @@ public class Item extends GameElements {
     this.value = value;
   }
 
+  /**
+   * Gets the stable id of this item within its world (its index in the map's item list).
+   */
+  public int getId() {
+    return id;
+  }
+
+  public void setId(int id) {
+    this.id = id;
+  }
+
   public String getWhenUsed() {
     return whenUsed;
   }
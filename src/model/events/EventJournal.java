@@ -0,0 +1,144 @@
+package model.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of {@link GameEvent}s for one player.
+ * The current state is kept folded as events arrive, and the log is compacted into a
+ * snapshot every {@code compactEvery} events so it never grows without bound.
+ * Because {@link PlayerState} is immutable, {@link #snapshot()} is a constant-time capture.
+ */
+public class EventJournal {
+
+  /**
+   * Default number of events between compactions.
+   */
+  public static final int DEFAULT_COMPACT_EVERY = 256;
+
+  /**
+   * A captured point in the journal.
+   *
+   * @param sequence number of events appended before the capture
+   * @param state    the player state at that point
+   */
+  public record Snapshot(long sequence, PlayerState state) { }
+
+  private final int compactEvery;
+  private final List<GameEvent> tail = new ArrayList<>();
+  private final List<Consumer<GameEvent>> listeners = new ArrayList<>();
+  private Snapshot base;
+  private PlayerState current;
+  private long sequence;
+
+  /**
+   * Creates a journal starting from the given state.
+   *
+   * @param initial the initial state
+   */
+  public EventJournal(PlayerState initial) {
+    this(initial, DEFAULT_COMPACT_EVERY);
+  }
+
+  /**
+   * Creates a journal starting from the given state.
+   *
+   * @param initial      the initial state
+   * @param compactEvery number of events between compactions
+   */
+  public EventJournal(PlayerState initial, int compactEvery) {
+    this.compactEvery = Math.max(1, compactEvery);
+    reset(initial);
+  }
+
+  /**
+   * Appends an event and folds it into the current state.
+   *
+   * @param event the event
+   */
+  public void append(GameEvent event) {
+    tail.add(event);
+    sequence++;
+    current = current.apply(event);
+    if (tail.size() >= compactEvery) {
+      base = new Snapshot(sequence, current);
+      tail.clear();
+    }
+    // Indexed: an iterator here is not always scalar-replaced once the listeners vary
+    for (int i = 0; i < listeners.size(); i++) {
+      listeners.get(i).accept(event);
+    }
+  }
+
+  /**
+   * Registers a listener notified of every appended event.
+   *
+   * @param listener the listener
+   */
+  public void subscribe(Consumer<GameEvent> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Discards the history and restarts from the given state (e.g. after a restore).
+   *
+   * @param state the new base state
+   */
+  public void reset(PlayerState state) {
+    tail.clear();
+    current = state;
+    base = new Snapshot(sequence, state);
+  }
+
+  /**
+   * Returns the current state.
+   *
+   * @return current state
+   */
+  public PlayerState current() {
+    return current;
+  }
+
+  /**
+   * Captures the current state in constant time.
+   *
+   * @return the snapshot handle
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(sequence, current);
+  }
+
+  /**
+   * Returns the events appended after the given sequence number, for spectators that
+   * follow the journal incrementally.
+   *
+   * @param since sequence number from a previous snapshot
+   * @return the newer events, or null if they were compacted away
+   */
+  public List<GameEvent> eventsSince(long since) {
+    if (since < base.sequence() || since > sequence) {
+      return null;
+    }
+    int from = (int) (since - base.sequence());
+    return List.copyOf(tail.subList(from, tail.size()));
+  }
+
+  /**
+   * Rebuilds the current state from the last compacted snapshot and the event tail.
+   *
+   * @return the folded state (equal to {@link #current()})
+   */
+  public PlayerState replay() {
+    return PlayerState.fold(base.state(), tail);
+  }
+
+  /**
+   * Returns the total number of events appended.
+   *
+   * @return the sequence number
+   */
+  public long getSequence() {
+    return sequence;
+  }
+}
@@ -0,0 +1,71 @@
+package model.events;
+
+/**
+ * A single, immutable model mutation.
+ * Every change to the player (and the world changes a player causes) is recorded as one
+ * of these events; the current player state is the fold of the events over a snapshot.
+ * Rooms are referenced by room number and items by their stable id.
+ */
+public sealed interface GameEvent {
+
+  /**
+   * The player moved between rooms.
+   *
+   * @param fromRoom room number left
+   * @param toRoom   room number entered
+   */
+  record Moved(int fromRoom, int toRoom) implements GameEvent { }
+
+  /**
+   * The player picked an item up from a room.
+   *
+   * @param room   room number the item was taken from
+   * @param itemId id of the item
+   */
+  record Picked(int room, int itemId) implements GameEvent { }
+
+  /**
+   * The player dropped an item into a room.
+   *
+   * @param room   room number the item was dropped in
+   * @param itemId id of the item
+   */
+  record Dropped(int room, int itemId) implements GameEvent { }
+
+  /**
+   * The player used one charge of an item.
+   *
+   * @param itemId id of the item
+   */
+  record Used(int itemId) implements GameEvent { }
+
+  /**
+   * The player's health changed.
+   *
+   * @param amount health lost (negative when health was gained)
+   */
+  record Damaged(int amount) implements GameEvent { }
+
+  /**
+   * The player's score changed.
+   *
+   * @param points points added
+   */
+  record Scored(int points) implements GameEvent { }
+
+  /**
+   * The obstacle in a room was solved or defeated.
+   *
+   * @param room room number of the obstacle
+   */
+  record ObstacleCleared(int room) implements GameEvent { }
+
+  /**
+   * A blocked exit was opened.
+   *
+   * @param room      room number of the exit
+   * @param direction exit direction ("N", "S", "E", "W")
+   * @param target    room number the exit now leads to
+   */
+  record ExitUnblocked(int room, String direction, int target) implements GameEvent { }
+}
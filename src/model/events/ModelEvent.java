@@ -0,0 +1,63 @@
+package model.events;
+
+/**
+ * A change notification from the model to its views.
+ * Unlike {@link GameEvent}, which records exactly what happened, a model event only says
+ * which part of the display is stale; several changes to the same part coalesce into one.
+ */
+public sealed interface ModelEvent {
+
+  /**
+   * Returns the key under which pending events of the same kind are merged,
+   * or null if every occurrence must be delivered.
+   *
+   * @return the coalescing key
+   */
+  default Object coalesceKey() {
+    return getClass();
+  }
+
+  /**
+   * The current room changed: the player entered another room or its contents or exits changed.
+   *
+   * @param room room number now current
+   */
+  record RoomChanged(int room) implements ModelEvent { }
+
+  /**
+   * The player's inventory (contents or item uses) changed.
+   */
+  record InventoryChanged() implements ModelEvent { }
+
+  /**
+   * The player's health or score changed.
+   *
+   * @param health current health
+   * @param score  current score
+   */
+  record StatusChanged(int health, double score) implements ModelEvent { }
+
+  /**
+   * The obstacle in a room was cleared or restored.
+   *
+   * @param room room number of the obstacle
+   */
+  record ObstacleChanged(int room) implements ModelEvent {
+    @Override
+    public Object coalesceKey() {
+      return this;
+    }
+  }
+
+  /**
+   * A message for the player.
+   *
+   * @param text the message
+   */
+  record Message(String text) implements ModelEvent {
+    @Override
+    public Object coalesceKey() {
+      return null;
+    }
+  }
+}
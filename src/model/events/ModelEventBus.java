@@ -0,0 +1,117 @@
+package model.events;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Collects model events during a command and delivers them to subscribers as one batch.
+ * Events with the same coalescing key replace each other (the latest wins, in the position
+ * of the first), so a command that changes the same thing several times causes one refresh.
+ */
+public class ModelEventBus {
+
+  private final List<Consumer<List<ModelEvent>>> subscribers = new CopyOnWriteArrayList<>();
+  private final Map<Object, ModelEvent> pending = new LinkedHashMap<>();
+  private int uncoalesced;
+
+  /**
+   * Registers a subscriber; it receives each flushed batch, in publish order.
+   *
+   * @param subscriber the subscriber
+   */
+  public void subscribe(Consumer<List<ModelEvent>> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  /**
+   * Removes a subscriber.
+   *
+   * @param subscriber the subscriber
+   */
+  public void unsubscribe(Consumer<List<ModelEvent>> subscriber) {
+    subscribers.remove(subscriber);
+  }
+
+  /**
+   * Queues an event until the next {@link #flush()}. Events are dropped while no one
+   * is subscribed, so a model without views pays nothing for the bus.
+   *
+   * @param event the event
+   */
+  public void publish(ModelEvent event) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    Object key = event.coalesceKey();
+    pending.put(key == null ? uncoalesced++ : key, event);
+  }
+
+  /**
+   * Delivers one event to the subscribers at once, in a batch of its own, without
+   * touching the queued events. Used for notices that belong next to the output of the
+   * call that caused them (an item too heavy, an exit opened).
+   *
+   * @param event the event
+   */
+  public void deliver(ModelEvent event) {
+    List<ModelEvent> batch = List.of(event);
+    for (Consumer<List<ModelEvent>> subscriber : subscribers) {
+      subscriber.accept(batch);
+    }
+  }
+
+  /**
+   * Queues the model events a player mutation makes stale.
+   *
+   * @param event the player mutation
+   * @param state the player state after it (already folded by the journal)
+   */
+  public void publish(GameEvent event, PlayerState state) {
+    if (event instanceof GameEvent.Moved m) {
+      publish(new ModelEvent.RoomChanged(m.toRoom()));
+    } else if (event instanceof GameEvent.Picked p) {
+      publish(new ModelEvent.RoomChanged(p.room()));
+      publish(new ModelEvent.InventoryChanged());
+    } else if (event instanceof GameEvent.Dropped d) {
+      publish(new ModelEvent.RoomChanged(d.room()));
+      publish(new ModelEvent.InventoryChanged());
+    } else if (event instanceof GameEvent.Used) {
+      publish(new ModelEvent.InventoryChanged());
+    } else if (event instanceof GameEvent.Damaged || event instanceof GameEvent.Scored) {
+      publish(new ModelEvent.StatusChanged(state.health(), state.score()));
+    } else if (event instanceof GameEvent.ObstacleCleared o) {
+      publish(new ModelEvent.ObstacleChanged(o.room()));
+    } else if (event instanceof GameEvent.ExitUnblocked x) {
+      publish(new ModelEvent.RoomChanged(x.room()));
+    }
+  }
+
+  /**
+   * Queues events marking every section stale (after the state was replaced wholesale).
+   *
+   * @param state the player state now current
+   */
+  public void publishAll(PlayerState state) {
+    publish(new ModelEvent.RoomChanged(state.roomNumber()));
+    publish(new ModelEvent.InventoryChanged());
+    publish(new ModelEvent.StatusChanged(state.health(), state.score()));
+  }
+
+  /**
+   * Delivers the queued events as one batch. Does nothing if none are queued.
+   */
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    List<ModelEvent> batch = List.copyOf(pending.values());
+    pending.clear();
+    uncoalesced = 0;
+    for (Consumer<List<ModelEvent>> subscriber : subscribers) {
+      subscriber.accept(batch);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package model.events;
+
+import utils.collection.PersistentVector;
+
+import java.util.List;
+
+/**
+ * Immutable player state: the fold of {@link GameEvent}s over a snapshot.
+ * Instances are never modified, so holding a reference is a complete snapshot.
+ * The inventory is a persistent vector, so successive states share structure.
+ *
+ * @param health     current health
+ * @param score      current score
+ * @param roomNumber room the player is in
+ * @param inventory  ids of carried items
+ */
+public record PlayerState(int health, double score, int roomNumber, PersistentVector<Integer> inventory) {
+
+  /**
+   * Applies one event, returning the next state.
+   * Events that only affect the world leave the player state unchanged.
+   *
+   * @param event the event
+   * @return the next state
+   */
+  public PlayerState apply(GameEvent event) {
+    if (event instanceof GameEvent.Moved e) {
+      return new PlayerState(health, score, e.toRoom(), inventory);
+    }
+    if (event instanceof GameEvent.Picked e) {
+      return new PlayerState(health, score, roomNumber, inventory.plus(e.itemId()));
+    }
+    if (event instanceof GameEvent.Dropped e) {
+      return new PlayerState(health, score, roomNumber, inventory.minus(e.itemId()));
+    }
+    if (event instanceof GameEvent.Damaged e) {
+      return new PlayerState(health - e.amount(), score, roomNumber, inventory);
+    }
+    if (event instanceof GameEvent.Scored e) {
+      return new PlayerState(health, score + e.points(), roomNumber, inventory);
+    }
+    return this;
+  }
+
+  /**
+   * Folds a sequence of events over a base state.
+   *
+   * @param base   the starting state
+   * @param events the events, oldest first
+   * @return the resulting state
+   */
+  public static PlayerState fold(PlayerState base, List<GameEvent> events) {
+    PlayerState state = base;
+    for (GameEvent event : events) {
+      state = state.apply(event);
+    }
+    return state;
+  }
+}
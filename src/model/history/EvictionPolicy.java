@@ -0,0 +1,73 @@
+package model.history;
+
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Decides which undo entries to drop once the history exceeds its configured depth.
+ */
+public enum EvictionPolicy {
+
+  /**
+   * Drops the oldest entries first.
+   */
+  DROP_OLDEST {
+    @Override
+    void evict(Deque<SessionState> undo, int maxDepth) {
+      while (undo.size() > maxDepth) {
+        undo.removeLast();
+      }
+    }
+  },
+
+  /**
+   * Drops every other entry from the older half of the history, so undo keeps reaching
+   * far back with coarser steps instead of losing the oldest states entirely.
+   */
+  THIN_OLDEST {
+    @Override
+    void evict(Deque<SessionState> undo, int maxDepth) {
+      if (undo.size() <= maxDepth) {
+        return;
+      }
+      int keepRecent = Math.max(1, maxDepth / 2);
+      Iterator<SessionState> it = undo.iterator(); // newest first
+      int index = 0;
+      while (it.hasNext() && undo.size() > maxDepth) {
+        it.next();
+        if (index >= keepRecent && (index - keepRecent) % 2 == 0) {
+          it.remove();
+        }
+        index++;
+      }
+      DROP_OLDEST.evict(undo, maxDepth);
+    }
+  };
+
+  /**
+   * Looks up a policy by name (as given in {@code -Dhalo.undo.eviction}).
+   * An unset or unknown name falls back to {@link #DROP_OLDEST}, with a warning for the latter.
+   *
+   * @param name the name, in any case (may be null)
+   * @return the policy
+   */
+  public static EvictionPolicy fromName(String name) {
+    if (name == null || name.isBlank()) {
+      return DROP_OLDEST;
+    }
+    try {
+      return valueOf(name.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      System.err.printf("Unknown undo eviction policy '%s' — using %s.%n", name, DROP_OLDEST);
+      return DROP_OLDEST;
+    }
+  }
+
+  /**
+   * Trims the undo stack (newest entry first) to at most {@code maxDepth} entries.
+   *
+   * @param undo     the undo stack
+   * @param maxDepth the configured depth
+   */
+  abstract void evict(Deque<SessionState> undo, int maxDepth);
+}
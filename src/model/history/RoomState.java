@@ -0,0 +1,54 @@
+package model.history;
+
+import model.core.Room;
+import model.elements.Item;
+import model.obstacle.GameObstacle;
+import utils.collection.PersistentIntMap;
+import utils.collection.PersistentVector;
+
+import java.util.Map;
+
+/**
+ * Immutable state of one room: its exits, the ids of the items lying in it and its obstacle flag.
+ *
+ * @param exits    direction (as a char code) to target room number
+ * @param items    ids of the items in the room
+ * @param obstacle 0 if the room has no obstacle, 1 if active, 2 if cleared
+ */
+public record RoomState(PersistentIntMap<Integer> exits, PersistentVector<Integer> items, int obstacle) {
+
+  /**
+   * Captures the current state of a room.
+   *
+   * @param room the room
+   * @return its state
+   */
+  public static RoomState capture(Room room) {
+    PersistentIntMap<Integer> exits = PersistentIntMap.empty();
+    for (Map.Entry<String, Integer> e : room.getExits().entrySet()) {
+      exits = exits.plus(e.getKey().charAt(0), e.getValue());
+    }
+    PersistentVector<Integer> items = PersistentVector.empty();
+    for (Item item : room.getItems()) {
+      items = items.plus(item.getId());
+    }
+    GameObstacle obs = room.getObstacle();
+    return new RoomState(exits, items, obs == null ? 0 : obs.isActive() ? 1 : 2);
+  }
+
+  RoomState withExit(String direction, int target) {
+    return new RoomState(exits.plus(direction.charAt(0), target), items, obstacle);
+  }
+
+  RoomState withItem(int itemId) {
+    return new RoomState(exits, items.plus(itemId), obstacle);
+  }
+
+  RoomState withoutItem(int itemId) {
+    return new RoomState(exits, items.minus(itemId), obstacle);
+  }
+
+  RoomState cleared() {
+    return obstacle == 0 ? this : new RoomState(exits, items, 2);
+  }
+}
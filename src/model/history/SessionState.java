@@ -0,0 +1,25 @@
+package model.history;
+
+import model.events.GameEvent;
+import model.events.PlayerState;
+
+/**
+ * Immutable state of a whole game session: the player plus the world.
+ * Both halves are persistent structures, so keeping many of these in an undo
+ * history costs only the nodes each command changed.
+ *
+ * @param player the player state
+ * @param world  the world state
+ */
+public record SessionState(PlayerState player, WorldState world) {
+
+  /**
+   * Applies one event to both halves.
+   *
+   * @param event the event
+   * @return the next state
+   */
+  public SessionState apply(GameEvent event) {
+    return new SessionState(player.apply(event), world.apply(event));
+  }
+}
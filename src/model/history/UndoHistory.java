@@ -0,0 +1,123 @@
+package model.history;
+
+import model.events.GameEvent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Bounded undo/redo history of {@link SessionState}s.
+ * The live state is kept up to date by folding every {@link GameEvent}; a checkpoint at each
+ * command boundary pushes the previous state onto the undo stack. Since states are persistent,
+ * a history entry only holds the nodes its command changed.
+ */
+public class UndoHistory {
+
+  /**
+   * Default number of undo steps kept per session.
+   */
+  public static final int DEFAULT_DEPTH = 100;
+
+  private final int maxDepth;
+  private final EvictionPolicy policy;
+  private final Deque<SessionState> undo = new ArrayDeque<>();
+  private final Deque<SessionState> redo = new ArrayDeque<>();
+  private SessionState committed;
+  private SessionState current;
+
+  /**
+   * Creates a history.
+   *
+   * @param maxDepth maximum number of undo steps kept
+   * @param policy   how entries are dropped past that depth
+   */
+  public UndoHistory(int maxDepth, EvictionPolicy policy) {
+    this.maxDepth = Math.max(1, maxDepth);
+    this.policy = policy;
+  }
+
+  /**
+   * Starts a fresh history from the given state (new game or restore).
+   *
+   * @param state the starting state
+   */
+  public void reset(SessionState state) {
+    undo.clear();
+    redo.clear();
+    committed = state;
+    current = state;
+  }
+
+  /**
+   * Folds an event into the live state.
+   *
+   * @param event the event
+   */
+  public void onEvent(GameEvent event) {
+    if (current != null) {
+      current = current.apply(event);
+    }
+  }
+
+  /**
+   * Marks a command boundary. Commands that changed nothing leave no entry.
+   */
+  public void checkpoint() {
+    if (current == committed) {
+      return;
+    }
+    undo.push(committed);
+    redo.clear();
+    policy.evict(undo, maxDepth);
+    committed = current;
+  }
+
+  /**
+   * Steps back one command.
+   *
+   * @return the state to restore, or null if there is nothing to undo
+   */
+  public SessionState undo() {
+    checkpoint();
+    if (undo.isEmpty()) {
+      return null;
+    }
+    redo.push(committed);
+    committed = undo.pop();
+    current = committed;
+    return committed;
+  }
+
+  /**
+   * Steps forward one undone command.
+   *
+   * @return the state to restore, or null if there is nothing to redo
+   */
+  public SessionState redo() {
+    if (current != committed || redo.isEmpty()) {
+      return null;
+    }
+    undo.push(committed);
+    committed = redo.pop();
+    current = committed;
+    return committed;
+  }
+
+  /**
+   * Returns the live state.
+   *
+   * @return the current state
+   */
+  public SessionState current() {
+    return current;
+  }
+
+  /**
+   * Returns the number of steps that can be undone.
+   *
+   * @return undo depth
+   */
+  public int undoDepth() {
+    return undo.size();
+  }
+}
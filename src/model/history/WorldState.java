@@ -0,0 +1,104 @@
+package model.history;
+
+import model.core.Room;
+import model.core.WorldEngine;
+import model.elements.Item;
+import model.events.GameEvent;
+import utils.collection.PersistentIntMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable state of the whole world, stored in persistent maps.
+ * Applying an event copies only the touched room (or item) plus its trie path,
+ * so each command creates O(log n) new nodes and shares everything else.
+ *
+ * @param rooms    room number to room state
+ * @param itemUses item id to remaining uses
+ */
+public record WorldState(PersistentIntMap<RoomState> rooms, PersistentIntMap<Integer> itemUses) {
+
+  /**
+   * Captures the current state of a world (O(n), done once per game or restore).
+   *
+   * @param world the world
+   * @return its state
+   */
+  public static WorldState capture(WorldEngine world) {
+    PersistentIntMap<RoomState> rooms = PersistentIntMap.empty();
+    for (Room room : world.getWorldMap().values()) {
+      rooms = rooms.plus(room.getRoomNumber(), RoomState.capture(room));
+    }
+    PersistentIntMap<Integer> uses = PersistentIntMap.empty();
+    for (Item item : world.getItems()) {
+      uses = uses.plus(item.getId(), item.getUsesRemaining());
+    }
+    return new WorldState(rooms, uses);
+  }
+
+  /**
+   * Applies one event, returning the next state.
+   *
+   * @param event the event
+   * @return the next state
+   */
+  public WorldState apply(GameEvent event) {
+    if (event instanceof GameEvent.Picked e) {
+      return updateRoom(e.room(), r -> r.withoutItem(e.itemId()));
+    }
+    if (event instanceof GameEvent.Dropped e) {
+      return updateRoom(e.room(), r -> r.withItem(e.itemId()));
+    }
+    if (event instanceof GameEvent.Used e) {
+      Integer uses = itemUses.get(e.itemId());
+      return uses == null ? this : new WorldState(rooms, itemUses.plus(e.itemId(), uses - 1));
+    }
+    if (event instanceof GameEvent.ObstacleCleared e) {
+      return updateRoom(e.room(), RoomState::cleared);
+    }
+    if (event instanceof GameEvent.ExitUnblocked e) {
+      return updateRoom(e.room(), r -> r.withExit(e.direction(), e.target()));
+    }
+    return this;
+  }
+
+  private WorldState updateRoom(int number, java.util.function.UnaryOperator<RoomState> change) {
+    RoomState room = rooms.get(number);
+    return room == null ? this : new WorldState(rooms.plus(number, change.apply(room)), itemUses);
+  }
+
+  /**
+   * Writes this state back onto the live world.
+   * Rooms whose state is shared with {@code previous} are skipped, so only the rooms that
+   * actually differ are touched.
+   *
+   * @param world    the live world
+   * @param previous the state the world is currently in (may be null)
+   */
+  public void applyTo(WorldEngine world, WorldState previous) {
+    List<Item> items = world.getItems();
+    rooms.forEach((number, state) -> {
+      if (previous != null && previous.rooms.get(number) == state) {
+        return;
+      }
+      Room room = world.getRoom(number);
+      if (room == null) {
+        return;
+      }
+      room.getExits().clear();
+      state.exits().forEach((dir, target) -> room.getExits().put(String.valueOf((char) (int) dir), target));
+      List<Item> roomItems = new ArrayList<>(state.items().size());
+      for (Integer id : state.items().toList()) {
+        roomItems.add(items.get(id));
+      }
+      room.setItems(roomItems);
+      if (room.getObstacle() != null && state.obstacle() != 0) {
+        room.getObstacle().setActive(state.obstacle() == 1);
+      }
+    });
+    if (previous == null || previous.itemUses != itemUses) {
+      itemUses.forEach((id, uses) -> items.get(id).setUsesRemaining(uses));
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package model.obstacle;
+
+/**
+ * An obstacle defined entirely by the map: it has no built-in behaviour, and everything
+ * it does comes from the rules listed with it (see {@link model.rules.RuleCompiler}).
+ */
+public class CustomObstacle extends GameObstacle {
+  private static final long serialVersionUID = -2307150988472213954L;
+
+  /**
+   * The kind shown to the player, e.g. "Door" or "Trap".
+   */
+  private final String kind;
+
+  /**
+   * Description of the obstacle's blocking effect, shown while it is active.
+   */
+  private final String effects;
+
+  /**
+   * Constructs a new map-defined obstacle.
+   *
+   * @param name        the name of the obstacle
+   * @param description the description shown once it is cleared
+   * @param active      true if the obstacle is active
+   * @param value       score value awarded when it is cleared
+   * @param kind        the kind shown to the player
+   * @param effects     description of the obstacle while it is active
+   */
+  public CustomObstacle(String name, String description, boolean active, int value,
+                        String kind, String effects) {
+    super(name, description, active, value);
+    this.kind = kind;
+    this.effects = effects;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  @Override
+  public String getEffects() {
+    return effects;
+  }
+
+  /**
+   * Returns the current description of the obstacle based on its active state.
+   *
+   * @return the effect description if active; otherwise the default description
+   */
+  @Override
+  public String getCurrentDescription() {
+    return isActive() ? effects : description;
+  }
+}
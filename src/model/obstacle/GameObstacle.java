@@ -1,12 +1,16 @@
 package model.obstacle;
 
+import model.rules.Rule;
+
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Abstract base class representing obstacles in the game
  * that block the player's progress, such as puzzles or monsters.
  */
 public abstract class GameObstacle implements Serializable {
+  private static final long serialVersionUID = 6219362190621666001L;
 
   /**
    * The name of the obstacle, e.g., "Teddy Bear" or "Turnstile".
@@ -22,7 +26,7 @@ public abstract class GameObstacle implements Serializable {
    * Indicates whether the obstacle is currently active.
    * true = unsolved/undefeated; false = deactivated/solved.
    */
-  protected boolean active;
+  protected volatile boolean active;
 
   /**
    * The score value awarded upon solving or defeating the obstacle.
@@ -60,6 +64,28 @@ public abstract class GameObstacle implements Serializable {
     active = false;
   }
 
+  /**
+   * Deactivates the obstacle if it is active, atomically with respect to other callers.
+   *
+   * @return true if this call deactivated it
+   */
+  public synchronized boolean tryDeactivate() {
+    if (!active) {
+      return false;
+    }
+    active = false;
+    return true;
+  }
+
+  /**
+   * Sets the active flag directly (used when restoring a saved game).
+   *
+   * @param active true if the obstacle should be active
+   */
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+
   /**
    * Returns the score value associated with the obstacle.
    *
@@ -87,6 +113,25 @@ public abstract class GameObstacle implements Serializable {
     return description;
   }
 
+  /**
+   * Returns the kind of obstacle shown to the player, e.g. "Monster" or "Puzzle".
+   *
+   * @return the kind
+   */
+  public String getKind() {
+    return getClass().getSimpleName();
+  }
+
+  /**
+   * Returns the rules this obstacle brings to its room. The room compiles them into its
+   * dispatch table when the obstacle is placed; the map can add or override rules.
+   *
+   * @return the rules (none by default)
+   */
+  public List<Rule> defaultRules() {
+    return List.of();
+  }
+
   public String getCurrentDescription() {
     return getDescription();  // Default behavior for monsters
   }
@@ -1,11 +1,20 @@
 package model.obstacle;
 
 import model.core.Player;
+import model.rules.Condition;
+import model.rules.Effect;
+import model.rules.Rule;
+import model.rules.Trigger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a monster in the game that blocks paths and may attack the player.
  */
 public class Monster extends GameObstacle {
+  private static final long serialVersionUID = 5209838385424234162L;
 
   /**
    * The amount of damage this monster inflicts per attack.
@@ -125,4 +134,25 @@ public class Monster extends GameObstacle {
   public String getEffects() {
     return effects;
   }
+
+  /**
+   * Using the defeat item clears the monster and opens the way; a monster that can attack
+   * strikes every turn the player spends with it.
+   *
+   * @return the monster's rules
+   */
+  @Override
+  public List<Rule> defaultRules() {
+    List<Rule> rules = new ArrayList<>(2);
+    if (defeatItem != null && !defeatItem.isBlank()) {
+      rules.add(new Rule(Trigger.USE, defeatItem, Set.of(Condition.ACTIVE),
+              Set.of(Effect.CLEAR, Effect.UNBLOCK, Effect.CONSUME), value, 0,
+              "You used {item} and defeated the monster!"));
+    }
+    if (canAttack) {
+      rules.add(new Rule(Trigger.ENCOUNTER, "", Set.of(Condition.ACTIVE), Set.of(Effect.DAMAGE),
+              0, damage, attackMessage));
+    }
+    return rules;
+  }
 }
\ No newline at end of file
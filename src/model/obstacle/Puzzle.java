@@ -1,10 +1,19 @@
 package model.obstacle;
 
+import model.rules.Condition;
+import model.rules.Effect;
+import model.rules.Rule;
+import model.rules.Trigger;
+
+import java.util.List;
+import java.util.Set;
+
 /**
  * Represents a puzzle in the game, which acts as an obstacle to the player.
  * Players can solve it using an item or by inputting a textual answer.
  */
 public class Puzzle extends GameObstacle {
+  private static final long serialVersionUID = 8860510343658443573L;
 
   /**
    * The solution required to solve the puzzle, either an item name or a text answer.
@@ -138,4 +147,23 @@ public class Puzzle extends GameObstacle {
     return isActive() ? effects : description;
   }
 
+  /**
+   * The solution works both as an item to use and as an answer; either solves the puzzle
+   * and opens the way.
+   *
+   * @return the puzzle's rules
+   */
+  @Override
+  public List<Rule> defaultRules() {
+    if (solution == null || solution.isBlank()) {
+      return List.of();
+    }
+    return List.of(
+            new Rule(Trigger.USE, solution, Set.of(Condition.ACTIVE),
+                    Set.of(Effect.CLEAR, Effect.UNBLOCK, Effect.CONSUME), value, 0,
+                    "You used {item} and solved the puzzle!"),
+            new Rule(Trigger.ANSWER, solution, Set.of(Condition.ACTIVE),
+                    Set.of(Effect.CLEAR, Effect.UNBLOCK), value, 0, ""));
+  }
+
 }
\ No newline at end of file
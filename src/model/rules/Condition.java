@@ -0,0 +1,26 @@
+package model.rules;
+
+/**
+ * A check that must hold for an obstacle rule to fire.
+ */
+public enum Condition {
+  /**
+   * The room's obstacle is still active (unsolved or undefeated).
+   */
+  ACTIVE,
+  /**
+   * The player carries the item the rule matched.
+   */
+  HOLDING;
+
+  /**
+   * Looks up a condition by its name in the map file ("active", "holding").
+   *
+   * @param name the name, in any case
+   * @return the condition
+   * @throws IllegalArgumentException if there is no such condition
+   */
+  public static Condition fromName(String name) {
+    return valueOf(name.trim().toUpperCase());
+  }
+}
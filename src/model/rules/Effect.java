@@ -0,0 +1,35 @@
+package model.rules;
+
+/**
+ * What an obstacle rule does when it fires. Effects apply in the order declared here.
+ */
+public enum Effect {
+  /**
+   * Deactivates the room's obstacle. If another player got there first, the rule's
+   * remaining effects and score are skipped.
+   */
+  CLEAR,
+  /**
+   * Opens every blocked exit of the room.
+   */
+  UNBLOCK,
+  /**
+   * Changes the player's health by the rule's damage (negative values hurt).
+   */
+  DAMAGE,
+  /**
+   * Uses up one use of the matched item. The caller applies it through its model.
+   */
+  CONSUME;
+
+  /**
+   * Looks up an effect by its name in the map file ("clear", "unblock", "damage", "consume").
+   *
+   * @param name the name, in any case
+   * @return the effect
+   * @throws IllegalArgumentException if there is no such effect
+   */
+  public static Effect fromName(String name) {
+    return valueOf(name.trim().toUpperCase());
+  }
+}
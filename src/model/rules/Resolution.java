@@ -0,0 +1,12 @@
+package model.rules;
+
+import java.util.List;
+
+/**
+ * The result of a rule firing.
+ *
+ * @param rule      the rule that fired
+ * @param unblocked the directions of the exits it opened
+ */
+public record Resolution(Rule rule, List<String> unblocked) {
+}
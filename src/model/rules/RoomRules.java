@@ -0,0 +1,195 @@
+package model.rules;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A room's obstacle rules, compiled into a dispatch table: one hash probe per trigger
+ * finds the rule for an input, however many rules the room has. Inputs are hashed and
+ * compared in place (ignoring case and surrounding quotes), so a lookup allocates nothing.
+ * Immutable; adding rules builds a new table.
+ */
+public final class RoomRules implements Serializable {
+  private static final long serialVersionUID = 3418806266473325401L;
+
+  /**
+   * The table of a room without rules.
+   */
+  public static final RoomRules NONE = new RoomRules(new LinkedHashMap<>());
+
+  // Insertion-ordered by trigger and normalized match, so getRules() is stable
+  private final LinkedHashMap<String, Rule> rules;
+  private final Table[] tables = new Table[Trigger.values().length];
+
+  private RoomRules(LinkedHashMap<String, Rule> rules) {
+    this.rules = rules;
+    Map<Trigger, List<Rule>> byTrigger = new EnumMap<>(Trigger.class);
+    for (Rule rule : rules.values()) {
+      byTrigger.computeIfAbsent(rule.trigger(), t -> new ArrayList<>()).add(rule);
+    }
+    for (Map.Entry<Trigger, List<Rule>> e : byTrigger.entrySet()) {
+      tables[e.getKey().ordinal()] = new Table(e.getValue());
+    }
+  }
+
+  /**
+   * Compiles a table from rules. A later rule replaces an earlier one with the same
+   * trigger and match.
+   *
+   * @param rules the rules
+   * @return the table
+   */
+  public static RoomRules of(Collection<Rule> rules) {
+    return NONE.with(rules);
+  }
+
+  /**
+   * Returns a table with further rules added, replacing any with the same trigger and match.
+   *
+   * @param extra the rules to add
+   * @return the new table
+   */
+  public RoomRules with(Collection<Rule> extra) {
+    if (extra.isEmpty()) {
+      return this;
+    }
+    LinkedHashMap<String, Rule> next = new LinkedHashMap<>(rules);
+    for (Rule rule : extra) {
+      next.put(rule.trigger() + ":" + keyOf(rule), rule);
+    }
+    return new RoomRules(next);
+  }
+
+  /**
+   * Finds the rule for a trigger and input. Conditions are not checked here.
+   *
+   * @param trigger what the player did
+   * @param input   the item name or answer (ignored for encounters)
+   * @return the rule, or null if none matches
+   */
+  public Rule match(Trigger trigger, String input) {
+    Table table = tables[trigger.ordinal()];
+    if (table == null) {
+      return null;
+    }
+    if (trigger == Trigger.ENCOUNTER) {
+      return table.find("");
+    }
+    return input == null ? null : table.find(input);
+  }
+
+  /**
+   * Returns every rule in the table.
+   *
+   * @return the rules, in the order they were added
+   */
+  public List<Rule> getRules() {
+    return new ArrayList<>(rules.values());
+  }
+
+  /**
+   * Returns the number of rules in the table.
+   *
+   * @return the rule count
+   */
+  public int size() {
+    return rules.size();
+  }
+
+  private static String keyOf(Rule rule) {
+    return rule.trigger() == Trigger.ENCOUNTER ? "" : key(rule.match());
+  }
+
+  /**
+   * Normalizes an item name or answer the way inputs are compared: surrounding quotes
+   * and whitespace are ignored, and so is case.
+   *
+   * @param input the raw input
+   * @return the lookup key
+   */
+  public static String key(String input) {
+    int start = start(input);
+    int end = end(input, start);
+    StringBuilder key = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      key.append(Character.toLowerCase(input.charAt(i)));
+    }
+    return key.toString();
+  }
+
+  private static int start(String input) {
+    int start = 0;
+    while (start < input.length() && isQuoteOrSpace(input.charAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  private static int end(String input, int start) {
+    int end = input.length();
+    while (end > start && isQuoteOrSpace(input.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isQuoteOrSpace(char c) {
+    return c == '"' || c == '\'' || Character.isWhitespace(c);
+  }
+
+  /**
+   * Hashes input[start, end) as its lookup key would hash.
+   */
+  private static int hash(String input, int start, int end) {
+    int h = 0;
+    for (int i = start; i < end; i++) {
+      h = 31 * h + Character.toLowerCase(input.charAt(i));
+    }
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * The rules of one trigger, open-addressed by key.
+   */
+  private static final class Table implements Serializable {
+    private static final long serialVersionUID = -5271620383004425162L;
+
+    private final String[] keys;
+    private final Rule[] slots;
+    private final int mask;
+
+    Table(List<Rule> rules) {
+      int capacity = Integer.highestOneBit(Math.max(2, rules.size() * 2 - 1)) << 1;
+      keys = new String[capacity];
+      slots = new Rule[capacity];
+      mask = capacity - 1;
+      for (Rule rule : rules) {
+        String key = keyOf(rule);
+        int i = hash(key, 0, key.length()) & mask;
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        slots[i] = rule;
+      }
+    }
+
+    Rule find(String input) {
+      int start = start(input);
+      int end = end(input, start);
+      int length = end - start;
+      for (int i = hash(input, start, end) & mask; keys[i] != null; i = (i + 1) & mask) {
+        String key = keys[i];
+        if (key.length() == length && input.regionMatches(true, start, key, 0, length)) {
+          return slots[i];
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package model.rules;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * One compiled obstacle rule: when the trigger happens with the matching input and the
+ * conditions hold, the effects are applied and the score is awarded.
+ *
+ * @param trigger    what the player does
+ * @param match      the item name or answer it responds to (ignored for encounters)
+ * @param conditions what must hold for it to fire
+ * @param effects    what it does
+ * @param score      points awarded when it fires
+ * @param damage     health change for {@link Effect#DAMAGE}
+ * @param message    text shown to the player; "{item}" stands for the matched input
+ */
+public record Rule(Trigger trigger, String match, Set<Condition> conditions, Set<Effect> effects,
+                   int score, int damage, String message) implements Serializable {
+
+  public Rule {
+    match = match == null ? "" : match;
+    conditions = Collections.unmodifiableSet(copy(conditions, Condition.class));
+    effects = Collections.unmodifiableSet(copy(effects, Effect.class));
+    message = message == null ? "" : message;
+  }
+
+  private static <E extends Enum<E>> EnumSet<E> copy(Set<E> values, Class<E> type) {
+    EnumSet<E> copy = EnumSet.noneOf(type);
+    copy.addAll(values);
+    return copy;
+  }
+
+  /**
+   * Checks whether the rule has an effect.
+   *
+   * @param effect the effect
+   * @return true if the rule applies it
+   */
+  public boolean has(Effect effect) {
+    return effects.contains(effect);
+  }
+
+  /**
+   * Returns the message with the player's input filled in.
+   *
+   * @param input the item name or answer the player gave
+   * @return the message to show
+   */
+  public String messageFor(String input) {
+    return message.replace("{item}", input == null ? "" : input);
+  }
+}
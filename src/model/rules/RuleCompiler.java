@@ -0,0 +1,155 @@
+package model.rules;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import model.core.Room;
+import model.obstacle.GameObstacle;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static utils.roomparser.RoomNumberParser.parseRoomNumber;
+
+/**
+ * Compiles the obstacle rules of a map into each room's dispatch table when the world loads.
+ * Every obstacle already brings its built-in rules (a monster's defeat item and attack, a
+ * puzzle's solution); any entry under "monsters", "puzzles" or "obstacles" may add or
+ * override them with a "rules" array:
+ *
+ * <pre>
+ * "rules": [
+ *   { "on": "use", "match": "Crowbar", "if": "active, holding", "do": "clear, unblock",
+ *     "score": "40", "message": "You pry the door open with the {item}." },
+ *   { "on": "encounter", "do": "damage", "damage": "-5", "message": "Sparks fly!" }
+ * ]
+ * </pre>
+ *
+ * "on" is use, answer or encounter; "if" lists conditions (default: active); "do" lists
+ * effects (default: clear, unblock, or damage for encounters); lists may be arrays or
+ * comma-separated strings. "score" defaults to the obstacle's value when the rule clears it.
+ */
+public final class RuleCompiler {
+
+  private static final String[] SECTIONS = {"monsters", "puzzles", "obstacles"};
+
+  private RuleCompiler() {
+  }
+
+  /**
+   * Adds the rules listed in the map to the rooms their obstacles are in.
+   *
+   * @param root     the parsed map
+   * @param worldMap the rooms, with their obstacles already placed
+   * @return the number of rules across all rooms
+   */
+  public static int compile(JsonObject root, Map<Integer, Room> worldMap) {
+    for (String section : SECTIONS) {
+      if (!root.has(section) || !root.get(section).isJsonArray()) {
+        continue;
+      }
+      for (JsonElement element : root.getAsJsonArray(section)) {
+        if (element.isJsonObject() && element.getAsJsonObject().has("rules")) {
+          compileEntry(element.getAsJsonObject(), worldMap);
+        }
+      }
+    }
+    int count = 0;
+    for (Room room : worldMap.values()) {
+      count += room.getRules().size();
+    }
+    return count;
+  }
+
+  private static void compileEntry(JsonObject entry, Map<Integer, Room> worldMap) {
+    String name = entry.has("name") ? entry.get("name").getAsString() : "";
+    Room room = entry.has("target") ? worldMap.get(parseRoomNumber(entry.get("target").getAsString())) : null;
+    GameObstacle obstacle = room == null ? null : room.getObstacle();
+    if (obstacle == null || !obstacle.getName().equals(name)) {
+      System.err.printf("Obstacle '%s' is not in its target room — its rules are ignored.%n", name);
+      return;
+    }
+    if (!entry.get("rules").isJsonArray()) {
+      System.err.printf("Rules of '%s' must be an array — ignored.%n", name);
+      return;
+    }
+    List<Rule> rules = new ArrayList<>();
+    for (JsonElement element : entry.getAsJsonArray("rules")) {
+      try {
+        rules.add(parseRule(element.getAsJsonObject(), obstacle));
+      } catch (RuntimeException e) {
+        System.err.printf("Skipping a rule of '%s': %s%n", name, e.getMessage());
+      }
+    }
+    room.setRules(room.getRules().with(rules));
+  }
+
+  /**
+   * Parses one rule entry.
+   *
+   * @param r        the rule entry
+   * @param obstacle the obstacle the rule belongs to
+   * @return the rule
+   * @throws IllegalArgumentException if a trigger, condition or effect is unknown
+   */
+  static Rule parseRule(JsonObject r, GameObstacle obstacle) {
+    if (!r.has("on")) {
+      throw new IllegalArgumentException("missing \"on\"");
+    }
+    Trigger trigger = Trigger.fromName(r.get("on").getAsString());
+    String match = r.has("match") ? r.get("match").getAsString() : "";
+    if (match.isBlank() && trigger != Trigger.ENCOUNTER) {
+      throw new IllegalArgumentException("a " + trigger.name().toLowerCase() + " rule needs \"match\"");
+    }
+
+    Set<Condition> conditions = EnumSet.noneOf(Condition.class);
+    if (r.has("if")) {
+      for (String name : names(r.get("if"))) {
+        conditions.add(Condition.fromName(name));
+      }
+    } else {
+      conditions.add(Condition.ACTIVE);
+    }
+
+    Set<Effect> effects = EnumSet.noneOf(Effect.class);
+    if (r.has("do")) {
+      for (String name : names(r.get("do"))) {
+        effects.add(Effect.fromName(name));
+      }
+    } else if (trigger == Trigger.ENCOUNTER) {
+      effects.add(Effect.DAMAGE);
+    } else {
+      effects.add(Effect.CLEAR);
+      effects.add(Effect.UNBLOCK);
+    }
+
+    int defaultScore = effects.contains(Effect.CLEAR) ? obstacle.getValue() : 0;
+    int score = r.has("score") ? r.get("score").getAsInt() : defaultScore;
+    int damage = r.has("damage") ? r.get("damage").getAsInt() : 0;
+    String message = r.has("message") ? r.get("message").getAsString() : "";
+    return new Rule(trigger, match, conditions, effects, score, damage, message);
+  }
+
+  /**
+   * Reads a list given either as a JSON array or as a comma-separated string.
+   */
+  private static List<String> names(JsonElement value) {
+    List<String> names = new ArrayList<>();
+    if (value.isJsonArray()) {
+      JsonArray array = value.getAsJsonArray();
+      for (JsonElement e : array) {
+        names.add(e.getAsString());
+      }
+    } else {
+      for (String part : value.getAsString().split(",")) {
+        if (!part.isBlank()) {
+          names.add(part);
+        }
+      }
+    }
+    return names;
+  }
+}
@@ -0,0 +1,30 @@
+package model.rules;
+
+/**
+ * What a player does that an obstacle rule can respond to.
+ */
+public enum Trigger {
+  /**
+   * Using an item in the room; the rule matches the item name.
+   */
+  USE,
+  /**
+   * Answering in the room; the rule matches the answer text.
+   */
+  ANSWER,
+  /**
+   * Being in the room at the end of a turn (e.g. a monster strikes); matches anything.
+   */
+  ENCOUNTER;
+
+  /**
+   * Looks up a trigger by its name in the map file ("use", "answer", "encounter").
+   *
+   * @param name the name, in any case
+   * @return the trigger
+   * @throws IllegalArgumentException if there is no such trigger
+   */
+  public static Trigger fromName(String name) {
+    return valueOf(name.trim().toUpperCase());
+  }
+}
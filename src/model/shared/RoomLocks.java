@@ -0,0 +1,72 @@
+package model.shared;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of locks that rooms are hashed onto. Changes to one room are serialized,
+ * while players in different rooms (almost always on different stripes) never contend.
+ */
+public class RoomLocks {
+
+  /** Default number of stripes. */
+  public static final int DEFAULT_STRIPES = 64;
+
+  private final ReentrantLock[] stripes;
+  private final int mask;
+
+  /**
+   * Creates the locks.
+   *
+   * @param stripes number of stripes, rounded up to a power of two (1 = one global lock)
+   */
+  public RoomLocks(int stripes) {
+    int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    if (stripes <= 1) {
+      size = 1;
+    }
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Returns the lock guarding a room.
+   *
+   * @param roomNumber the room number
+   * @return its stripe lock
+   */
+  public ReentrantLock lockFor(int roomNumber) {
+    int h = roomNumber * 0x9E3779B9; // spread consecutive room numbers
+    return stripes[(h ^ (h >>> 16)) & mask];
+  }
+
+  /**
+   * Runs an action while holding a room's lock.
+   *
+   * @param roomNumber the room number
+   * @param action     the action
+   * @param <T>        the result type
+   * @return the action's result
+   */
+  public <T> T withRoom(int roomNumber, Supplier<T> action) {
+    ReentrantLock lock = lockFor(roomNumber);
+    lock.lock();
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of stripes.
+   *
+   * @return the stripe count
+   */
+  public int stripeCount() {
+    return stripes.length;
+  }
+}
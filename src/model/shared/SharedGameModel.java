@@ -0,0 +1,183 @@
+package model.shared;
+
+import model.IModel;
+import model.core.HealthStatus;
+import model.core.Player;
+import model.core.PlayerRank;
+import model.core.Room;
+import model.elements.Item;
+import model.events.ModelEvent;
+import model.events.ModelEventBus;
+import model.events.PlayerState;
+import model.rules.Resolution;
+import model.rules.Trigger;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * One player's view of a {@link SharedWorld}. Actions that change a room run under that
+ * room's lock. Saving, loading and undo are per-world operations and are not offered to
+ * individual players; those calls report failure.
+ */
+public class SharedGameModel implements IModel {
+
+  private final SharedWorld world;
+  private final Player player;
+  private final ModelEventBus events = new ModelEventBus();
+
+  SharedGameModel(SharedWorld world, Player player) {
+    this.world = world;
+    this.player = player;
+    player.journal().subscribe(e -> events.publish(e, player.getState()));
+    player.setMessageSink(text -> events.deliver(new ModelEvent.Message(text)));
+  }
+
+  /**
+   * Leaves the world, dropping the player's items where they stand.
+   */
+  public void leave() {
+    world.leave(player);
+  }
+
+  @Override
+  public void generateWorld(String jsonFilePath) {
+    throw new IllegalStateException("A shared world is generated once, by SharedWorld.");
+  }
+
+  @Override
+  public void initializePlayer(String name) {
+    throw new IllegalStateException("Players enter a shared world through SharedWorld.join.");
+  }
+
+  @Override
+  public boolean movePlayer(String direction) {
+    return player.move(direction, world.getEngine().getWorldMap());
+  }
+
+  @Override
+  public boolean pickItem(String itemName) {
+    Room room = player.getCurrentRoom();
+    return world.getLocks().withRoom(room.getRoomNumber(), () -> player.pickItem(itemName));
+  }
+
+  @Override
+  public boolean dropItem(String itemName) {
+    Room room = player.getCurrentRoom();
+    return world.getLocks().withRoom(room.getRoomNumber(), () -> player.dropItem(itemName));
+  }
+
+  @Override
+  public String useItem(String itemName) {
+    Room room = player.getCurrentRoom();
+    return world.getLocks().withRoom(room.getRoomNumber(), () -> player.useItem(itemName));
+  }
+
+  @Override
+  public boolean answerPuzzle(String answer) {
+    Room room = player.getCurrentRoom();
+    return world.getLocks().withRoom(room.getRoomNumber(), () -> player.answerCorrect(answer, room));
+  }
+
+  @Override
+  public Resolution resolve(Trigger trigger, String input) {
+    Room room = player.getCurrentRoom();
+    return world.getLocks().withRoom(room.getRoomNumber(), () -> player.resolve(trigger, input, room));
+  }
+
+  @Override
+  public boolean saveGame(String filePath) {
+    return false;
+  }
+
+  @Override
+  public boolean loadGame(String filePath) {
+    return false;
+  }
+
+  @Override
+  public boolean saveGame(int slotId) {
+    return false;
+  }
+
+  @Override
+  public boolean loadGame(int slotId) {
+    return false;
+  }
+
+  @Override
+  public void commitTurn() {
+    events.flush();
+  }
+
+  @Override
+  public boolean undo() {
+    return false;
+  }
+
+  @Override
+  public boolean redo() {
+    return false;
+  }
+
+  @Override
+  public Player getPlayer() {
+    return player;
+  }
+
+  @Override
+  public Room getCurrentRoom() {
+    return player.getCurrentRoom();
+  }
+
+  @Override
+  public Room getRoom(int roomNumber) {
+    return world.getEngine().getRoom(roomNumber);
+  }
+
+  @Override
+  public List<Item> getInventory() {
+    return player.getInventory();
+  }
+
+  @Override
+  public HealthStatus getHealthStatus() {
+    return player.getHealthStatus();
+  }
+
+  @Override
+  public double getHealth() {
+    return player.getHealth();
+  }
+
+  @Override
+  public double getScore() {
+    return player.getScore();
+  }
+
+  @Override
+  public PlayerRank getPlayerRank() {
+    return player.getRank();
+  }
+
+  @Override
+  public Player getPlayerReference() {
+    return player;
+  }
+
+  @Override
+  public PlayerState getPlayerState() {
+    return player.getState();
+  }
+
+  @Override
+  public void subscribe(Consumer<List<ModelEvent>> subscriber) {
+    events.subscribe(subscriber);
+    events.publishAll(player.getState()); // a late subscriber still needs the state it missed
+  }
+
+  @Override
+  public void postMessage(String message) {
+    events.publish(new ModelEvent.Message(message));
+  }
+}
@@ -0,0 +1,127 @@
+package model.shared;
+
+import com.google.gson.JsonObject;
+import model.core.Player;
+import model.core.Room;
+import model.core.WorldEngine;
+import model.elements.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One world inhabited by many players at once.
+ * Room contents are changed only under the room's stripe lock ({@link RoomLocks}), so
+ * take and drop are atomic per room; clearing an obstacle is a compare-and-set on the
+ * obstacle, so exactly one player is credited. Rendering reads rooms without locking,
+ * which the room's concurrent collections allow.
+ */
+public class SharedWorld {
+
+  private final WorldEngine engine = new WorldEngine();
+  private final RoomLocks locks;
+  private final Map<String, Player> players = new ConcurrentHashMap<>();
+
+  /**
+   * Builds the world with the default number of lock stripes.
+   *
+   * @param map the parsed map
+   */
+  public SharedWorld(JsonObject map) {
+    this(map, RoomLocks.DEFAULT_STRIPES);
+  }
+
+  /**
+   * Builds the world.
+   *
+   * @param map     the parsed map
+   * @param stripes number of room lock stripes
+   */
+  public SharedWorld(JsonObject map, int stripes) {
+    engine.generateWorld(map);
+    this.locks = new RoomLocks(stripes);
+  }
+
+  /**
+   * Adds a player at the starting room. Names are made unique with a "#n" suffix.
+   *
+   * @param name the requested name
+   * @return the player's view of the world
+   */
+  public SharedGameModel join(String name) {
+    Room start = engine.getRoom(1);
+    for (int n = 1; ; n++) {
+      String unique = n == 1 ? name : name + "#" + n;
+      Player player = new Player(unique, start);
+      if (players.putIfAbsent(unique, player) == null) {
+        return new SharedGameModel(this, player);
+      }
+    }
+  }
+
+  /**
+   * Removes a player; whatever they carried is dropped in their current room so no item
+   * leaves the world.
+   *
+   * @param player the player leaving
+   */
+  public void leave(Player player) {
+    if (players.remove(player.getName(), player)) {
+      Room room = player.getCurrentRoom();
+      locks.withRoom(room.getRoomNumber(), () -> {
+        for (Item item : new ArrayList<>(player.getInventory())) {
+          player.dropItem(item.getName());
+        }
+        return null;
+      });
+    }
+  }
+
+  /**
+   * Returns the players currently in the world.
+   *
+   * @return an unmodifiable view of the players
+   */
+  public Collection<Player> getPlayers() {
+    return Collections.unmodifiableCollection(players.values());
+  }
+
+  /**
+   * Returns the names of the players in a room, other than the given one.
+   *
+   * @param room   the room
+   * @param except the player asking
+   * @return the other players' names
+   */
+  public List<String> getOthersIn(Room room, Player except) {
+    List<String> names = new ArrayList<>();
+    for (Player p : players.values()) {
+      if (p != except && p.getCurrentRoom() == room) {
+        names.add(p.getName());
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Returns the shared world engine.
+   *
+   * @return the engine
+   */
+  public WorldEngine getEngine() {
+    return engine;
+  }
+
+  /**
+   * Returns the room locks.
+   *
+   * @return the locks
+   */
+  public RoomLocks getLocks() {
+    return locks;
+  }
+}
@@ -0,0 +1,243 @@
+package utils.collection;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable int-keyed map implemented as a hash array mapped trie (32-way, 5 bits per level).
+ * Every update copies only the path from the root to the changed entry, so an update creates
+ * O(log32 n) new nodes and all other nodes are shared with the previous version.
+ *
+ * @param <V> the value type
+ */
+public final class PersistentIntMap<V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(new Node(0, new Object[0]), 0);
+
+  private final Node root;
+  private final int size;
+
+  /**
+   * A trie node: a bitmap of occupied slots and a compact array of children,
+   * each either a {@link Leaf} or another {@link Node}.
+   */
+  private record Node(int bitmap, Object[] slots) { }
+
+  /**
+   * A single key/value entry.
+   */
+  private record Leaf(int key, Object value) { }
+
+  private PersistentIntMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns the empty map.
+   *
+   * @param <V> the value type
+   * @return the empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentIntMap<V> empty() {
+    return (PersistentIntMap<V>) EMPTY;
+  }
+
+  /**
+   * Looks up a key.
+   *
+   * @param key the key
+   * @return the value, or null if absent
+   */
+  @SuppressWarnings("unchecked")
+  public V get(int key) {
+    Node node = root;
+    for (int shift = 0; ; shift += BITS) {
+      int bit = 1 << ((key >>> shift) & MASK);
+      if ((node.bitmap & bit) == 0) {
+        return null;
+      }
+      Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+      if (slot instanceof Leaf leaf) {
+        return leaf.key == key ? (V) leaf.value : null;
+      }
+      node = (Node) slot;
+    }
+  }
+
+  /**
+   * Looks up a key with a fallback.
+   *
+   * @param key      the key
+   * @param fallback value returned when the key is absent
+   * @return the value or the fallback
+   */
+  public V getOrDefault(int key, V fallback) {
+    V value = get(key);
+    return value != null ? value : fallback;
+  }
+
+  /**
+   * Returns a map with the key bound to the value.
+   * Returns this map unchanged if the key is already bound to the same value.
+   *
+   * @param key   the key
+   * @param value the value (not null)
+   * @return the updated map
+   */
+  public PersistentIntMap<V> plus(int key, V value) {
+    int[] added = new int[1];
+    Node updated = insert(root, 0, key, value, added);
+    return updated == root ? this : new PersistentIntMap<>(updated, size + added[0]);
+  }
+
+  /**
+   * Returns a map without the key.
+   *
+   * @param key the key
+   * @return the updated map
+   */
+  public PersistentIntMap<V> minus(int key) {
+    Node updated = remove(root, 0, key);
+    if (updated == root) {
+      return this;
+    }
+    return new PersistentIntMap<>(updated == null ? new Node(0, new Object[0]) : updated, size - 1);
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return entry count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Visits every entry (in trie order, not key order).
+   *
+   * @param action the visitor
+   */
+  public void forEach(BiConsumer<Integer, ? super V> action) {
+    visit(root, action);
+  }
+
+  // ==== trie operations ====
+
+  private static Node insert(Node node, int shift, int key, Object value, int[] added) {
+    int bit = 1 << ((key >>> shift) & MASK);
+    int idx = Integer.bitCount(node.bitmap & (bit - 1));
+
+    if ((node.bitmap & bit) == 0) {
+      Object[] slots = new Object[node.slots.length + 1];
+      System.arraycopy(node.slots, 0, slots, 0, idx);
+      slots[idx] = new Leaf(key, value);
+      System.arraycopy(node.slots, idx, slots, idx + 1, node.slots.length - idx);
+      added[0] = 1;
+      return new Node(node.bitmap | bit, slots);
+    }
+
+    Object slot = node.slots[idx];
+    Object replacement;
+    if (slot instanceof Leaf leaf) {
+      if (leaf.key == key) {
+        if (leaf.value == value) {
+          return node;
+        }
+        replacement = new Leaf(key, value);
+      } else {
+        // Two keys share this slot: push both one level down
+        Node child = insert(new Node(0, new Object[0]), shift + BITS, leaf.key, leaf.value, new int[1]);
+        replacement = insert(child, shift + BITS, key, value, added);
+      }
+    } else {
+      Node child = insert((Node) slot, shift + BITS, key, value, added);
+      if (child == slot) {
+        return node;
+      }
+      replacement = child;
+    }
+    Object[] slots = node.slots.clone();
+    slots[idx] = replacement;
+    return new Node(node.bitmap, slots);
+  }
+
+  /**
+   * Removes a key, returning the same node if absent and null if the node became empty.
+   */
+  private static Node remove(Node node, int shift, int key) {
+    int bit = 1 << ((key >>> shift) & MASK);
+    if ((node.bitmap & bit) == 0) {
+      return node;
+    }
+    int idx = Integer.bitCount(node.bitmap & (bit - 1));
+    Object slot = node.slots[idx];
+
+    Object replacement;
+    if (slot instanceof Leaf leaf) {
+      if (leaf.key != key) {
+        return node;
+      }
+      replacement = null;
+    } else {
+      Node child = remove((Node) slot, shift + BITS, key);
+      if (child == slot) {
+        return node;
+      }
+      // Collapse a child left holding a single leaf
+      replacement = child != null && child.slots.length == 1 && child.slots[0] instanceof Leaf
+              ? child.slots[0] : child;
+    }
+
+    if (replacement != null) {
+      Object[] slots = node.slots.clone();
+      slots[idx] = replacement;
+      return new Node(node.bitmap, slots);
+    }
+    if (node.slots.length == 1) {
+      return null;
+    }
+    Object[] slots = new Object[node.slots.length - 1];
+    System.arraycopy(node.slots, 0, slots, 0, idx);
+    System.arraycopy(node.slots, idx + 1, slots, idx, node.slots.length - idx - 1);
+    return new Node(node.bitmap & ~bit, slots);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> void visit(Node node, BiConsumer<Integer, ? super V> action) {
+    for (Object slot : node.slots) {
+      if (slot instanceof Leaf leaf) {
+        action.accept(leaf.key, (V) leaf.value);
+      } else {
+        visit((Node) slot, action);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+    return sb.append('}').toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof PersistentIntMap<?> other) || other.size != size) return false;
+    boolean[] same = {true};
+    forEach((k, v) -> same[0] &= v.equals(other.get(k)));
+    return same[0];
+  }
+
+  @Override
+  public int hashCode() {
+    int[] hash = {0};
+    forEach((k, v) -> hash[0] += k ^ v.hashCode());
+    return hash[0];
+  }
+}
@@ -0,0 +1,159 @@
+package utils.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable indexed sequence backed by a {@link PersistentIntMap} keyed by position.
+ * Appending, reading and replacing an element cost O(log32 n) and share all untouched
+ * nodes with the previous version. Removing from the middle shifts the later elements.
+ *
+ * @param <V> the element type
+ */
+public final class PersistentVector<V> {
+
+  private static final PersistentVector<?> EMPTY = new PersistentVector<>(PersistentIntMap.empty(), 0);
+
+  private final PersistentIntMap<V> slots;
+  private final int size;
+
+  private PersistentVector(PersistentIntMap<V> slots, int size) {
+    this.slots = slots;
+    this.size = size;
+  }
+
+  /**
+   * Returns the empty vector.
+   *
+   * @param <V> the element type
+   * @return the empty vector
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentVector<V> empty() {
+    return (PersistentVector<V>) EMPTY;
+  }
+
+  /**
+   * Builds a vector from a list.
+   *
+   * @param values the elements
+   * @param <V>    the element type
+   * @return the vector
+   */
+  public static <V> PersistentVector<V> of(List<V> values) {
+    PersistentVector<V> vector = empty();
+    for (V v : values) {
+      vector = vector.plus(v);
+    }
+    return vector;
+  }
+
+  /**
+   * Returns the element at an index.
+   *
+   * @param index the index
+   * @return the element
+   */
+  public V get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return slots.get(index);
+  }
+
+  /**
+   * Returns a vector with the element appended.
+   *
+   * @param value the element
+   * @return the updated vector
+   */
+  public PersistentVector<V> plus(V value) {
+    return new PersistentVector<>(slots.plus(size, value), size + 1);
+  }
+
+  /**
+   * Returns a vector with the element at an index replaced.
+   *
+   * @param index the index
+   * @param value the new element
+   * @return the updated vector
+   */
+  public PersistentVector<V> set(int index, V value) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    PersistentIntMap<V> updated = slots.plus(index, value);
+    return updated == slots ? this : new PersistentVector<>(updated, size);
+  }
+
+  /**
+   * Returns a vector without the first element equal to the value.
+   *
+   * @param value the element to remove
+   * @return the updated vector, or this vector if the value is absent
+   */
+  public PersistentVector<V> minus(V value) {
+    int index = indexOf(value);
+    if (index < 0) {
+      return this;
+    }
+    PersistentIntMap<V> updated = slots;
+    for (int i = index; i < size - 1; i++) {
+      updated = updated.plus(i, slots.get(i + 1));
+    }
+    return new PersistentVector<>(updated.minus(size - 1), size - 1);
+  }
+
+  /**
+   * Finds the first index of a value.
+   *
+   * @param value the value
+   * @return the index, or -1 if absent
+   */
+  public int indexOf(V value) {
+    for (int i = 0; i < size; i++) {
+      if (slots.get(i).equals(value)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return element count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Copies the elements into an unmodifiable list.
+   *
+   * @return the elements in order
+   */
+  public List<V> toList() {
+    List<V> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(slots.get(i));
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof PersistentVector<?> other && other.size == size && other.slots.equals(slots));
+  }
+
+  @Override
+  public int hashCode() {
+    return slots.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toList().toString();
+  }
+}
@@ -44,6 +44,7 @@ public class ItemParser {
         String whenUsed = itemObj.has("when_used") ? itemObj.get("when_used").getAsString() : "No information";  // Clamp missing when_used
 
         Item item = new Item(name, desc, weight, maxUses, usesRemaining, value, whenUsed);
+        item.setId(allItems.size());  // stable id used by save files
         allItems.add(item);
       } catch (Exception e) {
         System.err.println("Skipping invalid item: " + e.getMessage());
@@ -16,6 +16,14 @@ public class PathUtils {
   private static final String IMAGE_DIR
           = Paths.get("resources", "images").toString();
 
+  private static final String SLOT_STORE
+          = Paths.get("resources", "saves", "slots.dat").toString();
+
+  /**
+   * Prefix marking a save target as a save-store slot (e.g. "slot:3").
+   */
+  public static final String SLOT_PREFIX = "slot:";
+
   /**
    * Get the full path to a map file.
    * @param fileName The filename (e.g., "Museum_of_Planet_of_the_Apes.json")
@@ -34,6 +42,9 @@ public class PathUtils {
    * @return Full path
    */
   public static String getSavePath(String fileName) {
+    if (parseSlotId(fileName) >= 0) {
+      return fileName; // slot references are not file names
+    }
     if (!fileName.endsWith(".json")) {
       fileName += ".json";
     }
@@ -48,4 +59,30 @@ public class PathUtils {
   public static String getImagePath(String fileName) {
     return Paths.get(IMAGE_DIR, fileName).toString();
   }
+
+  /**
+   * Get the path of the shared multi-slot save store.
+   * -Dhalo.saves.slotStore overrides it (e.g. to keep load tests away from real saves).
+   * @return Full path
+   */
+  public static String getSlotStorePath() {
+    return System.getProperty("halo.saves.slotStore", SLOT_STORE);
+  }
+
+  /**
+   * Parses a slot reference like "slot:3".
+   * @param target the save target
+   * @return the slot id, or -1 if the target is not a slot reference
+   */
+  public static int parseSlotId(String target) {
+    if (target == null || !target.regionMatches(true, 0, SLOT_PREFIX, 0, SLOT_PREFIX.length())) {
+      return -1;
+    }
+    try {
+      int slot = Integer.parseInt(target.substring(SLOT_PREFIX.length()).trim());
+      return slot >= 0 ? slot : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
 }
@@ -0,0 +1,392 @@
+package utils.fileutil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Slot-based save store backed by a single preallocated, memory-mapped file.
+ * Many saves share one file instead of living as separate small files.
+ *
+ * File layout:
+ *  - Header (64 bytes): magic, version, slot count, capacity, data start.
+ *  - Slot directory: two 32-byte entries per slot (A/B copies).
+ *  - Data region: variable-length records allocated first-fit in 64-byte extents.
+ *
+ * Every record carries a CRC32 of its payload and every directory entry a CRC32 of itself.
+ * A save writes the new record into free space, flushes it, and only then overwrites the
+ * older of the slot's two directory entries with a higher generation. A crash at any point
+ * leaves the previous entry (and its record) intact, so slot swaps are crash-safe.
+ */
+public class SlotSaveStore implements Closeable {
+
+  private static final int MAGIC = 0x48534C54; // "HSLT"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 64;
+  private static final int ENTRY_SIZE = 32;
+  private static final int ALIGN = 64;
+
+  /** Default number of slots in a newly created store. */
+  public static final int DEFAULT_SLOTS = 4096;
+
+  /** Default preallocated size of a newly created store (64 MB). */
+  public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int slotCount;
+  private final long capacity;
+  private final long dataStart;
+
+  // Live directory state per slot (index into the A/B pair, or -1 when empty)
+  private final int[] liveCopy;
+  // Copy holding the newest valid entry, tombstones included (-1 when none)
+  private final int[] newestCopy;
+  private final long[] liveGeneration;
+  // Free extents in the data region: offset -> length
+  private final TreeMap<Long, Long> freeExtents = new TreeMap<>();
+
+  /**
+   * Opens the store at the given path, creating it with default geometry if missing.
+   *
+   * @param path the store file
+   * @return the opened store
+   * @throws IOException if the file cannot be created, mapped or is not a save store
+   */
+  public static SlotSaveStore open(Path path) throws IOException {
+    return open(path, DEFAULT_SLOTS, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Opens the store at the given path, creating it with the given geometry if missing.
+   * The geometry of an existing store is read from its header.
+   *
+   * @param path      the store file
+   * @param slotCount number of slots for a new store
+   * @param capacity  total preallocated size in bytes for a new store
+   * @return the opened store
+   * @throws IOException if the file cannot be created, mapped or is not a save store
+   */
+  public static SlotSaveStore open(Path path, int slotCount, long capacity) throws IOException {
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    boolean fresh = !Files.exists(path) || Files.size(path) == 0;
+    return new SlotSaveStore(path, fresh, slotCount, capacity);
+  }
+
+  private SlotSaveStore(Path path, boolean fresh, int slotCount, long capacity) throws IOException {
+    this.path = path;
+    RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+    this.channel = file.getChannel();
+
+    if (fresh) {
+      long dataStart = align(HEADER_SIZE + (long) slotCount * 2 * ENTRY_SIZE);
+      if (capacity <= dataStart || capacity > Integer.MAX_VALUE) {
+        channel.close();
+        throw new IOException("Invalid save store capacity: " + capacity);
+      }
+      file.setLength(capacity);
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      buffer.putInt(8, slotCount);
+      buffer.putLong(16, capacity);
+      buffer.putLong(24, dataStart);
+      buffer.force();
+    } else {
+      long size = channel.size();
+      if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+        channel.close();
+        throw new IOException("Not a save store: " + path);
+      }
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        channel.close();
+        throw new IOException("Not a save store: " + path);
+      }
+    }
+
+    this.slotCount = buffer.getInt(8);
+    this.capacity = buffer.getLong(16);
+    this.dataStart = buffer.getLong(24);
+    this.liveCopy = new int[this.slotCount];
+    this.newestCopy = new int[this.slotCount];
+    this.liveGeneration = new long[this.slotCount];
+    rebuildDirectory();
+  }
+
+  /**
+   * Writes (or replaces) the record in a slot.
+   *
+   * @param slotId the slot id
+   * @param data   the record payload
+   * @throws IOException if the slot id is invalid or the store is full
+   */
+  public synchronized void write(int slotId, byte[] data) throws IOException {
+    checkSlot(slotId);
+    long length = align(Math.max(data.length, 1));
+    long offset = allocate(length);
+    if (offset < 0) {
+      throw new IOException("Save store is full: " + path);
+    }
+
+    // 1. Record first, flushed before the directory points at it
+    buffer.put((int) offset, data);
+    buffer.force((int) offset, data.length);
+
+    // 2. Flip the older directory copy to the new record
+    int previous = liveCopy[slotId];
+    long previousOffset = previous >= 0 ? entryOffset(slotId, previous) : -1;
+    int target = newestCopy[slotId] == 0 ? 1 : 0;
+    long generation = liveGeneration[slotId] + 1;
+    writeEntry(slotId, target, generation, offset, data.length, crc(data, 0, data.length));
+
+    // 3. Only now is the old record's space reusable
+    if (previousOffset >= 0) {
+      release(previousOffset, align(Math.max(entryLength(slotId, previous), 1)));
+    }
+    liveCopy[slotId] = target;
+    newestCopy[slotId] = target;
+    liveGeneration[slotId] = generation;
+  }
+
+  /**
+   * Reads the record in a slot.
+   *
+   * @param slotId the slot id
+   * @return the record payload, or null if the slot is empty
+   * @throws IOException if the slot id is invalid or the record fails its checksum
+   */
+  public synchronized byte[] read(int slotId) throws IOException {
+    checkSlot(slotId);
+    int copy = liveCopy[slotId];
+    if (copy < 0) {
+      return null;
+    }
+    long offset = entryOffset(slotId, copy);
+    int length = entryLength(slotId, copy);
+    byte[] data = new byte[length];
+    buffer.get((int) offset, data);
+    if (crc(data, 0, length) != entryDataCrc(slotId, copy)) {
+      throw new IOException("Checksum mismatch in save slot " + slotId);
+    }
+    return data;
+  }
+
+  /**
+   * Clears a slot and frees its record.
+   *
+   * @param slotId the slot id
+   * @throws IOException if the slot id is invalid
+   */
+  public synchronized void delete(int slotId) throws IOException {
+    checkSlot(slotId);
+    int previous = liveCopy[slotId];
+    if (previous < 0) {
+      return;
+    }
+    long previousOffset = entryOffset(slotId, previous);
+    int previousLength = entryLength(slotId, previous);
+    int target = newestCopy[slotId] == 0 ? 1 : 0;
+    long generation = liveGeneration[slotId] + 1;
+    // An entry with length -1 is a tombstone: valid, newest, but empty
+    writeEntry(slotId, target, generation, 0, -1, 0);
+    release(previousOffset, align(Math.max(previousLength, 1)));
+    liveCopy[slotId] = -1;
+    newestCopy[slotId] = target;
+    liveGeneration[slotId] = generation;
+  }
+
+  /**
+   * Checks whether a slot currently holds a record.
+   *
+   * @param slotId the slot id
+   * @return true if the slot is in use
+   */
+  public synchronized boolean contains(int slotId) {
+    return slotId >= 0 && slotId < slotCount && liveCopy[slotId] >= 0;
+  }
+
+  /**
+   * Returns the number of slots in this store.
+   *
+   * @return slot count
+   */
+  public int getSlotCount() {
+    return slotCount;
+  }
+
+  /**
+   * Returns the number of free bytes left in the data region.
+   *
+   * @return free bytes
+   */
+  public synchronized long getFreeBytes() {
+    long free = 0;
+    for (long len : freeExtents.values()) {
+      free += len;
+    }
+    return free;
+  }
+
+  /**
+   * Flushes the mapping and closes the underlying file.
+   *
+   * @throws IOException if closing fails
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  // ==== directory ====
+
+  /**
+   * Picks the live copy of each slot and derives the free list from the live records.
+   */
+  private void rebuildDirectory() {
+    TreeMap<Long, Long> used = new TreeMap<>();
+    for (int slot = 0; slot < slotCount; slot++) {
+      liveCopy[slot] = -1;
+      liveGeneration[slot] = 0;
+      int best = -1;
+      for (int copy = 0; copy < 2; copy++) {
+        if (!entryValid(slot, copy)) continue;
+        long gen = buffer.getLong(entryBase(slot, copy));
+        if (gen > liveGeneration[slot]) {
+          liveGeneration[slot] = gen;
+          best = copy;
+        }
+      }
+      newestCopy[slot] = best;
+      if (best >= 0 && entryLength(slot, best) >= 0) {
+        liveCopy[slot] = best;
+        used.put(entryOffset(slot, best), align(Math.max(entryLength(slot, best), 1)));
+      }
+    }
+
+    long cursor = dataStart;
+    for (Map.Entry<Long, Long> e : used.entrySet()) {
+      if (e.getKey() > cursor) {
+        freeExtents.put(cursor, e.getKey() - cursor);
+      }
+      cursor = Math.max(cursor, e.getKey() + e.getValue());
+    }
+    if (cursor < capacity) {
+      freeExtents.put(cursor, capacity - cursor);
+    }
+  }
+
+  private void writeEntry(int slot, int copy, long generation, long offset, int length, int dataCrc) {
+    int base = entryBase(slot, copy);
+    buffer.putLong(base, generation);
+    buffer.putLong(base + 8, offset);
+    buffer.putInt(base + 16, length);
+    buffer.putInt(base + 20, dataCrc);
+    buffer.putInt(base + 24, entryCrc(base));
+    buffer.force(base, ENTRY_SIZE);
+  }
+
+  private boolean entryValid(int slot, int copy) {
+    int base = entryBase(slot, copy);
+    if (buffer.getLong(base) <= 0 || buffer.getInt(base + 24) != entryCrc(base)) {
+      return false;
+    }
+    long offset = buffer.getLong(base + 8);
+    int length = buffer.getInt(base + 16);
+    return length < 0 || (offset >= dataStart && offset + length <= capacity);
+  }
+
+  private int entryCrc(int base) {
+    CRC32 crc = new CRC32();
+    for (int i = 0; i < 24; i++) {
+      crc.update(buffer.get(base + i));
+    }
+    return (int) crc.getValue();
+  }
+
+  private int entryBase(int slot, int copy) {
+    return HEADER_SIZE + (slot * 2 + copy) * ENTRY_SIZE;
+  }
+
+  private long entryOffset(int slot, int copy) {
+    return buffer.getLong(entryBase(slot, copy) + 8);
+  }
+
+  private int entryLength(int slot, int copy) {
+    return buffer.getInt(entryBase(slot, copy) + 16);
+  }
+
+  private int entryDataCrc(int slot, int copy) {
+    return buffer.getInt(entryBase(slot, copy) + 20);
+  }
+
+  // ==== free space ====
+
+  /**
+   * First-fit allocation from the free list.
+   *
+   * @param length aligned length
+   * @return offset of the extent, or -1 if nothing fits
+   */
+  private long allocate(long length) {
+    for (Map.Entry<Long, Long> e : freeExtents.entrySet()) {
+      if (e.getValue() >= length) {
+        long offset = e.getKey();
+        long remaining = e.getValue() - length;
+        freeExtents.remove(offset);
+        if (remaining > 0) {
+          freeExtents.put(offset + length, remaining);
+        }
+        return offset;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns an extent to the free list, merging it with adjacent free extents.
+   */
+  private void release(long offset, long length) {
+    Map.Entry<Long, Long> before = freeExtents.floorEntry(offset);
+    if (before != null && before.getKey() + before.getValue() == offset) {
+      offset = before.getKey();
+      length += before.getValue();
+      freeExtents.remove(before.getKey());
+    }
+    Long afterLength = freeExtents.get(offset + length);
+    if (afterLength != null) {
+      freeExtents.remove(offset + length);
+      length += afterLength;
+    }
+    freeExtents.put(offset, length);
+  }
+
+  // ==== helpers ====
+
+  private void checkSlot(int slotId) throws IOException {
+    if (slotId < 0 || slotId >= slotCount) {
+      throw new IOException("Invalid save slot: " + slotId);
+    }
+  }
+
+  private static long align(long value) {
+    return (value + ALIGN - 1) & -ALIGN;
+  }
+
+  private static int crc(byte[] data, int off, int len) {
+    CRC32 crc = new CRC32();
+    crc.update(data, off, len);
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,39 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Decoding and scaling one picture for the graphical view.
+ */
+@Name("halo.ImageLoad")
+@Label("Image Load")
+@Category({"Halo", "View"})
+@Description("A picture read and scaled for the image cache")
+@Enabled(false)
+@StackTrace(false)
+public class ImageLoadEvent extends Event {
+
+  @Label("Path")
+  public String path;
+
+  @Label("Width")
+  public int width;
+
+  @Label("Height")
+  public int height;
+
+  @Label("Decoded Size")
+  @DataAmount
+  public long bytes;
+
+  @Label("Outcome")
+  @Description("decoded, missing or failed")
+  public String outcome;
+}
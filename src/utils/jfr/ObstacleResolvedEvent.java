@@ -0,0 +1,37 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An attempt to clear a monster or puzzle.
+ */
+@Name("halo.ObstacleResolved")
+@Label("Obstacle Resolved")
+@Category({"Halo", "World"})
+@Description("A monster defeated or a puzzle solved")
+@Enabled(false)
+@StackTrace(false)
+public class ObstacleResolvedEvent extends Event {
+
+  @Label("Room")
+  public int room;
+
+  @Label("Obstacle")
+  public String obstacle;
+
+  @Label("Kind")
+  public String kind;
+
+  @Label("Value")
+  public int value;
+
+  @Label("Cleared")
+  @Description("False if the obstacle was already cleared, e.g. by another player")
+  public boolean cleared;
+}
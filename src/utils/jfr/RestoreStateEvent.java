@@ -0,0 +1,38 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Decoding saved state back into a live world.
+ */
+@Name("halo.RestoreState")
+@Label("Restore State")
+@Category({"Halo", "Persistence"})
+@Description("Saved state decoded into the live world")
+@Enabled(false)
+@StackTrace(false)
+public class RestoreStateEvent extends Event {
+
+  @Label("Map")
+  public String mapName;
+
+  @Label("Size")
+  @DataAmount
+  public long bytes;
+
+  @Label("Legacy Format")
+  public boolean legacy;
+
+  @Label("Succeeded")
+  public boolean succeeded;
+
+  @Label("Failure")
+  public String failure;
+}
@@ -0,0 +1,37 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A player trying to move from one room to another.
+ */
+@Name("halo.RoomTransition")
+@Label("Room Transition")
+@Category({"Halo", "Player"})
+@Description("A player move attempt")
+@Enabled(false)
+@StackTrace(false)
+public class RoomTransitionEvent extends Event {
+
+  @Label("Player")
+  public String player;
+
+  @Label("Direction")
+  public String direction;
+
+  @Label("From Room")
+  public int fromRoom;
+
+  @Label("To Room")
+  @Description("Target room, 0 if there is no exit, negative if it is blocked")
+  public int toRoom;
+
+  @Label("Moved")
+  public boolean moved;
+}
@@ -0,0 +1,35 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Encoding the world and player state (for a save file, a save slot or hibernation).
+ */
+@Name("halo.SaveState")
+@Label("Save State")
+@Category({"Halo", "Persistence"})
+@Description("World and player state encoded")
+@Enabled(false)
+@StackTrace(false)
+public class SaveStateEvent extends Event {
+
+  @Label("Map")
+  public String mapName;
+
+  @Label("Rooms")
+  public int rooms;
+
+  @Label("Size")
+  @DataAmount
+  public long bytes;
+
+  @Label("Succeeded")
+  public boolean succeeded;
+}
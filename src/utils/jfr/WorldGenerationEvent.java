@@ -0,0 +1,32 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of building a world from its map file (parse, rooms, items, fixtures,
+ * monsters, puzzles).
+ */
+@Name("halo.WorldGeneration")
+@Label("World Generation")
+@Category({"Halo", "World"})
+@Description("A phase of building a world from its map")
+@Enabled(false)
+@StackTrace(false)
+public class WorldGenerationEvent extends Event {
+
+  @Label("Map")
+  public String mapName;
+
+  @Label("Phase")
+  public String phase;
+
+  @Label("Elements")
+  @Description("Rooms, items, fixtures or obstacles in the world after the phase")
+  public int count;
+}
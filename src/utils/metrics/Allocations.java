@@ -0,0 +1,70 @@
+package utils.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap bytes allocated by the current thread, for checking that hot paths
+ * stay garbage-free once warmed up.
+ * Backed by the HotSpot per-thread allocation counter; where that is unavailable
+ * {@link #isSupported()} is false and measurements return -1.
+ */
+public final class Allocations {
+
+  private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+  private Allocations() { }
+
+  /**
+   * Checks whether per-thread allocation counting is available.
+   *
+   * @return true if measurements are meaningful
+   */
+  public static boolean isSupported() {
+    return THREADS != null;
+  }
+
+  /**
+   * Returns the bytes allocated so far by the calling thread.
+   *
+   * @return allocated bytes, or -1 if unsupported
+   */
+  public static long currentThreadBytes() {
+    return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Runs an operation {@code warmup} times so the JIT settles, then returns the bytes
+   * allocated by {@code iterations} further runs.
+   *
+   * @param op         the operation
+   * @param warmup     untimed runs
+   * @param iterations measured runs
+   * @return allocated bytes over the measured runs, or -1 if unsupported
+   */
+  public static long measure(Runnable op, int warmup, int iterations) {
+    for (int i = 0; i < warmup; i++) {
+      op.run();
+    }
+    if (THREADS == null) {
+      return -1;
+    }
+    long before = THREADS.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < iterations; i++) {
+      op.run();
+    }
+    return THREADS.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  private static com.sun.management.ThreadMXBean threadBean() {
+    try {
+      if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+              && bean.isThreadAllocatedMemorySupported()) {
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+      }
+    } catch (UnsupportedOperationException | SecurityException e) {
+      System.err.println("Allocation counting unavailable: " + e.getMessage());
+    }
+    return null;
+  }
+}
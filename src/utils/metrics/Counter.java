@@ -0,0 +1,32 @@
+package utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count, cheap to bump from many threads.
+ */
+public class Counter implements CounterMXBean {
+
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * Adds one.
+   */
+  public void increment() {
+    count.increment();
+  }
+
+  /**
+   * Adds the given amount.
+   *
+   * @param n the amount
+   */
+  public void add(long n) {
+    count.add(n);
+  }
+
+  @Override
+  public long getCount() {
+    return count.sum();
+  }
+}
@@ -0,0 +1,9 @@
+package utils.metrics;
+
+/**
+ * JMX view of a {@link Counter}.
+ */
+public interface CounterMXBean {
+
+  long getCount();
+}
@@ -0,0 +1,133 @@
+package utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A latency histogram with HDR-style log-linear buckets: every power of two is split into
+ * 32 linear sub-buckets, so any recorded value is reported within about 3% of its true
+ * value, from nanoseconds up to hours, in a fixed 15KB array.
+ * Recording is lock-free and allocation-free; percentiles are computed when read.
+ */
+public class LatencyHistogram implements LatencyMXBean {
+
+  private static final int SUB_BITS = 5;
+  private static final int SUB = 1 << SUB_BITS;
+  private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records one latency.
+   *
+   * @param nanos the latency in nanoseconds
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts.incrementAndGet(index(value));
+    total.addAndGet(value);
+    long seen = max.get();
+    while (value > seen && !max.compareAndSet(seen, value)) {
+      seen = max.get();
+    }
+  }
+
+  /**
+   * Records the time elapsed since a {@link System#nanoTime()} reading.
+   *
+   * @param startNanos the start reading
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  @Override
+  public long getCount() {
+    long n = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      n += counts.get(i);
+    }
+    return n;
+  }
+
+  /**
+   * Returns the value at the given quantile, in nanoseconds.
+   *
+   * @param quantile between 0 and 1
+   * @return the highest value equivalent to the quantile's bucket, or 0 when empty
+   */
+  public long valueAt(double quantile) {
+    long[] snapshot = new long[BUCKETS];
+    long n = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      n += snapshot[i];
+    }
+    if (n == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * n));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(highestEquivalent(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  @Override
+  public double getMeanMicros() {
+    long n = getCount();
+    return n == 0 ? 0 : total.get() / (double) n / 1000;
+  }
+
+  @Override
+  public double getP50Micros() {
+    return valueAt(0.50) / 1000.0;
+  }
+
+  @Override
+  public double getP99Micros() {
+    return valueAt(0.99) / 1000.0;
+  }
+
+  @Override
+  public double getP999Micros() {
+    return valueAt(0.999) / 1000.0;
+  }
+
+  @Override
+  public double getMaxMicros() {
+    return max.get() / 1000.0;
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    total.set(0);
+    max.set(0);
+  }
+
+  static int index(long value) {
+    if (value < SUB) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+    return (shift + 1) * SUB + (int) ((value >>> shift) - SUB);
+  }
+
+  static long highestEquivalent(int index) {
+    if (index < SUB) {
+      return index;
+    }
+    int shift = index / SUB - 1;
+    long sub = index % SUB + SUB;
+    return ((sub + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,24 @@
+package utils.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}. Latencies are in microseconds.
+ */
+public interface LatencyMXBean {
+
+  long getCount();
+
+  double getMeanMicros();
+
+  double getP50Micros();
+
+  double getP99Micros();
+
+  double getP999Micros();
+
+  double getMaxMicros();
+
+  /**
+   * Clears the recorded values.
+   */
+  void reset();
+}
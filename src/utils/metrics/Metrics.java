@@ -0,0 +1,120 @@
+package utils.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide registry of named latency histograms and counters.
+ * Each metric is registered with the platform MBean server as
+ * "halo:type=Latency,name=..." or "halo:type=Counter,name=...", and the whole registry
+ * can be dumped as a text table, periodically with -Dhalo.metrics.dump=&lt;seconds&gt;.
+ * Look metrics up once and keep the reference; recording is then allocation-free.
+ */
+public final class Metrics {
+
+  private static final Map<String, LatencyHistogram> TIMERS = new ConcurrentHashMap<>();
+  private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+  private static final Map<String, Long> LAST_COUNTS = new ConcurrentHashMap<>();
+  private static long lastDump = System.nanoTime();
+  private static ScheduledExecutorService dumper;
+
+  static {
+    Integer period = Integer.getInteger("halo.metrics.dump");
+    if (period != null && period > 0) {
+      startDump(System.err, period);
+    }
+  }
+
+  private Metrics() {
+  }
+
+  /**
+   * Returns the latency histogram with the given name, creating it on first use.
+   *
+   * @param name the metric name, e.g. "command.take"
+   * @return the histogram
+   */
+  public static LatencyHistogram timer(String name) {
+    return TIMERS.computeIfAbsent(name, n -> register("Latency", n, new LatencyHistogram()));
+  }
+
+  /**
+   * Returns the counter with the given name, creating it on first use.
+   *
+   * @param name the metric name
+   * @return the counter
+   */
+  public static Counter counter(String name) {
+    return COUNTERS.computeIfAbsent(name, n -> register("Counter", n, new Counter()));
+  }
+
+  /**
+   * Prints every metric: count, rate since the previous dump, and latency percentiles.
+   *
+   * @param out where to print
+   */
+  public static synchronized void dump(PrintStream out) {
+    long now = System.nanoTime();
+    double seconds = Math.max(1e-9, (now - lastDump) / 1e9);
+    lastDump = now;
+    out.printf("%-24s %10s %10s %10s %10s %10s %10s%n",
+            "metric", "count", "per sec", "p50 us", "p99 us", "p99.9 us", "max us");
+    for (Map.Entry<String, LatencyHistogram> e : new TreeMap<>(TIMERS).entrySet()) {
+      LatencyHistogram h = e.getValue();
+      long count = h.getCount();
+      out.printf("%-24s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", e.getKey(), count,
+              rate(e.getKey(), count, seconds), h.getP50Micros(), h.getP99Micros(),
+              h.getP999Micros(), h.getMaxMicros());
+    }
+    for (Map.Entry<String, Counter> e : new TreeMap<>(COUNTERS).entrySet()) {
+      long count = e.getValue().getCount();
+      out.printf("%-24s %10d %10.1f%n", e.getKey(), count, rate(e.getKey(), count, seconds));
+    }
+    out.flush();
+  }
+
+  /**
+   * Dumps the registry at a fixed period from a daemon thread.
+   *
+   * @param out           where to print
+   * @param periodSeconds seconds between dumps
+   */
+  public static synchronized void startDump(PrintStream out, int periodSeconds) {
+    if (dumper != null) {
+      return;
+    }
+    dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "metrics-dump");
+      t.setDaemon(true);
+      return t;
+    });
+    dumper.scheduleAtFixedRate(() -> dump(out), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+  }
+
+  private static double rate(String name, long count, double seconds) {
+    Long last = LAST_COUNTS.put(name, count);
+    return (count - (last == null ? 0 : last)) / seconds;
+  }
+
+  private static <T> T register(String type, String name, T metric) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName objectName = new ObjectName("halo:type=" + type + ",name=" + ObjectName.quote(name));
+      if (!server.isRegistered(objectName)) {
+        server.registerMBean(metric, objectName);
+      }
+    } catch (JMException e) {
+      System.err.println("Could not register metric " + name + ": " + e.getMessage());
+    }
+    return metric;
+  }
+}
@@ -0,0 +1,58 @@
+package utils.obstacleparser;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+
+import model.core.Room;
+import model.obstacle.CustomObstacle;
+
+import static utils.roomparser.RoomNumberParser.parseRoomNumber;
+
+public class ObstacleParser {
+
+  /**
+   * Parses the optional "obstacles" section from the JSON root.
+   * Each entry creates a CustomObstacle whose behaviour comes from its "rules",
+   * and assigns it to the corresponding room in the game world.
+   *
+   * @param root     the root JSON object
+   * @param worldMap the map of room IDs to Room objects
+   */
+  public static void parseObstacles(JsonObject root, Map<Integer, Room> worldMap) {
+    if (!root.has("obstacles") || !root.get("obstacles").isJsonArray()) {
+      return;
+    }
+    JsonArray obstaclesArray = root.getAsJsonArray("obstacles");
+
+    for (JsonElement element : obstaclesArray) {
+      if (!element.isJsonObject()) continue;
+      JsonObject o = element.getAsJsonObject();
+
+      try {
+        String name = o.get("name").getAsString();
+        int targetRoom = parseRoomNumber(o.get("target").getAsString());
+        String description = getAsStringOrDefault(o, "description", "");
+        boolean active = !o.has("active") || o.get("active").getAsBoolean();
+        int value = o.has("value") ? o.get("value").getAsInt() : 0;
+        String kind = getAsStringOrDefault(o, "kind", "Obstacle");
+        String effects = getAsStringOrDefault(o, "effects", description);
+
+        Room r = worldMap.get(targetRoom);
+        if (r != null) {
+          r.setObstacle(new CustomObstacle(name, description, active, value, kind, effects));
+        } else {
+          System.err.printf("Room #%d not found — obstacle '%s' not assigned.%n", targetRoom, name);
+        }
+      } catch (Exception e) {
+        System.err.println("Skipping obstacle due to parsing error: " + e.getMessage());
+      }
+    }
+  }
+
+  private static String getAsStringOrDefault(JsonObject obj, String key, String defaultVal) {
+    return obj.has(key) && obj.get(key).isJsonPrimitive() ? obj.get(key).getAsString() : defaultVal;
+  }
+}
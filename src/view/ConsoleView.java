@@ -8,6 +8,10 @@ import model.elements.Fixture;
 import model.obstacle.GameObstacle;
 import model.obstacle.Monster;
 
+import view.sink.AutoFlushSink;
+import view.sink.BufferedSink;
+import view.sink.OutputSink;
+
 import java.io.PrintWriter;
 import java.util.List;
 
@@ -17,14 +21,35 @@ import java.util.List;
  */
 public class ConsoleView implements View {
 
-  private final PrintWriter out;
+  private final OutputSink out;
+  // Dirty tracking: what the last full render showed
+  private boolean skipUnchanged;
+  private Room lastRoom;
+  private Player lastPlayer;
+  private int lastRoomVersion;
+  private int lastPlayerVersion;
+
+  /**
+   * Creates a view writing through the given sink.
+   * @param sink the output sink
+   */
+  public ConsoleView(OutputSink sink) {
+    this.out = sink;
+  }
 
+  /**
+   * Creates a view writing to a writer, buffered until {@link #flush()} or {@link #close()}.
+   * @param batchOutput the writer, e.g. a batch output file
+   */
   public ConsoleView(PrintWriter batchOutput) {
-    this.out = batchOutput;
+    this(new BufferedSink(batchOutput));
   }
 
+  /**
+   * Creates a view for interactive play, writing to standard output as it goes.
+   */
   public ConsoleView() {
-    this(new PrintWriter(System.out, true));
+    this(new AutoFlushSink(System.out));
   }
 
   /**
@@ -32,20 +57,23 @@ public class ConsoleView implements View {
    */
   @Override
   public void displayMainMenu() {
-    out.println("===================================");
-    out.println("Welcome to the Adventure Game!");
-    out.println();
-    out.println("Commands:");
-    out.println("  (N)orth, (S)outh, (E)ast or (W)est to move");
-    out.println("  (T)ake <item> to take an item");
-    out.println("  (D)rop <item> to drop an item");
-    out.println("  (U)se <item> to use an item");
-    out.println("  (X)amine <object> to inspect something");
-    out.println("  (A)nswer <text> to solve a puzzle");
-    out.println("  (I)nventory to view your items");
-    out.println("  (L)ook to re-describe your location");
-    out.println("  (Q)uit to save and exit");
-    out.println("===================================");
+    out.writeLine("===================================");
+    out.writeLine("Welcome to the Adventure Game!");
+    out.newLine();
+    out.writeLine("Commands:");
+    out.writeLine("  (N)orth, (S)outh, (E)ast or (W)est to move");
+    out.writeLine("  (T)ake <item> to take an item");
+    out.writeLine("  (D)rop <item> to drop an item");
+    out.writeLine("  (U)se <item> to use an item");
+    out.writeLine("  (X)amine <object> to inspect something");
+    out.writeLine("  (A)nswer <text> to solve a puzzle");
+    out.writeLine("  (I)nventory to view your items");
+    out.writeLine("  (L)ook to re-describe your location");
+    out.writeLine("  UNDO / REDO to step back or forward through your moves");
+    out.writeLine("  cmd; cmd to chain commands (cmd && cmd stops at the first failure)");
+    out.writeLine("  DEF <name> <commands> to define a macro, @<name> to run it");
+    out.writeLine("  (Q)uit to save and exit");
+    out.writeLine("===================================");
   }
 
   /**
@@ -60,45 +88,81 @@ public class ConsoleView implements View {
    */
   @Override
   public void renderGame(Player player, Room room) {
-    out.println("\n==============================");
-    out.println("You are standing in: " + room.getName());
-    out.println(room.getRoomDescription());
+    if (skipUnchanged && room == lastRoom && player == lastPlayer && room.getVersion() == lastRoomVersion) {
+      if (player.getVersion() != lastPlayerVersion) {
+        writeStatus(player); // only the player changed: just the status lines
+        lastPlayerVersion = player.getVersion();
+      }
+      return;
+    }
+    lastRoom = room;
+    lastPlayer = player;
+    lastRoomVersion = room.getVersion();
+    lastPlayerVersion = player.getVersion();
+
+    out.writeLine("\n==============================");
+    out.writeLine("You are standing in: " + room.getName());
+    out.writeLine(room.getRoomDescription());
 
     // Show obstacles
     GameObstacle obs = room.getObstacle();
     if (obs != null && obs.isActive()) {
       if (obs instanceof Monster) {
-        out.println("A monster " + obs.getName() + " growls at you! You cannot get past!");
-        out.println(((Monster) obs).getAttackMessage());
+        out.writeLine("A monster " + obs.getName() + " growls at you! You cannot get past!");
+        out.writeLine(((Monster) obs).getAttackMessage());
       } else {
-        out.println("Puzzle: " + obs.getDescription());
+        out.writeLine(obs.getKind() + ": " + obs.getDescription());
       }
     }
 
     // Show items
     List<Item> items = room.getItems();
     if (!items.isEmpty()) {
-      out.print("Items you see here: ");
+      out.write("Items you see here: ");
       for (Item i : items) {
-        out.print(i.getName() + " ");
+        out.write(i.getName() + " ");
       }
-      out.println();
+      out.newLine();
     }
 
     // Show fixtures
     List<Fixture> fixtures = room.getFixtures();
     if (!fixtures.isEmpty()) {
-      out.print("🪑 Fixtures here: ");
+      out.write("🪑 Fixtures here: ");
       for (Fixture f : fixtures) {
-        out.print(f.getName() + " ");
+        out.write(f.getName() + " ");
       }
-      out.println();
+      out.newLine();
     }
 
-    // Show health status
-    out.println("Health: " + player.getHealth() + " | Status: " + player.getHealthStatus());
-    out.println("Score: " + player.getScore());
-    out.println("==============================\n");
+    writeStatus(player);
+    out.writeLine("==============================\n");
+  }
+
+  private void writeStatus(Player player) {
+    out.writeLine("Health: " + player.getHealth() + " | Status: " + player.getHealthStatus());
+    out.writeLine("Score: " + player.getScore());
+  }
+
+  /**
+   * Turns dirty tracking on or off. When on, rendering a room and player that have not
+   * changed since the last render writes nothing, and a change to the player alone only
+   * writes the status lines.
+   *
+   * @param skipUnchanged true to skip unchanged renders
+   */
+  public void setSkipUnchangedRenders(boolean skipUnchanged) {
+    this.skipUnchanged = skipUnchanged;
+    invalidate();
+  }
+
+  /**
+   * Makes the next render a full one.
+   */
+  @Override
+  public void invalidate() {
+    lastRoom = null;
+    lastPlayer = null;
   }
 
   /**
@@ -108,6 +172,21 @@ public class ConsoleView implements View {
    */
   @Override
   public void showMessage(String message) {
-    System.out.println(message);
+    out.writeLine(message);
+  }
+
+  /**
+   * Marks the end of a command; buffered sinks decide whether to write out now.
+   */
+  @Override
+  public void flush() {
+    out.flush();
+  }
+
+  /**
+   * Writes out everything still buffered and closes the sink.
+   */
+  public void close() {
+    out.close();
   }
 }
@@ -87,6 +87,16 @@ public interface Features {
    */
   void showAbout();
 
+  /**
+   * Undo the last action.
+   */
+  void undo();
+
+  /**
+   * Redo the last undone action.
+   */
+  void redo();
+
   /**
    * General-purpose move command using direction string (used in GUI).
    * @param direction N, S, E, or W
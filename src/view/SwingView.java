@@ -5,14 +5,25 @@ import model.core.Room;
 import model.elements.Fixture;
 import model.elements.Item;
 import model.obstacle.GameObstacle;
-import model.obstacle.Monster;
+import view.image.ImageCache;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class SwingView extends JFrame {
+  private static final String IMAGE_DIR = "resources/images/";
+  private static final int ROOM_IMAGE_SIZE = 300;
+  private static final int POPUP_IMAGE_SIZE = 600;
+  private static final int BUTTON_IMAGE_SIZE = 60;
+  private static final ImageCache.Key FALLBACK_IMAGE =
+          new ImageCache.Key(IMAGE_DIR + "coming-soon.png", ROOM_IMAGE_SIZE, ROOM_IMAGE_SIZE);
+
+  private final ImageCache images = ImageCache.shared();
+  private int imageRequest; // latest room picture asked for; older decodes are ignored
   private final JLabel imageLabel;
   private final JTextArea descriptionArea;
   private final JLabel healthLabel;
@@ -35,6 +46,8 @@ public class SwingView extends JFrame {
   private JMenuItem saveItem;
   private JMenuItem restoreItem;
   private JMenuItem exitItem;
+  private JMenuItem undoItem;
+  private JMenuItem redoItem;
 
   public SwingView() {
     super("Adventure Game - GUI Mode");
@@ -130,6 +143,15 @@ public class SwingView extends JFrame {
     fileMenu.addSeparator();
     fileMenu.add(exitItem);
     menuBar.add(fileMenu);
+
+    JMenu editMenu = new JMenu("Edit");
+    undoItem = new JMenuItem("Undo");
+    undoItem.setAccelerator(KeyStroke.getKeyStroke("control Z"));
+    redoItem = new JMenuItem("Redo");
+    redoItem.setAccelerator(KeyStroke.getKeyStroke("control Y"));
+    editMenu.add(undoItem);
+    editMenu.add(redoItem);
+    menuBar.add(editMenu);
     setJMenuBar(menuBar);
 
     add(leftPanel, BorderLayout.WEST);
@@ -140,7 +162,8 @@ public class SwingView extends JFrame {
   }
 
   private JButton createImageButton(String path) {
-    JButton button = new JButton(new ImageIcon(path));
+    BufferedImage image = images.get(new ImageCache.Key(path, BUTTON_IMAGE_SIZE, BUTTON_IMAGE_SIZE));
+    JButton button = image == null ? new JButton() : new JButton(new ImageIcon(image));
     button.setPreferredSize(new Dimension(60, 60));
     button.setBorder(BorderFactory.createEmptyBorder());
     return button;
@@ -151,47 +174,98 @@ public class SwingView extends JFrame {
   }
 
   public void renderRoom(Room room) {
-    descriptionArea.setText("");
-    showMessage(room.getRoomDescription());
+    renderRoomText(room);
+    renderRoomImage(room);
+  }
+
+  /**
+   * Redraws the room description, items, fixtures and obstacle (not the picture).
+   * @param room the room to describe
+   */
+  public void renderRoomText(Room room) {
+    showRoomText(describeRoom(room));
+  }
+
+  /**
+   * Replaces the description area with prepared room text.
+   * @param text the text built by {@link #describeRoom}
+   */
+  public void showRoomText(String text) {
+    descriptionArea.setText(text);
+  }
+
+  /**
+   * Builds the description shown for a room. Safe to call off the EDT, so the game
+   * thread can read the model and hand the view only the finished text.
+   * @param room the room to describe
+   * @return the description text
+   */
+  public static String describeRoom(Room room) {
+    StringBuilder text = new StringBuilder();
+    text.append(room.getRoomDescription()).append('\n');
 
     if (room.getItems() != null && !room.getItems().isEmpty()) {
-      showMessage("Items you see here:");
+      text.append("Items you see here:\n");
       for (Item item : room.getItems()) {
-        showMessage("  - " + item.getName() + ": " + item.getDescription());
+        text.append("  - ").append(item.getName()).append(": ").append(item.getDescription()).append('\n');
       }
     }
 
     if (room.getFixtures() != null && !room.getFixtures().isEmpty()) {
-      showMessage("Fixtures:");
+      text.append("Fixtures:\n");
       for (Fixture fixture : room.getFixtures()) {
-        showMessage("  - " + fixture.getName());
+        text.append("  - ").append(fixture.getName()).append('\n');
       }
     }
 
     if (room.getObstacle() != null) {
       GameObstacle obs = room.getObstacle();
-      String type = (obs instanceof Monster) ? "Monster" : "Puzzle";
-      showMessage(type + ": " + obs.getDescription());
+      text.append(obs.getKind()).append(": ").append(obs.getDescription()).append('\n');
     }
+    return text.toString();
+  }
 
-    String imageName = room.getPicture();
-    ImageIcon icon = null;
+  /**
+   * Shows the room picture, falling back to the placeholder image. Cached pictures are
+   * shown at once; others are decoded in the background and shown when ready, unless
+   * the player has moved on by then.
+   * @param room the room whose picture is shown
+   */
+  public void renderRoomImage(Room room) {
+    renderRoomImage(room.getPicture());
+  }
 
-    if (imageName != null) {
-      File imageFile = new File("resources/images/" + imageName);
-      if (imageFile.exists()) {
-        icon = new ImageIcon(imageFile.getPath());
-      }
+  /**
+   * Shows a room picture by file name (null shows the placeholder).
+   * @param pictureName the picture file name
+   */
+  public void renderRoomImage(String pictureName) {
+    int request = ++imageRequest;
+    CompletableFuture<BufferedImage> picture = pictureName == null
+            ? images.load(FALLBACK_IMAGE)
+            : images.load(roomImageKey(pictureName))
+                    .thenCompose(img -> img != null ? CompletableFuture.completedFuture(img) : images.load(FALLBACK_IMAGE));
+
+    if (picture.isDone()) {
+      showRoomImage(request, picture.join());
+    } else {
+      picture.thenAccept(img -> SwingUtilities.invokeLater(() -> showRoomImage(request, img)));
     }
+  }
 
-    if (icon == null) {
-      File fallback = new File("resources/images/coming-soon.png");
-      if (fallback.exists()) {
-        icon = new ImageIcon(fallback.getPath());
-      }
-    }
+  /**
+   * Returns the cache key of a room picture as shown in the view panel.
+   * @param picture the picture file name
+   * @return the key
+   */
+  public static ImageCache.Key roomImageKey(String picture) {
+    return new ImageCache.Key(IMAGE_DIR + picture, ROOM_IMAGE_SIZE, ROOM_IMAGE_SIZE);
+  }
 
-    imageLabel.setIcon(icon);
+  private void showRoomImage(int request, BufferedImage image) {
+    if (request == imageRequest) {
+      imageLabel.setIcon(image == null ? null : new ImageIcon(image));
+    }
   }
 
   public void updateStatusBar(String healthStatus, int healthPoints, String rank, int score) {
@@ -246,11 +320,25 @@ public class SwingView extends JFrame {
             JOptionPane.INFORMATION_MESSAGE);
   }
 
+  /**
+   * Shows the picture of an examined item or fixture. A cached picture opens at once;
+   * otherwise it is decoded in the background and the dialog opens when it is ready.
+   * @param name the name of the examined thing
+   */
   public void showPopupWithImage(String name) {
     String cleaned = name.trim().toLowerCase().replaceAll("\\s+", "-");
-    String path = "resources/images/" + cleaned + ".png";
-    ImageIcon icon = new ImageIcon(path);
-    JLabel label = new JLabel(icon);
+    CompletableFuture<BufferedImage> picture =
+            images.load(new ImageCache.Key(IMAGE_DIR + cleaned + ".png", POPUP_IMAGE_SIZE, POPUP_IMAGE_SIZE));
+
+    if (picture.isDone()) {
+      showPopup(name, picture.join());
+    } else {
+      picture.thenAccept(img -> SwingUtilities.invokeLater(() -> showPopup(name, img)));
+    }
+  }
+
+  private void showPopup(String name, BufferedImage image) {
+    JLabel label = image == null ? new JLabel() : new JLabel(new ImageIcon(image));
     JOptionPane.showMessageDialog(this, label, name, JOptionPane.PLAIN_MESSAGE);
   }
 
@@ -356,6 +444,8 @@ public class SwingView extends JFrame {
     saveItem.addActionListener(e -> f.saveGame());
     restoreItem.addActionListener(e -> f.restoreGame());
     exitItem.addActionListener(e -> f.quitGame());
+    undoItem.addActionListener(e -> f.undo());
+    redoItem.addActionListener(e -> f.redo());
   }
 
   public JList<String> getInventoryList() {
@@ -29,4 +29,17 @@ public interface View {
  * @param message the message to display
  */
   void showMessage(String message);
+
+  /**
+   * Forgets what was last rendered, so the next {@link #renderGame} draws everything
+   * even if the model has not changed (e.g. for LOOK).
+   */
+  default void invalidate() {
+  }
+
+  /**
+   * Marks a command boundary so buffered output can be pushed out.
+   */
+  default void flush() {
+  }
 }
@@ -0,0 +1,314 @@
+package view.image;
+
+import utils.jfr.ImageLoadEvent;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of decoded, pre-scaled images keyed by path and target size.
+ * Entries are evicted least-recently-used once their decoded size exceeds a byte budget.
+ * Missing files are cached too (negatively), so fallbacks are not re-probed on disk;
+ * files that exist but fail to decode are retried on the next lookup. Images can be
+ * fetched synchronously or decoded on a small background pool.
+ * The shared cache reads pictures of the image directory from the {@link TextureAtlas}.
+ */
+public class ImageCache {
+
+  /**
+   * Identifies one cached image.
+   *
+   * @param path      the image file
+   * @param maxWidth  width to fit into (0 = natural width)
+   * @param maxHeight height to fit into (0 = natural height)
+   */
+  public record Key(String path, int maxWidth, int maxHeight) { }
+
+  /**
+   * Point-in-time cache counters.
+   *
+   * @param hits         lookups answered from the cache (including negative entries)
+   * @param misses       lookups that had to decode
+   * @param negativeHits hits on files known to be missing
+   * @param evictions    entries dropped to stay within the budget
+   * @param bytes        decoded bytes currently held
+   * @param entries      entries currently held
+   */
+  public record Stats(long hits, long misses, long negativeHits, long evictions, long bytes, int entries) {
+    /**
+     * Returns the fraction of lookups served from the cache.
+     *
+     * @return the hit ratio, 0 when there were no lookups
+     */
+    public double hitRatio() {
+      long total = hits + misses;
+      return total == 0 ? 0 : (double) hits / total;
+    }
+  }
+
+  /** Default budget for decoded pixels (override with -Dhalo.images.budget=&lt;bytes&gt;). */
+  public static final long DEFAULT_BUDGET = 48L << 20;
+
+  private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+  private static final long MISSING_COST = 64;
+  private static final ImageCache SHARED =
+          new ImageCache(Long.getLong("halo.images.budget", DEFAULT_BUDGET), 2, true);
+
+  private final long budget;
+  private final boolean useAtlas;
+  private final LinkedHashMap<Key, BufferedImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final Map<Key, CompletableFuture<BufferedImage>> loading = new HashMap<>();
+  private final ExecutorService decoder;
+  private long bytes;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder negativeHits = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a cache that reads every picture from its own file.
+   *
+   * @param budget         maximum decoded bytes held
+   * @param decoderThreads threads used for asynchronous decoding
+   */
+  public ImageCache(long budget, int decoderThreads) {
+    this(budget, decoderThreads, false);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param budget         maximum decoded bytes held
+   * @param decoderThreads threads used for asynchronous decoding
+   * @param useAtlas       true to read pictures of {@link TextureAtlas#IMAGE_DIR} from the shared atlas
+   */
+  public ImageCache(long budget, int decoderThreads, boolean useAtlas) {
+    this.budget = budget;
+    this.useAtlas = useAtlas;
+    AtomicInteger count = new AtomicInteger();
+    this.decoder = Executors.newFixedThreadPool(decoderThreads, r -> {
+      Thread t = new Thread(r, "image-decoder-" + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Returns the cache shared by all views in this process.
+   *
+   * @return the shared cache
+   */
+  public static ImageCache shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns the image, decoding it on the calling thread if it is not cached.
+   *
+   * @param key the image
+   * @return the image, or null if the file is missing or unreadable
+   */
+  public BufferedImage get(Key key) {
+    CompletableFuture<BufferedImage> pending;
+    boolean owner = false;
+    synchronized (this) {
+      BufferedImage cached = lookup(key);
+      if (cached != null) {
+        return cached == MISSING ? null : cached;
+      }
+      pending = loading.get(key);
+      if (pending == null) {
+        pending = new CompletableFuture<>();
+        loading.put(key, pending);
+        owner = true;
+      }
+    }
+    if (owner) {
+      decodeInto(key, pending);
+    }
+    return pending.join();
+  }
+
+  /**
+   * Returns the image asynchronously; cached images complete immediately,
+   * others are decoded on the background pool. Concurrent requests share one decode.
+   *
+   * @param key the image
+   * @return a future of the image (null if the file is missing or unreadable)
+   */
+  public CompletableFuture<BufferedImage> load(Key key) {
+    CompletableFuture<BufferedImage> pending;
+    synchronized (this) {
+      BufferedImage cached = lookup(key);
+      if (cached != null) {
+        return CompletableFuture.completedFuture(cached == MISSING ? null : cached);
+      }
+      pending = loading.get(key);
+      if (pending != null) {
+        return pending;
+      }
+      pending = new CompletableFuture<>();
+      loading.put(key, pending);
+    }
+    CompletableFuture<BufferedImage> target = pending;
+    decoder.execute(() -> decodeInto(key, target));
+    return target;
+  }
+
+  /**
+   * Returns true if the image (or the fact that it is missing) is cached.
+   *
+   * @param key the image
+   * @return true if a lookup would not touch the disk
+   */
+  public synchronized boolean isCached(Key key) {
+    return entries.containsKey(key);
+  }
+
+  /**
+   * Returns the current counters.
+   *
+   * @return the statistics
+   */
+  public synchronized Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), negativeHits.sum(), evictions.sum(), bytes, entries.size());
+  }
+
+  /**
+   * Finds a cached entry and counts the lookup. Caller holds the lock.
+   */
+  private BufferedImage lookup(Key key) {
+    BufferedImage cached = entries.get(key);
+    if (cached == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+      if (cached == MISSING) {
+        negativeHits.increment();
+      }
+    }
+    return cached;
+  }
+
+  private void decodeInto(Key key, CompletableFuture<BufferedImage> target) {
+    ImageLoadEvent event = new ImageLoadEvent();
+    event.begin();
+    BufferedImage image = null;
+    String outcome = "failed";
+    try {
+      image = decode(key);
+      outcome = image == null ? "missing" : "decoded";
+    } catch (IOException | RuntimeException e) {
+      System.err.println("Could not decode image " + key.path() + ": " + e.getMessage());
+    } finally {
+      if (event.shouldCommit()) {
+        event.path = key.path();
+        event.width = image == null ? 0 : image.getWidth();
+        event.height = image == null ? 0 : image.getHeight();
+        event.bytes = image == null ? 0 : cost(image);
+        event.outcome = outcome;
+        event.commit();
+      }
+      // Failures are not cached, so a file that could not be read is retried next time
+      synchronized (this) {
+        loading.remove(key);
+        if (!outcome.equals("failed")) {
+          store(key, image == null ? MISSING : image);
+        }
+      }
+      target.complete(image);
+    }
+  }
+
+  /**
+   * Adds an entry and evicts least-recently-used ones over budget. Caller holds the lock.
+   */
+  private void store(Key key, BufferedImage image) {
+    BufferedImage previous = entries.put(key, image);
+    if (previous != null) {
+      bytes -= cost(previous);
+    }
+    bytes += cost(image);
+    Iterator<Map.Entry<Key, BufferedImage>> eldest = entries.entrySet().iterator();
+    while (bytes > budget && entries.size() > 1 && eldest.hasNext()) {
+      Map.Entry<Key, BufferedImage> e = eldest.next();
+      if (e.getKey().equals(key)) {
+        continue;
+      }
+      bytes -= cost(e.getValue());
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  private static long cost(BufferedImage image) {
+    return image == MISSING ? MISSING_COST : (long) image.getWidth() * image.getHeight() * 4;
+  }
+
+  /**
+   * Returns the unscaled picture: a sub-image of the atlas when it is packed there,
+   * otherwise read from its own file. Returns null only if there is no such file.
+   */
+  private BufferedImage readSource(String path) throws IOException {
+    String entry = useAtlas ? TextureAtlas.entryName(path) : null;
+    if (entry != null) {
+      TextureAtlas atlas = TextureAtlas.shared();
+      if (atlas != null && atlas.contains(entry)) {
+        return atlas.get(entry);
+      }
+    }
+    File file = new File(path);
+    if (!file.isFile()) {
+      return null;
+    }
+    BufferedImage image = ImageIO.read(file);
+    if (image == null) {
+      throw new IOException("unsupported image format");
+    }
+    return image;
+  }
+
+  /**
+   * Reads the picture and scales it to fit the key's bounds (never upscaling).
+   */
+  private BufferedImage decode(Key key) throws IOException {
+    BufferedImage source = readSource(key.path());
+    if (source == null) {
+      return null;
+    }
+    double scale = 1.0;
+    if (key.maxWidth() > 0) {
+      scale = Math.min(scale, (double) key.maxWidth() / source.getWidth());
+    }
+    if (key.maxHeight() > 0) {
+      scale = Math.min(scale, (double) key.maxHeight() / source.getHeight());
+    }
+    int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+    int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+    BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = scaled.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      g.dispose();
+    }
+    return scaled;
+  }
+}
@@ -0,0 +1,119 @@
+package view.image;
+
+import model.core.Room;
+
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Warms the image cache with the pictures of rooms next to the player's room.
+ * Work runs on a small background pool ordered by priority: open exits come before
+ * blocked ones. Each arrival starts a new generation; queued work from earlier
+ * generations is dropped, so moving quickly never builds up a backlog of stale decodes.
+ */
+public class ImagePrefetcher {
+
+  /** Priority of pictures behind open exits. */
+  public static final int OPEN_EXIT = 0;
+  /** Priority of pictures behind blocked exits (reachable only after an obstacle). */
+  public static final int BLOCKED_EXIT = 1;
+
+  private static final int MAX_QUEUED = 16;
+
+  private final ImageCache cache;
+  private final Function<String, ImageCache.Key> keys;
+  private final ThreadPoolExecutor pool;
+  private final AtomicInteger generation = new AtomicInteger();
+  private final AtomicLong order = new AtomicLong();
+
+  /**
+   * One queued decode.
+   */
+  private final class Task implements Runnable, Comparable<Task> {
+    private final ImageCache.Key key;
+    private final int priority;
+    private final int taskGeneration;
+    private final long sequence = order.getAndIncrement();
+
+    Task(ImageCache.Key key, int priority, int taskGeneration) {
+      this.key = key;
+      this.priority = priority;
+      this.taskGeneration = taskGeneration;
+    }
+
+    @Override
+    public void run() {
+      if (taskGeneration == generation.get()) {
+        cache.get(key);
+      }
+    }
+
+    @Override
+    public int compareTo(Task other) {
+      if (priority != other.priority) {
+        return Integer.compare(priority, other.priority);
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * Creates a prefetcher.
+   *
+   * @param cache   the cache to warm
+   * @param keys    maps a picture file name to the key the view will ask for
+   * @param threads background threads
+   */
+  public ImagePrefetcher(ImageCache cache, Function<String, ImageCache.Key> keys, int threads) {
+    this.cache = cache;
+    this.keys = keys;
+    AtomicInteger count = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new PriorityBlockingQueue<>(MAX_QUEUED), r -> {
+              Thread t = new Thread(r, "image-prefetch-" + count.incrementAndGet());
+              t.setDaemon(true);
+              t.setPriority(Thread.MIN_PRIORITY);
+              return t;
+            });
+    this.pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Cancels earlier prefetches and queues the pictures of the rooms reachable from this room.
+   *
+   * @param room  the room just entered
+   * @param rooms looks rooms up by number
+   */
+  public void prefetchNeighbors(Room room, Function<Integer, Room> rooms) {
+    int current = generation.incrementAndGet();
+    pool.getQueue().removeIf(r -> r instanceof Task t && t.taskGeneration != current);
+
+    for (Map.Entry<String, Integer> exit : room.getExits().entrySet()) {
+      int target = exit.getValue();
+      if (target == 0 || pool.getQueue().size() >= MAX_QUEUED) {
+        continue;
+      }
+      Room next = rooms.apply(Math.abs(target));
+      if (next == null || next.getPicture() == null) {
+        continue;
+      }
+      ImageCache.Key key = keys.apply(next.getPicture());
+      if (!cache.isCached(key)) {
+        pool.execute(new Task(key, target > 0 ? OPEN_EXIT : BLOCKED_EXIT, current));
+      }
+    }
+  }
+
+  /**
+   * Cancels all queued prefetches and stops the pool.
+   */
+  public void shutdown() {
+    generation.incrementAndGet();
+    pool.shutdownNow();
+  }
+}
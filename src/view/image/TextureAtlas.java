@@ -0,0 +1,342 @@
+package view.image;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Packs the PNGs of an image directory into a few large atlas pages plus a coordinate index,
+ * so the GUI opens a handful of files instead of one per picture. Pages are stored as raw
+ * ARGB pixels and mapped straight into memory, so loading one costs a copy, not a PNG decode.
+ * Pictures are served as sub-images that share the page's pixels, and the process-wide
+ * atlas is shared by every view. The atlas is built on first use and rebuilt whenever the
+ * source directory changes.
+ *
+ * Index format (atlas.idx): a "# source &lt;count&gt; &lt;bytes&gt; &lt;newest mtime&gt;" header,
+ * then one "name page x y width height" line per picture.
+ */
+public class TextureAtlas {
+
+  /** Directory whose pictures the shared atlas packs. */
+  public static final String IMAGE_DIR = "resources/images";
+  /** Width and height of one atlas page. */
+  public static final int PAGE_SIZE = 2048;
+
+  private static final String ATLAS_DIR = "atlas";
+  private static final String INDEX = "atlas.idx";
+  private static final int PADDING = 1;
+  private static final int PAGE_MAGIC = 0x48415431; // "HAT1"
+  private static final int HEADER_BYTES = 12;
+  private static TextureAtlas shared;
+
+  /**
+   * Where one picture sits in the atlas.
+   *
+   * @param page   page number
+   * @param x      left edge
+   * @param y      top edge
+   * @param width  width
+   * @param height height
+   */
+  public record Region(int page, int x, int y, int width, int height) { }
+
+  private final Path atlasDir;
+  private final Map<String, Region> regions;
+  private final BufferedImage[] pages;
+
+  private TextureAtlas(Path atlasDir, Map<String, Region> regions, int pageCount) {
+    this.atlasDir = atlasDir;
+    this.regions = regions;
+    this.pages = new BufferedImage[pageCount];
+  }
+
+  /**
+   * Returns the atlas of {@link #IMAGE_DIR}, loading it or (on first run, or when the
+   * pictures changed) building it. Returns null if it can be neither loaded nor built.
+   *
+   * @return the shared atlas, or null
+   */
+  public static synchronized TextureAtlas shared() {
+    if (shared == null) {
+      try {
+        shared = open(Paths.get(IMAGE_DIR));
+      } catch (IOException e) {
+        System.err.println("Texture atlas unavailable, loading pictures one by one: " + e.getMessage());
+      }
+    }
+    return shared;
+  }
+
+  /**
+   * Opens the atlas of a directory, rebuilding it if missing or stale.
+   *
+   * @param imageDir the directory of source PNGs
+   * @return the atlas
+   * @throws IOException if the atlas cannot be read or written
+   */
+  public static TextureAtlas open(Path imageDir) throws IOException {
+    Path atlasDir = imageDir.resolve(ATLAS_DIR);
+    String signature = signature(sources(imageDir));
+    Path index = atlasDir.resolve(INDEX);
+    if (Files.exists(index)) {
+      List<String> lines = Files.readAllLines(index);
+      if (!lines.isEmpty() && lines.get(0).equals(signature)) {
+        return read(atlasDir, lines);
+      }
+    }
+    return build(imageDir);
+  }
+
+  /**
+   * Packs every PNG of a directory into atlas pages and writes them with their index.
+   * Uses shelf packing: pictures sorted by height fill rows left to right, and a row as
+   * tall as its first picture is opened below when one is full.
+   *
+   * @param imageDir the directory of source PNGs
+   * @return the new atlas
+   * @throws IOException if a picture cannot be read or the atlas cannot be written
+   */
+  public static TextureAtlas build(Path imageDir) throws IOException {
+    List<Path> files = sources(imageDir);
+    List<String> names = new ArrayList<>();
+    List<BufferedImage> images = new ArrayList<>();
+    for (Path file : files) {
+      BufferedImage image = ImageIO.read(file.toFile());
+      if (image != null) {
+        names.add(file.getFileName().toString());
+        images.add(image);
+      }
+    }
+    Integer[] order = new Integer[images.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingInt((Integer i) -> -images.get(i).getHeight())
+            .thenComparing(names::get));
+
+    Map<String, Region> regions = new HashMap<>();
+    List<int[]> pageSizes = new ArrayList<>(); // used width/height per page
+    int page = -1;
+    int x = 0;
+    int y = 0;
+    int shelf = 0;
+    for (int i : order) {
+      BufferedImage image = images.get(i);
+      int w = image.getWidth() + PADDING;
+      int h = image.getHeight() + PADDING;
+      if (page >= 0 && x + w > PAGE_SIZE) {
+        x = 0;
+        y += shelf;
+        shelf = 0;
+      }
+      if (page < 0 || y + h > PAGE_SIZE) {
+        page++;
+        pageSizes.add(new int[2]);
+        x = 0;
+        y = 0;
+        shelf = 0;
+      }
+      regions.put(names.get(i), new Region(page, x, y, image.getWidth(), image.getHeight()));
+      int[] size = pageSizes.get(page);
+      size[0] = Math.max(size[0], x + w);
+      size[1] = Math.max(size[1], y + h);
+      x += w;
+      shelf = Math.max(shelf, h);
+    }
+
+    Path atlasDir = imageDir.resolve(ATLAS_DIR);
+    Files.createDirectories(atlasDir);
+    TextureAtlas atlas = new TextureAtlas(atlasDir, regions, pageSizes.size());
+    for (int p = 0; p < pageSizes.size(); p++) {
+      int[] size = pageSizes.get(p);
+      BufferedImage canvas = new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_ARGB);
+      Graphics2D g = canvas.createGraphics();
+      try {
+        for (int i = 0; i < images.size(); i++) {
+          Region r = regions.get(names.get(i));
+          if (r.page() == p) {
+            g.drawImage(images.get(i), r.x(), r.y(), null);
+          }
+        }
+      } finally {
+        g.dispose();
+      }
+      writePage(pageFile(atlasDir, p), canvas);
+      atlas.pages[p] = canvas;
+    }
+
+    try (BufferedWriter out = Files.newBufferedWriter(atlasDir.resolve(INDEX))) {
+      out.write(signature(files));
+      out.newLine();
+      for (String name : names) {
+        Region r = regions.get(name);
+        out.write(name + " " + r.page() + " " + r.x() + " " + r.y() + " " + r.width() + " " + r.height());
+        out.newLine();
+      }
+    }
+    return atlas;
+  }
+
+  /**
+   * Returns true if the atlas holds a picture.
+   *
+   * @param name file name of the picture (e.g. "foyer.png")
+   * @return true if packed
+   */
+  public boolean contains(String name) {
+    return regions.containsKey(name);
+  }
+
+  /**
+   * Returns a picture as a sub-image of its atlas page (sharing the page's pixels).
+   * Pages are decoded on first use.
+   *
+   * @param name file name of the picture
+   * @return the picture, or null if it is not in the atlas
+   * @throws IOException if the page cannot be read
+   */
+  public BufferedImage get(String name) throws IOException {
+    Region r = regions.get(name);
+    if (r == null) {
+      return null;
+    }
+    return page(r.page()).getSubimage(r.x(), r.y(), r.width(), r.height());
+  }
+
+  /**
+   * Returns the number of pictures packed.
+   *
+   * @return the picture count
+   */
+  public int size() {
+    return regions.size();
+  }
+
+  /**
+   * Returns the number of atlas pages.
+   *
+   * @return the page count
+   */
+  public int pageCount() {
+    return pages.length;
+  }
+
+  private synchronized BufferedImage page(int number) throws IOException {
+    if (pages[number] == null) {
+      pages[number] = readPage(pageFile(atlasDir, number));
+    }
+    return pages[number];
+  }
+
+  /**
+   * Writes a page as a 12-byte header (magic, width, height) followed by ARGB ints.
+   */
+  private static void writePage(Path file, BufferedImage canvas) throws IOException {
+    int[] pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + pixels.length * 4);
+    buffer.putInt(PAGE_MAGIC).putInt(canvas.getWidth()).putInt(canvas.getHeight());
+    buffer.asIntBuffer().put(pixels);
+    buffer.position(0);
+    try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        out.write(buffer);
+      }
+    }
+  }
+
+  private static BufferedImage readPage(Path file) throws IOException {
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+      if (map.remaining() < HEADER_BYTES || map.getInt() != PAGE_MAGIC) {
+        throw new IOException("Corrupt atlas page " + file);
+      }
+      int width = map.getInt();
+      int height = map.getInt();
+      if ((long) width * height * 4 != map.remaining()) {
+        throw new IOException("Truncated atlas page " + file);
+      }
+      BufferedImage page = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      map.asIntBuffer().get(((DataBufferInt) page.getRaster().getDataBuffer()).getData());
+      return page;
+    }
+  }
+
+  private static TextureAtlas read(Path atlasDir, List<String> lines) throws IOException {
+    Map<String, Region> regions = new HashMap<>();
+    int pageCount = 0;
+    for (String line : lines.subList(1, lines.size())) {
+      String[] f = line.split(" ");
+      if (f.length != 6) {
+        throw new IOException("Corrupt atlas index line: " + line);
+      }
+      Region r = new Region(Integer.parseInt(f[1]), Integer.parseInt(f[2]), Integer.parseInt(f[3]),
+              Integer.parseInt(f[4]), Integer.parseInt(f[5]));
+      regions.put(f[0], r);
+      pageCount = Math.max(pageCount, r.page() + 1);
+    }
+    for (int p = 0; p < pageCount; p++) {
+      if (!Files.exists(pageFile(atlasDir, p))) {
+        throw new IOException("Missing atlas page " + p);
+      }
+    }
+    return new TextureAtlas(atlasDir, regions, pageCount);
+  }
+
+  private static Path pageFile(Path atlasDir, int page) {
+    return atlasDir.resolve("atlas-" + page + ".argb");
+  }
+
+  /**
+   * Lists the source PNGs (file names without spaces, so the index stays splittable).
+   */
+  private static List<Path> sources(Path imageDir) throws IOException {
+    try (Stream<Path> files = Files.list(imageDir)) {
+      return files.filter(p -> {
+        String name = p.getFileName().toString();
+        return name.endsWith(".png") && !name.contains(" ") && Files.isRegularFile(p);
+      }).sorted().toList();
+    }
+  }
+
+  private static String signature(List<Path> files) throws IOException {
+    long bytes = 0;
+    long newest = 0;
+    for (Path file : files) {
+      bytes += Files.size(file);
+      newest = Math.max(newest, Files.getLastModifiedTime(file).toMillis());
+    }
+    return "# source " + files.size() + " " + bytes + " " + newest;
+  }
+
+  /**
+   * Returns the atlas entry name for a path inside the atlas's source directory.
+   *
+   * @param path a picture path such as "resources/images/foyer.png"
+   * @return the file name if the picture lives in {@link #IMAGE_DIR}, otherwise null
+   */
+  public static String entryName(String path) {
+    File file = new File(path);
+    File parent = file.getParentFile();
+    return parent != null && parent.toPath().normalize().equals(Paths.get(IMAGE_DIR).normalize())
+            ? file.getName() : null;
+  }
+}
@@ -0,0 +1,36 @@
+package view.sink;
+
+import java.io.PrintStream;
+
+/**
+ * Interactive sink: every write goes straight to the stream and each command
+ * boundary flushes it, so prompts are visible before input is read.
+ */
+public class AutoFlushSink implements OutputSink {
+
+  private final PrintStream out;
+
+  /**
+   * Creates a sink over a stream (typically System.out).
+   *
+   * @param out the stream
+   */
+  public AutoFlushSink(PrintStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void write(CharSequence text) {
+    out.append(text);
+  }
+
+  @Override
+  public void flush() {
+    out.flush();
+  }
+
+  @Override
+  public void close() {
+    out.flush(); // never close System.out
+  }
+}
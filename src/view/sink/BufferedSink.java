@@ -0,0 +1,71 @@
+package view.sink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Bulk sink: text accumulates in memory and is handed to the writer in large chunks.
+ * Command boundaries only move the buffer into the writer once it is large; the writer
+ * itself is flushed once, on {@link #close()}.
+ */
+public class BufferedSink implements OutputSink {
+
+  private static final int DEFAULT_CAPACITY = 64 * 1024;
+
+  private final Writer out;
+  private final StringBuilder buffer;
+  private final int capacity;
+
+  /**
+   * Creates a sink over a writer with the default buffer size.
+   *
+   * @param out the writer
+   */
+  public BufferedSink(Writer out) {
+    this(out, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a sink over a writer.
+   *
+   * @param out      the writer
+   * @param capacity buffered chars before a boundary drains the buffer
+   */
+  public BufferedSink(Writer out, int capacity) {
+    this.out = out;
+    this.capacity = capacity;
+    this.buffer = new StringBuilder(capacity);
+  }
+
+  @Override
+  public void write(CharSequence text) {
+    buffer.append(text);
+  }
+
+  @Override
+  public void flush() {
+    if (buffer.length() >= capacity) {
+      drain();
+    }
+  }
+
+  @Override
+  public void close() {
+    drain();
+    try {
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void drain() {
+    try {
+      out.append(buffer);
+      buffer.setLength(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
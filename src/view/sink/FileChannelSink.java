@@ -0,0 +1,89 @@
+package view.sink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File sink: text is encoded as UTF-8 straight into a direct buffer and written to a
+ * {@link FileChannel} only when the buffer fills up or the sink is closed.
+ */
+public class FileChannelSink implements OutputSink {
+
+  private static final int DEFAULT_CAPACITY = 256 * 1024;
+
+  private final FileChannel channel;
+  private final ByteBuffer bytes;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+  /**
+   * Opens (truncating) a file for output.
+   *
+   * @param path the output file
+   * @return the sink
+   * @throws IOException if the file cannot be opened
+   */
+  public static FileChannelSink open(Path path) throws IOException {
+    return new FileChannelSink(FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a sink over an open channel.
+   *
+   * @param channel  the channel
+   * @param capacity buffer size in bytes
+   */
+  public FileChannelSink(FileChannel channel, int capacity) {
+    this.channel = channel;
+    this.bytes = ByteBuffer.allocateDirect(capacity);
+  }
+
+  @Override
+  public void write(CharSequence text) {
+    CharBuffer chars = CharBuffer.wrap(text != null ? text : "null");
+    while (true) {
+      CoderResult result = encoder.encode(chars, bytes, false);
+      if (!result.isOverflow()) {
+        break;
+      }
+      drain();
+    }
+  }
+
+  @Override
+  public void flush() {
+    if (bytes.position() > bytes.capacity() / 2) {
+      drain();
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      drain();
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void drain() {
+    try {
+      bytes.flip();
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+      bytes.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
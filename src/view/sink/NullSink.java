@@ -0,0 +1,32 @@
+package view.sink;
+
+/**
+ * Discards everything written to it, so a view's rendering cost can be measured
+ * without any output cost.
+ */
+public class NullSink implements OutputSink {
+
+  private long chars;
+
+  @Override
+  public void write(CharSequence text) {
+    chars += text.length();
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public void close() {
+  }
+
+  /**
+   * Returns the number of characters discarded so far.
+   *
+   * @return the character count
+   */
+  public long getDiscarded() {
+    return chars;
+  }
+}
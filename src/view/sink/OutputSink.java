@@ -0,0 +1,45 @@
+package view.sink;
+
+/**
+ * Destination for text produced by a view.
+ * Views write through a sink instead of a stream, so the same view can print to an
+ * interactive console, a buffered writer or a file channel. {@link #flush()} is called at
+ * command boundaries; each implementation decides what a boundary costs.
+ */
+public interface OutputSink extends AutoCloseable {
+
+  /**
+   * Appends text.
+   *
+   * @param text the text
+   */
+  void write(CharSequence text);
+
+  /**
+   * Appends a line separator.
+   */
+  default void newLine() {
+    write(System.lineSeparator());
+  }
+
+  /**
+   * Appends text followed by a line separator.
+   *
+   * @param text the text
+   */
+  default void writeLine(CharSequence text) {
+    write(text);
+    newLine();
+  }
+
+  /**
+   * Marks a command boundary, pushing buffered output as the implementation sees fit.
+   */
+  void flush();
+
+  /**
+   * Writes out everything still buffered and releases the destination.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,72 @@
+package view.sink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sink for a network client: text is buffered and sent in one write at each command
+ * boundary, so a turn costs one socket write instead of one per line.
+ * Lines end with "\r\n" as line protocols expect. A failed write (client gone) marks the
+ * sink broken and discards further output instead of failing the game.
+ */
+public class SocketSink implements OutputSink {
+
+  private static final int DEFAULT_CAPACITY = 8 * 1024;
+
+  private final OutputStream out;
+  private final StringBuilder buffer;
+  private volatile boolean broken;
+
+  /**
+   * Creates a sink over a socket stream.
+   * @param out the socket output stream
+   */
+  public SocketSink(OutputStream out) {
+    this.out = out;
+    this.buffer = new StringBuilder(DEFAULT_CAPACITY);
+  }
+
+  @Override
+  public void write(CharSequence text) {
+    if (!broken) {
+      buffer.append(text);
+    }
+  }
+
+  @Override
+  public void newLine() {
+    write("\r\n");
+  }
+
+  /**
+   * Sends everything buffered since the last flush.
+   */
+  @Override
+  public void flush() {
+    if (broken || buffer.length() == 0) {
+      return;
+    }
+    try {
+      out.write(buffer.toString().getBytes(StandardCharsets.UTF_8));
+      out.flush();
+    } catch (IOException e) {
+      broken = true;
+    } finally {
+      buffer.setLength(0);
+    }
+  }
+
+  @Override
+  public void close() {
+    flush();
+  }
+
+  /**
+   * Returns true once a write to the client has failed.
+   * @return true if the client is gone
+   */
+  public boolean isBroken() {
+    return broken;
+  }
+}
@@ -0,0 +1,140 @@
+package controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.metrics.LatencyHistogram;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that commands run one at a time on the game thread, in submission order.
+ */
+public class GameExecutorTest {
+
+  private GameExecutor executor;
+
+  /**
+   * Starts a fresh game thread.
+   */
+  @BeforeEach
+  public void setUp() {
+    executor = new GameExecutor();
+  }
+
+  /**
+   * Stops the game thread.
+   */
+  @AfterEach
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  /**
+   * Commands run in the order they were queued, all on the game thread.
+   */
+  @Test
+  public void testSubmissionOrder() throws InterruptedException {
+    List<Integer> ran = new ArrayList<>();
+    List<Boolean> onGameThread = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      int n = i;
+      executor.execute(() -> {
+        ran.add(n);
+        onGameThread.add(executor.isGameThread());
+      });
+    }
+    drain();
+
+    assertEquals(1_000, ran.size());
+    for (int i = 0; i < ran.size(); i++) {
+      assertEquals(i, (int) ran.get(i));
+    }
+    assertFalse(onGameThread.contains(false));
+    assertFalse(executor.isGameThread());
+  }
+
+  /**
+   * A failing command is reported, and the commands queued after it still run;
+   * a timed command is recorded even when it fails.
+   */
+  @Test
+  public void testFailureDoesNotStopLaterCommands() throws InterruptedException {
+    LatencyHistogram timer = new LatencyHistogram();
+    List<String> ran = new ArrayList<>();
+    executor.execute(() -> ran.add("before"));
+    executor.execute(timer, () -> {
+      throw new IllegalStateException("expected by the test");
+    });
+    executor.execute(timer, () -> ran.add("after"));
+    drain();
+
+    assertEquals(List.of("before", "after"), ran);
+    assertEquals(2, timer.getCount());
+  }
+
+  /**
+   * View updates posted from the game thread run on the EDT in posting order.
+   */
+  @Test
+  public void testUiUpdatesKeepOrder() throws InterruptedException {
+    List<Integer> shown = new ArrayList<>();
+    List<Boolean> onEdt = new ArrayList<>();
+    CountDownLatch done = new CountDownLatch(1);
+    executor.execute(() -> {
+      for (int i = 0; i < 100; i++) {
+        int n = i;
+        GameExecutor.onUi(() -> {
+          shown.add(n);
+          onEdt.add(SwingUtilities.isEventDispatchThread());
+        });
+      }
+      GameExecutor.onUi(done::countDown);
+    });
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+
+    assertEquals(100, shown.size());
+    for (int i = 0; i < shown.size(); i++) {
+      assertEquals(i, (int) shown.get(i));
+    }
+    assertFalse(onEdt.contains(false));
+  }
+
+  /**
+   * Shutting down lets queued commands finish but refuses new ones.
+   */
+  @Test
+  public void testShutdownRunsQueuedCommands() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch last = new CountDownLatch(1);
+    executor.execute(() -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    executor.execute(last::countDown);
+    executor.shutdown();
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+
+    release.countDown();
+    assertTrue(last.await(10, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Waits until everything queued so far has run.
+   */
+  private void drain() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    executor.execute(done::countDown);
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+  }
+}
@@ -4,12 +4,17 @@ import controller.SwingController;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import model.IModel;
 import model.core.HealthStatus;
 import model.core.Player;
 import model.core.PlayerRank;
 import model.core.Room;
 import model.elements.Item;
+import model.events.ModelEvent;
+import model.events.PlayerState;
+import model.rules.Resolution;
+import model.rules.Trigger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import view.SwingView;
@@ -135,6 +140,11 @@ public class SwingControllerTest {
       return true;
     }
 
+    @Override
+    public Resolution resolve(Trigger trigger, String input) {
+      return null;
+    }
+
     @Override
     public boolean saveGame(String filePath) {
       return true;
@@ -145,11 +155,40 @@ public class SwingControllerTest {
       return true;
     }
 
+    @Override
+    public boolean saveGame(int slotId) {
+      return true;
+    }
+
+    @Override
+    public boolean loadGame(int slotId) {
+      return true;
+    }
+
+    @Override
+    public void commitTurn() {
+    }
+
+    @Override
+    public boolean undo() {
+      return false;
+    }
+
+    @Override
+    public boolean redo() {
+      return false;
+    }
+
     @Override
     public Room getCurrentRoom() {
       return currentRoom;
     }
 
+    @Override
+    public Room getRoom(int roomNumber) {
+      return currentRoom.getRoomNumber() == roomNumber ? currentRoom : null;
+    }
+
     public void setCurrentRoom(Room room) {
       this.currentRoom = room;
     }
@@ -183,6 +222,19 @@ public class SwingControllerTest {
     public PlayerRank getPlayerRank() {
       return PlayerRank.NOVICE;
     }
+
+    @Override
+    public PlayerState getPlayerState() {
+      return null;
+    }
+
+    @Override
+    public void subscribe(Consumer<List<ModelEvent>> subscriber) {
+    }
+
+    @Override
+    public void postMessage(String message) {
+    }
   }
 
   // 手动实现 SwingView 的模拟类
@@ -0,0 +1,56 @@
+package controller.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that CommandParser splits input exactly like the old
+ * {@code trim().split(" ", 2)} parsing, and resolves verbs and their aliases.
+ */
+public class CommandParserTest {
+
+  private final CommandParser parser = new CommandParser();
+
+  private static final String[] LINES = {
+      "N", "n", "  n  ", "T Rusty Key", "t  two  spaces ", "A \"quoted answer\"",
+      "U", "X thing", "LOOK", "look", "L", "north", "Take lamp", "SAVE slot:2",
+      "", "   ", "\tI\t", "gibberish words here", "ñ", "Q"
+  };
+
+  /**
+   * Verb text and argument match the old trim/split on every sample line.
+   */
+  @Test
+  public void testMatchesTrimSplit() {
+    for (String line : LINES) {
+      String[] parts = line.trim().split(" ", 2);
+      ParsedCommand c = parser.parse(line);
+      assertEquals(parts[0].toUpperCase(), c.verbText(), "verb of '" + line + "'");
+      assertEquals(parts.length > 1 ? parts[1] : null, c.arg(), "argument of '" + line + "'");
+    }
+  }
+
+  /**
+   * Short and long spellings resolve to the same verb, in any case.
+   */
+  @Test
+  public void testAliases() {
+    assertEquals(Verb.NORTH, parser.parse("n").verb());
+    assertEquals(Verb.NORTH, parser.parse("North").verb());
+    assertEquals(Verb.TAKE, parser.parse("take lamp").verb());
+    assertEquals(Verb.LOOK, parser.parse("look").verb());
+    assertEquals("N", Verb.NORTH.key());
+  }
+
+  /**
+   * Words that are not verbs are unknown, including the unsupported "L".
+   */
+  @Test
+  public void testUnknown() {
+    assertEquals(Verb.UNKNOWN, parser.parse("L").verb());
+    assertEquals(Verb.UNKNOWN, parser.parse("").verb());
+    assertEquals(Verb.UNKNOWN, parser.parse("NORTHWARD").verb());
+    assertEquals(Verb.UNKNOWN, parser.parse("NORT").verb());
+  }
+}
@@ -0,0 +1,102 @@
+package controller.command;
+
+import controller.MockView;
+import controller.TextController;
+import model.GameModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for splitting pipelined lines and expanding macros.
+ */
+public class PipelineTest {
+
+  private final Pipeline pipeline = new Pipeline();
+
+  private static Pipeline.Stage run(String command) {
+    return new Pipeline.Stage(command, false);
+  }
+
+  private static Pipeline.Stage then(String command) {
+    return new Pipeline.Stage(command, true);
+  }
+
+  /**
+   * Only lines that chain commands, call a macro or define one are pipelines.
+   */
+  @Test
+  public void testIsPipeline() {
+    assertTrue(Pipeline.isPipeline("N; S"));
+    assertTrue(Pipeline.isPipeline("N;S"));
+    assertTrue(Pipeline.isPipeline("T Lamp && E"));
+    assertTrue(Pipeline.isPipeline("@walk"));
+    assertTrue(Pipeline.isPipeline("N; @walk"));
+    assertTrue(Pipeline.isPipeline("def walk N; N"));
+
+    assertFalse(Pipeline.isPipeline("N"));
+    assertFalse(Pipeline.isPipeline("A foo;bar"));
+    assertFalse(Pipeline.isPipeline("A 'this; that'"));
+    assertFalse(Pipeline.isPipeline("T rope@hook"));
+    assertFalse(Pipeline.isPipeline("A salt && pepper"));
+    assertFalse(Pipeline.isPipeline("DEFEND"));
+  }
+
+  /**
+   * Commands are split at separators, keeping what each one's connector requires.
+   */
+  @Test
+  public void testSplitting() {
+    assertEquals(List.of(run("N"), run("T Lamp"), then("E")), pipeline.expand("N; T Lamp && E"));
+    assertEquals(List.of(run("N"), run("S")), pipeline.expand("  N;S  "));
+    assertEquals(List.of(run("A foo;bar"), then("N")), pipeline.expand("A foo;bar && N"));
+    assertEquals(List.of(run("T rope@hook"), run("I")), pipeline.expand("T rope@hook; I"));
+  }
+
+  /**
+   * A macro expands in place; its first command takes the connector of the call.
+   */
+  @Test
+  public void testMacroExpansion() {
+    assertEquals("loot", pipeline.define("DEF loot T Lamp && T Key"));
+    assertEquals("walk", pipeline.define("def @Walk N; @loot"));
+
+    assertEquals(List.of(run("N"), run("T Lamp"), then("T Key"), run("I")), pipeline.expand("@walk; I"));
+    assertEquals(List.of(run("S"), then("T Lamp"), then("T Key")), pipeline.expand("S && @LOOT"));
+  }
+
+  /**
+   * Unknown macros and recursive definitions are rejected instead of looping.
+   */
+  @Test
+  public void testMacroErrors() {
+    assertThrows(IllegalArgumentException.class, () -> pipeline.expand("@missing"));
+    assertThrows(IllegalArgumentException.class, () -> pipeline.define("DEF lonely"));
+
+    pipeline.define("DEF loop N; @loop");
+    assertThrows(IllegalArgumentException.class, () -> pipeline.expand("@loop"));
+
+    pipeline.define("DEF ping @pong");
+    pipeline.define("DEF pong @ping");
+    assertThrows(IllegalArgumentException.class, () -> pipeline.expand("@ping"));
+  }
+
+  /**
+   * A command after && is skipped when the one before it failed; one after ; still runs.
+   */
+  @Test
+  public void testShortCircuit() throws Exception {
+    GameModel model = new GameModel();
+    model.generateWorld("resources/maps/Simple_Hallway.json");
+    model.initializePlayer("Tester");
+    MockView view = new MockView();
+    TextController controller = new TextController(model, view, new StringReader("T Nothing && N; I\nQ\n"));
+    controller.startGame();
+
+    assertTrue(view.getMessages().contains("Results: 1=FAILED 2=SKIPPED 3=OK"));
+    assertEquals(1, model.getCurrentRoom().getRoomNumber());
+  }
+}
@@ -0,0 +1,73 @@
+package enginedriver.bench;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for saving benchmark baselines and flagging regressions against them.
+ */
+public class BenchmarkBaselineTest {
+
+  private static final List<Microbench.Result> BASE = List.of(
+          new Microbench.Result("room.getItem", "items=16", 1_000_000, 10_000, 0),
+          new Microbench.Result("view.renderGame", "items=16", 200_000, 5_000, 800));
+
+  // Keeps the allocating benchmark's arrays reachable so the JIT cannot elide them
+  private static Object escape;
+
+  /**
+   * A written baseline reads back with the same results.
+   */
+  @Test
+  public void testWriteAndRead() throws Exception {
+    Path file = Files.createTempFile("baseline", ".json");
+    try {
+      new BenchmarkBaseline(BASE).write(file);
+      assertEquals(BASE, BenchmarkBaseline.read(file).getResults());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Only results slower than the tolerance, or allocating more than the slack, regress.
+   */
+  @Test
+  public void testCompareFlagsRegressions() {
+    List<Microbench.Result> current = List.of(
+            new Microbench.Result("room.getItem", "items=16", 950_000, 10_000, 0),
+            new Microbench.Result("view.renderGame", "items=16", 210_000, 5_000, 900),
+            new Microbench.Result("player.pickItem", "inventory=16", 50_000, 1_000, 2_000));
+    PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+    List<Microbench.Result> regressions = new BenchmarkBaseline(BASE).compare(current, 0.10, out);
+    assertEquals(List.of(current.get(1)), regressions);
+
+    regressions = new BenchmarkBaseline(BASE).compare(current, 0.01, out);
+    assertEquals(List.of(current.get(0), current.get(1)), regressions);
+  }
+
+  /**
+   * The runner reports a positive throughput and counts allocation per operation.
+   */
+  @Test
+  public void testMicrobenchMeasures() {
+    Microbench bench = new Microbench(20, 20, 2);
+    Microbench.Result idle = bench.run("idle", "", () -> 1);
+    Microbench.Result allocating = bench.run("alloc", "", () -> {
+      long[] array = new long[8];
+      escape = array;
+      return array.length;
+    });
+    assertTrue(idle.opsPerSecond() > 0);
+    assertTrue(allocating.bytesPerOp() < 0 || allocating.bytesPerOp() >= 64,
+            "allocated " + allocating.bytesPerOp() + " bytes per op");
+  }
+}
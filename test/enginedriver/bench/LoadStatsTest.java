@@ -0,0 +1,80 @@
+package enginedriver.bench;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import model.GameModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the load-test statistics and a short bot run against a generated map.
+ */
+public class LoadStatsTest {
+
+  /**
+   * Commands land in the interval sample and in the totals written to JSON and CSV.
+   */
+  @Test
+  public void testSampleAndReports() throws Exception {
+    LoadStats stats = new LoadStats();
+    stats.record(BotAction.MOVE, 1_000_000, true);
+    stats.record(BotAction.MOVE, 3_000_000, true);
+    stats.record(BotAction.TAKE, 2_000_000, false);
+
+    LoadStats.Sample first = stats.sample();
+    assertEquals(3, first.commands());
+    assertTrue(first.heapUsed() > 0);
+    assertEquals(0, stats.sample().commands(), "a new interval starts empty");
+
+    Path dir = Files.createTempDirectory("loadstats");
+    Path csv = dir.resolve("timeseries.csv");
+    Path json = dir.resolve("summary.json");
+    try {
+      stats.writeCsv(csv);
+      List<String> lines = Files.readAllLines(csv);
+      assertEquals(3, lines.size());
+      assertTrue(lines.get(0).startsWith("seconds,bots,commands"));
+
+      stats.writeJson(json, Map.of("bots", 1, "mode", "model"), 1.0);
+      try (Reader in = Files.newBufferedReader(json)) {
+        JsonObject summary = JsonParser.parseReader(in).getAsJsonObject();
+        assertEquals(3, summary.get("commands").getAsLong());
+        assertEquals(1, summary.get("failures").getAsLong());
+        assertEquals("model", summary.getAsJsonObject("config").get("mode").getAsString());
+        JsonObject byAction = summary.getAsJsonObject("latencyMillisByAction");
+        assertEquals(2, byAction.getAsJsonObject("move").get("count").getAsLong());
+        assertFalse(byAction.has("save"), "actions never issued are left out");
+      }
+    } finally {
+      Files.deleteIfExists(csv);
+      Files.deleteIfExists(json);
+      Files.deleteIfExists(dir);
+    }
+  }
+
+  /**
+   * A model bot plays until its deadline, recording every command it issues.
+   */
+  @Test
+  public void testModelBotRecordsCommands() {
+    GameModel model = new GameModel();
+    model.generateWorld(SyntheticMaps.generate(16, 2, true));
+    model.initializePlayer("bot");
+    LoadStats stats = new LoadStats();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+
+    new ModelBot(model, stats, deadline, 0, 0, 0, 42).run();
+
+    assertTrue(stats.getAll().getCount() > 0);
+    assertTrue(stats.getFailures() < stats.getAll().getCount(), "walks follow real exits");
+    assertEquals(0, stats.sample().bots(), "the bot has stopped");
+  }
+}
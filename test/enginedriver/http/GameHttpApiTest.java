@@ -0,0 +1,173 @@
+package enginedriver.http;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the HTTP facade on a loopback port with the JDK's HTTP client.
+ */
+public class GameHttpApiTest {
+
+  private static final String MAP = "resources/maps/Simple_Hallway.json";
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private GameHttpApi api;
+  private String base;
+
+  @AfterEach
+  public void tearDown() {
+    if (api != null) {
+      api.stop(0);
+    }
+  }
+
+  /**
+   * Requests without a valid bearer token are refused.
+   */
+  @Test
+  public void testUnauthorized() throws Exception {
+    start(10);
+    assertEquals(401, request("GET", "room", null, null).statusCode());
+    assertEquals(401, request("GET", "room", "not-a-token", null).statusCode());
+    assertEquals(201, create("Player").statusCode());
+    assertEquals(401, request("GET", "status", null, null).statusCode());
+  }
+
+  /**
+   * Unknown routes, unsupported methods and bad bodies get 404, 405 and 400.
+   */
+  @Test
+  public void testRouteErrors() throws Exception {
+    start(10);
+    String token = token(create("Router"));
+    assertEquals(404, request("GET", "nowhere", token, null).statusCode());
+    assertEquals(404, request("POST", "fly", token, "{}").statusCode());
+    assertEquals(405, request("PUT", "room", token, "{}").statusCode());
+    assertEquals(400, request("POST", "move", token, "[1, 2]").statusCode());
+    assertEquals(400, request("POST", "move", token, "{}").statusCode());
+    assertEquals(400, request("POST", "save", token, "{\"slot\": \"one\"}").statusCode());
+    assertEquals(400, request("POST", "save", token, "{\"slot\": 9}").statusCode());
+  }
+
+  /**
+   * An unchanged room answers If-None-Match with 304; a move gives a new ETag.
+   */
+  @Test
+  public void testRoomEtag() throws Exception {
+    start(10);
+    String token = token(create("Watcher"));
+    HttpResponse<String> first = request("GET", "room", token, null);
+    assertEquals(200, first.statusCode());
+    String etag = first.headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> again = send(authorized("room", token).header("If-None-Match", etag).GET());
+    assertEquals(304, again.statusCode());
+    assertEquals("", again.body());
+
+    assertTrue(json(request("POST", "move", token, "{\"direction\": \"n\"}")).get("ok").getAsBoolean());
+    HttpResponse<String> moved = send(authorized("room", token).header("If-None-Match", etag).GET());
+    assertEquals(200, moved.statusCode());
+    assertNotEquals(etag, moved.headers().firstValue("ETag").orElseThrow());
+  }
+
+  /**
+   * Save slots belong to their session: another client's slot 1 is empty.
+   */
+  @Test
+  public void testSaveSlotsPrivate() throws Exception {
+    start(10);
+    String alice = token(create("Alice"));
+    String bob = token(create("Bob"));
+
+    assertTrue(json(request("POST", "save", alice, "{\"slot\": 1}")).get("ok").getAsBoolean());
+    assertFalse(json(request("POST", "load", bob, "{\"slot\": 1}")).get("ok").getAsBoolean());
+
+    request("POST", "move", alice, "{\"direction\": \"N\"}");
+    JsonObject loaded = json(request("POST", "load", alice, "{\"slot\": 1}"));
+    assertTrue(loaded.get("ok").getAsBoolean());
+    assertEquals("1", loaded.getAsJsonObject("status").get("room").getAsString());
+  }
+
+  /**
+   * A notice raised by a command comes back in that command's events.
+   */
+  @Test
+  public void testNoticeInOutcome() throws Exception {
+    start(10);
+    String token = token(create("Solver"));
+    request("POST", "move", token, "{\"direction\": \"N\"}");
+    JsonObject solved = json(request("POST", "answer", token, "{\"answer\": \"Key\"}"));
+    assertTrue(solved.get("ok").getAsBoolean());
+    JsonArray events = solved.getAsJsonArray("events");
+    assertEquals("Unblocked exit N to room 3", events.get(0).getAsString());
+  }
+
+  /**
+   * Concurrent creates never open more sessions than the limit.
+   */
+  @Test
+  public void testSessionLimit() throws Exception {
+    start(3);
+    List<CompletableFuture<HttpResponse<String>>> creates = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      creates.add(client.sendAsync(HttpRequest.newBuilder(URI.create(base + "sessions"))
+              .POST(HttpRequest.BodyPublishers.ofString("{}")).build(), HttpResponse.BodyHandlers.ofString()));
+    }
+    int created = 0;
+    for (CompletableFuture<HttpResponse<String>> create : creates) {
+      int status = create.join().statusCode();
+      assertTrue(status == 201 || status == 503, "unexpected status " + status);
+      created += status == 201 ? 1 : 0;
+    }
+    assertEquals(3, created);
+    assertEquals(3, api.getSessionCount());
+  }
+
+  private void start(int maxSessions) throws Exception {
+    api = new GameHttpApi(MAP, 0, 60, 8, maxSessions);
+    base = "http://127.0.0.1:" + api.start() + "/api/";
+  }
+
+  private HttpResponse<String> create(String name) throws Exception {
+    return request("POST", "sessions", null, "{\"name\": \"" + name + "\"}");
+  }
+
+  private static String token(HttpResponse<String> created) {
+    assertEquals(201, created.statusCode());
+    return json(created).get("token").getAsString();
+  }
+
+  private HttpResponse<String> request(String method, String route, String token, String body) throws Exception {
+    HttpRequest.Builder builder = token == null
+            ? HttpRequest.newBuilder(URI.create(base + route))
+            : authorized(route, token);
+    return send(builder.method(method, body == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(body)));
+  }
+
+  private HttpRequest.Builder authorized(String route, String token) {
+    return HttpRequest.newBuilder(URI.create(base + route)).header("Authorization", "Bearer " + token);
+  }
+
+  private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+    return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static JsonObject json(HttpResponse<String> response) {
+    return JsonParser.parseString(response.body()).getAsJsonObject();
+  }
+}
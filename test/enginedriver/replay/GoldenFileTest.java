@@ -0,0 +1,75 @@
+package enginedriver.replay;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests writing golden files and locating the first divergence in them.
+ */
+public class GoldenFileTest {
+
+  private Path golden;
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    if (golden != null) {
+      Files.deleteIfExists(golden);
+    }
+  }
+
+  private static ReplayResult result(String... segments) {
+    return new ReplayResult(false, List.of("N", "T Lamp"), List.of(segments), "room=2\n", 0);
+  }
+
+  /**
+   * A replay matches the golden file written from it.
+   */
+  @Test
+  public void testRoundTrip() throws IOException {
+    golden = Files.createTempFile("golden", ".golden");
+    ReplayResult recorded = result("Welcome\n", "You move North\n\n", "You took: Lamp");
+    GoldenFile.write(golden, recorded);
+    assertNull(GoldenFile.compare(golden, recorded));
+  }
+
+  /**
+   * A difference is reported at the command whose output differs.
+   */
+  @Test
+  public void testDivergenceNamesTheCommand() throws IOException {
+    golden = Files.createTempFile("golden", ".golden");
+    GoldenFile.write(golden, result("Welcome\n", "You move North\n", "You took: Lamp\n"));
+
+    GoldenFile.Divergence d = GoldenFile.compare(golden, result("Welcome\n", "You move North\n", "No lamp here\n"));
+    assertEquals(2, d.command());
+    assertEquals("T Lamp", d.input());
+    assertEquals("You took: Lamp", d.expected());
+    assertEquals("No lamp here", d.actual());
+
+    d = GoldenFile.compare(golden, new ReplayResult(false, List.of("N", "T Lamp"),
+            List.of("Welcome\n", "You move North\n", "You took: Lamp\n"), "room=3\n", 0));
+    assertEquals(-1, d.command());
+  }
+
+  /**
+   * Game output that looks like a segment marker does not confuse the comparison.
+   */
+  @Test
+  public void testOutputLookingLikeAMarker() throws IOException {
+    golden = Files.createTempFile("golden", ".golden");
+    GoldenFile.write(golden, result("### 7 fake\n", "### not a number\nYou move North\n", "x\n"));
+
+    assertNull(GoldenFile.compare(golden, result("### 7 fake\n", "### not a number\nYou move North\n", "x\n")));
+    GoldenFile.Divergence d = GoldenFile.compare(golden,
+            result("### 7 fake\n", "### not a number\nYou can't move\n", "x\n"));
+    assertEquals(1, d.command());
+    assertEquals("N", d.input());
+  }
+}
@@ -0,0 +1,67 @@
+package enginedriver.replay;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays the recorded session of every shipped map against its golden transcript.
+ * A session "resources/replay/&lt;map&gt;.session" is played on "resources/maps/&lt;map&gt;.json".
+ * After an intended change in game output, rewrite the golden files with
+ * {@code -replay resources/replay/<map>.session -update}.
+ */
+public class ReplayEngineTest {
+
+  private static final Path SESSIONS = Paths.get("resources/replay");
+  private static final Path MAPS = Paths.get("resources/maps");
+
+  /**
+   * Every shipped map has a recorded session with a golden file.
+   */
+  @Test
+  public void testEveryMapHasASession() throws IOException {
+    try (Stream<Path> maps = Files.list(MAPS)) {
+      for (Path map : maps.filter(p -> p.toString().endsWith(".json")).toList()) {
+        String name = map.getFileName().toString().replace(".json", "");
+        assertTrue(Files.exists(SESSIONS.resolve(name + ".session")), "no session for " + name);
+        assertTrue(Files.exists(SESSIONS.resolve(name + ".golden")), "no golden file for " + name);
+      }
+    }
+  }
+
+  /**
+   * Each session replays exactly as recorded.
+   */
+  @Test
+  public void testSessionsMatchGoldenFiles() throws IOException {
+    List<Path> sessions;
+    try (Stream<Path> files = Files.list(SESSIONS)) {
+      sessions = files.filter(p -> p.toString().endsWith(".session")).sorted().toList();
+    }
+    assertFalse(sessions.isEmpty());
+    for (Path session : sessions) {
+      String name = session.getFileName().toString().replace(".session", "");
+      Path golden = SESSIONS.resolve(name + ".golden");
+      ReplayEngine engine = new ReplayEngine(MAPS.resolve(name + ".json"));
+      ReplayResult result = engine.replay(Session.read(session), GoldenFile.readRender(golden));
+      assertNull(GoldenFile.compare(golden, result), name);
+    }
+  }
+
+  /**
+   * A session recorded on another map is refused.
+   */
+  @Test
+  public void testSessionFromAnotherMapIsRefused() throws IOException {
+    ReplayEngine engine = new ReplayEngine(MAPS.resolve("Simple_Hallway.json"));
+    Session other = Session.read(SESSIONS.resolve("Empty_Rooms.session"));
+    assertThrows(IOException.class, () -> engine.replay(other, false));
+  }
+}
@@ -0,0 +1,197 @@
+package enginedriver.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the line-protocol server over loopback connections.
+ */
+public class GameServerTest {
+
+  private static final String MAP = "resources/maps/Simple_Hallway.json";
+  private static final String PROMPT = "Enter command";
+
+  private GameServer server;
+  private Thread acceptor;
+  private int port;
+
+  /**
+   * Stops the server and clears any server properties a test set.
+   */
+  @AfterEach
+  public void tearDown() throws InterruptedException {
+    System.clearProperty("halo.server.shared");
+    if (server != null) {
+      server.shutdown(2_000);
+      acceptor.join(2_000);
+    }
+  }
+
+  /**
+   * Shared mode starts with the default hibernation settings, and its players see each other's world.
+   */
+  @Test
+  public void testSharedServerStarts() throws IOException {
+    System.setProperty("halo.server.shared", "true");
+    start(GameServer.fromProperties(MAP, 0, 30));
+    assertNull(server.getHibernationStats(), "shared sessions are never hibernated");
+
+    try (Client first = connect("First"); Client second = connect("Second")) {
+      first.send("T Notebook");
+      first.readUntil(PROMPT);
+      second.send("LOOK");
+      assertFalse(second.readUntil(PROMPT).contains("Notebook"), "taken in the shared world");
+
+      first.send("Q");
+      assertTrue(first.readUntil("Session closed.").contains("Thanks for playing"));
+    }
+  }
+
+  /**
+   * A session reads one command per line, renders the result, and says goodbye on QUIT.
+   */
+  @Test
+  public void testLineProtocol() throws Exception {
+    start(new GameServer(MAP, 0, 30, 10));
+    try (Client client = connect("Walker")) {
+      client.send("N");
+      assertTrue(client.readUntil(PROMPT).contains("Hallway 2"));
+      client.send("Q");
+      String bye = client.readUntil("Session closed.");
+      assertTrue(bye.contains("Thanks for playing"));
+    }
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (server.getSessionsServed() < 1 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertEquals(1, server.getSessionsServed());
+  }
+
+  /**
+   * Network clients cannot make the server write save files.
+   */
+  @Test
+  public void testSaveRefused() throws IOException {
+    start(new GameServer(MAP, 0, 30, 10));
+    try (Client client = connect("Saver")) {
+      client.send("SAVE");
+      assertTrue(client.readUntil(PROMPT).contains("Saving is not available in this session."));
+    }
+  }
+
+  /**
+   * A session that sends nothing for the idle time is closed by the server.
+   */
+  @Test
+  public void testIdleTimeout() throws IOException {
+    start(new GameServer(MAP, 0, 1, 10));
+    try (Client client = connect("Sleeper")) {
+      client.readUntil("Session closed.");
+    }
+  }
+
+  /**
+   * Connections over the session limit are turned away.
+   */
+  @Test
+  public void testServerFull() throws IOException {
+    start(new GameServer(MAP, 0, 30, 1));
+    try (Client first = connect("First"); Client second = new Client(port)) {
+      second.readUntil("Server full");
+      first.send("LOOK");
+      first.readUntil(PROMPT);
+    }
+  }
+
+  /**
+   * Shutdown ends every session with a goodbye and stops accepting connections.
+   */
+  @Test
+  public void testShutdown() throws IOException {
+    start(new GameServer(MAP, 0, 30, 10));
+    try (Client client = connect("Stayer")) {
+      server.shutdown(2_000);
+      client.readUntil("Server shutting down.");
+    }
+    assertEquals(0, server.getActiveSessions());
+    assertThrows(IOException.class, () -> new Client(port).close());
+  }
+
+  private void start(GameServer configured) throws IOException {
+    server = configured;
+    port = server.bind();
+    acceptor = new Thread(() -> {
+      try {
+        server.serve();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }, "test-acceptor");
+    acceptor.start();
+  }
+
+
+  private Client connect(String name) throws IOException {
+    Client client = new Client(port);
+    client.readUntil("Enter your name:");
+    client.send(name);
+    client.readUntil(PROMPT);
+    return client;
+  }
+
+  /**
+   * A line-protocol client that reads the server's output up to an expected marker.
+   */
+  private static final class Client implements AutoCloseable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final PrintWriter out;
+
+    Client(int port) throws IOException {
+      socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      socket.setSoTimeout(10_000);
+      in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    void send(String line) {
+      out.print(line + "\r\n");
+      out.flush();
+    }
+
+    /**
+     * Returns everything read up to and including the first line containing the marker.
+     */
+    String readUntil(String marker) throws IOException {
+      StringBuilder text = new StringBuilder();
+      try {
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+          text.append(line).append('\n');
+          if (line.contains(marker)) {
+            return text.toString();
+          }
+        }
+      } catch (SocketTimeoutException e) {
+        fail("timed out waiting for '" + marker + "' after:\n" + text);
+      }
+      fail("connection closed before '" + marker + "' after:\n" + text);
+      return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+}
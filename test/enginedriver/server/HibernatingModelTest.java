@@ -0,0 +1,175 @@
+package enginedriver.server;
+
+import enginedriver.bench.SyntheticMaps;
+import model.events.ModelEvent;
+import model.events.PlayerState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a session is only hibernated while parked and wakes with its state intact,
+ * also when hibernation and commands race.
+ */
+public class HibernatingModelTest {
+
+  private SessionManager manager;
+  private HibernatingModel session;
+
+  /**
+   * Opens one session on a 3x3 map; no budget pressure and no idle sweeps during a test.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    manager = new SessionManager(SyntheticMaps.generate(9, 1, true), 4, 3600, Long.MAX_VALUE, 1000);
+    session = manager.open("Sleeper");
+  }
+
+  /**
+   * Deletes the session store.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    manager.close();
+  }
+
+  /**
+   * A session in the middle of a command is never hibernated.
+   */
+  @Test
+  public void testOnlyParkedSessionsHibernate() throws IOException {
+    assertFalse(session.hibernate());
+    assertFalse(session.isHibernated());
+
+    AtomicBoolean hibernated = new AtomicBoolean();
+    whileParked(() -> hibernated.set(session.hibernate()));
+    assertTrue(hibernated.get());
+    assertTrue(session.isHibernated());
+    assertFalse(session.hibernate(), "already on disk");
+  }
+
+  /**
+   * A hibernated session wakes on the next call with its player and world as they were,
+   * and its subscribers keep receiving events.
+   */
+  @Test
+  public void testWakeRestoresState() throws IOException {
+    List<List<ModelEvent>> batches = new ArrayList<>();
+    session.subscribe(batches::add);
+    assertTrue(session.pickItem("Item 1-0"));
+    assertTrue(session.movePlayer("E"));
+    session.commitTurn();
+    PlayerState before = session.getPlayerState();
+    AtomicInteger dropped = new AtomicInteger();
+    session.setOnHibernate(dropped::incrementAndGet);
+
+    whileParked(session::hibernate);
+    assertEquals(1, dropped.get());
+    assertEquals(before, session.getPlayerState());
+    assertFalse(session.isHibernated());
+    assertTrue(session.getRoom(1).getItems().isEmpty(), "the world woke too");
+    assertEquals(1, manager.stats().wakes());
+
+    int seen = batches.size();
+    assertTrue(session.movePlayer("W"));
+    session.commitTurn();
+    assertEquals(seen + 1, batches.size());
+  }
+
+  /**
+   * Callers racing to wake a hibernated session share one wake-up.
+   */
+  @Test
+  public void testConcurrentCallsWakeOnce() throws Exception {
+    PlayerState before = session.getPlayerState();
+    whileParked(session::hibernate);
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    List<PlayerState> states = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Thread t = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        PlayerState state = session.getPlayerState();
+        synchronized (states) {
+          states.add(state);
+        }
+      });
+      t.start();
+      threads.add(t);
+    }
+    start.countDown();
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    assertEquals(8, states.size());
+    for (PlayerState state : states) {
+      assertEquals(before, state);
+    }
+    assertEquals(1, manager.stats().wakes());
+  }
+
+  /**
+   * Commands interleaved with parks never lose state while another thread keeps trying
+   * to hibernate the session.
+   */
+  @Test
+  public void testHibernateRacesCommands() throws Exception {
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread sweeper = new Thread(() -> {
+      try {
+        while (!done.get()) {
+          session.hibernate();
+        }
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    sweeper.start();
+    try {
+      for (int i = 0; i < 200; i++) {
+        whileParked(Thread::yield);
+        assertTrue(session.pickItem("Item 1-0"), "pick " + i);
+        whileParked(Thread::yield);
+        assertTrue(session.dropItem("Item 1-0"), "drop " + i);
+      }
+    } finally {
+      done.set(true);
+      sweeper.join();
+    }
+
+    assertNull(failure.get());
+    assertTrue(session.getInventory().isEmpty());
+    assertEquals(1, session.getRoom(1).getItems().size());
+    SessionManager.Stats stats = manager.stats();
+    assertEquals(stats.hibernations(), stats.wakes() + (session.isHibernated() ? 1 : 0));
+  }
+
+  /**
+   * Runs an action while the session is parked, as if it were waiting for a line of input.
+   */
+  private void whileParked(Runnable action) throws IOException {
+    Readable input = buffer -> {
+      action.run();
+      return -1;
+    };
+    session.parkWhileReading(input).read(CharBuffer.allocate(16));
+  }
+}
@@ -0,0 +1,147 @@
+package enginedriver.server;
+
+import com.google.gson.JsonObject;
+import enginedriver.bench.SyntheticMaps;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for session slots, the resident budget and idle hibernation.
+ */
+public class SessionManagerTest {
+
+  private static final long FOOTPRINT = 1000;
+
+  private final JsonObject map = SyntheticMaps.generate(9, 1, true);
+  private SessionManager manager;
+
+  /**
+   * Deletes the session store of the test's manager.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    if (manager != null) {
+      manager.close();
+    }
+  }
+
+  /**
+   * Slots run out at the session limit and are reused once a session closes.
+   */
+  @Test
+  public void testSlots() throws IOException {
+    manager = new SessionManager(map, 2, 3600, Long.MAX_VALUE, FOOTPRINT);
+    HibernatingModel a = manager.open("A");
+    manager.open("B");
+    assertThrows(IOException.class, () -> manager.open("C"));
+    assertEquals(2, manager.stats().resident());
+
+    manager.close(a);
+    assertEquals(1, manager.stats().resident());
+    HibernatingModel c = manager.open("C");
+    assertEquals(a.getSlot(), c.getSlot());
+    assertEquals("C", c.getPlayer().getName());
+  }
+
+  /**
+   * Going over the budget hibernates the least recently used parked session first.
+   */
+  @Test
+  public void testBudgetHibernatesLeastRecentlyUsed() throws Exception {
+    manager = new SessionManager(map, 4, 3600, 2 * FOOTPRINT, FOOTPRINT);
+    HibernatingModel first = manager.open("First");
+    HibernatingModel second = manager.open("Second");
+    first.parkWhileReading(buffer -> -1).read(CharBuffer.allocate(16)); // first is now the most recent
+
+    CountDownLatch release = new CountDownLatch(1);
+    Thread parkedFirst = park(first, release);
+    Thread parkedSecond = park(second, release);
+    try {
+      manager.open("Third");
+      assertTrue(second.isHibernated());
+      assertFalse(first.isHibernated(), "one hibernation is enough to fit the budget");
+      SessionManager.Stats stats = manager.stats();
+      assertEquals(2, stats.resident());
+      assertEquals(1, stats.hibernated());
+    } finally {
+      release.countDown();
+      parkedFirst.join();
+      parkedSecond.join();
+    }
+
+    assertEquals("Second", second.getPlayer().getName());
+    assertEquals(1, manager.stats().wakes());
+  }
+
+  /**
+   * A busy session is skipped by the budget, even when it is the least recently used.
+   */
+  @Test
+  public void testBudgetSkipsBusySessions() throws IOException {
+    manager = new SessionManager(map, 4, 3600, 0, FOOTPRINT);
+    HibernatingModel busy = manager.open("Busy");
+    manager.open("Other");
+    assertFalse(busy.isHibernated());
+    assertEquals(2, manager.stats().resident());
+  }
+
+  /**
+   * A session parked for longer than the idle time is hibernated by the sweeper,
+   * and closing it afterwards clears the hibernated count.
+   */
+  @Test
+  public void testIdleSweep() throws Exception {
+    manager = new SessionManager(map, 4, 1, Long.MAX_VALUE, FOOTPRINT);
+    HibernatingModel idle = manager.open("Idle");
+    CountDownLatch release = new CountDownLatch(1);
+    Thread parked = park(idle, release);
+    try {
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (!idle.isHibernated() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+      }
+      assertTrue(idle.isHibernated());
+    } finally {
+      release.countDown();
+      parked.join();
+    }
+
+    manager.close(idle);
+    SessionManager.Stats stats = manager.stats();
+    assertEquals(0, stats.resident());
+    assertEquals(0, stats.hibernated());
+    assertEquals(1, stats.hibernations());
+  }
+
+  /**
+   * Parks a session on a reader that blocks until released; returns once it is parked.
+   */
+  private static Thread park(HibernatingModel session, CountDownLatch release) throws InterruptedException {
+    CountDownLatch parked = new CountDownLatch(1);
+    Readable input = buffer -> {
+      parked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return -1;
+    };
+    Thread t = new Thread(() -> {
+      try {
+        session.parkWhileReading(input).read(CharBuffer.allocate(16));
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    t.start();
+    parked.await();
+    return t;
+  }
+}
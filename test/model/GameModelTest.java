@@ -0,0 +1,72 @@
+package model;
+
+import model.events.ModelEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GameModel's change events.
+ */
+public class GameModelTest {
+
+  private GameModel model;
+  private final List<List<ModelEvent>> batches = new ArrayList<>();
+
+  /**
+   * Loads a map and creates the player before anyone subscribes, as graphics mode does.
+   */
+  @BeforeEach
+  public void setUp() throws Exception {
+    model = new GameModel();
+    model.generateWorld("resources/maps/Simple_Hallway.json");
+    model.initializePlayer("Tester");
+    model.commitTurn(); // nothing is subscribed yet, so this batch goes nowhere
+  }
+
+  /**
+   * A subscriber that joins after the player was created gets the full state on the first commit.
+   */
+  @Test
+  public void testLateSubscriberGetsInitialState() {
+    model.subscribe(batches::add);
+    model.commitTurn();
+
+    assertEquals(1, batches.size());
+    List<ModelEvent> batch = batches.get(0);
+    assertTrue(batch.contains(new ModelEvent.RoomChanged(model.getCurrentRoom().getRoomNumber())));
+    assertTrue(batch.contains(new ModelEvent.InventoryChanged()));
+    assertTrue(batch.stream().anyMatch(e -> e instanceof ModelEvent.StatusChanged));
+  }
+
+  /**
+   * Once the initial state is delivered, a turn without changes sends nothing.
+   */
+  @Test
+  public void testQuietTurnAfterInitialState() {
+    model.subscribe(batches::add);
+    model.commitTurn();
+    model.commitTurn();
+    assertEquals(1, batches.size());
+  }
+
+  /**
+   * A player notice (here, an exit opening) reaches subscribers during the call that
+   * caused it, not with the next commit.
+   */
+  @Test
+  public void testNoticeArrivesDuringCommand() {
+    model.subscribe(batches::add);
+    model.commitTurn();
+    assertTrue(model.movePlayer("N"));
+    model.commitTurn();
+    batches.clear();
+
+    assertTrue(model.answerPuzzle("Key"));
+    assertEquals(List.of(List.of(new ModelEvent.Message("Unblocked exit N to room 3"))), batches);
+  }
+}
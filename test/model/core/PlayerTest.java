@@ -6,6 +6,7 @@ import model.obstacle.Puzzle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -250,4 +251,34 @@ public class PlayerTest {
     assertTrue(dining.hasObstacle());
     assertEquals(0, player.getScore());
   }
+
+  /**
+   * Test that every recorded change and restore bumps the player's version,
+   * while reads and failed actions do not.
+   */
+  @Test
+  public void testVersionCounter() {
+    Map<Integer, Room> map = Map.of(1, roomA, 2, roomB);
+    int v = player.getVersion();
+    assertFalse(player.move("S", map));
+    player.getInventory();
+    player.getHealthStatus();
+    assertEquals(v, player.getVersion());
+
+    assertTrue(player.move("N", map));
+    assertTrue(player.getVersion() > v);
+
+    v = player.getVersion();
+    roomB.addItem(new Item("Coin", "Shiny.", 0.1, 1, 1, 1, "Clink."));
+    assertTrue(player.pickItem("Coin"));
+    assertTrue(player.getVersion() > v);
+
+    v = player.getVersion();
+    player.takeDamage(10);
+    assertTrue(player.getVersion() > v);
+
+    v = player.getVersion();
+    player.restore(100, 0, List.of());
+    assertTrue(player.getVersion() > v, "a restore records no event but still counts");
+  }
 }
@@ -132,4 +132,46 @@ public class RoomTest {
     String str = room.toString();
     assertTrue(str.contains("Room 101: Test Room"));
   }
+
+  /**
+   * Test that every change bumps the room's version and reads and no-ops do not.
+   */
+  @Test
+  public void testVersionCounter() {
+    int v = room.getVersion();
+    room.setExit("N", 102);
+    assertTrue(room.getVersion() > v);
+
+    v = room.getVersion();
+    room.addItem(new Item("Lamp", "A brass lamp.", 1.0, 1, 1, 5, "It glows."));
+    assertTrue(room.getVersion() > v);
+
+    v = room.getVersion();
+    room.getItems();
+    room.getExits();
+    room.hasObstacle();
+    assertNull(room.removeItem("Nothing"));
+    assertEquals(v, room.getVersion(), "reads and failed removals change nothing");
+
+    assertNotNull(room.removeItem("Lamp"));
+    assertTrue(room.getVersion() > v);
+
+    v = room.getVersion();
+    room.setObstacle(new Puzzle("Gate", "A forcefield.", true, 10,
+            "'OPEN'", true, false, "Blocked.", 101, "Password?"));
+    assertTrue(room.getVersion() > v);
+
+    v = room.getVersion();
+    assertTrue(room.tryClearObstacle());
+    assertTrue(room.getVersion() > v);
+    v = room.getVersion();
+    assertFalse(room.tryClearObstacle());
+    assertEquals(v, room.getVersion(), "losing the race changes nothing");
+
+    room.setDescription("Changed.");
+    assertTrue(room.getVersion() > v);
+    v = room.getVersion();
+    room.touch();
+    assertTrue(room.getVersion() > v);
+  }
 }
@@ -0,0 +1,128 @@
+package model.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import enginedriver.bench.SyntheticMaps;
+import model.elements.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that saves are rebound against the live world instead of bringing their own copies.
+ */
+public class SaveCodecTest {
+
+  private JsonObject map;
+  private WorldEngine world;
+
+  /**
+   * Builds a 3x3 map in which the items of rooms 2 and 3 share the name "Coin".
+   */
+  @BeforeEach
+  public void setUp() {
+    map = SyntheticMaps.generate(9, 1, true);
+    for (JsonElement e : map.getAsJsonArray("items")) {
+      JsonObject item = e.getAsJsonObject();
+      String name = item.get("name").getAsString();
+      if (name.equals("Item 2-0") || name.equals("Item 3-0")) {
+        item.addProperty("name", "Coin");
+      }
+    }
+    world = new WorldEngine();
+    world.generateWorld(map);
+  }
+
+  /**
+   * A round trip leaves exactly one instance of each room, and the player stands in and
+   * carries the live world's objects.
+   */
+  @Test
+  public void testRoundTripKeepsOneInstancePerRoom() throws IOException {
+    Map<Integer, Room> before = Map.copyOf(world.getWorldMap());
+    Player player = new Player("Tester", world.getRoom(5));
+    assertTrue(player.pickItem("Item 5-0"));
+    byte[] save = SaveCodec.encode(world, player);
+
+    Player restored = SaveCodec.decode(save, world);
+    assertSingleInstances(world, restored);
+    for (Map.Entry<Integer, Room> e : before.entrySet()) {
+      assertSame(e.getValue(), world.getRoom(e.getKey()), "restored in place");
+    }
+    assertEquals("Item 5-0", restored.getInventory().get(0).getName());
+    assertTrue(world.getRoom(5).getItems().isEmpty());
+
+    // Restoring into another copy of the map binds to that copy's rooms
+    WorldEngine other = new WorldEngine();
+    other.generateWorld(map);
+    assertSingleInstances(other, SaveCodec.decode(save, other));
+  }
+
+  /**
+   * Legacy saves bind items sharing a name to distinct live items, in order, each with its
+   * own uses.
+   */
+  @Test
+  public void testLegacyDuplicateNamesStaySeparate() throws IOException {
+    WorldEngine old = new WorldEngine();
+    old.generateWorld(map);
+    Item first = null;
+    Item second = null;
+    for (Item item : old.getItems()) {
+      if (item.getName().equals("Coin")) {
+        if (first == null) {
+          first = item;
+        } else {
+          second = item;
+        }
+      }
+    }
+    first.setUsesRemaining(5);
+    second.setUsesRemaining(7);
+    old.getRoom(2).setItems(List.of(first));
+    old.getRoom(3).setItems(List.of(second));
+    Player oldPlayer = new Player("Old", old.getRoom(1));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(old);
+      out.writeObject(oldPlayer);
+    }
+
+    Player restored = SaveCodec.decode(bytes.toByteArray(), world);
+    Item inRoom2 = world.getRoom(2).getItems().get(0);
+    Item inRoom3 = world.getRoom(3).getItems().get(0);
+    assertNotSame(inRoom2, inRoom3);
+    assertEquals(5, inRoom2.getUsesRemaining());
+    assertEquals(7, inRoom3.getUsesRemaining());
+    assertSingleInstances(world, restored);
+  }
+
+  private static void assertSingleInstances(WorldEngine world, Player player) {
+    Set<Room> rooms = Collections.newSetFromMap(new IdentityHashMap<>());
+    rooms.addAll(world.getWorldMap().values());
+    rooms.add(player.getCurrentRoom());
+    assertEquals(world.getWorldMap().size(), rooms.size(), "one instance per room");
+
+    Set<Item> live = Collections.newSetFromMap(new IdentityHashMap<>());
+    live.addAll(world.getItems());
+    for (Room room : world.getWorldMap().values()) {
+      for (Item item : room.getItems()) {
+        assertTrue(live.contains(item), item.getName() + " is a live item");
+      }
+    }
+    for (Item item : player.getInventory()) {
+      assertTrue(live.contains(item), item.getName() + " is a live item");
+    }
+  }
+}
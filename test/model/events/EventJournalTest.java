@@ -0,0 +1,112 @@
+package model.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.collection.PersistentVector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for journal compaction, replay and incremental reads.
+ */
+public class EventJournalTest {
+
+  private static final PlayerState START = new PlayerState(100, 0, 1, PersistentVector.empty());
+
+  private EventJournal journal;
+
+  /**
+   * Creates a journal that compacts every 4 events.
+   */
+  @BeforeEach
+  public void setUp() {
+    journal = new EventJournal(START, 4);
+  }
+
+  /**
+   * Replaying the last snapshot and the tail gives the current state, on both sides of
+   * every compaction.
+   */
+  @Test
+  public void testReplayAcrossCompactions() {
+    PlayerState expected = START;
+    for (int i = 0; i < 11; i++) {
+      GameEvent event = event(i);
+      expected = expected.apply(event);
+      journal.append(event);
+      assertEquals(expected, journal.current());
+      assertEquals(expected, journal.replay(), "after event " + (i + 1));
+    }
+    assertEquals(11, journal.getSequence());
+    assertEquals(50, journal.current().score());
+  }
+
+  /**
+   * A reader holding a snapshot gets exactly the newer events until they are compacted away.
+   */
+  @Test
+  public void testEventsSince() {
+    journal.append(event(0));
+    EventJournal.Snapshot seen = journal.snapshot();
+    journal.append(event(1));
+    journal.append(event(2));
+
+    List<GameEvent> newer = journal.eventsSince(seen.sequence());
+    assertEquals(List.of(event(1), event(2)), newer);
+    assertEquals(journal.current(), PlayerState.fold(seen.state(), newer));
+    assertEquals(List.of(), journal.eventsSince(journal.getSequence()));
+    assertNull(journal.eventsSince(journal.getSequence() + 1), "from the future");
+
+    journal.append(event(3)); // the fourth event compacts the log
+    assertNull(journal.eventsSince(seen.sequence()));
+    assertEquals(List.of(), journal.eventsSince(4));
+    journal.append(event(4));
+    assertEquals(List.of(event(4)), journal.eventsSince(4));
+  }
+
+  /**
+   * A reset restarts the log from the new state but keeps counting events.
+   */
+  @Test
+  public void testReset() {
+    journal.append(event(0));
+    journal.append(event(1));
+    PlayerState restored = new PlayerState(50, 7, 3, PersistentVector.empty());
+    journal.reset(restored);
+
+    assertEquals(restored, journal.current());
+    assertEquals(restored, journal.replay());
+    assertEquals(2, journal.getSequence());
+    assertNull(journal.eventsSince(1));
+    journal.append(event(2));
+    assertEquals(List.of(event(2)), journal.eventsSince(2));
+  }
+
+  /**
+   * Listeners see every event in order, including the one that triggers a compaction.
+   */
+  @Test
+  public void testListeners() {
+    List<GameEvent> first = new ArrayList<>();
+    List<GameEvent> second = new ArrayList<>();
+    journal.subscribe(first::add);
+    journal.subscribe(second::add);
+    List<GameEvent> appended = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      appended.add(event(i));
+      journal.append(event(i));
+    }
+    assertEquals(appended, first);
+    assertEquals(appended, second);
+  }
+
+  /**
+   * Alternates moves and points so every event changes the state.
+   */
+  private static GameEvent event(int i) {
+    return i % 2 == 0 ? new GameEvent.Moved(1 + i, 2 + i) : new GameEvent.Scored(10);
+  }
+}
@@ -0,0 +1,159 @@
+package model.history;
+
+import model.events.GameEvent;
+import model.events.PlayerState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.collection.PersistentIntMap;
+import utils.collection.PersistentVector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for undo/redo and the eviction policies.
+ */
+public class UndoHistoryTest {
+
+  private static final WorldState WORLD = new WorldState(PersistentIntMap.empty(), PersistentIntMap.empty());
+
+  private UndoHistory history;
+
+  /**
+   * Starts a deep history in room 0.
+   */
+  @BeforeEach
+  public void setUp() {
+    history = new UndoHistory(UndoHistory.DEFAULT_DEPTH, EvictionPolicy.DROP_OLDEST);
+    history.reset(at(0));
+  }
+
+  /**
+   * Undo steps back one command at a time and redo replays them.
+   */
+  @Test
+  public void testUndoRedo() {
+    history = walk(history, 3);
+    assertEquals(3, history.undoDepth());
+
+    assertEquals(2, room(history.undo()));
+    assertEquals(1, room(history.undo()));
+    assertEquals(0, room(history.undo()));
+    assertNull(history.undo());
+
+    assertEquals(1, room(history.redo()));
+    assertEquals(2, room(history.redo()));
+    assertEquals(3, room(history.redo()));
+    assertNull(history.redo());
+    assertEquals(3, room(history.current()));
+  }
+
+  /**
+   * A new command after an undo discards the redo stack.
+   */
+  @Test
+  public void testNewCommandClearsRedo() {
+    history = walk(history, 2);
+    history.undo();
+    history.onEvent(new GameEvent.Moved(1, 9));
+    history.checkpoint();
+
+    assertNull(history.redo());
+    assertEquals(1, room(history.undo()));
+  }
+
+  /**
+   * Changes not yet checkpointed are committed by undo, so redo brings them back;
+   * commands that changed nothing leave no entry.
+   */
+  @Test
+  public void testUncommittedChanges() {
+    history.checkpoint();
+    assertEquals(0, history.undoDepth());
+
+    history.onEvent(new GameEvent.Moved(0, 5));
+    assertNull(history.redo(), "nothing undone yet");
+    assertEquals(0, room(history.undo()));
+    assertEquals(5, room(history.redo()));
+  }
+
+  /**
+   * DROP_OLDEST keeps the most recent steps.
+   */
+  @Test
+  public void testDropOldest() {
+    UndoHistory h = walk(new UndoHistory(4, EvictionPolicy.DROP_OLDEST), 6);
+    assertEquals(4, h.undoDepth());
+    assertEquals(List.of(5, 4, 3, 2), undoAll(h));
+  }
+
+  /**
+   * THIN_OLDEST keeps the recent half step by step and thins the older half,
+   * so undo still reaches the start of the game.
+   */
+  @Test
+  public void testThinOldest() {
+    UndoHistory h = walk(new UndoHistory(4, EvictionPolicy.THIN_OLDEST), 6);
+    assertEquals(4, h.undoDepth());
+    assertEquals(List.of(5, 4, 1, 0), undoAll(h));
+  }
+
+  /**
+   * When thinning alone cannot reach the depth, the oldest entries are dropped as well.
+   */
+  @Test
+  public void testThinOldestFallsBackToDrop() {
+    Deque<SessionState> undo = new ArrayDeque<>();
+    for (int i = 9; i >= 0; i--) {
+      undo.addLast(at(i)); // newest first
+    }
+    EvictionPolicy.THIN_OLDEST.evict(undo, 4);
+
+    List<Integer> rooms = new ArrayList<>();
+    undo.forEach(s -> rooms.add(room(s)));
+    assertEquals(List.of(9, 8, 6, 4), rooms);
+  }
+
+  /**
+   * Policy names are case-insensitive, and unknown or missing names fall back to DROP_OLDEST.
+   */
+  @Test
+  public void testFromName() {
+    assertEquals(EvictionPolicy.THIN_OLDEST, EvictionPolicy.fromName(" thin_oldest "));
+    assertEquals(EvictionPolicy.DROP_OLDEST, EvictionPolicy.fromName("THIN-OLDEST"));
+    assertEquals(EvictionPolicy.DROP_OLDEST, EvictionPolicy.fromName(""));
+    assertEquals(EvictionPolicy.DROP_OLDEST, EvictionPolicy.fromName(null));
+  }
+
+  private static SessionState at(int room) {
+    return new SessionState(new PlayerState(100, 0, room, PersistentVector.empty()), WORLD);
+  }
+
+  private static int room(SessionState state) {
+    return state.player().roomNumber();
+  }
+
+  /**
+   * Moves from room 0 to room n, one command per step.
+   */
+  private static UndoHistory walk(UndoHistory h, int n) {
+    h.reset(at(0));
+    for (int i = 1; i <= n; i++) {
+      h.onEvent(new GameEvent.Moved(i - 1, i));
+      h.checkpoint();
+    }
+    return h;
+  }
+
+  private static List<Integer> undoAll(UndoHistory h) {
+    List<Integer> rooms = new ArrayList<>();
+    for (SessionState s = h.undo(); s != null; s = h.undo()) {
+      rooms.add(room(s));
+    }
+    return rooms;
+  }
+}
@@ -0,0 +1,154 @@
+package model.rules;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import enginedriver.bench.SyntheticMaps;
+import model.core.Player;
+import model.core.Room;
+import model.core.WorldEngine;
+import model.obstacle.Monster;
+import model.obstacle.Puzzle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compiling obstacle rules into room dispatch tables and firing them.
+ */
+public class RuleCompilerTest {
+
+  private WorldEngine engine;
+  private Room hall;
+  private Player player;
+
+  /**
+   * Builds a 3x3 map whose centre room holds a map-defined door with its own rules.
+   */
+  @BeforeEach
+  public void setUp() {
+    JsonObject root = SyntheticMaps.generate(9, 1, true);
+    for (JsonElement room : root.getAsJsonArray("rooms")) {
+      if (room.getAsJsonObject().get("room_number").getAsString().equals("5")) {
+        room.getAsJsonObject().addProperty("N", "-8"); // blocked until the door is open
+      }
+    }
+    JsonArray obstacles = new JsonArray();
+    obstacles.add(JsonParser.parseString("{"
+            + "\"name\": \"Door\", \"kind\": \"Door\", \"target\": \"5:Room 5\", \"value\": \"25\","
+            + "\"effects\": \"A humming door blocks the way north.\","
+            + "\"rules\": ["
+            + "  {\"on\": \"use\", \"match\": \"Item 5-0\", \"if\": \"active, holding\","
+            + "   \"do\": [\"clear\", \"unblock\"], \"score\": \"40\", \"message\": \"The {item} opens it.\"},"
+            + "  {\"on\": \"encounter\", \"damage\": \"-5\", \"message\": \"Sparks fly!\"},"
+            + "  {\"on\": \"use\", \"match\": \"Item 4-0\", \"do\": \"explode\"}"
+            + "]}"));
+    root.add("obstacles", obstacles);
+
+    engine = new WorldEngine();
+    engine.generateWorld(root);
+    hall = engine.getRoom(5);
+    player = new Player("Tester", hall);
+  }
+
+  /**
+   * Monsters and puzzles bring their built-in rules to the room they are placed in.
+   */
+  @Test
+  public void testBuiltInRules() {
+    Room room = new Room(1, "Lair", "Dark.");
+    room.setObstacle(new Monster("Ogre", "Big", true, 100, -15, true, "Smash!", "Sword", "Grr"));
+    assertNotNull(room.getRules().match(Trigger.USE, "sword"));
+    assertNull(room.getRules().match(Trigger.ANSWER, "sword"));
+    Rule strike = room.getRules().match(Trigger.ENCOUNTER, null);
+    assertEquals(-15, strike.damage());
+    assertEquals("Smash!", strike.message());
+
+    room.setObstacle(new Puzzle("Door", "Locked", true, 50, "'yes'", true, false, "Closed.", 1, ""));
+    assertNotNull(room.getRules().match(Trigger.ANSWER, "  YES "));
+    assertNotNull(room.getRules().match(Trigger.USE, "yes"));
+    assertNull(room.getRules().match(Trigger.ENCOUNTER, null), "the monster's rules went with it");
+  }
+
+  /**
+   * A map-defined obstacle is cleared only under its own rule's conditions.
+   */
+  @Test
+  public void testCustomObstacleRules() {
+    assertEquals("Door", hall.getObstacle().getKind());
+    assertEquals(2, hall.getRules().size(), "the rule with an unknown effect is skipped");
+
+    assertNull(player.resolve(Trigger.USE, "Item 5-0", hall), "not holding the item yet");
+    assertTrue(player.pickItem("Item 5-0"));
+
+    Resolution opened = player.resolve(Trigger.USE, "item 5-0", hall);
+    assertNotNull(opened);
+    assertEquals("The item 5-0 opens it.", opened.rule().messageFor("item 5-0"));
+    assertEquals(List.of("N"), opened.unblocked());
+    assertEquals(8, hall.getExit("N"));
+    assertFalse(hall.hasObstacle());
+    assertEquals(40, player.getScore());
+  }
+
+  /**
+   * A player whose rule fires after another player cleared the obstacle gets nothing.
+   */
+  @Test
+  public void testLostRaceIsNoResolution() {
+    Room room = new Room(1, "Vault", "Sealed.");
+    room.setExit("E", -2);
+    room.setObstacle(new Puzzle("Lock", "Locked", true, 30, "'open'", true, false, "Shut.", 1, ""));
+    // No ACTIVE condition, so the rule still matches once the lock is open
+    room.setRules(room.getRules().with(List.of(
+            new Rule(Trigger.USE, "Key", Set.of(), Set.of(Effect.CLEAR, Effect.UNBLOCK), 30, 0, "Click."))));
+    Player winner = new Player("Winner", room);
+    Player loser = new Player("Loser", room);
+
+    assertNotNull(winner.resolve(Trigger.USE, "Key", room));
+    assertNull(loser.resolve(Trigger.USE, "Key", room));
+    assertEquals(30, winner.getScore());
+    assertEquals(0, loser.getScore());
+    assertEquals(2, room.getExit("E"));
+  }
+
+  /**
+   * An encounter rule acts every turn while the obstacle is active.
+   */
+  @Test
+  public void testEncounterDamage() {
+    double before = player.getHealth();
+    assertNotNull(player.resolve(Trigger.ENCOUNTER, null, hall));
+    assertEquals(before - 5, player.getHealth());
+
+    hall.deactivateObstacle();
+    assertNull(player.resolve(Trigger.ENCOUNTER, null, hall));
+    assertEquals(before - 5, player.getHealth());
+  }
+
+  /**
+   * A later rule with the same trigger and match replaces the earlier one, and lookups
+   * find the right rule among many.
+   */
+  @Test
+  public void testDispatchTable() {
+    List<Rule> rules = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      rules.add(new Rule(Trigger.USE, "Key " + i, Set.of(), Set.of(), i, 0, ""));
+    }
+    rules.add(new Rule(Trigger.USE, "\"KEY 7\"", Set.of(), Set.of(), -1, 0, ""));
+    RoomRules table = RoomRules.of(rules);
+
+    assertEquals(10_000, table.size());
+    assertEquals(-1, table.match(Trigger.USE, "key 7").score());
+    assertEquals(9_999, table.match(Trigger.USE, "Key 9999").score());
+    assertNull(table.match(Trigger.USE, "Key 10000"));
+    assertNull(table.match(Trigger.ANSWER, "Key 1"));
+    assertNull(table.match(Trigger.USE, null));
+  }
+}
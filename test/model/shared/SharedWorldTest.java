@@ -0,0 +1,125 @@
+package model.shared;
+
+import enginedriver.bench.SharedWorldStress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.fileutil.JsonUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that players racing in one shared world never lose or duplicate an item and that
+ * each obstacle is cleared by exactly one of them.
+ */
+public class SharedWorldTest {
+
+  private PrintStream out;
+
+  /**
+   * Mutes the in-game chatter of the players.
+   */
+  @BeforeEach
+  public void setUp() {
+    out = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    System.setOut(out);
+  }
+
+  /**
+   * A short run of the stress test finds no lost or duplicated items and no obstacle with
+   * other than one winner.
+   */
+  @Test
+  public void testStressInvariants() throws Exception {
+    for (long seed = 1; seed <= 2; seed++) {
+      AtomicLong ops = new AtomicLong();
+      List<String> errors = SharedWorldStress.runRound(
+              JsonUtils.safeParseJson("resources/maps/Align_Quest_Game_Elements.json"), 8, 300, seed, ops);
+      assertEquals(List.of(), errors);
+      assertTrue(ops.get() > 0);
+    }
+  }
+
+  /**
+   * Of many players grabbing the same item at once, exactly one gets it.
+   */
+  @Test
+  public void testOneTakerPerItem() throws Exception {
+    SharedWorld world = new SharedWorld(JsonUtils.safeParseJson("resources/maps/Simple_Hallway.json"));
+    List<Boolean> taken = race(world, 8, model -> model.pickItem("Notebook"));
+    assertEquals(1, taken.stream().filter(t -> t).count());
+    assertFalse(world.getEngine().getWorldMap().get(1).getItems().stream()
+            .anyMatch(i -> i.getName().equals("Notebook")));
+  }
+
+  /**
+   * Of many players answering the same puzzle at once, exactly one solves it.
+   */
+  @Test
+  public void testOneWinnerPerObstacle() throws Exception {
+    SharedWorld world = new SharedWorld(JsonUtils.safeParseJson("resources/maps/Simple_Hallway.json"));
+    List<Boolean> solved = race(world, 8, model -> model.answerPuzzle("Key"), "N");
+    assertEquals(1, solved.stream().filter(s -> s).count());
+    assertFalse(world.getEngine().getWorldMap().get(2).getObstacle().isActive());
+  }
+
+  /**
+   * One player's move in a race.
+   */
+  private interface Action {
+    boolean run(SharedGameModel model);
+  }
+
+  /**
+   * Joins the players, walks each along the given path, then releases them all at once on the
+   * action and returns what each got.
+   */
+  private static List<Boolean> race(SharedWorld world, int count, Action action, String... path)
+          throws Exception {
+    List<SharedGameModel> models = new ArrayList<>();
+    for (int p = 0; p < count; p++) {
+      SharedGameModel model = world.join("racer" + p);
+      for (String direction : path) {
+        assertTrue(model.movePlayer(direction));
+      }
+      models.add(model);
+    }
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(count);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (SharedGameModel model : models) {
+        Callable<Boolean> task = () -> {
+          start.await();
+          return action.run(model);
+        };
+        results.add(pool.submit(task));
+      }
+      start.countDown();
+      List<Boolean> outcomes = new ArrayList<>();
+      for (Future<Boolean> result : results) {
+        outcomes.add(result.get(10, TimeUnit.SECONDS));
+      }
+      return outcomes;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package utils.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the hash array mapped trie behind the undo history.
+ */
+public class PersistentIntMapTest {
+
+  /**
+   * Keys that share their low bits are pushed down a level and both stay reachable.
+   */
+  @Test
+  public void testCollisionPushDown() {
+    // 1, 33 and 1025 share the first 5 bits; 1 and 1025 share the first 10
+    PersistentIntMap<String> map = PersistentIntMap.<String>empty().plus(1, "a").plus(33, "b").plus(1025, "c");
+
+    assertEquals(3, map.size());
+    assertEquals("a", map.get(1));
+    assertEquals("b", map.get(33));
+    assertEquals("c", map.get(1025));
+    assertNull(map.get(65), "same first slot, but absent");
+    assertNull(map.get(2049));
+  }
+
+  /**
+   * Removing one of two colliding keys collapses the branch back to a single entry.
+   */
+  @Test
+  public void testRemoveCollapsesCollision() {
+    PersistentIntMap<String> single = PersistentIntMap.<String>empty().plus(1, "a");
+    PersistentIntMap<String> pair = single.plus(1025, "c");
+
+    PersistentIntMap<String> collapsed = pair.minus(1025);
+    assertEquals(1, collapsed.size());
+    assertEquals("a", collapsed.get(1));
+    assertNull(collapsed.get(1025));
+    assertEquals(single, collapsed);
+
+    // The collapsed leaf is pushed down again by the next collision
+    PersistentIntMap<String> again = collapsed.plus(33, "b");
+    assertEquals("a", again.get(1));
+    assertEquals("b", again.get(33));
+
+    PersistentIntMap<String> empty = collapsed.minus(1);
+    assertEquals(0, empty.size());
+    assertEquals(PersistentIntMap.empty(), empty);
+  }
+
+  /**
+   * Updates leave earlier versions intact, and no-op updates return the same map.
+   */
+  @Test
+  public void testPersistence() {
+    PersistentIntMap<String> v1 = PersistentIntMap.<String>empty().plus(7, "x");
+    PersistentIntMap<String> v2 = v1.plus(7, "y").plus(-7, "z");
+
+    assertEquals("x", v1.get(7));
+    assertEquals(1, v1.size());
+    assertEquals("y", v2.get(7));
+    assertEquals("z", v2.get(-7));
+
+    String same = v2.get(7);
+    assertSame(v2, v2.plus(7, same));
+    assertSame(v2, v2.minus(8));
+    assertSame(v2, v2.minus(7 + 32), "absent key under an occupied slot");
+  }
+
+  /**
+   * A random mix of updates agrees with a HashMap.
+   */
+  @Test
+  public void testAgreesWithHashMap() {
+    Random random = new Random(42);
+    Map<Integer, Integer> expected = new HashMap<>();
+    PersistentIntMap<Integer> map = PersistentIntMap.empty();
+    for (int i = 0; i < 20_000; i++) {
+      int key = random.nextInt(4096) * (random.nextBoolean() ? 1 : -1);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.minus(key);
+      } else {
+        expected.put(key, i);
+        map = map.plus(key, i);
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+      assertEquals(e.getValue(), map.get(e.getKey()));
+    }
+    Map<Integer, Integer> visited = new HashMap<>();
+    map.forEach(visited::put);
+    assertEquals(expected, visited);
+  }
+}
@@ -0,0 +1,60 @@
+package utils.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the persistent vector that holds player inventories.
+ */
+public class PersistentVectorTest {
+
+  /**
+   * Removing the last element pops it and leaves the rest in place.
+   */
+  @Test
+  public void testPop() {
+    PersistentVector<Integer> vector = PersistentVector.of(List.of(1, 2, 3));
+    PersistentVector<Integer> popped = vector.minus(3);
+
+    assertEquals(List.of(1, 2), popped.toList());
+    assertEquals(2, popped.size());
+    assertThrows(IndexOutOfBoundsException.class, () -> popped.get(2));
+    assertEquals(List.of(1, 2, 3), vector.toList(), "the original is unchanged");
+
+    PersistentVector<Integer> empty = popped.minus(2).minus(1);
+    assertEquals(0, empty.size());
+    assertEquals(PersistentVector.empty(), empty);
+    assertEquals(List.of(4), empty.plus(4).toList());
+  }
+
+  /**
+   * Removing from the middle shifts the later elements down.
+   */
+  @Test
+  public void testRemoveShifts() {
+    PersistentVector<String> vector = PersistentVector.of(List.of("a", "b", "c", "b"));
+
+    assertEquals(List.of("a", "c", "b"), vector.minus("b").toList(), "only the first match");
+    assertEquals(List.of("b", "c", "b"), vector.minus("a").toList());
+    assertSame(vector, vector.minus("z"));
+  }
+
+  /**
+   * Appends and replacements leave earlier versions intact.
+   */
+  @Test
+  public void testSetAndAppend() {
+    PersistentVector<String> v1 = PersistentVector.of(List.of("a", "b"));
+    PersistentVector<String> v2 = v1.set(0, "x").plus("c");
+
+    assertEquals(List.of("a", "b"), v1.toList());
+    assertEquals(List.of("x", "b", "c"), v2.toList());
+    assertEquals(2, v2.indexOf("c"));
+    assertEquals(-1, v2.indexOf("a"));
+    assertSame(v1, v1.set(1, v1.get(1)));
+    assertThrows(IndexOutOfBoundsException.class, () -> v1.set(2, "c"));
+  }
+}
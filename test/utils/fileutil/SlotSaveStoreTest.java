@@ -0,0 +1,154 @@
+package utils.fileutil;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped slot store: A/B directory copies, checksums and crash recovery.
+ * Crashes are simulated by editing the closed store file the way a torn write would leave it.
+ */
+public class SlotSaveStoreTest {
+
+  // Must match the file layout documented on SlotSaveStore
+  private static final int HEADER_SIZE = 64;
+  private static final int ENTRY_SIZE = 32;
+
+  private Path file;
+
+  /**
+   * Creates an empty file for each test; the store formats it on open.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    file = Files.createTempFile("slots", ".sav");
+  }
+
+  /**
+   * Removes the store file.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * Repeated saves alternate between the A and B copies, and the newest survives a reopen.
+   */
+  @Test
+  public void testRoundTrip() throws IOException {
+    long free;
+    try (SlotSaveStore store = SlotSaveStore.open(file, 4, 4096)) {
+      store.write(1, bytes("first"));
+      store.write(1, bytes("second"));
+      store.write(1, bytes("third"));
+      store.write(2, bytes("other"));
+      store.delete(2);
+      assertEquals("third", text(store.read(1)));
+      free = store.getFreeBytes();
+    }
+
+    try (SlotSaveStore store = SlotSaveStore.open(file)) {
+      assertEquals(4, store.getSlotCount(), "geometry comes from the header");
+      assertEquals("third", text(store.read(1)));
+      assertFalse(store.contains(2), "the deletion survives too");
+      assertNull(store.read(2));
+      assertNull(store.read(0));
+      assertEquals(free, store.getFreeBytes(), "free space is rebuilt from the live records");
+    }
+  }
+
+  /**
+   * A record whose bytes no longer match its checksum is refused rather than returned.
+   */
+  @Test
+  public void testChecksumCorruption() throws IOException {
+    try (SlotSaveStore store = SlotSaveStore.open(file, 4, 4096)) {
+      store.write(0, bytes("intact save"));
+    }
+    try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+      raw.seek(entryBase(0, newestCopy(raw, 0)) + 8);
+      long record = raw.readLong();
+      raw.seek(record + 3);
+      int b = raw.read();
+      raw.seek(record + 3);
+      raw.write(b ^ 0xFF);
+    }
+
+    try (SlotSaveStore store = SlotSaveStore.open(file)) {
+      assertTrue(store.contains(0));
+      IOException e = assertThrows(IOException.class, () -> store.read(0));
+      assertTrue(e.getMessage().contains("Checksum"));
+    }
+  }
+
+  /**
+   * A directory entry torn mid-write fails its own checksum, so the slot falls back to the
+   * previous copy and its record.
+   */
+  @Test
+  public void testHalfWrittenEntryFallsBack() throws IOException {
+    try (SlotSaveStore store = SlotSaveStore.open(file, 4, 4096)) {
+      store.write(3, bytes("previous"));
+      store.write(3, bytes("interrupted"));
+    }
+    try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+      // Generation and offset reached the disk; length and checksums did not
+      raw.seek(entryBase(3, newestCopy(raw, 3)) + 16);
+      raw.write(new byte[ENTRY_SIZE - 16]);
+    }
+
+    try (SlotSaveStore store = SlotSaveStore.open(file)) {
+      assertEquals("previous", text(store.read(3)));
+      store.write(3, bytes("next"));
+      assertEquals("next", text(store.read(3)));
+    }
+    try (SlotSaveStore store = SlotSaveStore.open(file)) {
+      assertEquals("next", text(store.read(3)), "the torn copy is reused for the next save");
+    }
+  }
+
+  /**
+   * Bad slot ids and a full data region are reported as IOExceptions.
+   */
+  @Test
+  public void testLimits() throws IOException {
+    try (SlotSaveStore store = SlotSaveStore.open(file, 4, 4096)) {
+      assertThrows(IOException.class, () -> store.write(4, bytes("x")));
+      assertThrows(IOException.class, () -> store.read(-1));
+      assertThrows(IOException.class, () -> store.write(0, new byte[8192]));
+      assertNull(store.read(0), "a failed write leaves the slot as it was");
+    }
+  }
+
+  private static int entryBase(int slot, int copy) {
+    return HEADER_SIZE + (slot * 2 + copy) * ENTRY_SIZE;
+  }
+
+  /**
+   * Returns the copy of a slot's directory entry with the higher generation.
+   */
+  private static int newestCopy(RandomAccessFile raw, int slot) throws IOException {
+    raw.seek(entryBase(slot, 0));
+    long a = raw.readLong();
+    raw.seek(entryBase(slot, 1));
+    long b = raw.readLong();
+    return b > a ? 1 : 0;
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String text(byte[] data) {
+    return new String(data, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,88 @@
+package utils.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.core.Player;
+import model.core.Room;
+import model.obstacle.Puzzle;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that engine operations show up in a flight recording once enabled.
+ */
+public class EngineEventsTest {
+
+  /**
+   * A successful and a failed move each produce one RoomTransition event.
+   */
+  @Test
+  public void testRoomTransitionRecorded() throws Exception {
+    Room roomA = new Room(1, "Room A", "Generic room A for testing.");
+    Room roomB = new Room(2, "Room B", "Generic room B for testing.");
+    roomA.setExit("N", 2);
+    Player player = new Player("Tester", roomA);
+    Map<Integer, Room> map = Map.of(1, roomA, 2, roomB);
+
+    Path file = Files.createTempFile("halo", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("halo.RoomTransition").withThreshold(Duration.ZERO);
+      recording.start();
+      assertTrue(player.move("N", map));
+      assertFalse(player.move("E", map));
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+              .filter(e -> e.getEventType().getName().equals("halo.RoomTransition"))
+              .toList();
+      assertEquals(2, events.size());
+      assertEquals("N", events.get(0).getString("direction"));
+      assertEquals(2, events.get(0).getInt("toRoom"));
+      assertTrue(events.get(0).getBoolean("moved"));
+      assertEquals(2, events.get(1).getInt("fromRoom"));
+      assertFalse(events.get(1).getBoolean("moved"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Clearing an obstacle records one ObstacleResolved event per attempt, won or lost.
+   */
+  @Test
+  public void testObstacleResolvedRecorded() throws Exception {
+    Room room = new Room(1, "Room A", "Generic room A for testing.");
+    room.setObstacle(new Puzzle("Ancient Riddle", "The stones no longer glow.", true, 150, "'light'",
+            true, false, "Glowing stones block the path.", 7, "What shines but burns not?"));
+
+    Path file = Files.createTempFile("halo", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("halo.ObstacleResolved").withThreshold(Duration.ZERO);
+      recording.start();
+      assertTrue(room.tryClearObstacle());
+      assertFalse(room.tryClearObstacle());
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+              .filter(e -> e.getEventType().getName().equals("halo.ObstacleResolved"))
+              .toList();
+      assertEquals(2, events.size());
+      assertEquals("Ancient Riddle", events.get(0).getString("obstacle"));
+      assertEquals(150, events.get(0).getInt("value"));
+      assertTrue(events.get(0).getBoolean("cleared"));
+      assertFalse(events.get(1).getBoolean("cleared"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package utils.metrics;
+
+import controller.command.CommandParser;
+import controller.command.Verb;
+import model.core.HealthStatus;
+import model.core.Player;
+import model.core.PlayerRank;
+import model.core.Room;
+import model.elements.Item;
+import model.events.EventJournal;
+import model.events.GameEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the per-command hot paths against reintroduced garbage.
+ * Each path is warmed up until the JIT settles, then the bytes allocated by the
+ * measuring thread over a further loop must be zero (or, for a successful move,
+ * exactly the journal entry the move records, measured on its own). The best of a
+ * few rounds is taken, since a recompilation can land inside any single round.
+ */
+public class HotPathAllocationTest {
+
+  private static final int WARMUP = 200_000;
+  private static final int ITERATIONS = 10_000;
+  private static final int ROUNDS = 5;
+
+  private Room roomA;
+  private Room roomB;
+  private Map<Integer, Room> map;
+  private Player player;
+  // Written by the measured loops so the JIT cannot drop them as dead code
+  private int sink;
+
+  /**
+   * Two rooms joined north/south, with a couple of items in the first.
+   */
+  @BeforeEach
+  public void setUp() {
+    assumeTrue(Allocations.isSupported(), "per-thread allocation counting unavailable");
+    roomA = new Room(1, "Room A", "Generic room A for testing.");
+    roomB = new Room(2, "Room B", "Generic room B for testing.");
+    roomA.setExit("N", 2);
+    roomB.setExit("S", 1);
+    roomA.addItem(new Item("Lamp", "A lamp.", 1, 1, 1, 10, "It glows."));
+    roomA.addItem(new Item("Key", "A key.", 1, 1, 1, 10, "It turns."));
+    map = Map.of(1, roomA, 2, roomB);
+    player = new Player("Tester", roomA);
+  }
+
+  /**
+   * Exit lookups allocate nothing, in either case.
+   */
+  @Test
+  public void testGetExitDoesNotAllocate() {
+    long bytes = settled(() -> sink += roomA.getExit("N") + roomA.getExit("w"));
+    assertEquals(0L, bytes, "Room.getExit allocated");
+  }
+
+  /**
+   * Item lookups allocate nothing, hit or miss.
+   */
+  @Test
+  public void testGetItemDoesNotAllocate() {
+    long bytes = settled(() -> {
+      if (roomA.getItem("key") != null && roomA.getItem("sword") == null) {
+        sink++;
+      }
+    });
+    assertEquals(0L, bytes, "Room.getItem allocated");
+  }
+
+  /**
+   * A blocked move allocates nothing; a successful one allocates exactly what appending
+   * its journal entry does, and nothing else.
+   */
+  @Test
+  public void testMoveAllocation() {
+    long blocked = settled(() -> {
+      if (!player.move("E", map)) {
+        sink++;
+      }
+    });
+    assertEquals(0L, blocked, "Player.move allocated on a blocked move");
+
+    EventJournal journal = new EventJournal(player.getState());
+    int[] next = {0};
+    long entry = settled(() -> {
+      int from = 1 + (next[0]++ & 1);
+      journal.append(new GameEvent.Moved(from, 3 - from));
+    });
+    assertTrue(entry > 0, "a journal entry must allocate its event and state");
+
+    long moved = settled(() -> player.move(player.getCurrentRoom() == roomA ? "N" : "S", map));
+    // Compactions land at different points in the two loops, so compare per operation
+    assertEquals(entry / ITERATIONS, moved / ITERATIONS, "Player.move allocated beyond its journal entry");
+  }
+
+  /**
+   * Parsing a command line allocates nothing.
+   */
+  @Test
+  public void testCommandParsingDoesNotAllocate() {
+    CommandParser parser = new CommandParser();
+    String[] lines = {"N", "t lamp", "LOOK", "  x  Big Key ", "bogus", "u"};
+    int[] next = {0};
+    long bytes = settled(() -> {
+      if (parser.parse(lines[next[0]++ % lines.length]).verb() != Verb.UNKNOWN) {
+        sink++;
+      }
+    });
+    assertEquals(0L, bytes, "CommandParser.parse allocated");
+  }
+
+  /**
+   * Status and rank lookups allocate nothing.
+   */
+  @Test
+  public void testStatusLookupsDoNotAllocate() {
+    int[] next = {0};
+    long bytes = settled(() -> {
+      int n = next[0]++;
+      sink += HealthStatus.fromHealth(n % 120).ordinal() + PlayerRank.fromScore(n % 300).ordinal();
+    });
+    assertEquals(0L, bytes, "HealthStatus/PlayerRank lookup allocated");
+  }
+
+  /**
+   * Returns the fewest bytes allocated over ROUNDS warmed-up measurements.
+   */
+  private static long settled(Runnable op) {
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS && best > 0; round++) {
+      best = Math.min(best, Allocations.measure(op, WARMUP, ITERATIONS));
+    }
+    return best;
+  }
+}
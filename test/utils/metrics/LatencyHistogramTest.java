@@ -0,0 +1,111 @@
+package utils.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the log-linear bucketing and the percentiles read from it.
+ */
+public class LatencyHistogramTest {
+
+  /**
+   * Buckets are contiguous and ordered, and a value's bucket reports it within 1/32.
+   */
+  @Test
+  public void testIndexBounds() {
+    for (int i = 0; i < 64; i++) {
+      assertEquals(i, LatencyHistogram.index(i), "small values are exact");
+      assertEquals(i, LatencyHistogram.highestEquivalent(i));
+    }
+    int last = LatencyHistogram.index(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalent(last));
+    for (int i = 0; i < last; i++) {
+      long top = LatencyHistogram.highestEquivalent(i);
+      assertEquals(i, LatencyHistogram.index(top), "top of bucket " + i);
+      assertEquals(i + 1, LatencyHistogram.index(top + 1), "bottom of bucket " + (i + 1));
+    }
+
+    Random random = new Random(7);
+    for (int k = 0; k < 100_000; k++) {
+      long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+      long reported = LatencyHistogram.highestEquivalent(LatencyHistogram.index(value));
+      assertTrue(reported >= value);
+      assertTrue(reported - value <= value / 32, value + " reported as " + reported);
+    }
+  }
+
+  /**
+   * Percentiles of a known distribution are within the bucket resolution, and never above
+   * the largest value recorded.
+   */
+  @Test
+  public void testPercentileAccuracy() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    long[] values = new long[100_000];
+    Random random = new Random(11);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1_000 + (long) (Math.abs(random.nextGaussian()) * 5_000_000);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+
+    assertEquals(values.length, histogram.getCount());
+    for (double q : new double[] {0.01, 0.25, 0.50, 0.90, 0.99, 0.999}) {
+      long exact = values[(int) Math.ceil(q * values.length) - 1];
+      long reported = histogram.valueAt(q);
+      assertTrue(reported >= exact && reported - exact <= exact / 32,
+              "q" + q + ": exact " + exact + ", reported " + reported);
+    }
+    long max = values[values.length - 1];
+    assertEquals(max, histogram.valueAt(1.0));
+    assertEquals(max / 1000.0, histogram.getMaxMicros());
+  }
+
+  /**
+   * An empty histogram reports zeros, negative latencies count as zero, and reset clears it.
+   */
+  @Test
+  public void testEmptyAndReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.valueAt(0.5));
+    assertEquals(0, histogram.getMeanMicros());
+
+    histogram.record(-5);
+    histogram.record(3_000);
+    assertEquals(0, histogram.valueAt(0.5));
+    assertEquals(3_000, histogram.valueAt(1.0));
+    assertEquals(1.5, histogram.getMeanMicros());
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMaxMicros());
+    assertEquals(0, histogram.valueAt(0.99));
+  }
+
+  /**
+   * Concurrent recording loses no counts.
+   */
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      long base = t * 1_000L;
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 50_000; i++) {
+          histogram.record(base + i);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertEquals(200_000, histogram.getCount());
+    assertEquals(3_000 + 49_999, histogram.valueAt(1.0));
+  }
+}
@@ -0,0 +1,131 @@
+package view.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the image cache's LRU order, byte budget and negative entries.
+ * A 10x10 picture costs 400 decoded bytes.
+ */
+public class ImageCacheTest {
+
+  private final List<Path> files = new ArrayList<>();
+  private ImageCache cache;
+
+  /**
+   * Creates a cache with room for two 10x10 pictures.
+   */
+  @BeforeEach
+  public void setUp() {
+    cache = new ImageCache(800, 1);
+  }
+
+  /**
+   * Removes the pictures written by the test.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    for (Path file : files) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Going over budget evicts the least recently used entry, not the oldest inserted.
+   */
+  @Test
+  public void testLeastRecentlyUsedEviction() throws IOException {
+    ImageCache.Key a = key(picture(10));
+    ImageCache.Key b = key(picture(10));
+    ImageCache.Key c = key(picture(10));
+
+    assertNotNull(cache.get(a));
+    assertNotNull(cache.get(b));
+    assertNotNull(cache.get(a)); // a is now more recent than b
+    assertNotNull(cache.load(c).join());
+
+    assertTrue(cache.isCached(a));
+    assertFalse(cache.isCached(b));
+    assertTrue(cache.isCached(c));
+    ImageCache.Stats stats = cache.stats();
+    assertEquals(1, stats.evictions());
+    assertEquals(800, stats.bytes());
+    assertEquals(2, stats.entries());
+    assertEquals(1, stats.hits());
+    assertEquals(3, stats.misses());
+  }
+
+  /**
+   * Entries are charged at their scaled size, and a picture larger than the whole budget
+   * is still kept, alone.
+   */
+  @Test
+  public void testBudget() throws IOException {
+    Path big = picture(20);
+    BufferedImage scaled = cache.get(new ImageCache.Key(big.toString(), 5, 0));
+    assertEquals(5, scaled.getWidth());
+    assertEquals(100, cache.stats().bytes());
+
+    assertNotNull(cache.get(key(picture(10))));
+    assertNotNull(cache.get(key(big)));
+    ImageCache.Stats stats = cache.stats();
+    assertEquals(1, stats.entries());
+    assertEquals(1600, stats.bytes());
+    assertEquals(2, stats.evictions());
+    assertTrue(cache.isCached(key(big)));
+  }
+
+  /**
+   * A missing file is remembered, so the next lookup does not touch the disk.
+   */
+  @Test
+  public void testMissingFileIsCached() {
+    ImageCache.Key missing = new ImageCache.Key("no/such/picture.png", 0, 0);
+    assertNull(cache.get(missing));
+    assertTrue(cache.isCached(missing));
+    assertNull(cache.load(missing).join());
+    assertEquals(1, cache.stats().negativeHits());
+  }
+
+  /**
+   * A file that exists but cannot be decoded is not remembered, so it is read again once fixed.
+   */
+  @Test
+  public void testUnreadableFileIsRetried() throws IOException {
+    Path file = Files.createTempFile("broken", ".png");
+    files.add(file);
+    Files.writeString(file, "not a picture");
+    ImageCache.Key key = key(file);
+
+    assertNull(cache.get(key));
+    assertFalse(cache.isCached(key));
+
+    ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), "png", file.toFile());
+    BufferedImage image = cache.load(key).join();
+    assertNotNull(image);
+    assertEquals(10, image.getWidth());
+    assertTrue(cache.isCached(key));
+  }
+
+  private Path picture(int size) throws IOException {
+    Path file = Files.createTempFile("picture", ".png");
+    files.add(file);
+    ImageIO.write(new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB), "png", file.toFile());
+    return file;
+  }
+
+  private static ImageCache.Key key(Path file) {
+    return new ImageCache.Key(file.toString(), 0, 0);
+  }
+}